@@ -1,17 +1,26 @@
 package com.zornflow.application.configuration;
 
+import com.zornflow.domain.common.service.ExecutionListener;
 import com.zornflow.domain.process.repository.ProcessChainRepository;
 import com.zornflow.domain.process.service.GatewayProcessor;
 import com.zornflow.domain.process.service.ProcessOrchestrationService;
 import com.zornflow.domain.process.service.impl.DefaultProcessOrchestrationService;
+import com.zornflow.domain.rule.repository.RuleChainCheckpointRepository;
 import com.zornflow.domain.rule.repository.RuleChainRepository;
+import com.zornflow.domain.rule.service.AggregateStateStore;
 import com.zornflow.domain.rule.service.ConditionEvaluator;
 import com.zornflow.domain.rule.service.HandlerExecutorFactory;
+import com.zornflow.domain.rule.service.ReferenceDataProvider;
 import com.zornflow.domain.rule.service.RuleChainExecutionService;
 import com.zornflow.domain.rule.service.impl.DefaultRuleChainExecutionService;
+import com.zornflow.domain.rule.service.impl.ReferenceDataPrefetcher;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * description
  *
@@ -23,12 +32,32 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ApplicationConfig {
 
+  /**
+   * 参考数据预取使用的执行器，预取多为 IO 密集的远程调用，使用虚拟线程
+   */
+  @Bean(destroyMethod = "close")
+  public ExecutorService referenceDataPrefetchExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  @Bean
+  public ReferenceDataPrefetcher referenceDataPrefetcher(
+    ObjectProvider<ReferenceDataProvider> referenceDataProviders,
+    ExecutorService referenceDataPrefetchExecutor
+  ) {
+    return new ReferenceDataPrefetcher(referenceDataProviders.orderedStream().toList(), referenceDataPrefetchExecutor);
+  }
+
   @Bean
   public RuleChainExecutionService ruleChainExecutionService(
     ConditionEvaluator conditionEvaluator,
-    HandlerExecutorFactory handlerExecutorFactory
+    HandlerExecutorFactory handlerExecutorFactory,
+    ReferenceDataPrefetcher referenceDataPrefetcher,
+    RuleChainCheckpointRepository ruleChainCheckpointRepository,
+    ObjectProvider<ExecutionListener> executionListeners
   ) {
-    return new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory);
+    return new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, referenceDataPrefetcher,
+      ruleChainCheckpointRepository, composite(executionListeners));
   }
 
   @Bean
@@ -36,7 +65,17 @@ public class ApplicationConfig {
     ProcessChainRepository definitionRepository,
     RuleChainRepository ruleChainRepository,
     RuleChainExecutionService ruleChainExecutionService,
-    GatewayProcessor gatewayProcessor) {
-    return new DefaultProcessOrchestrationService(definitionRepository, ruleChainRepository, ruleChainExecutionService, gatewayProcessor);
+    GatewayProcessor gatewayProcessor,
+    AggregateStateStore aggregateStateStore,
+    ObjectProvider<ExecutionListener> executionListeners) {
+    return new DefaultProcessOrchestrationService(definitionRepository, ruleChainRepository, ruleChainExecutionService,
+      gatewayProcessor, aggregateStateStore, composite(executionListeners));
+  }
+
+  /**
+   * 将容器中所有监听器组合为一个；没有注册任何监听器时为 NOOP，规则执行热路径不产生任何监听开销
+   */
+  private static ExecutionListener composite(ObjectProvider<ExecutionListener> executionListeners) {
+    return ExecutionListener.composite(executionListeners.orderedStream().toList());
   }
 }
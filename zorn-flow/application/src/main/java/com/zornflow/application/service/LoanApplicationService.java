@@ -4,6 +4,7 @@ import com.zornflow.application.dto.loan.ApproveRequest;
 import com.zornflow.application.dto.loan.LoanApplicationResponse;
 import com.zornflow.application.dto.loan.SubmitLoanApplicationRequest;
 import com.zornflow.application.exception.EntityNotFoundException;
+import com.zornflow.domain.common.types.CancellationToken;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.loan.model.LoanApplication;
 import com.zornflow.domain.loan.model.LoanApplicationId;
@@ -36,6 +37,15 @@ public class LoanApplicationService {
    */
   @Transactional
   public LoanApplicationResponse submitNewApplication(SubmitLoanApplicationRequest request) {
+    return submitNewApplication(request, CancellationToken.NONE);
+  }
+
+  /**
+   * 业务用例：提交一个新的贷款申请，调用方放弃请求（断开连接、超时）时停止流程引擎的执行。
+   * 取消时抛出 {@link java.util.concurrent.CancellationException}，事务随之回滚。
+   */
+  @Transactional
+  public LoanApplicationResponse submitNewApplication(SubmitLoanApplicationRequest request, CancellationToken cancellationToken) {
     // 1. 创建业务聚合根
     LoanApplication application = new LoanApplication(request.applicantName(), request.claimAmount());
 
@@ -66,7 +76,7 @@ public class LoanApplicationService {
     processInstanceRepository.save(processInstance);
 
     // 7. 立即驱动流程引擎执行第一步
-    processOrchestrationService.executeNextStep(processInstance);
+    processOrchestrationService.executeNextStep(processInstance, cancellationToken);
 
     // 8. 再次持久化流程实例的最新状态
     processInstanceRepository.save(processInstance);
@@ -9,3 +9,10 @@ dependencies {
   implementation("org.springframework.boot:spring-boot-starter-jooq")
   annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
 }
+
+// 以 -Pzornflow.vectorApi=true 构建时 infrastructure 包含列式条件求值的 Vector API 内核，运行时需要启用孵化模块
+if (providers.gradleProperty("zornflow.vectorApi").map(String::toBoolean).getOrElse(false)) {
+  tasks.withType<JavaExec>().configureEach {
+    jvmArgs("--add-modules=jdk.incubator.vector")
+  }
+}
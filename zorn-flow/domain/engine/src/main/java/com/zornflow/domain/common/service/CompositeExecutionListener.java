@@ -0,0 +1,95 @@
+package com.zornflow.domain.common.service;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.process.entity.ProcessInstance;
+import com.zornflow.domain.process.entity.ProcessNode;
+import com.zornflow.domain.process.types.ProcessNodeId;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 按注册顺序依次通知多个监听器；结束类回调按相反顺序通知，使监听器像嵌套的拦截器一样成对出现。
+ * 某个监听器抛出异常时（例如资源计量超出配额时中止规则链）其余监听器仍会收到通知，
+ * 全部通知完毕后再抛出第一个异常，之后的异常作为被抑制的异常附加在它上面
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 16:52
+ **/
+
+final class CompositeExecutionListener implements ExecutionListener {
+
+  private final ExecutionListener[] listeners;
+
+  CompositeExecutionListener(List<ExecutionListener> listeners) {
+    this.listeners = listeners.toArray(ExecutionListener[]::new);
+  }
+
+  @Override
+  public void onChainStart(RuleChain ruleChain, BusinessContext context) {
+    notifyInOrder(listener -> listener.onChainStart(ruleChain, context));
+  }
+
+  @Override
+  public void onChainEnd(RuleChain ruleChain, BusinessContext context, Throwable failure) {
+    notifyInReverse(listener -> listener.onChainEnd(ruleChain, context, failure));
+  }
+
+  @Override
+  public void onRuleMatched(RuleChain ruleChain, Rule rule, BusinessContext context) {
+    notifyInOrder(listener -> listener.onRuleMatched(ruleChain, rule, context));
+  }
+
+  @Override
+  public void onHandlerStart(Rule rule, BusinessContext context) {
+    notifyInOrder(listener -> listener.onHandlerStart(rule, context));
+  }
+
+  @Override
+  public void onHandlerInvoked(Rule rule, BusinessContext context, long elapsedNanos, Throwable failure) {
+    notifyInReverse(listener -> listener.onHandlerInvoked(rule, context, elapsedNanos, failure));
+  }
+
+  @Override
+  public void onNodeTransition(ProcessInstance instance, ProcessNode from, ProcessNodeId to) {
+    notifyInOrder(listener -> listener.onNodeTransition(instance, from, to));
+  }
+
+  private void notifyInOrder(Consumer<ExecutionListener> callback) {
+    RuntimeException failure = null;
+    for (ExecutionListener listener : listeners) {
+      failure = notify(listener, callback, failure);
+    }
+    rethrow(failure);
+  }
+
+  private void notifyInReverse(Consumer<ExecutionListener> callback) {
+    RuntimeException failure = null;
+    for (int i = listeners.length - 1; i >= 0; i--) {
+      failure = notify(listeners[i], callback, failure);
+    }
+    rethrow(failure);
+  }
+
+  private static RuntimeException notify(ExecutionListener listener, Consumer<ExecutionListener> callback, RuntimeException failure) {
+    try {
+      callback.accept(listener);
+      return failure;
+    } catch (RuntimeException e) {
+      if (failure == null) {
+        return e;
+      }
+      failure.addSuppressed(e);
+      return failure;
+    }
+  }
+
+  private static void rethrow(RuntimeException failure) {
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.zornflow.domain.common.service;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.process.entity.ProcessInstance;
+import com.zornflow.domain.process.entity.ProcessNode;
+import com.zornflow.domain.process.types.ProcessNodeId;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+
+import java.util.List;
+
+/**
+ * 规则引擎与流程引擎的执行监听器 SPI
+ * 指标、链路追踪、审计等横切关注点通过实现该接口接入，所有回调都有空的默认实现。
+ * 回调在执行线程上同步调用，实现应尽量轻量，且不应抛出异常；
+ * 有意中止执行的监听器（例如处理器超出资源配额）抛出的异常会使规则链执行失败
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 16:40
+ **/
+
+public interface ExecutionListener {
+
+  /**
+   * 不做任何事的监听器，未注册监听器时使用，执行引擎据此在编译执行计划时跳过所有监听逻辑
+   */
+  ExecutionListener NOOP = new ExecutionListener() {
+  };
+
+  /**
+   * 规则链开始执行
+   */
+  default void onChainStart(RuleChain ruleChain, BusinessContext context) {
+  }
+
+  /**
+   * 规则链执行结束
+   *
+   * @param failure 执行失败时的异常，成功时为 null
+   */
+  default void onChainEnd(RuleChain ruleChain, BusinessContext context, Throwable failure) {
+  }
+
+  /**
+   * 规则条件成立，即将执行其处理器
+   */
+  default void onRuleMatched(RuleChain ruleChain, Rule rule, BusinessContext context) {
+  }
+
+  /**
+   * 处理器即将在当前线程上开始执行
+   */
+  default void onHandlerStart(Rule rule, BusinessContext context) {
+  }
+
+  /**
+   * 处理器执行完毕，与 {@link #onHandlerStart} 在同一线程上成对调用
+   *
+   * @param elapsedNanos 处理器执行耗时（纳秒）
+   * @param failure      执行失败时的异常，成功时为 null
+   */
+  default void onHandlerInvoked(Rule rule, BusinessContext context, long elapsedNanos, Throwable failure) {
+  }
+
+  /**
+   * 流程实例从一个节点流转到下一个节点
+   *
+   * @param to 下一个节点，为 null 时表示流程结束
+   */
+  default void onNodeTransition(ProcessInstance instance, ProcessNode from, ProcessNodeId to) {
+  }
+
+  /**
+   * 将多个监听器组合为一个，没有监听器时返回 {@link #NOOP}
+   */
+  static ExecutionListener composite(List<? extends ExecutionListener> listeners) {
+    return switch (listeners.size()) {
+      case 0 -> NOOP;
+      case 1 -> listeners.getFirst();
+      default -> new CompositeExecutionListener(List.copyOf(listeners));
+    };
+  }
+}
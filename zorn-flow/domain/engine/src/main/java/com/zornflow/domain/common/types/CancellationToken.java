@@ -0,0 +1,144 @@
+package com.zornflow.domain.common.types;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 协作式取消令牌
+ * 由调用方（例如 Web 层在客户端断开或超时时）触发取消，引擎在规则之间检查令牌，
+ * 并通过 {@link #onCancel} / {@link #propagateTo} 把取消传递给异步执行的处理器。
+ * 同一个令牌会经过一次执行中的所有处理器调用，每次调用注册的回调在调用结束时注销，回调数量不随调用次数增长
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 19:20
+ **/
+
+public final class CancellationToken {
+
+  /**
+   * 永远不会被取消的令牌，调用方不关心取消时使用
+   */
+  public static final CancellationToken NONE = new CancellationToken(false);
+
+  private final boolean cancellable;
+  private final Set<Callback> callbacks = ConcurrentHashMap.newKeySet();
+  private volatile String reason;
+
+  private CancellationToken(boolean cancellable) {
+    this.cancellable = cancellable;
+  }
+
+  public static CancellationToken create() {
+    return new CancellationToken(true);
+  }
+
+  /**
+   * 触发取消，只有第一次调用生效；已注册的回调在调用线程上执行
+   *
+   * @param reason 取消原因，例如 "client disconnected"
+   */
+  public void cancel(String reason) {
+    if (!cancellable) {
+      return;
+    }
+    synchronized (this) {
+      if (this.reason != null) {
+        return;
+      }
+      this.reason = reason != null ? reason : "cancelled";
+    }
+    callbacks.forEach(Callback::run);
+    // 取消之后不会再有新回调，释放已执行的回调
+    callbacks.clear();
+  }
+
+  public boolean isCancelled() {
+    return reason != null;
+  }
+
+  public String reason() {
+    return reason;
+  }
+
+  /**
+   * 已被取消时抛出 {@link CancellationException}
+   */
+  public void throwIfCancelled() {
+    String current = reason;
+    if (current != null) {
+      throw new CancellationException("Execution cancelled: " + current);
+    }
+  }
+
+  /**
+   * 注册取消回调；令牌已被取消时立即在当前线程上执行
+   *
+   * @return 回调的注册，回调所保护的工作结束后关闭，令牌不再持有该回调
+   */
+  public Registration onCancel(Runnable callback) {
+    if (!cancellable) {
+      return Registration.NONE;
+    }
+    synchronized (this) {
+      if (reason == null) {
+        Callback registration = new Callback(callback);
+        callbacks.add(registration);
+        return registration;
+      }
+    }
+    callback.run();
+    return Registration.NONE;
+  }
+
+  /**
+   * 令牌被取消时一并取消给定的异步任务；任务完成后自动注销
+   *
+   * @return 传入的 future，便于链式调用
+   */
+  public <T> CompletableFuture<T> propagateTo(CompletableFuture<T> future) {
+    Registration registration = onCancel(() -> future.cancel(true));
+    future.whenComplete((value, failure) -> registration.close());
+    return future;
+  }
+
+  /**
+   * 当前注册的回调数
+   */
+  int callbackCount() {
+    return callbacks.size();
+  }
+
+  /**
+   * 取消回调的注册，可用于 try-with-resources；重复关闭无副作用
+   */
+  @FunctionalInterface
+  public interface Registration extends AutoCloseable {
+
+    Registration NONE = () -> {
+    };
+
+    @Override
+    void close();
+  }
+
+  private final class Callback implements Registration {
+
+    private final Runnable action;
+
+    private Callback(Runnable action) {
+      this.action = action;
+    }
+
+    void run() {
+      action.run();
+    }
+
+    @Override
+    public void close() {
+      callbacks.remove(this);
+    }
+  }
+}
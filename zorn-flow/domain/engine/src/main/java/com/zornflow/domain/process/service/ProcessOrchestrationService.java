@@ -1,5 +1,6 @@
 package com.zornflow.domain.process.service;
 
+import com.zornflow.domain.common.types.CancellationToken;
 import com.zornflow.domain.process.entity.ProcessInstance;
 
 /**
@@ -12,4 +13,14 @@ import com.zornflow.domain.process.entity.ProcessInstance;
 
 public interface ProcessOrchestrationService {
   void executeNextStep(ProcessInstance instance);
+
+  /**
+   * 执行流程实例下一步，调用方通过取消令牌放弃执行时抛出 {@link java.util.concurrent.CancellationException}
+   *
+   * @param instance          流程实例聚合根（将被直接修改）
+   * @param cancellationToken 调用方的取消令牌
+   */
+  default void executeNextStep(ProcessInstance instance, CancellationToken cancellationToken) {
+    executeNextStep(instance);
+  }
 }
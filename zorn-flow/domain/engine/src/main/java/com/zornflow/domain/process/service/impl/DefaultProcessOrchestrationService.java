@@ -1,5 +1,7 @@
 package com.zornflow.domain.process.service.impl;
 
+import com.zornflow.domain.common.service.ExecutionListener;
+import com.zornflow.domain.common.types.CancellationToken;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.process.entity.ProcessChain;
 import com.zornflow.domain.process.entity.ProcessInstance;
@@ -10,9 +12,11 @@ import com.zornflow.domain.process.service.ProcessOrchestrationService;
 import com.zornflow.domain.process.valueobject.NodeType;
 import com.zornflow.domain.rule.entity.RuleChain;
 import com.zornflow.domain.rule.repository.RuleChainRepository;
+import com.zornflow.domain.rule.service.AggregateStateStore;
 import com.zornflow.domain.rule.service.RuleChainExecutionService;
-import lombok.RequiredArgsConstructor;
+import com.zornflow.domain.rule.valueobject.ExecutionScope;
 
+import java.time.Instant;
 import java.util.Objects;
 
 /**
@@ -22,12 +26,54 @@ import java.util.Objects;
  * @version 1.0
  * @since 2025/8/25 23:13
  **/
-@RequiredArgsConstructor
 public class DefaultProcessOrchestrationService implements ProcessOrchestrationService {
   private final ProcessChainRepository definitionRepository;
   private final RuleChainRepository ruleChainRepository;
   private final RuleChainExecutionService ruleChainExecutionService;
   private final GatewayProcessor gatewayProcessor;
+  private final AggregateStateStore aggregateStateStore;
+  /**
+   * 未注册监听器时为 null，构造时确定，节点流转时不再通知
+   */
+  private final ExecutionListener executionListener;
+
+  public DefaultProcessOrchestrationService(ProcessChainRepository definitionRepository,
+                                            RuleChainRepository ruleChainRepository,
+                                            RuleChainExecutionService ruleChainExecutionService,
+                                            GatewayProcessor gatewayProcessor) {
+    this(definitionRepository, ruleChainRepository, ruleChainExecutionService, gatewayProcessor, null);
+  }
+
+  /**
+   * @param aggregateStateStore 滑动窗口聚合状态存储，为 null 时不记录聚合事件
+   */
+  public DefaultProcessOrchestrationService(ProcessChainRepository definitionRepository,
+                                            RuleChainRepository ruleChainRepository,
+                                            RuleChainExecutionService ruleChainExecutionService,
+                                            GatewayProcessor gatewayProcessor,
+                                            AggregateStateStore aggregateStateStore) {
+    this(definitionRepository, ruleChainRepository, ruleChainExecutionService, gatewayProcessor, aggregateStateStore, null);
+  }
+
+  /**
+   * @param aggregateStateStore 滑动窗口聚合状态存储，为 null 时不记录聚合事件
+   * @param executionListener   执行监听器，为 null 时不做监听
+   */
+  public DefaultProcessOrchestrationService(ProcessChainRepository definitionRepository,
+                                            RuleChainRepository ruleChainRepository,
+                                            RuleChainExecutionService ruleChainExecutionService,
+                                            GatewayProcessor gatewayProcessor,
+                                            AggregateStateStore aggregateStateStore,
+                                            ExecutionListener executionListener) {
+    this.definitionRepository = definitionRepository;
+    this.ruleChainRepository = ruleChainRepository;
+    this.ruleChainExecutionService = ruleChainExecutionService;
+    this.gatewayProcessor = gatewayProcessor;
+    this.aggregateStateStore = aggregateStateStore;
+    this.executionListener = executionListener != null && executionListener != ExecutionListener.NOOP
+      ? executionListener
+      : null;
+  }
 
   /**
    * 执行流程实例下一步
@@ -35,7 +81,20 @@ public class DefaultProcessOrchestrationService implements ProcessOrchestrationS
    * @param instance 流程实例聚合根（将被直接修改）
    */
   public void executeNextStep(ProcessInstance instance) {
+    executeNextStep(instance, CancellationToken.NONE);
+  }
+
+  /**
+   * 执行流程实例下一步，取消令牌会一直传递到规则链执行和处理器
+   *
+   * @param instance          流程实例聚合根（将被直接修改）
+   * @param cancellationToken 调用方的取消令牌
+   */
+  @Override
+  public void executeNextStep(ProcessInstance instance, CancellationToken cancellationToken) {
     Objects.requireNonNull(instance, "ProcessInstance cannot be null.");
+    Objects.requireNonNull(cancellationToken, "CancellationToken cannot be null.");
+    cancellationToken.throwIfCancelled();
 
     // 1. 获取流程定义
     ProcessChain definition = definitionRepository.findById(instance.getProcessChainId())
@@ -44,9 +103,15 @@ public class DefaultProcessOrchestrationService implements ProcessOrchestrationS
     // 2. 获取当前节点定义
     ProcessNode currentNode = definition.getNodeById(instance.getCurrentNodeId());
 
+    // 流程实例从起始节点开始处理时，将其计入滑动窗口聚合（本次事件也会被后续规则的聚合条件看到）；
+    // 以实例 ID 去重，起始节点重试、续跑或重新执行时不会重复计数
+    if (aggregateStateStore != null && currentNode.getId().equals(definition.getStartNodeId())) {
+      aggregateStateStore.record(instance.getId().value(), instance.getContext(), Instant.now());
+    }
+
     // 3. 使用 JDK 21 的模式匹配 switch 处理不同类型的节点
     switch (currentNode.getType()) {
-      case NodeType.BUSINESS, NodeType.APPROVAL -> handleBusinessNode(instance, currentNode);
+      case NodeType.BUSINESS, NodeType.APPROVAL -> handleBusinessNode(instance, currentNode, cancellationToken);
       case NodeType.GATEWAY -> handleGatewayNode(instance, currentNode);
       default -> throw new UnsupportedOperationException("Unsupported node type: " + currentNode.getType());
     }
@@ -55,16 +120,21 @@ public class DefaultProcessOrchestrationService implements ProcessOrchestrationS
   /**
    * 处理业务节点（包括审批节点，因其核心逻辑也是执行规则链）
    */
-  private void handleBusinessNode(ProcessInstance instance, ProcessNode node) {
+  private void handleBusinessNode(ProcessInstance instance, ProcessNode node, CancellationToken cancellationToken) {
     BusinessContext finalContext = instance.getContext();
 
     if (node.getRuleChainId() != null) {
       RuleChain ruleChain = ruleChainRepository.findById(node.getRuleChainId())
         .orElseThrow(() -> new IllegalStateException("RuleChainDefinition not found: " + node.getRuleChainId()));
-      finalContext = ruleChainExecutionService.execute(ruleChain, instance.getContext());
+      // 以 "流程实例/节点" 标识本次执行，节点执行中断后重新执行时可从规则链检查点续跑
+      var scope = ExecutionScope.of(instance.getId().value() + "/" + node.getId().value(), cancellationToken);
+      finalContext = ruleChainExecutionService.execute(ruleChain, instance.getContext(), scope);
     }
 
     instance.moveToNextNode(node.getNextNodeId(), finalContext);
+    if (executionListener != null) {
+      executionListener.onNodeTransition(instance, node, node.getNextNodeId());
+    }
   }
 
   /**
@@ -76,6 +146,9 @@ public class DefaultProcessOrchestrationService implements ProcessOrchestrationS
 
     // 更新实例状态，移动到网关决策出的下一个节点
     instance.moveToNextNode(nextNodeId, instance.getContext());
+    if (executionListener != null) {
+      executionListener.onNodeTransition(instance, node, nextNodeId);
+    }
   }
 
 }
@@ -76,6 +76,7 @@ public class RuleChain extends AggregateRoot<RuleChainId> {
 
     ruleIndex.put(rule.getId(), rule);
     // 不再需要调用 sortRulesByPriority()
+    markUpdated();
   }
 
   /**
@@ -89,6 +90,7 @@ public class RuleChain extends AggregateRoot<RuleChainId> {
     Rule removed = ruleIndex.remove(ruleId);
     if (removed != null) {
       rules.remove(removed);
+      markUpdated();
     }
     return removed;
   }
@@ -0,0 +1,32 @@
+package com.zornflow.domain.rule.repository;
+
+import com.zornflow.domain.rule.types.RuleChainId;
+import com.zornflow.domain.rule.valueobject.RuleChainCheckpoint;
+
+import java.util.Optional;
+
+/**
+ * 规则链执行检查点仓库接口
+ * 每个 "执行标识 + 规则链" 最多保留一个（最新的）检查点
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 14:31
+ **/
+
+public interface RuleChainCheckpointRepository {
+
+  Optional<RuleChainCheckpoint> find(String executionKey, RuleChainId ruleChainId);
+
+  /**
+   * 保存检查点，覆盖同一执行的旧检查点
+   */
+  void save(RuleChainCheckpoint checkpoint);
+
+  void delete(String executionKey, RuleChainId ruleChainId);
+
+  /**
+   * 删除规则链的全部检查点，规则链的新版本不再声明检查点规则时用于清理旧版本留下的检查点
+   */
+  void deleteByRuleChain(RuleChainId ruleChainId);
+}
@@ -0,0 +1,65 @@
+package com.zornflow.domain.rule.service;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 滑动窗口聚合状态存储 SPI
+ * 以实体（如申请人、设备）为键，增量维护按时间分桶的计数、求和与去重计数，
+ * 使规则条件中的 "30天内理赔超过3次" 之类的聚合判断无需每次查询数据库
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 9:41
+ **/
+
+public interface AggregateStateStore {
+
+  /**
+   * 按照存储配置的聚合订阅，从业务上下文中提取实体和度量值并记录一次事件
+   * 同一事件标识在保留时长内只记录一次，流程实例重试、从检查点续跑或重新执行时不会重复计数
+   *
+   * @param eventId 事件标识，例如流程实例 ID
+   * @param context 流程实例的业务上下文
+   * @param at      事件发生时间
+   * @return 本次是否记录；事件标识已记录过时为 false
+   */
+  boolean record(String eventId, BusinessContext context, Instant at);
+
+  /**
+   * 记录一次事件：计数加一，求和累加 value
+   *
+   * @param metric    度量名称，例如 claims
+   * @param entityKey 实体键，例如申请人标识
+   * @param value     累加值，仅计数时传 0
+   * @param at        事件发生时间
+   */
+  void increment(String metric, String entityKey, double value, Instant at);
+
+  /**
+   * 记录一个用于去重计数的成员
+   *
+   * @param metric    度量名称，例如 devices
+   * @param entityKey 实体键
+   * @param member    成员，例如设备号
+   * @param at        事件发生时间
+   */
+  void addDistinct(String metric, String entityKey, String member, Instant at);
+
+  /**
+   * 窗口内的事件次数
+   */
+  long count(String metric, String entityKey, Duration window);
+
+  /**
+   * 窗口内的累加值
+   */
+  double sum(String metric, String entityKey, Duration window);
+
+  /**
+   * 窗口内去重后的成员数量（近似值）
+   */
+  long distinctCount(String metric, String entityKey, Duration window);
+}
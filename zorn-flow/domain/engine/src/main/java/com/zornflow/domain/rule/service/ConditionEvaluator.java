@@ -3,6 +3,10 @@ package com.zornflow.domain.rule.service;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.rule.types.Condition;
 
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * 条件表达式求值器接口
  * 负责解析和执行规则中的Condition表达式
@@ -14,4 +18,31 @@ import com.zornflow.domain.rule.types.Condition;
 
 public interface ConditionEvaluator {
   boolean evaluate(Condition condition, BusinessContext context);
+
+  /**
+   * 条件的结果与业务数据无关时（恒真或恒假）返回该结果，规则链编译执行计划时据此省去求值：
+   * 恒假的规则不进入执行计划，恒真的规则直接执行处理器
+   * 默认只识别布尔字面量，实现可以做更完整的常量折叠
+   *
+   * @return 恒定结果，无法确定时为空
+   */
+  default Optional<Boolean> constantResult(Condition condition) {
+    return condition == null ? Optional.empty() : condition.literalValue();
+  }
+
+  /**
+   * 批量求值：同一个条件在一批业务上下文上求值，用于批量重新评分等场景
+   * 默认逐个调用 {@link #evaluate}，实现可以把条件引用的字段抽取为列后批量计算
+   *
+   * @return 第 i 位为 1 表示 contexts.get(i) 满足条件
+   */
+  default BitSet evaluateAll(Condition condition, List<BusinessContext> contexts) {
+    BitSet matches = new BitSet(contexts.size());
+    for (int i = 0; i < contexts.size(); i++) {
+      if (evaluate(condition, contexts.get(i))) {
+        matches.set(i);
+      }
+    }
+    return matches;
+  }
 }
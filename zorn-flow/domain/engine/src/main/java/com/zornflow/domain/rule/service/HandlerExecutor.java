@@ -1,6 +1,8 @@
 package com.zornflow.domain.rule.service;
 
+import com.zornflow.domain.common.types.CancellationToken;
 import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
 import com.zornflow.domain.rule.valueobject.Handler;
 
 /**
@@ -21,11 +23,48 @@ public interface HandlerExecutor {
    */
   void execute(Handler handler, BusinessContext context);
 
+  /**
+   * 带取消令牌执行规则处理
+   * 同步执行器可以直接使用默认实现；把工作交给其他线程或远程调用的执行器应覆盖此方法，
+   * 通过 {@link CancellationToken#propagateTo} 在调用方放弃请求时取消异步工作
+   *
+   * @param handler           规则配置
+   * @param context           执行上下文
+   * @param cancellationToken 调用方的取消令牌
+   */
+  default void execute(Handler handler, BusinessContext context, CancellationToken cancellationToken) {
+    execute(handler, context);
+  }
+
+  /**
+   * 预先解析处理器，加载配置时调用，使无法执行的处理器在发布配置之前暴露出来；
+   * 解析结果由执行器缓存，执行时不再查找
+   *
+   * @param handler 规则配置
+   * @throws IllegalArgumentException 处理器无法解析
+   */
+  default void prepare(Handler handler) {
+  }
+
+  /**
+   * 配置刷新时调用，丢弃 {@link #prepare} 缓存的解析结果，之后重新加载配置时再次解析；
+   * 不随配置变化的资源（客户端、已加载的参考表等）由执行器自行保留
+   */
+  default void invalidate() {
+  }
+
+  /**
+   * @return 执行器处理的处理器类型，工厂按类型分派，每种类型只有一个执行器
+   */
+  HandlerType type();
+
   /**
    * 检查是否支持该处理器类型
    *
    * @param handler 处理器类型
    * @return 是否支持
    */
-  boolean supports(Handler handler);
+  default boolean supports(Handler handler) {
+    return type() == handler.type();
+  }
 }
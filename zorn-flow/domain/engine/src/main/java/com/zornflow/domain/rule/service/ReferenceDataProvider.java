@@ -0,0 +1,45 @@
+package com.zornflow.domain.rule.service;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+
+/**
+ * 外部参考数据提供者 SPI
+ * 用于在规则评估前预取规则链所需的外部数据（如客户画像、保单、黑名单等），
+ * 取回的数据会以保留键 {@code ref_<name>} 的形式放入 BusinessContext 中
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/12 10:20
+ **/
+
+public interface ReferenceDataProvider {
+
+  /**
+   * 预取数据在上下文中的保留键前缀
+   */
+  String RESERVED_KEY_PREFIX = "ref_";
+
+  /**
+   * 数据提供者名称，必须是合法的标识符（字母、数字、下划线）
+   *
+   * @return 名称，例如 customerProfile
+   */
+  String name();
+
+  /**
+   * 根据当前业务上下文获取参考数据
+   *
+   * @param context 当前的业务上下文（只读使用）
+   * @return 参考数据，返回 null 表示没有数据
+   */
+  Object fetch(BusinessContext context);
+
+  /**
+   * 预取数据在上下文中的键
+   *
+   * @return 保留键，例如 ref_customerProfile
+   */
+  default String contextKey() {
+    return RESERVED_KEY_PREFIX + name();
+  }
+}
@@ -2,6 +2,7 @@ package com.zornflow.domain.rule.service;
 
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.valueobject.ExecutionScope;
 
 /**
  * 规则链执行领域服务接口
@@ -14,4 +15,11 @@ import com.zornflow.domain.rule.entity.RuleChain;
 
 public interface RuleChainExecutionService {
   BusinessContext execute(RuleChain ruleChain, BusinessContext context);
+
+  /**
+   * 在指定作用域内执行规则链，作用域可标识执行以支持检查点续跑
+   */
+  default BusinessContext execute(RuleChain ruleChain, BusinessContext context, ExecutionScope scope) {
+    return execute(ruleChain, context);
+  }
 }
@@ -1,13 +1,22 @@
 package com.zornflow.domain.rule.service.impl;
 
+import com.zornflow.domain.common.service.ExecutionListener;
+import com.zornflow.domain.common.types.CancellationToken;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.rule.entity.Rule;
 import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.repository.RuleChainCheckpointRepository;
 import com.zornflow.domain.rule.service.ConditionEvaluator;
+import com.zornflow.domain.rule.service.HandlerExecutor;
 import com.zornflow.domain.rule.service.HandlerExecutorFactory;
+import com.zornflow.domain.rule.service.ReferenceDataProvider;
 import com.zornflow.domain.rule.service.RuleChainExecutionService;
+import com.zornflow.domain.rule.types.RuleChainId;
+import com.zornflow.domain.rule.valueobject.ExecutionScope;
+import com.zornflow.domain.rule.valueobject.RuleChainCheckpoint;
 
-import java.util.Comparator;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * description
@@ -19,15 +28,57 @@ import java.util.Comparator;
 
 public class DefaultRuleChainExecutionService implements RuleChainExecutionService {
 
+  /**
+   * 处理器参数中声明检查点的参数名，为 true 时该规则执行完成后保存检查点
+   */
+  public static final String CHECKPOINT_PARAMETER = "checkpoint";
+
   private final ConditionEvaluator conditionEvaluator;
   private final HandlerExecutorFactory handlerExecutorFactory;
+  private final ReferenceDataPrefetcher referenceDataPrefetcher;
+  private final RuleChainCheckpointRepository checkpointRepository;
+  private final ExecutionListener executionListener;
+  private final Map<RuleChainId, RuleChainExecutionPlan> plans = new ConcurrentHashMap<>();
 
   public DefaultRuleChainExecutionService(ConditionEvaluator conditionEvaluator, HandlerExecutorFactory handlerExecutorFactory) {
+    this(conditionEvaluator, handlerExecutorFactory, null);
+  }
+
+  /**
+   * @param referenceDataPrefetcher 参考数据预取器，为 null 时不做预取
+   */
+  public DefaultRuleChainExecutionService(ConditionEvaluator conditionEvaluator, HandlerExecutorFactory handlerExecutorFactory,
+                                          ReferenceDataPrefetcher referenceDataPrefetcher) {
+    this(conditionEvaluator, handlerExecutorFactory, referenceDataPrefetcher, null);
+  }
+
+  /**
+   * @param referenceDataPrefetcher 参考数据预取器，为 null 时不做预取
+   * @param checkpointRepository    检查点仓库，为 null 时不保存检查点
+   */
+  public DefaultRuleChainExecutionService(ConditionEvaluator conditionEvaluator, HandlerExecutorFactory handlerExecutorFactory,
+                                          ReferenceDataPrefetcher referenceDataPrefetcher,
+                                          RuleChainCheckpointRepository checkpointRepository) {
+    this(conditionEvaluator, handlerExecutorFactory, referenceDataPrefetcher, checkpointRepository, null);
+  }
+
+  /**
+   * @param referenceDataPrefetcher 参考数据预取器，为 null 时不做预取
+   * @param checkpointRepository    检查点仓库，为 null 时不保存检查点
+   * @param executionListener       执行监听器，为 null 时不做监听
+   */
+  public DefaultRuleChainExecutionService(ConditionEvaluator conditionEvaluator, HandlerExecutorFactory handlerExecutorFactory,
+                                          ReferenceDataPrefetcher referenceDataPrefetcher,
+                                          RuleChainCheckpointRepository checkpointRepository,
+                                          ExecutionListener executionListener) {
     if (conditionEvaluator == null || handlerExecutorFactory == null) {
       throw new IllegalArgumentException("ConditionEvaluator and HandlerExecutorFactory must not be null.");
     }
     this.conditionEvaluator = conditionEvaluator;
     this.handlerExecutorFactory = handlerExecutorFactory;
+    this.referenceDataPrefetcher = referenceDataPrefetcher;
+    this.checkpointRepository = checkpointRepository;
+    this.executionListener = executionListener != null ? executionListener : ExecutionListener.NOOP;
   }
 
   /**
@@ -39,31 +90,222 @@ public class DefaultRuleChainExecutionService implements RuleChainExecutionServi
    */
   @Override
   public BusinessContext execute(RuleChain ruleChain, BusinessContext context) {
-    if (ruleChain == null || context == null) {
+    return execute(ruleChain, context, ExecutionScope.NONE);
+  }
+
+  /**
+   * 在指定作用域内执行一个规则链
+   * 作用域带有执行标识且规则链声明了检查点时，会从上次保存的检查点之后继续执行；
+   * 作用域的取消令牌在每条规则之前检查，被取消时抛出 {@link java.util.concurrent.CancellationException}
+   *
+   * @param ruleChain 规则链定义
+   * @param context   规则链开始执行时的业务上下文
+   * @param scope     执行作用域
+   * @return 执行完毕后，可能被修改过的业务上下文
+   */
+  @Override
+  public BusinessContext execute(RuleChain ruleChain, BusinessContext context, ExecutionScope scope) {
+    if (ruleChain == null || context == null || scope == null) {
       // 或者根据业务需求返回 context
-      throw new IllegalArgumentException("RuleChainDefinition and BusinessContext must not be null.");
+      throw new IllegalArgumentException("RuleChainDefinition, BusinessContext and ExecutionScope must not be null.");
+    }
+
+    // 1. 获取执行计划（规则已按优先级排序，数字越小，优先级越高）
+    RuleChainExecutionPlan plan = planFor(ruleChain);
+    // 未注册监听器时计划在编译时就不带监听器，直接执行，不做任何通知和异常包装
+    ExecutionListener listener = plan.listener();
+    if (listener == null) {
+      return run(plan, ruleChain, context, scope);
     }
 
-    // 1. 按优先级对规则进行排序（数字越小，优先级越高）
-    var sortedRules = ruleChain.getRules().stream()
-      .sorted(Comparator.comparing(rule -> rule.getPriority().value()))
-      .toList();
+    listener.onChainStart(ruleChain, context);
+    BusinessContext result;
+    try {
+      result = run(plan, ruleChain, context, scope);
+    } catch (Throwable e) {
+      listener.onChainEnd(ruleChain, context, e);
+      throw e;
+    }
+    listener.onChainEnd(ruleChain, result, null);
+    return result;
+  }
 
-    for (Rule rule : sortedRules) {
-      // 2. 使用ConditionEvaluator SPI进行条件判断
-      if (conditionEvaluator.evaluate(rule.getCondition(), context)) {
+  private BusinessContext run(RuleChainExecutionPlan plan, RuleChain ruleChain, BusinessContext context, ExecutionScope scope) {
+    CancellationToken cancellationToken = scope.cancellationToken();
+    cancellationToken.throwIfCancelled();
 
-        // 3. 使用HandlerExecutorFactory SPI获取对应的执行器
-        var executor = handlerExecutorFactory.getExecutor(rule.getHandler())
-          .orElseThrow(() -> new IllegalStateException("No handler executor found for type: " + rule.getHandler().type()));
+    // 2. 预取阶段：并发获取规则链需要的全部参考数据，放入上下文的保留键中
+    if (!plan.prefetch().isEmpty()) {
+      context = context.merge(referenceDataPrefetcher.prefetch(plan.prefetch(), context, cancellationToken));
+    }
 
-        // 4. 执行Handler，Handler可能会修改上下文
-        // 注意：由于BusinessContext是不可变的record，execute方法需要返回一个新的实例
-        executor.execute(rule.getHandler(), context);
+    // 3. 续跑阶段：存在检查点时还原当时的上下文，并跳过已完成的规则。
+    //    没有检查点规则的规则链不查询检查点，旧版本留下的检查点在编译计划时已清理
+    boolean checkpointing = checkpointRepository != null && scope.isIdentified() && !plan.checkpoints().isEmpty();
+    Map<String, Object> baseline = checkpointing ? Map.copyOf(context.data()) : Map.of();
+    boolean checkpointed = false;
+    int start = 0;
+    if (checkpointing) {
+      Optional<RuleChainCheckpoint> checkpoint = checkpointRepository.find(scope.executionKey(), ruleChain.getId());
+      if (checkpoint.isPresent()) {
+        checkpointed = true;
+        int cursor = plan.indexOf(checkpoint.get().ruleId());
+        // 检查点规则已被移出规则链时，检查点失效，从头执行
+        if (cursor >= 0) {
+          context = checkpoint.get().restore(context);
+          start = cursor + 1;
+        }
       }
     }
 
-    // 5. 返回最终的上下文
+    List<RuleStep> steps = plan.steps();
+    for (int i = start; i < steps.size(); i++) {
+      // 4. 调用方已放弃时不再继续执行后续规则
+      cancellationToken.throwIfCancelled();
+      // 5. 评估条件，条件成立时执行Handler，Handler可能会修改上下文
+      if (steps.get(i).run(ruleChain, context, cancellationToken) && checkpointing && plan.checkpoints().get(i)) {
+        // 6. 检查点规则执行完成后，保存游标与上下文变化量
+        checkpointRepository.save(RuleChainCheckpoint.capture(
+          scope.executionKey(), ruleChain.getId(), steps.get(i).rule().getId(), baseline, context.data()));
+        checkpointed = true;
+      }
+    }
+
+    // 7. 规则链完整执行后，检查点不再需要
+    if (checkpointed) {
+      checkpointRepository.delete(scope.executionKey(), ruleChain.getId());
+    }
     return context;
   }
+
+  /**
+   * 获取规则链的执行计划，规则链包含的规则未变化时复用已编译的计划。
+   * 首次加载或配置变化后重新编译的计划不含检查点规则时，清理规则链旧版本留下的检查点，
+   * 执行时不再为这类规则链查询检查点
+   */
+  private RuleChainExecutionPlan planFor(RuleChain ruleChain) {
+    RuleChainExecutionPlan plan = plans.get(ruleChain.getId());
+    if (plan == null || !plan.isCompiledFrom(ruleChain)) {
+      plan = compile(ruleChain);
+      plans.put(ruleChain.getId(), plan);
+      if (checkpointRepository != null && plan.checkpoints().isEmpty()) {
+        checkpointRepository.deleteByRuleChain(ruleChain.getId());
+      }
+    }
+    return plan;
+  }
+
+  private RuleChainExecutionPlan compile(RuleChain ruleChain) {
+    // 恒假的规则永远不会执行，直接从计划中剔除；恒真的规则执行时不再调用求值器
+    List<Rule> sortedRules = new ArrayList<>();
+    BitSet alwaysMatching = new BitSet();
+    for (Rule rule : ruleChain.getRules().stream().sorted(Comparator.comparing(r -> r.getPriority().value())).toList()) {
+      Optional<Boolean> constant = conditionEvaluator.constantResult(rule.getCondition());
+      if (constant.isPresent() && !constant.get()) {
+        continue;
+      }
+      if (constant.isPresent()) {
+        alwaysMatching.set(sortedRules.size());
+      }
+      sortedRules.add(rule);
+    }
+    List<ReferenceDataProvider> prefetch = referenceDataPrefetcher != null
+      ? referenceDataPrefetcher.analyze(ruleChain)
+      : List.of();
+    BitSet checkpoints = new BitSet(sortedRules.size());
+    for (int i = 0; i < sortedRules.size(); i++) {
+      Object declared = sortedRules.get(i).getHandler().getParameter(CHECKPOINT_PARAMETER);
+      if (declared != null && Boolean.parseBoolean(declared.toString())) {
+        checkpoints.set(i);
+      }
+    }
+    // 未注册监听器时使用不含任何监听逻辑的步骤，热路径上不再逐条规则判断
+    boolean observed = executionListener != ExecutionListener.NOOP;
+    List<RuleStep> steps = new ArrayList<>(sortedRules.size());
+    for (int i = 0; i < sortedRules.size(); i++) {
+      PlainRuleStep step = new PlainRuleStep(sortedRules.get(i), alwaysMatching.get(i));
+      steps.add(observed ? new ObservedRuleStep(step, executionListener) : step);
+    }
+    return new RuleChainExecutionPlan(List.copyOf(ruleChain.getRules()), List.copyOf(steps), prefetch, checkpoints,
+      observed ? executionListener : null);
+  }
+
+  private HandlerExecutor executorFor(Rule rule) {
+    // 使用HandlerExecutorFactory SPI获取对应的执行器
+    return handlerExecutorFactory.getExecutor(rule.getHandler())
+      .orElseThrow(() -> new IllegalStateException("No handler executor found for type: " + rule.getHandler().type()));
+  }
+
+  /**
+   * 不带监听的规则步骤
+   */
+  private final class PlainRuleStep implements RuleStep {
+    private final Rule rule;
+    private final boolean alwaysMatches;
+
+    PlainRuleStep(Rule rule, boolean alwaysMatches) {
+      this.rule = rule;
+      this.alwaysMatches = alwaysMatches;
+    }
+
+    @Override
+    public Rule rule() {
+      return rule;
+    }
+
+    @Override
+    public boolean run(RuleChain ruleChain, BusinessContext context, CancellationToken cancellationToken) {
+      if (!matches(context)) {
+        return false;
+      }
+      invoke(context, cancellationToken);
+      return true;
+    }
+
+    boolean matches(BusinessContext context) {
+      return alwaysMatches || conditionEvaluator.evaluate(rule.getCondition(), context);
+    }
+
+    void invoke(BusinessContext context, CancellationToken cancellationToken) {
+      executorFor(rule).execute(rule.getHandler(), context, cancellationToken);
+    }
+  }
+
+  /**
+   * 包装不带监听的规则步骤，在规则匹配和处理器执行前后通知监听器
+   */
+  private static final class ObservedRuleStep implements RuleStep {
+    private final PlainRuleStep step;
+    private final ExecutionListener listener;
+
+    ObservedRuleStep(PlainRuleStep step, ExecutionListener listener) {
+      this.step = step;
+      this.listener = listener;
+    }
+
+    @Override
+    public Rule rule() {
+      return step.rule();
+    }
+
+    @Override
+    public boolean run(RuleChain ruleChain, BusinessContext context, CancellationToken cancellationToken) {
+      if (!step.matches(context)) {
+        return false;
+      }
+      Rule rule = step.rule();
+      listener.onRuleMatched(ruleChain, rule, context);
+      listener.onHandlerStart(rule, context);
+      long start = System.nanoTime();
+      try {
+        step.invoke(context, cancellationToken);
+      } catch (Throwable e) {
+        // Error 或被偷偷抛出的受检异常同样要通知，否则按线程成对记录的监听器会残留状态
+        listener.onHandlerInvoked(rule, context, System.nanoTime() - start, e);
+        throw e;
+      }
+      listener.onHandlerInvoked(rule, context, System.nanoTime() - start, null);
+      return true;
+    }
+  }
 }
@@ -0,0 +1,185 @@
+package com.zornflow.domain.rule.service.impl;
+
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.service.ReferenceDataProvider;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 参考数据预取器
+ * 分析规则链的条件表达式和处理器参数，找出规则链需要的外部参考数据，
+ * 并在规则评估开始前一次性并发获取，取代各个处理器按顺序懒加载
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/12 10:36
+ **/
+
+public class ReferenceDataPrefetcher {
+
+  /**
+   * 处理器参数中显式声明预取数据的参数名，值可以是单个名称或名称列表
+   */
+  public static final String PREFETCH_PARAMETER = "prefetch";
+
+  private static final Pattern RESERVED_KEY_PATTERN =
+    Pattern.compile("\\b" + ReferenceDataProvider.RESERVED_KEY_PREFIX + "([A-Za-z0-9_]+)");
+
+  private final Map<String, ReferenceDataProvider> providers;
+  private final ExecutorService executor;
+
+  public ReferenceDataPrefetcher(List<ReferenceDataProvider> providers, ExecutorService executor) {
+    this.executor = Objects.requireNonNull(executor, "Executor must not be null.");
+    this.providers = Objects.requireNonNull(providers, "Providers must not be null.").stream()
+      .collect(Collectors.toUnmodifiableMap(
+        ReferenceDataProvider::name,
+        provider -> provider,
+        (existing, replacement) -> {
+          throw new IllegalArgumentException("Duplicate reference data provider: " + existing.name());
+        }));
+  }
+
+  /**
+   * 分析规则链需要的参考数据
+   *
+   * @param ruleChain 规则链
+   * @return 需要预取的数据提供者列表（去重，按首次出现顺序）
+   */
+  public List<ReferenceDataProvider> analyze(RuleChain ruleChain) {
+    if (providers.isEmpty()) {
+      return List.of();
+    }
+    Set<String> names = new LinkedHashSet<>();
+    for (Rule rule : ruleChain.getRules()) {
+      if (rule.getCondition() != null) {
+        collectReferences(rule.getCondition().expression(), names);
+      }
+      rule.getHandler().parameters().forEach((key, value) -> {
+        if (PREFETCH_PARAMETER.equals(key)) {
+          collectDeclared(value, names);
+        } else {
+          collectReferences(value, names);
+        }
+      });
+    }
+    return names.stream()
+      .map(providers::get)
+      .filter(Objects::nonNull)
+      .toList();
+  }
+
+  /**
+   * 并发获取所有参考数据，上下文中已存在的键不会重复获取
+   *
+   * @param required 需要预取的数据提供者
+   * @param context  当前的业务上下文
+   * @return 保留键到数据的映射，值为 null 的结果会被忽略
+   */
+  public Map<String, Object> prefetch(List<ReferenceDataProvider> required, BusinessContext context) {
+    return prefetch(required, context, CancellationToken.NONE);
+  }
+
+  /**
+   * 并发获取所有参考数据；任一获取失败或调用方取消时立即中断其余仍在执行的获取任务
+   *
+   * @param required          需要预取的数据提供者
+   * @param context           当前的业务上下文
+   * @param cancellationToken 调用方的取消令牌
+   * @return 保留键到数据的映射，值为 null 的结果会被忽略
+   */
+  public Map<String, Object> prefetch(List<ReferenceDataProvider> required, BusinessContext context,
+                                      CancellationToken cancellationToken) {
+    List<ReferenceDataProvider> missing = required.stream()
+      .filter(provider -> !context.data().containsKey(provider.contextKey()))
+      .toList();
+    if (missing.isEmpty()) {
+      return Map.of();
+    }
+
+    // 通过 executor.submit 提交，取消 Future 才会真正中断提供者所在的线程
+    Map<String, CompletableFuture<Object>> results = new LinkedHashMap<>();
+    List<Future<?>> tasks = new ArrayList<>(missing.size());
+    for (ReferenceDataProvider provider : missing) {
+      CompletableFuture<Object> result = new CompletableFuture<>();
+      results.put(provider.contextKey(), result);
+      tasks.add(executor.submit(() -> fetch(provider, context, result)));
+    }
+
+    Runnable cancelRemaining = () -> {
+      tasks.forEach(task -> task.cancel(true));
+      results.values().forEach(result -> result.cancel(false));
+    };
+    AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    results.values().forEach(result -> result.whenComplete((value, failure) -> {
+      if (failure != null && firstFailure.compareAndSet(null, failure)) {
+        cancelRemaining.run();
+      }
+    }));
+    try (CancellationToken.Registration ignored = cancellationToken.onCancel(cancelRemaining)) {
+      CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new)).join();
+    } catch (CancellationException | CompletionException e) {
+      cancellationToken.throwIfCancelled();
+      Throwable failure = Objects.requireNonNullElse(firstFailure.get(), e);
+      if (failure instanceof CancellationException cancelled) {
+        throw cancelled;
+      }
+      throw new IllegalStateException("Failed to prefetch reference data.",
+        failure instanceof CompletionException ? failure.getCause() : failure);
+    }
+
+    Map<String, Object> result = new HashMap<>();
+    results.forEach((key, future) -> {
+      Object value = future.join();
+      if (value != null) {
+        result.put(key, value);
+      }
+    });
+    return result;
+  }
+
+  private static void fetch(ReferenceDataProvider provider, BusinessContext context, CompletableFuture<Object> result) {
+    try {
+      result.complete(provider.fetch(context));
+    } catch (Throwable e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private void collectReferences(Object value, Set<String> names) {
+    switch (value) {
+      case String text -> {
+        Matcher matcher = RESERVED_KEY_PATTERN.matcher(text);
+        while (matcher.find()) {
+          names.add(matcher.group(1));
+        }
+      }
+      case Map<?, ?> map -> map.values().forEach(v -> collectReferences(v, names));
+      case Collection<?> collection -> collection.forEach(v -> collectReferences(v, names));
+      case null, default -> {
+      }
+    }
+  }
+
+  private void collectDeclared(Object value, Set<String> names) {
+    switch (value) {
+      case String name -> names.add(name.startsWith(ReferenceDataProvider.RESERVED_KEY_PREFIX)
+        ? name.substring(ReferenceDataProvider.RESERVED_KEY_PREFIX.length())
+        : name);
+      case Collection<?> collection -> collection.forEach(v -> collectDeclared(v, names));
+      case null, default -> {
+      }
+    }
+  }
+}
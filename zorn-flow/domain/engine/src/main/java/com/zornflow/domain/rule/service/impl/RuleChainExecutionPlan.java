@@ -0,0 +1,63 @@
+package com.zornflow.domain.rule.service.impl;
+
+import com.zornflow.domain.common.service.ExecutionListener;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.service.ReferenceDataProvider;
+import com.zornflow.domain.rule.types.RuleId;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 规则链执行计划
+ * 对规则链做一次性的预处理（排序、数据依赖分析等），供重复执行时复用。
+ * 规则是不可变的，计划只依赖规则链当时包含的规则实例，与规则链实例本身无关
+ *
+ * @param rules       编译计划时规则链包含的规则
+ * @param steps       按优先级排好序的规则步骤
+ * @param prefetch    执行前需要预取的参考数据
+ * @param checkpoints 执行后需要保存检查点的规则下标
+ * @param listener    执行监听器，未注册监听器时为 null，执行时直接跳过链开始、结束通知
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/12 11:02
+ **/
+
+record RuleChainExecutionPlan(
+  List<Rule> rules,
+  List<RuleStep> steps,
+  List<ReferenceDataProvider> prefetch,
+  BitSet checkpoints,
+  ExecutionListener listener
+) {
+
+  /**
+   * 判断计划是否仍然适用于给定的规则链
+   * 规则链包含的规则实例与编译时逐一相同时适用；增删规则或规则被重新映射后，计划需要重新编译
+   */
+  boolean isCompiledFrom(RuleChain ruleChain) {
+    List<Rule> current = ruleChain.getRules();
+    if (current.size() != rules.size()) {
+      return false;
+    }
+    for (int i = 0; i < rules.size(); i++) {
+      if (current.get(i) != rules.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 规则在计划中的下标，规则已不存在时返回 -1
+   */
+  int indexOf(RuleId ruleId) {
+    for (int i = 0; i < steps.size(); i++) {
+      if (steps.get(i).rule().getId().equals(ruleId)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,30 @@
+package com.zornflow.domain.rule.service.impl;
+
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+
+/**
+ * 执行计划中的一个规则步骤
+ * 编译计划时按是否注册了执行监听器选择具体实现，执行时不再逐条规则判断
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 17:05
+ **/
+
+interface RuleStep {
+
+  Rule rule();
+
+  /**
+   * 评估规则条件，条件成立时执行其处理器
+   *
+   * @param ruleChain         本次执行的规则链，计划可能由包含相同规则的其他规则链实例编译
+   * @param context           当前的业务上下文，处理器可能会修改它
+   * @param cancellationToken 调用方的取消令牌，传递给处理器
+   * @return 处理器是否被执行
+   */
+  boolean run(RuleChain ruleChain, BusinessContext context, CancellationToken cancellationToken);
+}
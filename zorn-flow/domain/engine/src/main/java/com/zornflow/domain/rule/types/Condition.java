@@ -2,6 +2,8 @@ package com.zornflow.domain.rule.types;
 
 import com.domain.contract.valueobject.DomainPrimitive;
 
+import java.util.Optional;
+
 /**
  * 条件表达式领域原语
  * 封装规则的EL表达式条件
@@ -45,4 +47,20 @@ public record Condition(String expression) implements DomainPrimitive {
   public String getPureExpression() {
     return expression.substring(2, expression.length() - 1);
   }
+
+  /**
+   * 条件本身就是布尔字面量（例如缺省的 #{true}）时返回其值，无需求值器即可确定结果
+   *
+   * @return 字面量的值，不是布尔字面量时为空
+   */
+  public Optional<Boolean> literalValue() {
+    String pure = getPureExpression().trim();
+    if (pure.equalsIgnoreCase("true")) {
+      return Optional.of(Boolean.TRUE);
+    }
+    if (pure.equalsIgnoreCase("false")) {
+      return Optional.of(Boolean.FALSE);
+    }
+    return Optional.empty();
+  }
 }
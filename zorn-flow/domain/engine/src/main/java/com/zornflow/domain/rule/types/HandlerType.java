@@ -19,7 +19,10 @@ import java.util.Optional;
 public enum HandlerType implements DomainPrimitive {
   CLASS("class"),
   SCRIPT("script"),
-  JAR("jar");
+  JAR("jar"),
+  HTTP("http"),
+  WASM("wasm"),
+  LOOKUP("lookup");
 
   private static final Map<String, HandlerType> VALUE_MAP;
 
@@ -0,0 +1,44 @@
+package com.zornflow.domain.rule.valueobject;
+
+import com.zornflow.domain.common.types.CancellationToken;
+
+import java.util.Objects;
+
+/**
+ * 规则链单次执行的作用域
+ * 标识这次执行属于谁（例如某个流程实例的某个节点），用于断点续跑等需要跨进程识别执行的能力，
+ * 并携带调用方的取消令牌
+ *
+ * @param executionKey      执行标识，为 null 时表示匿名执行，不做检查点
+ * @param cancellationToken 取消令牌，引擎在规则之间检查
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 14:12
+ **/
+
+public record ExecutionScope(String executionKey, CancellationToken cancellationToken) {
+
+  /**
+   * 匿名、不可取消的执行作用域
+   */
+  public static final ExecutionScope NONE = new ExecutionScope(null, CancellationToken.NONE);
+
+  public ExecutionScope {
+    Objects.requireNonNull(cancellationToken, "CancellationToken must not be null");
+  }
+
+  public static ExecutionScope of(String executionKey) {
+    return of(executionKey, CancellationToken.NONE);
+  }
+
+  public static ExecutionScope of(String executionKey, CancellationToken cancellationToken) {
+    if (executionKey == null || executionKey.isBlank()) {
+      throw new IllegalArgumentException("Execution key must not be blank.");
+    }
+    return new ExecutionScope(executionKey, cancellationToken);
+  }
+
+  public boolean isIdentified() {
+    return executionKey != null;
+  }
+}
@@ -0,0 +1,64 @@
+package com.zornflow.domain.rule.valueobject;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.RuleChainId;
+import com.zornflow.domain.rule.types.RuleId;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 规则链执行检查点
+ * 记录最后一个已完成的检查点规则（游标），以及从规则链开始执行到该点为止业务上下文的变化量
+ *
+ * @param executionKey 执行标识，见 {@link ExecutionScope}
+ * @param ruleChainId  规则链ID
+ * @param ruleId       最后完成的检查点规则，续跑时从它之后的规则开始
+ * @param changes      新增或被修改的上下文数据
+ * @param removals     被删除的上下文键
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 14:20
+ **/
+
+public record RuleChainCheckpoint(
+  String executionKey,
+  RuleChainId ruleChainId,
+  RuleId ruleId,
+  Map<String, Object> changes,
+  Set<String> removals
+) {
+  public RuleChainCheckpoint {
+    Objects.requireNonNull(executionKey, "Execution key must not be null");
+    Objects.requireNonNull(ruleChainId, "RuleChainId must not be null");
+    Objects.requireNonNull(ruleId, "RuleId must not be null");
+    changes = Collections.unmodifiableMap(new HashMap<>(changes != null ? changes : Map.of()));
+    removals = Set.copyOf(removals != null ? removals : Set.of());
+  }
+
+  /**
+   * 比较规则链开始执行时与当前的上下文数据，生成检查点
+   */
+  public static RuleChainCheckpoint capture(String executionKey, RuleChainId ruleChainId, RuleId ruleId,
+                                            Map<String, Object> baseline, Map<String, Object> current) {
+    Map<String, Object> changes = new HashMap<>();
+    current.forEach((key, value) -> {
+      if (!Objects.equals(baseline.get(key), value)) {
+        changes.put(key, value);
+      }
+    });
+    Set<String> removals = new HashSet<>(baseline.keySet());
+    removals.removeAll(current.keySet());
+    return new RuleChainCheckpoint(executionKey, ruleChainId, ruleId, changes, removals);
+  }
+
+  /**
+   * 将变化量应用到规则链开始执行时的上下文上，还原检查点时刻的上下文
+   */
+  public BusinessContext restore(BusinessContext base) {
+    var data = new ConcurrentHashMap<>(base.data());
+    data.putAll(changes);
+    removals.forEach(data::remove);
+    return new BusinessContext(data);
+  }
+}
@@ -0,0 +1,82 @@
+package com.zornflow.domain.common.service;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.entity.RuleChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ExecutionListener 组合监听器单元测试")
+class ExecutionListenerTest {
+
+  @Test
+  @DisplayName("composite: 没有监听器时返回 NOOP，只有一个时直接返回它")
+  void composite_shouldCollapseTrivialCases() {
+    ExecutionListener single = new ExecutionListener() {
+    };
+
+    assertThat(ExecutionListener.composite(List.of())).isSameAs(ExecutionListener.NOOP);
+    assertThat(ExecutionListener.composite(List.of(single))).isSameAs(single);
+  }
+
+  @Test
+  @DisplayName("composite: 开始类回调按注册顺序通知，结束类回调按相反顺序通知")
+  void composite_shouldNotifyInNestedOrder() {
+    List<String> calls = new ArrayList<>();
+    ExecutionListener composite = ExecutionListener.composite(List.of(recording("a", calls), recording("b", calls)));
+    RuleChain ruleChain = mock(RuleChain.class);
+    BusinessContext context = new BusinessContext(Map.of());
+
+    composite.onChainStart(ruleChain, context);
+    composite.onChainEnd(ruleChain, context, null);
+
+    assertThat(calls).containsExactly("a:start", "b:start", "b:end", "a:end");
+  }
+
+  @Test
+  @DisplayName("composite: 监听器抛出异常时其余监听器仍收到通知，之后抛出第一个异常并附加其余异常")
+  void composite_shouldNotifyAllListenersBeforeRethrowing() {
+    List<String> calls = new ArrayList<>();
+    IllegalStateException quota = new IllegalStateException("quota");
+    IllegalStateException broken = new IllegalStateException("broken");
+    ExecutionListener composite = ExecutionListener.composite(List.of(
+      recording("a", calls), failing(broken), recording("b", calls), failing(quota)));
+    RuleChain ruleChain = mock(RuleChain.class);
+    BusinessContext context = new BusinessContext(Map.of());
+
+    assertThatThrownBy(() -> composite.onChainEnd(ruleChain, context, null))
+      .isSameAs(quota)
+      .hasSuppressedException(broken);
+    assertThat(calls).containsExactly("b:end", "a:end");
+  }
+
+  private ExecutionListener failing(RuntimeException failure) {
+    return new ExecutionListener() {
+      @Override
+      public void onChainEnd(RuleChain ruleChain, BusinessContext context, Throwable failed) {
+        throw failure;
+      }
+    };
+  }
+
+  private ExecutionListener recording(String name, List<String> calls) {
+    return new ExecutionListener() {
+      @Override
+      public void onChainStart(RuleChain ruleChain, BusinessContext context) {
+        calls.add(name + ":start");
+      }
+
+      @Override
+      public void onChainEnd(RuleChain ruleChain, BusinessContext context, Throwable failure) {
+        calls.add(name + ":end");
+      }
+    };
+  }
+}
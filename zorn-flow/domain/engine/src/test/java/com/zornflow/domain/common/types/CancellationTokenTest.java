@@ -0,0 +1,85 @@
+package com.zornflow.domain.common.types;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CancellationToken 取消令牌单元测试")
+class CancellationTokenTest {
+
+  @Test
+  @DisplayName("cancel: 应只生效一次，并通知已注册和之后注册的回调")
+  void cancel_shouldNotifyCallbacksOnce() {
+    CancellationToken token = CancellationToken.create();
+    AtomicInteger notified = new AtomicInteger();
+    token.onCancel(notified::incrementAndGet);
+
+    token.cancel("client disconnected");
+    token.cancel("request timed out");
+    token.onCancel(notified::incrementAndGet);
+
+    assertThat(notified).hasValue(2);
+    assertThat(token.reason()).isEqualTo("client disconnected");
+    assertThatThrownBy(token::throwIfCancelled)
+      .isInstanceOf(CancellationException.class)
+      .hasMessageContaining("client disconnected");
+  }
+
+  @Test
+  @DisplayName("propagateTo: 令牌被取消时应取消关联的异步任务")
+  void propagateTo_shouldCancelFuture() {
+    CancellationToken token = CancellationToken.create();
+    CompletableFuture<String> future = token.propagateTo(new CompletableFuture<>());
+
+    token.cancel("client disconnected");
+
+    assertThat(future).isCancelled();
+  }
+
+  @Test
+  @DisplayName("onCancel: 关闭注册后回调不再被令牌持有，取消时也不再执行")
+  void onCancel_shouldForgetCallback_whenRegistrationClosed() {
+    CancellationToken token = CancellationToken.create();
+    AtomicInteger notified = new AtomicInteger();
+
+    for (int i = 0; i < 100; i++) {
+      try (CancellationToken.Registration ignored = token.onCancel(notified::incrementAndGet)) {
+        assertThat(token.callbackCount()).isEqualTo(1);
+      }
+    }
+    CancellationToken.Registration kept = token.onCancel(notified::incrementAndGet);
+    token.cancel("client disconnected");
+    kept.close();
+
+    assertThat(notified).hasValue(1);
+    assertThat(token.callbackCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("propagateTo: 异步任务完成后自动注销回调")
+  void propagateTo_shouldUnregister_whenFutureCompletes() {
+    CancellationToken token = CancellationToken.create();
+
+    for (int i = 0; i < 100; i++) {
+      token.propagateTo(new CompletableFuture<String>()).complete("done");
+    }
+    CompletableFuture<String> failed = token.propagateTo(new CompletableFuture<>());
+    failed.completeExceptionally(new IllegalStateException("boom"));
+
+    assertThat(token.callbackCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("NONE: 不可取消的令牌应忽略取消请求")
+  void none_shouldIgnoreCancel() {
+    CancellationToken.NONE.cancel("ignored");
+
+    assertThat(CancellationToken.NONE.isCancelled()).isFalse();
+  }
+}
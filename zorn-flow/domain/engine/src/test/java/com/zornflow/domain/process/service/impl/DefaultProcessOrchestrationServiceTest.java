@@ -1,5 +1,6 @@
 package com.zornflow.domain.process.service.impl;
 
+import com.zornflow.domain.common.service.ExecutionListener;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.process.entity.ProcessChain;
 import com.zornflow.domain.process.entity.ProcessInstance;
@@ -7,11 +8,14 @@ import com.zornflow.domain.process.entity.ProcessNode;
 import com.zornflow.domain.process.repository.ProcessChainRepository;
 import com.zornflow.domain.process.service.GatewayProcessor;
 import com.zornflow.domain.process.types.ProcessChainId;
+import com.zornflow.domain.process.types.ProcessInstanceId;
 import com.zornflow.domain.process.types.ProcessNodeId;
 import com.zornflow.domain.process.valueobject.NodeType;
 import com.zornflow.domain.rule.entity.RuleChain;
 import com.zornflow.domain.rule.repository.RuleChainRepository;
+import com.zornflow.domain.rule.service.AggregateStateStore;
 import com.zornflow.domain.rule.service.RuleChainExecutionService;
+import com.zornflow.domain.rule.valueobject.ExecutionScope;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,6 +40,8 @@ class DefaultProcessOrchestrationServiceTest {
   private final com.zornflow.domain.rule.types.RuleChainId ruleChainId = com.zornflow.domain.rule.types.RuleChainId.of("r-chain-1");
   private final ProcessNodeId currentNodeId = ProcessNodeId.of("node-current");
   private final ProcessNodeId nextNodeId = ProcessNodeId.of("node-next");
+  private final ProcessInstanceId instanceId = new ProcessInstanceId("instance-1");
+  private final ExecutionScope scope = ExecutionScope.of("instance-1/node-current");
   @Mock
   private ProcessChainRepository processChainRepository;
   @Mock
@@ -45,6 +51,10 @@ class DefaultProcessOrchestrationServiceTest {
   @Mock
   private GatewayProcessor gatewayProcessor;
   @Mock
+  private AggregateStateStore aggregateStateStore;
+  @Mock
+  private ExecutionListener executionListener;
+  @Mock
   private ProcessInstance instance;
   @InjectMocks
   private DefaultProcessOrchestrationService orchestrationService;
@@ -70,14 +80,16 @@ class DefaultProcessOrchestrationServiceTest {
     when(instance.getContext()).thenReturn(originalContext);
     when(processChainRepository.findById(chainId)).thenReturn(Optional.of(processChain));
     when(ruleChainRepository.findById(ruleChainId)).thenReturn(Optional.of(ruleChain));
-    when(ruleChainExecutionService.execute(ruleChain, originalContext)).thenReturn(updatedContext);
+    when(instance.getId()).thenReturn(instanceId);
+    when(ruleChainExecutionService.execute(ruleChain, originalContext, scope)).thenReturn(updatedContext);
 
     // Act
     orchestrationService.executeNextStep(instance);
 
     // Assert
-    verify(ruleChainExecutionService).execute(ruleChain, originalContext);
+    verify(ruleChainExecutionService).execute(ruleChain, originalContext, scope);
     verify(instance).moveToNextNode(nextNodeId, updatedContext);
+    verify(executionListener).onNodeTransition(instance, businessNode, nextNodeId);
   }
 
   @Test
@@ -100,12 +112,13 @@ class DefaultProcessOrchestrationServiceTest {
     when(instance.getCurrentNodeId()).thenReturn(currentNodeId);
     when(instance.getContext()).thenReturn(originalContext);
     when(processChainRepository.findById(chainId)).thenReturn(Optional.of(processChain));
+    when(instance.getId()).thenReturn(instanceId);
 
     // Act
     orchestrationService.executeNextStep(instance);
 
     // Assert
-    verify(ruleChainExecutionService, never()).execute(any(), any()); // 验证从未执行规则
+    verify(ruleChainExecutionService, never()).execute(any(), any(), any()); // 验证从未执行规则
     verify(instance).moveToNextNode(nextNodeId, originalContext);
   }
 
@@ -121,6 +134,7 @@ class DefaultProcessOrchestrationServiceTest {
     when(instance.getContext()).thenReturn(originalContext);
     when(processChainRepository.findById(chainId)).thenReturn(Optional.of(processChain));
     when(gatewayProcessor.process(gatewayNode, originalContext)).thenReturn(decidedPathId);
+    when(instance.getId()).thenReturn(instanceId);
 
     // Act
     orchestrationService.executeNextStep(instance);
@@ -128,6 +142,31 @@ class DefaultProcessOrchestrationServiceTest {
     // Assert
     verify(gatewayProcessor).process(gatewayNode, originalContext);
     verify(instance).moveToNextNode(decidedPathId, originalContext);
+    verify(executionListener).onNodeTransition(instance, gatewayNode, decidedPathId);
+  }
+
+  @Test
+  @DisplayName("executeNextStep: 从起始节点开始处理时，应先记录聚合事件再执行规则")
+  void shouldRecordAggregates_whenProcessingStartNode() {
+    // Arrange
+    ProcessNode businessNode = createTestNode(NodeType.BUSINESS, nextNodeId, ruleChainId);
+    ProcessChain processChain = createTestProcessChain(businessNode);
+    RuleChain ruleChain = mock(RuleChain.class);
+
+    when(instance.getCurrentNodeId()).thenReturn(currentNodeId);
+    when(instance.getContext()).thenReturn(originalContext);
+    when(processChainRepository.findById(chainId)).thenReturn(Optional.of(processChain));
+    when(ruleChainRepository.findById(ruleChainId)).thenReturn(Optional.of(ruleChain));
+    when(instance.getId()).thenReturn(instanceId);
+    when(ruleChainExecutionService.execute(ruleChain, originalContext, scope)).thenReturn(updatedContext);
+
+    // Act
+    orchestrationService.executeNextStep(instance);
+
+    // Assert
+    var inOrder = inOrder(aggregateStateStore, ruleChainExecutionService);
+    inOrder.verify(aggregateStateStore).record(eq(instanceId.value()), eq(originalContext), any());
+    inOrder.verify(ruleChainExecutionService).execute(ruleChain, originalContext, scope);
   }
 
   @Test
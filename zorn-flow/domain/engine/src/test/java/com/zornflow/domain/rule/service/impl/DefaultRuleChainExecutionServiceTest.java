@@ -1,24 +1,36 @@
 package com.zornflow.domain.rule.service.impl;
 
+import com.zornflow.domain.common.service.ExecutionListener;
+import com.zornflow.domain.common.types.CancellationToken;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.rule.entity.Rule;
 import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.repository.RuleChainCheckpointRepository;
 import com.zornflow.domain.rule.service.ConditionEvaluator;
 import com.zornflow.domain.rule.service.HandlerExecutor;
 import com.zornflow.domain.rule.service.HandlerExecutorFactory;
+import com.zornflow.domain.rule.service.ReferenceDataProvider;
 import com.zornflow.domain.rule.types.*;
+import com.zornflow.domain.rule.valueobject.ExecutionScope;
 import com.zornflow.domain.rule.valueobject.Handler;
+import com.zornflow.domain.rule.valueobject.RuleChainCheckpoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -34,7 +46,8 @@ class DefaultRuleChainExecutionServiceTest {
   @Mock
   private HandlerExecutorFactory handlerExecutorFactory;
 
-  @Mock
+  // 调用真实的默认方法，使带取消令牌的 execute 委托到两参数的 execute
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
   private HandlerExecutor handlerExecutor;
 
   // 被测试的类
@@ -88,6 +101,28 @@ class DefaultRuleChainExecutionServiceTest {
     assertThat(finalContext).isSameAs(context);
   }
 
+  @Test
+  @DisplayName("execute: 恒假的规则不进入执行计划，恒真的规则不调用求值器直接执行")
+  void execute_shouldSkipEvaluatorForConstantConditions() {
+    RuleChain ruleChain = RuleChain.builder()
+      .id(RuleChainId.of("constant-chain"))
+      .rules(List.of(rule_p20, rule_p10))
+      .build();
+    when(conditionEvaluator.constantResult(rule_p10.getCondition())).thenReturn(Optional.of(true));
+    when(conditionEvaluator.constantResult(rule_p20.getCondition())).thenReturn(Optional.of(false));
+    when(handlerExecutorFactory.getExecutor(rule_p10.getHandler())).thenReturn(Optional.of(handlerExecutor));
+
+    executionService.execute(ruleChain, context);
+    // 包含相同规则实例的另一个规则链实例复用同一个计划
+    executionService.execute(RuleChain.builder().id(ruleChain.getId()).rules(ruleChain.getRules()).build(), context);
+
+    verify(handlerExecutor, times(2)).execute(rule_p10.getHandler(), context);
+    verify(conditionEvaluator, never()).evaluate(any(), any());
+    verify(handlerExecutorFactory, never()).getExecutor(rule_p20.getHandler());
+    // 常量结果只在编译执行计划时查询一次
+    verify(conditionEvaluator).constantResult(rule_p10.getCondition());
+  }
+
   @Test
   @DisplayName("execute: 当找不到处理器时，应抛出 IllegalStateException")
   void execute_shouldThrowException_whenExecutorNotFound() {
@@ -102,4 +137,221 @@ class DefaultRuleChainExecutionServiceTest {
       .isInstanceOf(IllegalStateException.class)
       .hasMessageContaining("No handler executor found for type: CLASS");
   }
+
+  @Test
+  @DisplayName("execute: 应在规则评估前预取规则链引用的参考数据并放入上下文")
+  void execute_shouldPrefetchReferenceDataBeforeEvaluation() {
+    // Arrange
+    ReferenceDataProvider blacklist = mock(ReferenceDataProvider.class);
+    when(blacklist.name()).thenReturn("blacklist");
+    when(blacklist.contextKey()).thenReturn("ref_blacklist");
+    when(blacklist.fetch(any())).thenReturn(Boolean.TRUE);
+    Rule rule = Rule.builder().id(RuleId.of("r-bl")).condition(Condition.of("#{ref_blacklist}"))
+      .handler(Handler.of(HandlerType.CLASS, "h-bl")).build();
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("bl-chain")).rules(List.of(rule)).build();
+    BusinessContext finalContext;
+
+    // Act
+    try (var pool = Executors.newVirtualThreadPerTaskExecutor()) {
+      var prefetcher = new ReferenceDataPrefetcher(List.of(blacklist), pool);
+      var service = new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, prefetcher);
+      finalContext = service.execute(ruleChain, context);
+      service.execute(ruleChain, context);
+    }
+
+    // Assert
+    assertThat(finalContext.data()).containsEntry("ref_blacklist", true).containsEntry("amount", 100);
+    verify(conditionEvaluator, times(2)).evaluate(eq(rule.getCondition()), argThat(ctx -> Boolean.TRUE.equals(ctx.data().get("ref_blacklist"))));
+  }
+
+  @Test
+  @DisplayName("execute: 规则链不再声明检查点规则时，编译计划时清理之前版本留下的检查点，执行时不再查询检查点")
+  void execute_shouldDeleteStaleCheckpointsOnCompile_whenChainHasNoCheckpointRules() {
+    // Arrange
+    var checkpoints = new InMemoryCheckpointRepository();
+    var service = new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, null, checkpoints);
+    var scope = ExecutionScope.of("instance-1/node-1");
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("long-chain")).rules(List.of(rule_p10)).build();
+    checkpoints.save(RuleChainCheckpoint.capture(scope.executionKey(), ruleChain.getId(), rule_p10.getId(),
+      Map.of(), Map.of("score", 42)));
+    checkpoints.save(RuleChainCheckpoint.capture("instance-2/node-1", ruleChain.getId(), rule_p10.getId(),
+      Map.of(), Map.of("score", 7)));
+    when(conditionEvaluator.evaluate(any(), any())).thenReturn(true);
+    when(handlerExecutorFactory.getExecutor(any())).thenReturn(Optional.of(handlerExecutor));
+
+    // Act
+    BusinessContext result = service.execute(ruleChain, new BusinessContext(Map.of("amount", 100)), scope);
+    service.execute(ruleChain, new BusinessContext(Map.of("amount", 100)), ExecutionScope.of("instance-3/node-1"));
+
+    // Assert
+    assertThat(result.data()).doesNotContainKey("score");
+    verify(handlerExecutor, times(2)).execute(eq(rule_p10.getHandler()), any());
+    assertThat(checkpoints.finds).isZero();
+    assertThat(checkpoints.find(scope.executionKey(), ruleChain.getId())).isEmpty();
+    assertThat(checkpoints.find("instance-2/node-1", ruleChain.getId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("execute: 中途失败后再次执行，应从最后一个检查点续跑，不重复执行已完成的处理器")
+  void execute_shouldResumeFromLastCheckpoint_afterFailure() {
+    // Arrange
+    var checkpoints = new InMemoryCheckpointRepository();
+    var service = new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, null, checkpoints);
+    var scope = ExecutionScope.of("instance-1/node-1");
+
+    Rule expensive = Rule.builder().id(RuleId.of("r-expensive")).priority(Priority.of(10)).condition(Condition.of("#{true}"))
+      .handler(Handler.of(HandlerType.CLASS, "h-expensive", Map.of(DefaultRuleChainExecutionService.CHECKPOINT_PARAMETER, true))).build();
+    Rule flaky = Rule.builder().id(RuleId.of("r-flaky")).priority(Priority.of(20)).condition(Condition.of("#{true}"))
+      .handler(Handler.of(HandlerType.CLASS, "h-flaky")).build();
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("long-chain")).rules(List.of(expensive, flaky)).build();
+
+    AtomicInteger expensiveCalls = new AtomicInteger();
+    AtomicInteger flakyCalls = new AtomicInteger();
+    HandlerExecutor recording = mock(HandlerExecutor.class);
+    doAnswer(invocation -> {
+      Handler handler = invocation.getArgument(0);
+      BusinessContext ctx = invocation.getArgument(1);
+      if (handler.equals(expensive.getHandler())) {
+        expensiveCalls.incrementAndGet();
+        ctx.data().put("score", 42);
+        ctx.data().remove("amount");
+      } else if (flakyCalls.incrementAndGet() == 1) {
+        throw new IllegalStateException("node crashed");
+      } else {
+        ctx.data().put("done", true);
+      }
+      return null;
+    }).when(recording).execute(any(), any(), any());
+    when(conditionEvaluator.evaluate(any(), any())).thenReturn(true);
+    when(handlerExecutorFactory.getExecutor(any())).thenReturn(Optional.of(recording));
+
+    // Act
+    assertThatThrownBy(() -> service.execute(ruleChain, new BusinessContext(Map.of("amount", 100)), scope))
+      .hasMessage("node crashed");
+    RuleChainCheckpoint saved = checkpoints.find(scope.executionKey(), ruleChain.getId()).orElseThrow();
+    BusinessContext resumed = service.execute(ruleChain, new BusinessContext(Map.of("amount", 100)), scope);
+
+    // Assert
+    assertThat(saved.ruleId()).isEqualTo(expensive.getId());
+    assertThat(saved.changes()).containsExactlyEntriesOf(Map.of("score", 42));
+    assertThat(saved.removals()).containsExactly("amount");
+    assertThat(expensiveCalls).hasValue(1);
+    assertThat(resumed.data()).containsExactlyInAnyOrderEntriesOf(Map.of("score", 42, "done", true));
+    assertThat(checkpoints.find(scope.executionKey(), ruleChain.getId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("execute: 注册了监听器时，应依次通知规则链开始、规则匹配、处理器执行和规则链结束")
+  void execute_shouldNotifyListener() {
+    // Arrange
+    ExecutionListener listener = mock(ExecutionListener.class);
+    var service = new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, null, null, listener);
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("observed-chain")).rules(List.of(rule_p20, rule_p10)).build();
+    when(conditionEvaluator.evaluate(rule_p10.getCondition(), context)).thenReturn(true);
+    when(conditionEvaluator.evaluate(rule_p20.getCondition(), context)).thenReturn(false);
+    when(handlerExecutorFactory.getExecutor(rule_p10.getHandler())).thenReturn(Optional.of(handlerExecutor));
+
+    // Act
+    service.execute(ruleChain, context);
+
+    // Assert
+    var inOrder = inOrder(listener, handlerExecutor);
+    inOrder.verify(listener).onChainStart(ruleChain, context);
+    inOrder.verify(listener).onRuleMatched(ruleChain, rule_p10, context);
+    inOrder.verify(listener).onHandlerStart(rule_p10, context);
+    inOrder.verify(handlerExecutor).execute(rule_p10.getHandler(), context);
+    inOrder.verify(listener).onHandlerInvoked(eq(rule_p10), eq(context), anyLong(), isNull());
+    inOrder.verify(listener).onChainEnd(ruleChain, context, null);
+    verify(listener, never()).onRuleMatched(ruleChain, rule_p20, context);
+  }
+
+  @Test
+  @DisplayName("execute: 处理器失败时，监听器应收到失败的处理器与规则链结束通知")
+  void execute_shouldNotifyListenerOfFailure() {
+    // Arrange
+    ExecutionListener listener = mock(ExecutionListener.class);
+    var service = new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, null, null, listener);
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("failing-chain")).rules(List.of(rule_p10)).build();
+    var failure = new IllegalStateException("boom");
+    when(conditionEvaluator.evaluate(rule_p10.getCondition(), context)).thenReturn(true);
+    when(handlerExecutorFactory.getExecutor(rule_p10.getHandler())).thenReturn(Optional.of(handlerExecutor));
+    doThrow(failure).when(handlerExecutor).execute(eq(rule_p10.getHandler()), eq(context), any());
+
+    // Act & Assert
+    assertThatThrownBy(() -> service.execute(ruleChain, context)).isSameAs(failure);
+    verify(listener).onHandlerInvoked(eq(rule_p10), eq(context), anyLong(), eq(failure));
+    verify(listener).onChainEnd(ruleChain, context, failure);
+  }
+
+  @Test
+  @DisplayName("execute: 处理器抛出 Error 或未声明的受检异常时，监听器同样收到处理器结束与规则链结束通知")
+  void execute_shouldNotifyListener_whenHandlerThrowsErrorOrCheckedException() {
+    // Arrange
+    ExecutionListener listener = mock(ExecutionListener.class);
+    var service = new DefaultRuleChainExecutionService(conditionEvaluator, handlerExecutorFactory, null, null, listener);
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("erroring-chain")).rules(List.of(rule_p10)).build();
+    var error = new StackOverflowError("deep");
+    var checked = new IOException("sneaky");
+    when(conditionEvaluator.evaluate(rule_p10.getCondition(), context)).thenReturn(true);
+    when(handlerExecutorFactory.getExecutor(rule_p10.getHandler())).thenReturn(Optional.of(handlerExecutor));
+    doThrow(error).doAnswer(invocation -> {
+      throw checked;
+    }).when(handlerExecutor).execute(eq(rule_p10.getHandler()), eq(context), any());
+
+    // Act & Assert
+    assertThatThrownBy(() -> service.execute(ruleChain, context)).isSameAs(error);
+    assertThatThrownBy(() -> service.execute(ruleChain, context)).isSameAs(checked);
+    verify(listener).onHandlerInvoked(eq(rule_p10), eq(context), anyLong(), eq(error));
+    verify(listener).onChainEnd(ruleChain, context, error);
+    verify(listener).onHandlerInvoked(eq(rule_p10), eq(context), anyLong(), eq(checked));
+    verify(listener).onChainEnd(ruleChain, context, checked);
+  }
+
+  @Test
+  @DisplayName("execute: 调用方取消后，应在下一条规则之前停止执行，并把令牌传给处理器")
+  void execute_shouldStopBetweenRules_whenCancelled() {
+    // Arrange
+    CancellationToken token = CancellationToken.create();
+    Rule second = Rule.builder().id(RuleId.of("r-second")).priority(Priority.of(20)).condition(Condition.of("#{amount > 0}"))
+      .handler(Handler.of(HandlerType.CLASS, "h-second")).build();
+    RuleChain ruleChain = RuleChain.builder().id(RuleChainId.of("cancel-chain")).rules(List.of(rule_p10, second)).build();
+    when(conditionEvaluator.evaluate(rule_p10.getCondition(), context)).thenReturn(true);
+    when(handlerExecutorFactory.getExecutor(rule_p10.getHandler())).thenReturn(Optional.of(handlerExecutor));
+    doAnswer(invocation -> {
+      token.cancel("client disconnected");
+      return null;
+    }).when(handlerExecutor).execute(rule_p10.getHandler(), context, token);
+
+    // Act & Assert
+    assertThatThrownBy(() -> executionService.execute(ruleChain, context, ExecutionScope.of("instance-1/node-1", token)))
+      .isInstanceOf(CancellationException.class)
+      .hasMessageContaining("client disconnected");
+    verify(conditionEvaluator, never()).evaluate(eq(second.getCondition()), any());
+  }
+
+  private static final class InMemoryCheckpointRepository implements RuleChainCheckpointRepository {
+    private final Map<String, RuleChainCheckpoint> store = new HashMap<>();
+    private int finds;
+
+    @Override
+    public Optional<RuleChainCheckpoint> find(String executionKey, RuleChainId ruleChainId) {
+      finds++;
+      return Optional.ofNullable(store.get(executionKey + ruleChainId.value()));
+    }
+
+    @Override
+    public void save(RuleChainCheckpoint checkpoint) {
+      store.put(checkpoint.executionKey() + checkpoint.ruleChainId().value(), checkpoint);
+    }
+
+    @Override
+    public void delete(String executionKey, RuleChainId ruleChainId) {
+      store.remove(executionKey + ruleChainId.value());
+    }
+
+    @Override
+    public void deleteByRuleChain(RuleChainId ruleChainId) {
+      store.values().removeIf(checkpoint -> checkpoint.ruleChainId().equals(ruleChainId));
+    }
+  }
 }
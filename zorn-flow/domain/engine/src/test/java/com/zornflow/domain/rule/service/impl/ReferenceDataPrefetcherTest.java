@@ -0,0 +1,198 @@
+package com.zornflow.domain.rule.service.impl;
+
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.service.ReferenceDataProvider;
+import com.zornflow.domain.rule.types.*;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReferenceDataPrefetcher 参考数据预取单元测试")
+class ReferenceDataPrefetcherTest {
+
+  private final Map<String, Integer> fetchCounts = new ConcurrentHashMap<>();
+  private final ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+  private ReferenceDataPrefetcher prefetcher;
+
+  @BeforeEach
+  void setUp() {
+    prefetcher = new ReferenceDataPrefetcher(List.of(
+      provider("customerProfile", ctx -> Map.of("level", "VIP")),
+      provider("policy", ctx -> "POLICY-" + ctx.get("policyId", String.class)),
+      provider("blacklist", ctx -> Boolean.FALSE),
+      provider("unused", ctx -> "never")
+    ), pool);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  @DisplayName("analyze: 应从条件表达式、处理器参数和显式声明中找出需要的数据")
+  void analyze_shouldCollectReferencesFromConditionsAndParameters() {
+    RuleChain chain = RuleChain.builder()
+      .id(RuleChainId.of("chain"))
+      .rules(List.of(
+        rule("r1", "#{ref_customerProfile.level == 'VIP'}", Map.of()),
+        rule("r2", "#{true}", Map.of("target", List.of("ref_policy"))),
+        rule("r3", null, Map.of(ReferenceDataPrefetcher.PREFETCH_PARAMETER, List.of("blacklist", "not-registered")))
+      ))
+      .build();
+
+    assertThat(prefetcher.analyze(chain))
+      .extracting(ReferenceDataProvider::name)
+      .containsExactly("customerProfile", "policy", "blacklist");
+  }
+
+  @Test
+  @DisplayName("prefetch: 应并发获取所有数据，并跳过上下文中已存在的键")
+  void prefetch_shouldFetchConcurrentlyAndSkipExistingKeys() {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    Function<BusinessContext, Object> awaitOther = ctx -> {
+      bothStarted.countDown();
+      try {
+        return bothStarted.await(5, TimeUnit.SECONDS) ? "ok" : "timeout";
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return "interrupted";
+      }
+    };
+    var a = provider("a", awaitOther);
+    var b = provider("b", awaitOther);
+    var c = provider("c", ctx -> "fresh");
+    var concurrent = new ReferenceDataPrefetcher(List.of(a, b, c), pool);
+
+    Map<String, Object> result = concurrent.prefetch(List.of(a, b, c), new BusinessContext(Map.of("ref_c", "cached")));
+
+    assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of("ref_a", "ok", "ref_b", "ok"));
+    assertThat(fetchCounts).doesNotContainKey("c");
+  }
+
+  @Test
+  @DisplayName("prefetch: 任一数据获取失败时应抛出 IllegalStateException")
+  void prefetch_shouldFail_whenAnyProviderFails() {
+    var failing = provider("broken", ctx -> {
+      throw new IllegalArgumentException("remote unavailable");
+    });
+    var withFailure = new ReferenceDataPrefetcher(List.of(failing), pool);
+
+    assertThatThrownBy(() -> withFailure.prefetch(List.of(failing), new BusinessContext(Map.of())))
+      .isInstanceOf(IllegalStateException.class)
+      .hasRootCauseMessage("remote unavailable");
+  }
+
+  @Test
+  @DisplayName("prefetch: 任一数据获取失败时应立即中断其余仍在执行的获取任务")
+  void prefetch_shouldInterruptRemainingFetches_whenAnyProviderFails() throws InterruptedException {
+    CountDownLatch slowStarted = new CountDownLatch(1);
+    CountDownLatch slowInterrupted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    var slow = provider("slow", ctx -> {
+      slowStarted.countDown();
+      try {
+        return release.await(10, TimeUnit.SECONDS) ? "late" : "timeout";
+      } catch (InterruptedException e) {
+        slowInterrupted.countDown();
+        return "interrupted";
+      }
+    });
+    var failing = provider("broken", ctx -> {
+      try {
+        slowStarted.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      throw new IllegalArgumentException("remote unavailable");
+    });
+    var failFast = new ReferenceDataPrefetcher(List.of(slow, failing), pool);
+
+    try {
+      long start = System.nanoTime();
+      assertThatThrownBy(() -> failFast.prefetch(List.of(slow, failing), new BusinessContext(Map.of())))
+        .isInstanceOf(IllegalStateException.class)
+        .hasRootCauseMessage("remote unavailable");
+      assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+      assertThat(slowInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  @DisplayName("prefetch: 调用方在获取过程中取消时应抛出 CancellationException 而不是 IllegalStateException")
+  void prefetch_shouldThrowCancellation_whenCancelledDuringFetch() {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    var slow = provider("slow", ctx -> {
+      started.countDown();
+      try {
+        return release.await(5, TimeUnit.SECONDS) ? "late" : "timeout";
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return "interrupted";
+      }
+    });
+    var cancellable = new ReferenceDataPrefetcher(List.of(slow), pool);
+    CancellationToken token = CancellationToken.create();
+    Thread.ofVirtual().start(() -> {
+      try {
+        if (started.await(5, TimeUnit.SECONDS)) {
+          token.cancel("client disconnected");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    try {
+      assertThatThrownBy(() -> cancellable.prefetch(List.of(slow), new BusinessContext(Map.of()), token))
+        .isInstanceOf(CancellationException.class)
+        .hasMessageContaining("client disconnected");
+    } finally {
+      release.countDown();
+    }
+  }
+
+  private ReferenceDataProvider provider(String name, Function<BusinessContext, Object> fetcher) {
+    return new ReferenceDataProvider() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public Object fetch(BusinessContext context) {
+        fetchCounts.merge(name, 1, Integer::sum);
+        return fetcher.apply(context);
+      }
+    };
+  }
+
+  private Rule rule(String id, String condition, Map<String, Object> parameters) {
+    return Rule.builder()
+      .id(RuleId.of(id))
+      .condition(Condition.of(condition))
+      .handler(Handler.of(HandlerType.CLASS, "h-" + id, parameters))
+      .build();
+  }
+}
@@ -1,6 +1,7 @@
 plugins {
   id("spring-boot-module")
   id("org.jooq.jooq-codegen-gradle") version "3.20.6"
+  id("me.champeau.jmh") version "0.7.3"
 }
 
 dependencies {
@@ -12,6 +13,8 @@ dependencies {
   implementation("org.springframework:spring-tx")
   implementation("org.springframework:spring-jdbc")
   implementation("org.springframework.boot:spring-boot-autoconfigure")
+  implementation("com.github.ben-manes.caffeine:caffeine")
+  implementation("org.apache.groovy:groovy")
 
   implementation("ch.qos.logback:logback-classic")
   implementation("com.fasterxml.jackson.core:jackson-databind")
@@ -26,11 +29,36 @@ dependencies {
   implementation(libs.ulid.creator)
   implementation(libs.jooq)
   implementation(libs.jooq.meta)
+  implementation(libs.chicory.runtime)
+  implementation(libs.chicory.compiler)
   implementation(libs.mapstruct)
   annotationProcessor(libs.mapstruct.processor)
 
 }
 
+// 列式条件求值的 Vector API 内核依赖孵化模块，源码放在 src/vector/java 中，只有以 -Pzornflow.vectorApi=true 构建时
+// 才编译进产物，并为编译、测试和基准测试加上该模块；默认构建只包含标量内核，运行时未启用该模块时同样使用标量内核
+val vectorModule = "--add-modules=jdk.incubator.vector"
+val vectorApi = providers.gradleProperty("zornflow.vectorApi").map(String::toBoolean).getOrElse(false)
+
+if (vectorApi) {
+  sourceSets.main {
+    java.srcDir("src/vector/java")
+  }
+
+  tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.add(vectorModule)
+  }
+
+  tasks.withType<Test>().configureEach {
+    jvmArgs(vectorModule)
+  }
+
+  jmh {
+    jvmArgs.add(vectorModule)
+  }
+}
+
 jooq {
   configuration {
     jdbc {
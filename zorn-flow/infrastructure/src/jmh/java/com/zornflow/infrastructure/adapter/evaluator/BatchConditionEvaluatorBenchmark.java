@@ -0,0 +1,103 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.Condition;
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量重新评分：同一条件在一批业务上下文上求值，对比逐条求值与按列批量求值
+ * 运行：./gradlew :zorn-flow:infrastructure:jmh -Pzornflow.vectorApi=true（不带该属性时 vectorKernel 使用标量内核）
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 14:10
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchConditionEvaluatorBenchmark {
+
+  @Param({"10000"})
+  public int size;
+
+  @Param({
+    "#{claimAmount > 10000 && claimAmount <= 50000 && score >= 0.5}",
+    "#{(claimAmount > 10000 && claimAmount <= 50000 && score >= 0.5) || (claimAmount > 70000 && score < 0.1) || !(claimAmount >= 100)}"
+  })
+  public String expression;
+
+  private Condition condition;
+  private List<BusinessContext> contexts;
+  private SpelConditionEvaluator compiled;
+  private NativeConditionEvaluator nativeEvaluator;
+  private final ColumnKernels scalarKernels = new ScalarColumnKernels();
+  private final ColumnKernels vectorKernels = Objects.requireNonNullElse(ColumnarPredicate.vectorKernels(), scalarKernels);
+  private double[] column;
+  private long[] bits;
+
+  @Setup
+  public void setUp() {
+    condition = Condition.of(expression);
+    Random random = new Random(42);
+    contexts = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      contexts.add(new BusinessContext(Map.of(
+        "claimAmount", random.nextInt(80000),
+        "score", random.nextDouble(),
+        "status", "ACTIVE")));
+    }
+    column = contexts.stream().mapToDouble(context -> ((Number) context.data().get("claimAmount")).doubleValue()).toArray();
+    bits = new long[(size + 63) / 64];
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.setCompilerMode(SpelCompilerMode.IMMEDIATE);
+    compiled = new SpelConditionEvaluator(new AggregateFunctions(null), properties);
+    nativeEvaluator = new NativeConditionEvaluator(compiled, new EvaluatorProperties());
+  }
+
+  @Benchmark
+  public long[] scalarKernel() {
+    scalarKernels.compare(column, size, NativeConditionCompiler.Relation.GT, 40000, bits);
+    return bits;
+  }
+
+  @Benchmark
+  public long[] vectorKernel() {
+    vectorKernels.compare(column, size, NativeConditionCompiler.Relation.GT, 40000, bits);
+    return bits;
+  }
+
+  @Benchmark
+  public BitSet spelCompiledBatch() {
+    return compiled.evaluateAll(condition, contexts);
+  }
+
+  @Benchmark
+  public BitSet nativePerContext() {
+    BitSet matches = new BitSet(contexts.size());
+    for (int i = 0; i < contexts.size(); i++) {
+      if (nativeEvaluator.evaluate(condition, contexts.get(i))) {
+        matches.set(i);
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public BitSet nativeColumnar() {
+    return nativeEvaluator.evaluateAll(condition, contexts);
+  }
+}
@@ -0,0 +1,96 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.Condition;
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 条件求值对比：SpEL 解释执行、SpEL 编译执行与原生闭包树
+ * 运行：./gradlew :zorn-flow:infrastructure:jmh
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 18:20
+ **/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionEvaluatorBenchmark {
+
+  @Param({
+    "#{claimAmount <= 10000}",
+    "#{claimAmount > 10000 && claimAmount <= 50000}",
+    "#{policyInfo != null && policyInfo.status == 'ACTIVE'}",
+    "#{{'ACTIVE','PENDING'}.contains(#status)}"
+  })
+  public String expression;
+
+  /**
+   * claimAmount 的取值类型：Java 调用方传入的 BigDecimal，或经过 JSON 往返后的 Integer
+   */
+  @Param({"decimal", "int"})
+  public String amountType;
+
+  /**
+   * policyInfo 的取值类型：嵌套 Map，或在 facts 中声明的 record
+   */
+  @Param({"map", "record"})
+  public String policyType;
+
+  private Condition condition;
+  private BusinessContext context;
+  private SpelConditionEvaluator interpreted;
+  private SpelConditionEvaluator compiled;
+  private NativeConditionEvaluator nativeEvaluator;
+
+  @Setup
+  public void setUp() {
+    condition = Condition.of(expression);
+    context = new BusinessContext(Map.of(
+      "claimAmount", amountType.equals("decimal") ? new BigDecimal("8000.00") : 8000,
+      "status", "ACTIVE",
+      "policyInfo", policyType.equals("record") ? new PolicyInfo("ACTIVE") : Map.of("status", "ACTIVE")));
+    interpreted = evaluator(SpelCompilerMode.OFF);
+    compiled = evaluator(SpelCompilerMode.IMMEDIATE);
+    nativeEvaluator = new NativeConditionEvaluator(interpreted, new EvaluatorProperties());
+    // 触发解析与编译
+    interpreted.evaluate(condition, context);
+    compiled.evaluate(condition, context);
+    nativeEvaluator.evaluate(condition, context);
+  }
+
+  @Benchmark
+  public boolean spelInterpreted() {
+    return interpreted.evaluate(condition, context);
+  }
+
+  @Benchmark
+  public boolean spelCompiled() {
+    return compiled.evaluate(condition, context);
+  }
+
+  @Benchmark
+  public boolean nativeClosure() {
+    return nativeEvaluator.evaluate(condition, context);
+  }
+
+  private static SpelConditionEvaluator evaluator(SpelCompilerMode mode) {
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.setCompilerMode(mode);
+    properties.setFacts(Map.of("policyInfo", PolicyInfo.class.getName()));
+    return new SpelConditionEvaluator(new AggregateFunctions(null), properties);
+  }
+
+  public record PolicyInfo(String status) {
+  }
+}
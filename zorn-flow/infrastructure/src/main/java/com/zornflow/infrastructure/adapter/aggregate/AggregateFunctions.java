@@ -0,0 +1,72 @@
+package com.zornflow.infrastructure.adapter.aggregate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zornflow.domain.rule.service.AggregateStateStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 暴露给条件表达式的聚合函数，以变量 {@value #VARIABLE_NAME} 注册，例如：
+ * <pre>#{#agg.count('claims', #applicantName, '30d') > 3}</pre>
+ * 窗口支持 "30d"、"12h"、"15m" 这样的简写，也支持 ISO-8601 格式（如 "PT12H"），解析结果按窗口文本缓存
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 11:08
+ **/
+
+@Component
+@RequiredArgsConstructor
+public class AggregateFunctions {
+
+  public static final String VARIABLE_NAME = "agg";
+
+  /**
+   * 窗口文本来自条件表达式中的常量，种类有限
+   */
+  private static final int WINDOW_CACHE_SIZE = 256;
+
+  private final AggregateStateStore aggregateStateStore;
+  private final Cache<String, Duration> windows = Caffeine.newBuilder().maximumSize(WINDOW_CACHE_SIZE).build();
+
+  public long count(String metric, Object entityKey, String window) {
+    return entityKey == null ? 0 : aggregateStateStore.count(metric, entityKey.toString(), window(window));
+  }
+
+  public double sum(String metric, Object entityKey, String window) {
+    return entityKey == null ? 0 : aggregateStateStore.sum(metric, entityKey.toString(), window(window));
+  }
+
+  public long distinct(String metric, Object entityKey, String window) {
+    return entityKey == null ? 0 : aggregateStateStore.distinctCount(metric, entityKey.toString(), window(window));
+  }
+
+  private Duration window(String window) {
+    if (window == null) {
+      throw new IllegalArgumentException("Aggregate window must not be blank.");
+    }
+    return windows.get(window, AggregateFunctions::parseWindow);
+  }
+
+  static Duration parseWindow(String window) {
+    if (window == null || window.isBlank()) {
+      throw new IllegalArgumentException("Aggregate window must not be blank.");
+    }
+    String text = window.trim().toLowerCase(Locale.ROOT);
+    if (text.startsWith("p")) {
+      return Duration.parse(text.toUpperCase(Locale.ROOT));
+    }
+    long amount = Long.parseLong(text.substring(0, text.length() - 1));
+    return switch (text.charAt(text.length() - 1)) {
+      case 'd' -> Duration.ofDays(amount);
+      case 'h' -> Duration.ofHours(amount);
+      case 'm' -> Duration.ofMinutes(amount);
+      case 's' -> Duration.ofSeconds(amount);
+      default -> throw new IllegalArgumentException("Unsupported aggregate window: " + window);
+    };
+  }
+}
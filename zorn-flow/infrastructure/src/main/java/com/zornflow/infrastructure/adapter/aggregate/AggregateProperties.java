@@ -0,0 +1,62 @@
+package com.zornflow.infrastructure.adapter.aggregate;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 滑动窗口聚合配置
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 9:52
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "zornflow.aggregate")
+public class AggregateProperties {
+  /**
+   * 时间桶宽度，也是窗口计算的最小粒度
+   */
+  private Duration bucket = Duration.ofHours(1);
+  /**
+   * 状态保留时长，决定可查询的最大窗口
+   */
+  private Duration retention = Duration.ofDays(31);
+  /**
+   * 检查点文件路径，为空时不做持久化；相对路径按进程工作目录解析，部署时应配置为绝对路径
+   */
+  private String checkpointPath;
+  /**
+   * 检查点写入间隔
+   */
+  private Duration checkpointInterval = Duration.ofMinutes(1);
+  /**
+   * 聚合订阅：流程实例开始处理时，按订阅从业务上下文中提取数据记录事件
+   */
+  private List<Feed> feeds = new ArrayList<>();
+
+  @Data
+  public static class Feed {
+    /**
+     * 度量名称
+     */
+    private String metric;
+    /**
+     * 业务上下文中作为实体键的字段
+     */
+    private String entityKey;
+    /**
+     * 业务上下文中参与求和的数值字段，可选
+     */
+    private String value;
+    /**
+     * 业务上下文中参与去重计数的字段，可选
+     */
+    private String distinct;
+  }
+}
@@ -0,0 +1,197 @@
+package com.zornflow.infrastructure.adapter.aggregate;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 支持滑动窗口查询的 HyperLogLog 去重计数草图（Sliding HyperLogLog），固定精度 p = 10，
+ * 1024 个寄存器，标准误差约 3.2%。
+ * 每个寄存器不只保存最大秩，而是保存 "之后不会再被超过" 的 (时间桶, 秩) 序列：时间桶递增、秩严格递减，
+ * 长度不超过秩的取值个数且通常只有几项。查询任意窗口时，每个寄存器取窗口起点之后第一项的秩，
+ * 开销只与寄存器数量有关，与窗口覆盖的时间桶数无关，也无需分配合并缓冲区。
+ * 非线程安全，由调用方加锁
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 10:05
+ **/
+
+final class HyperLogLog {
+
+  static final int PRECISION = 10;
+  static final int REGISTERS = 1 << PRECISION;
+  private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+  private static final long[] EMPTY = new long[0];
+
+  /**
+   * 每个寄存器的候选项，按 {@code bucket << 8 | rank} 打包，按时间桶升序排列
+   */
+  private final long[][] entries = new long[REGISTERS][];
+
+  static long hash(String member) {
+    // FNV-1a 64 位哈希，再用 SplitMix64 的终结函数打散低熵输入
+    long h = 0xcbf29ce484222325L;
+    for (byte b : member.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+
+  /**
+   * 记录一个成员
+   *
+   * @param hash   成员哈希
+   * @param bucket 成员出现的时间桶
+   * @param oldest 仍在保留期内的最早时间桶，更早的候选项顺带清除
+   */
+  void add(long hash, long bucket, long oldest) {
+    int index = (int) (hash >>> (Long.SIZE - PRECISION));
+    int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+    offer(index, bucket, rank, oldest);
+  }
+
+  /**
+   * 估算 from 及之后时间桶内的去重成员数
+   */
+  long estimate(long from) {
+    double sum = 0;
+    int zeros = 0;
+    for (long[] register : entries) {
+      int rank = register == null ? 0 : rankFrom(register, from);
+      sum += 1.0 / (1L << rank);
+      if (rank == 0) {
+        zeros++;
+      }
+    }
+    double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+    if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+      // 小基数修正：线性计数
+      estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * 清除早于 oldest 的候选项
+   *
+   * @return 清除后是否已没有任何候选项
+   */
+  boolean expire(long oldest) {
+    boolean empty = true;
+    for (int index = 0; index < REGISTERS; index++) {
+      long[] register = entries[index];
+      if (register == null) {
+        continue;
+      }
+      int keep = register.length - firstAtOrAfter(register, oldest);
+      entries[index] = keep == 0 ? null : keep == register.length ? register
+        : Arrays.copyOfRange(register, register.length - keep, register.length);
+      empty &= entries[index] == null;
+    }
+    return empty;
+  }
+
+  void writeTo(DataOutput out) throws IOException {
+    int used = 0;
+    for (long[] register : entries) {
+      if (register != null) {
+        used++;
+      }
+    }
+    out.writeInt(used);
+    for (int index = 0; index < REGISTERS; index++) {
+      long[] register = entries[index];
+      if (register == null) {
+        continue;
+      }
+      out.writeShort(index);
+      out.writeByte(register.length);
+      for (long entry : register) {
+        out.writeLong(entry);
+      }
+    }
+  }
+
+  static HyperLogLog readFrom(DataInput in) throws IOException {
+    HyperLogLog sketch = new HyperLogLog();
+    int used = in.readInt();
+    for (int i = 0; i < used; i++) {
+      int index = in.readUnsignedShort();
+      long[] register = new long[in.readUnsignedByte()];
+      for (int j = 0; j < register.length; j++) {
+        register[j] = in.readLong();
+      }
+      sketch.entries[index] = register;
+    }
+    return sketch;
+  }
+
+  /**
+   * 合并旧格式检查点中单个时间桶的普通 HyperLogLog 寄存器
+   */
+  void mergeRegisters(byte[] registers, long bucket, long oldest) {
+    if (registers.length != REGISTERS) {
+      throw new IllegalArgumentException("HyperLogLog expects " + REGISTERS + " registers, got " + registers.length);
+    }
+    for (int index = 0; index < REGISTERS; index++) {
+      if (registers[index] > 0) {
+        offer(index, bucket, registers[index], oldest);
+      }
+    }
+  }
+
+  /**
+   * 插入 (bucket, rank)：时间桶不早于它的候选项中已有不小于它的秩时无需记录；
+   * 否则移除时间桶不晚于它且秩不大于它的候选项后插入，保持时间桶递增、秩严格递减
+   */
+  private void offer(int index, long bucket, int rank, long oldest) {
+    long[] register = entries[index] == null ? EMPTY : entries[index];
+    int start = firstAtOrAfter(register, oldest);
+    int atOrAfter = firstAtOrAfter(register, bucket);
+    if (atOrAfter < register.length && rankOf(register[atOrAfter]) >= rank) {
+      if (start > 0) {
+        entries[index] = Arrays.copyOfRange(register, start, register.length);
+      }
+      return;
+    }
+    int later = firstAtOrAfter(register, bucket + 1);
+    // later 之前的候选项秩递减，秩不大于 rank 的是其中的一段后缀
+    int keepBefore = start;
+    while (keepBefore < later && rankOf(register[keepBefore]) > rank) {
+      keepBefore++;
+    }
+    int tail = register.length - later;
+    long[] updated = new long[keepBefore - start + 1 + tail];
+    System.arraycopy(register, start, updated, 0, keepBefore - start);
+    updated[keepBefore - start] = bucket << Byte.SIZE | rank;
+    System.arraycopy(register, later, updated, keepBefore - start + 1, tail);
+    entries[index] = updated;
+  }
+
+  private static int rankFrom(long[] register, long from) {
+    int position = firstAtOrAfter(register, from);
+    return position < register.length ? rankOf(register[position]) : 0;
+  }
+
+  private static int firstAtOrAfter(long[] register, long bucket) {
+    int position = 0;
+    while (position < register.length && bucketOf(register[position]) < bucket) {
+      position++;
+    }
+    return position;
+  }
+
+  private static long bucketOf(long entry) {
+    return entry >> Byte.SIZE;
+  }
+
+  private static int rankOf(long entry) {
+    return (int) (entry & 0xFF);
+  }
+}
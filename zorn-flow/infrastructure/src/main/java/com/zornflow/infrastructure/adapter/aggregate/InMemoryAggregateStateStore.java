@@ -0,0 +1,468 @@
+package com.zornflow.infrastructure.adapter.aggregate;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.AggregateStateStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于内存时间桶的滑动窗口聚合状态存储
+ * 每个 "度量 + 实体" 维护一个环形时间桶数组，桶内保存截至该桶的累计计数与累计求和，
+ * 窗口查询只需用窗口末尾的累计值减去窗口起点前一个桶的累计值；去重计数使用滑动窗口 HyperLogLog，
+ * 查询开销与窗口覆盖的桶数无关。过期的实体和事件标识在每进入一个新桶时清理，与是否配置检查点无关。
+ * 已记录的事件标识保留到其所在的桶过期为止，用于去重。状态定期写入检查点文件，重启时恢复
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 10:21
+ **/
+
+@Slf4j
+@Component
+public class InMemoryAggregateStateStore implements AggregateStateStore, SmartInitializingSingleton, DisposableBean {
+
+  private static final int CHECKPOINT_MAGIC = 0x5A464147;
+  private static final int CHECKPOINT_VERSION = 3;
+  private static final char KEY_SEPARATOR = '\u0000';
+
+  private final AggregateProperties properties;
+  private final Clock clock;
+  private final long bucketMillis;
+  private final int slots;
+  private final Map<String, EntityWindow> windows = new ConcurrentHashMap<>();
+  /**
+   * 已记录的事件标识到事件所在的桶，桶过期后移除
+   */
+  private final Map<String, Long> recordedEvents = new ConcurrentHashMap<>();
+  private volatile long prunedBucket = Long.MIN_VALUE;
+  private ScheduledExecutorService checkpointScheduler;
+
+  @Autowired
+  public InMemoryAggregateStateStore(AggregateProperties properties) {
+    this(properties, Clock.systemUTC());
+  }
+
+  InMemoryAggregateStateStore(AggregateProperties properties, Clock clock) {
+    this.properties = properties;
+    this.clock = clock;
+    this.bucketMillis = properties.getBucket().toMillis();
+    if (bucketMillis <= 0) {
+      throw new IllegalArgumentException("Aggregate bucket must be positive: " + properties.getBucket());
+    }
+    this.slots = (int) Math.ceilDiv(properties.getRetention().toMillis(), bucketMillis) + 1;
+  }
+
+  @Override
+  public boolean record(String eventId, BusinessContext context, Instant at) {
+    long bucket = bucketOf(at);
+    if (!isRetained(bucket)) {
+      return false;
+    }
+    pruneExpired();
+    if (recordedEvents.putIfAbsent(eventId, bucket) != null) {
+      log.debug("Aggregate event {} already recorded, skipping", eventId);
+      return false;
+    }
+    for (AggregateProperties.Feed feed : properties.getFeeds()) {
+      Object entity = context.data().get(feed.getEntityKey());
+      if (entity == null) {
+        continue;
+      }
+      String entityKey = entity.toString();
+      double value = feed.getValue() != null && context.data().get(feed.getValue()) instanceof Number number
+        ? number.doubleValue()
+        : 0;
+      increment(feed.getMetric(), entityKey, value, at);
+      if (feed.getDistinct() != null && context.data().get(feed.getDistinct()) != null) {
+        addDistinct(feed.getMetric(), entityKey, context.data().get(feed.getDistinct()).toString(), at);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void increment(String metric, String entityKey, double value, Instant at) {
+    long bucket = bucketOf(at);
+    if (isRetained(bucket)) {
+      pruneExpired();
+      windows.compute(key(metric, entityKey), (key, window) -> {
+        EntityWindow target = window != null ? window : new EntityWindow(slots);
+        target.add(bucket, value);
+        return target;
+      });
+    }
+  }
+
+  @Override
+  public void addDistinct(String metric, String entityKey, String member, Instant at) {
+    long bucket = bucketOf(at);
+    if (isRetained(bucket)) {
+      pruneExpired();
+      long hash = HyperLogLog.hash(member);
+      long oldest = currentBucket() - slots + 1;
+      windows.compute(key(metric, entityKey), (key, window) -> {
+        EntityWindow target = window != null ? window : new EntityWindow(slots);
+        target.addDistinct(bucket, hash, oldest);
+        return target;
+      });
+    }
+  }
+
+  @Override
+  public long count(String metric, String entityKey, Duration window) {
+    EntityWindow entityWindow = windows.get(key(metric, entityKey));
+    return entityWindow == null ? 0 : entityWindow.count(firstBucket(window), currentBucket());
+  }
+
+  @Override
+  public double sum(String metric, String entityKey, Duration window) {
+    EntityWindow entityWindow = windows.get(key(metric, entityKey));
+    return entityWindow == null ? 0 : entityWindow.sum(firstBucket(window), currentBucket());
+  }
+
+  @Override
+  public long distinctCount(String metric, String entityKey, Duration window) {
+    EntityWindow entityWindow = windows.get(key(metric, entityKey));
+    return entityWindow == null ? 0 : entityWindow.distinct(firstBucket(window));
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (properties.getCheckpointPath() == null || properties.getCheckpointPath().isBlank()) {
+      return;
+    }
+    Path path = Path.of(properties.getCheckpointPath()).toAbsolutePath();
+    log.info("Aggregate checkpoint file: {}", path);
+    restore(path);
+    long interval = properties.getCheckpointInterval().toMillis();
+    checkpointScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+      .name("aggregate-checkpoint").daemon(true).factory());
+    checkpointScheduler.scheduleWithFixedDelay(this::checkpointQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    if (checkpointScheduler != null) {
+      checkpointScheduler.shutdown();
+      checkpointQuietly();
+    }
+  }
+
+  /**
+   * 清理过期实体后，将当前状态写入检查点文件（先写临时文件再原子替换）
+   */
+  void checkpoint(Path path) throws IOException {
+    evictExpired(currentBucket());
+    Path parent = path.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      out.writeInt(CHECKPOINT_MAGIC);
+      out.writeInt(CHECKPOINT_VERSION);
+      out.writeLong(bucketMillis);
+      out.writeInt(slots);
+      var snapshot = Map.copyOf(windows);
+      out.writeInt(snapshot.size());
+      for (var entry : snapshot.entrySet()) {
+        out.writeUTF(entry.getKey());
+        entry.getValue().writeTo(out);
+      }
+      var events = Map.copyOf(recordedEvents);
+      out.writeInt(events.size());
+      for (var entry : events.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue());
+      }
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * 从检查点文件恢复状态，分桶参数与当前配置不一致时放弃恢复
+   */
+  void restore(Path path) {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      int version;
+      if (in.readInt() != CHECKPOINT_MAGIC || (version = in.readInt()) < 1 || version > CHECKPOINT_VERSION) {
+        log.warn("Ignoring aggregate checkpoint with unknown format: {}", path);
+        return;
+      }
+      if (in.readLong() != bucketMillis || in.readInt() != slots) {
+        log.warn("Ignoring aggregate checkpoint written with different bucket settings: {}", path);
+        return;
+      }
+      int size = in.readInt();
+      long oldest = currentBucket() - slots + 1;
+      for (int i = 0; i < size; i++) {
+        String key = in.readUTF();
+        windows.put(key, EntityWindow.readFrom(in, slots, version, oldest));
+      }
+      // 版本 1 的检查点不含事件标识
+      int events = version >= 2 ? in.readInt() : 0;
+      for (int i = 0; i < events; i++) {
+        recordedEvents.put(in.readUTF(), in.readLong());
+      }
+      log.info("Restored {} aggregate windows and {} event ids from checkpoint {}", size, events, path);
+    } catch (IOException e) {
+      log.error("Failed to restore aggregate checkpoint {}: {}", path, e.getMessage());
+    }
+  }
+
+  private void checkpointQuietly() {
+    try {
+      checkpoint(Path.of(properties.getCheckpointPath()));
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to write aggregate checkpoint {}: {}", properties.getCheckpointPath(), e.getMessage());
+    }
+  }
+
+  /**
+   * 每进入一个新桶清理一次过期的实体和事件标识，未配置检查点时也不会无限增长
+   */
+  private void pruneExpired() {
+    long current = currentBucket();
+    if (current != prunedBucket) {
+      prunedBucket = current;
+      evictExpired(current);
+    }
+  }
+
+  /**
+   * 逐个实体原子地判断和移除，不会丢弃并发写入到同一实体的新事件
+   */
+  private void evictExpired(long current) {
+    long oldest = current - slots + 1;
+    for (String key : windows.keySet()) {
+      windows.computeIfPresent(key, (k, window) -> window.expire(oldest) ? null : window);
+    }
+    recordedEvents.values().removeIf(bucket -> bucket < oldest);
+  }
+
+  /**
+   * 当前保留的 "度量 + 实体" 数量
+   */
+  int windowCount() {
+    return windows.size();
+  }
+
+  private static String key(String metric, String entityKey) {
+    return metric + KEY_SEPARATOR + entityKey;
+  }
+
+  private long bucketOf(Instant at) {
+    return Math.floorDiv(at.toEpochMilli(), bucketMillis);
+  }
+
+  private long currentBucket() {
+    return bucketOf(clock.instant());
+  }
+
+  private boolean isRetained(long bucket) {
+    return bucket > currentBucket() - slots;
+  }
+
+  /**
+   * 窗口覆盖的第一个桶；窗口按桶粒度向上取整，且不超过保留时长
+   */
+  private long firstBucket(Duration window) {
+    long buckets = Math.min(Math.max(1, Math.ceilDiv(window.toMillis(), bucketMillis)), slots);
+    return currentBucket() - buckets + 1;
+  }
+
+  /**
+   * 单个 "度量 + 实体" 的环形时间桶，环中始终是截至最新桶的连续 slots + 1 个桶；
+   * 多出的一个桶用于在窗口取满保留时长时读取窗口起点前一个桶的累计值
+   */
+  private static final class EntityWindow {
+    private final long[] countTotals;
+    private final double[] sumTotals;
+    private long count;
+    private double sum;
+    private long lastBucket = Long.MIN_VALUE;
+    private HyperLogLog sketch;
+
+    EntityWindow(int slots) {
+      this.countTotals = new long[slots + 1];
+      this.sumTotals = new double[slots + 1];
+    }
+
+    synchronized void add(long bucket, double value) {
+      if (!advanceTo(bucket)) {
+        return;
+      }
+      count++;
+      sum += value;
+      // 通常写入的就是最新桶；乱序写入较早的桶时补记其后各桶的累计值
+      for (long b = bucket; b <= lastBucket; b++) {
+        int slot = slotOf(b);
+        countTotals[slot]++;
+        sumTotals[slot] += value;
+      }
+    }
+
+    synchronized void addDistinct(long bucket, long hash, long oldest) {
+      if (!advanceTo(bucket)) {
+        return;
+      }
+      if (sketch == null) {
+        sketch = new HyperLogLog();
+      }
+      sketch.add(hash, bucket, oldest);
+    }
+
+    synchronized long count(long from, long to) {
+      return countAt(to) - countAt(from - 1);
+    }
+
+    synchronized double sum(long from, long to) {
+      return sumAt(to) - sumAt(from - 1);
+    }
+
+    synchronized long distinct(long from) {
+      return sketch == null ? 0 : sketch.estimate(from);
+    }
+
+    /**
+     * 清除早于 oldest 的状态
+     *
+     * @return 实体已没有保留期内的状态，可以整体移除
+     */
+    synchronized boolean expire(long oldest) {
+      boolean sketchEmpty = sketch == null || sketch.expire(oldest);
+      if (sketchEmpty) {
+        sketch = null;
+      }
+      return lastBucket < oldest && sketchEmpty;
+    }
+
+    synchronized void writeTo(DataOutput out) throws IOException {
+      // 按桶写出增量；环中最早的桶不会落入任何查询窗口，从第二个桶开始
+      long first = oldestBucket() + 1;
+      int used = 0;
+      for (long b = first; b <= lastBucket; b++) {
+        if (countAt(b) != countAt(b - 1) || sumAt(b) != sumAt(b - 1)) {
+          used++;
+        }
+      }
+      out.writeLong(lastBucket);
+      out.writeInt(used);
+      for (long b = first; b <= lastBucket; b++) {
+        long countDelta = countAt(b) - countAt(b - 1);
+        double sumDelta = sumAt(b) - sumAt(b - 1);
+        if (countDelta != 0 || sumDelta != 0) {
+          out.writeLong(b);
+          out.writeLong(countDelta);
+          out.writeDouble(sumDelta);
+        }
+      }
+      out.writeBoolean(sketch != null);
+      if (sketch != null) {
+        sketch.writeTo(out);
+      }
+    }
+
+    /**
+     * 读取检查点；版本 1、2 的检查点按桶保存计数、求和与普通 HyperLogLog 寄存器，读取时转换为累计值
+     */
+    static EntityWindow readFrom(DataInput in, int slots, int version, long oldest) throws IOException {
+      EntityWindow window = new EntityWindow(slots);
+      long last = in.readLong();
+      window.lastBucket = last;
+      long[] countDeltas = new long[slots + 1];
+      double[] sumDeltas = new double[slots + 1];
+      int used = in.readInt();
+      for (int i = 0; i < used; i++) {
+        long bucket = in.readLong();
+        long countDelta = in.readLong();
+        double sumDelta = in.readDouble();
+        byte[] registers = null;
+        if (version < 3 && in.readBoolean()) {
+          registers = new byte[HyperLogLog.REGISTERS];
+          in.readFully(registers);
+        }
+        if (bucket <= window.oldestBucket() || bucket > last) {
+          continue;
+        }
+        countDeltas[window.slotOf(bucket)] += countDelta;
+        sumDeltas[window.slotOf(bucket)] += sumDelta;
+        if (registers != null) {
+          if (window.sketch == null) {
+            window.sketch = new HyperLogLog();
+          }
+          window.sketch.mergeRegisters(registers, bucket, oldest);
+        }
+      }
+      for (long b = window.oldestBucket(); b <= last; b++) {
+        int slot = window.slotOf(b);
+        window.count += countDeltas[slot];
+        window.sum += sumDeltas[slot];
+        window.countTotals[slot] = window.count;
+        window.sumTotals[slot] = window.sum;
+      }
+      if (version >= 3 && in.readBoolean()) {
+        window.sketch = HyperLogLog.readFrom(in);
+      }
+      return window;
+    }
+
+    /**
+     * 环前移到给定的桶，新进入环的桶沿用当前累计值
+     *
+     * @return 给定的桶是否仍在环内
+     */
+    private boolean advanceTo(long bucket) {
+      if (lastBucket == Long.MIN_VALUE) {
+        lastBucket = bucket;
+        return true;
+      }
+      if (bucket > lastBucket) {
+        for (long b = Math.max(lastBucket + 1, bucket - countTotals.length + 1); b <= bucket; b++) {
+          int slot = slotOf(b);
+          countTotals[slot] = count;
+          sumTotals[slot] = sum;
+        }
+        lastBucket = bucket;
+        return true;
+      }
+      return bucket >= oldestBucket();
+    }
+
+    private long countAt(long bucket) {
+      return bucket >= lastBucket ? count : countTotals[slotOf(Math.max(bucket, oldestBucket()))];
+    }
+
+    private double sumAt(long bucket) {
+      return bucket >= lastBucket ? sum : sumTotals[slotOf(Math.max(bucket, oldestBucket()))];
+    }
+
+    private long oldestBucket() {
+      return lastBucket - countTotals.length + 1;
+    }
+
+    private int slotOf(long bucket) {
+      return (int) Math.floorMod(bucket, (long) countTotals.length);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+/**
+ * 原生条件表达式的布尔节点，比较与逻辑运算直接返回基本类型，避免装箱
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 16:10
+ **/
+
+@FunctionalInterface
+interface BoolNode extends ValueNode {
+
+  boolean test(TypedContext data);
+
+  @Override
+  default Object value(TypedContext data) {
+    return test(data);
+  }
+}
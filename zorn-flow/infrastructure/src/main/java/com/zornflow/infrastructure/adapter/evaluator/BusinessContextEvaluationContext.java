@@ -0,0 +1,222 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.*;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.support.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 只读的条件求值上下文
+ * 以业务数据 Map 作为根对象，通过 {@link MapAccessor} 直接读取（既可写 {@code claimAmount}，也可写 {@code #claimAmount}），
+ * 不复制数据；解析器、转换器等无状态组件全部共享，每次求值只分配这一个对象。
+ * 不支持类型引用 {@code T(...)}、构造器、Bean 引用和任何赋值，条件表达式只能读取数据。
+ * 带预算创建时为沙箱上下文：每次属性读取、变量读取、方法调用都计入 {@link EvaluationBudget}，只能调用白名单中的方法。
+ * 启用事实访问器时，声明的事实类型的属性通过 {@link FactPropertyAccessor} 读取
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 14:30
+ **/
+
+final class BusinessContextEvaluationContext implements EvaluationContext {
+
+  private static final List<PropertyAccessor> PROPERTY_ACCESSORS = List.of(
+    new MapAccessor(false), DataBindingPropertyAccessor.forReadOnlyAccess());
+  private static final List<MethodResolver> METHOD_RESOLVERS = List.of(
+    DataBindingMethodResolver.forInstanceMethodInvocation());
+  private static final List<PropertyAccessor> FACT_PROPERTY_ACCESSORS = List.of(
+    new MapAccessor(false), FactPropertyAccessor.INSTANCE, DataBindingPropertyAccessor.forReadOnlyAccess());
+  private static final List<PropertyAccessor> METERED_PROPERTY_ACCESSORS = metered(PROPERTY_ACCESSORS);
+  private static final List<PropertyAccessor> METERED_FACT_PROPERTY_ACCESSORS = metered(FACT_PROPERTY_ACCESSORS);
+  private static final List<MethodResolver> METERED_METHOD_RESOLVERS = METHOD_RESOLVERS.stream()
+    .<MethodResolver>map(MeteredMethodResolver::new)
+    .toList();
+  private static final TypeLocator TYPE_LOCATOR = typeName -> {
+    throw new SpelEvaluationException(SpelMessage.TYPE_NOT_FOUND, typeName);
+  };
+  private static final TypeConverter TYPE_CONVERTER = new StandardTypeConverter();
+  private static final TypeComparator TYPE_COMPARATOR = new StandardTypeComparator();
+  private static final OperatorOverloader OPERATOR_OVERLOADER = new StandardOperatorOverloader();
+
+  private final Map<String, Object> data;
+  private final TypedValue root;
+  private final String functionsName;
+  private final Object functions;
+  private final EvaluationBudget budget;
+  private final Set<String> allowedMethods;
+  private final List<PropertyAccessor> propertyAccessors;
+
+  /**
+   * @param data          业务数据，只读访问
+   * @param functionsName 额外暴露的函数对象变量名，例如 agg
+   * @param functions     函数对象，优先于同名的业务数据
+   */
+  BusinessContextEvaluationContext(Map<String, Object> data, String functionsName, Object functions) {
+    this(data, functionsName, functions, null, Set.of(), false);
+  }
+
+  /**
+   * @param budget         本次求值的预算，为 null 时不做限制
+   * @param allowedMethods 允许调用的方法名，只在有预算时生效
+   * @param factAccessors  是否通过生成的访问器读取声明的事实类型的属性
+   */
+  BusinessContextEvaluationContext(Map<String, Object> data, String functionsName, Object functions,
+                                   EvaluationBudget budget, Set<String> allowedMethods, boolean factAccessors) {
+    this.data = data;
+    this.root = new TypedValue(data);
+    this.functionsName = functionsName;
+    this.functions = functions;
+    this.budget = budget;
+    this.allowedMethods = allowedMethods;
+    if (budget == null) {
+      this.propertyAccessors = factAccessors ? FACT_PROPERTY_ACCESSORS : PROPERTY_ACCESSORS;
+    } else {
+      this.propertyAccessors = factAccessors ? METERED_FACT_PROPERTY_ACCESSORS : METERED_PROPERTY_ACCESSORS;
+    }
+  }
+
+  @Override
+  public TypedValue getRootObject() {
+    return root;
+  }
+
+  @Override
+  public List<PropertyAccessor> getPropertyAccessors() {
+    return propertyAccessors;
+  }
+
+  @Override
+  public List<ConstructorResolver> getConstructorResolvers() {
+    return List.of();
+  }
+
+  @Override
+  public List<MethodResolver> getMethodResolvers() {
+    return budget == null ? METHOD_RESOLVERS : METERED_METHOD_RESOLVERS;
+  }
+
+  @Override
+  public BeanResolver getBeanResolver() {
+    return null;
+  }
+
+  @Override
+  public TypeLocator getTypeLocator() {
+    return TYPE_LOCATOR;
+  }
+
+  @Override
+  public TypeConverter getTypeConverter() {
+    return TYPE_CONVERTER;
+  }
+
+  @Override
+  public TypeComparator getTypeComparator() {
+    return TYPE_COMPARATOR;
+  }
+
+  @Override
+  public OperatorOverloader getOperatorOverloader() {
+    return OPERATOR_OVERLOADER;
+  }
+
+  @Override
+  public void setVariable(String name, Object value) {
+    throw new SpelEvaluationException(SpelMessage.VARIABLE_ASSIGNMENT_NOT_SUPPORTED, "#" + name);
+  }
+
+  @Override
+  public Object lookupVariable(String name) {
+    Object value = name.equals(functionsName) ? functions : data.get(name);
+    if (budget != null) {
+      budget.charge(value);
+    }
+    return value;
+  }
+
+  @Override
+  public boolean isAssignmentEnabled() {
+    return false;
+  }
+
+  private static List<PropertyAccessor> metered(List<PropertyAccessor> accessors) {
+    return accessors.stream()
+      .<PropertyAccessor>map(MeteredPropertyAccessor::new)
+      .toList();
+  }
+
+  private void charge(Object value) {
+    if (budget != null) {
+      budget.charge(value);
+    }
+  }
+
+  private boolean isMethodAllowed(String name) {
+    return budget == null || allowedMethods.contains(name);
+  }
+
+  /**
+   * 计入预算的属性读取；不实现 {@link org.springframework.expression.spel.CompilablePropertyAccessor}，
+   * 含属性读取的表达式在沙箱中不会被编译为绕过计数的字节码
+   */
+  private record MeteredPropertyAccessor(PropertyAccessor delegate) implements PropertyAccessor {
+
+    @Override
+    public Class<?>[] getSpecificTargetClasses() {
+      return delegate.getSpecificTargetClasses();
+    }
+
+    @Override
+    public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+      return delegate.canRead(context, target, name);
+    }
+
+    @Override
+    public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
+      TypedValue value = delegate.read(context, target, name);
+      if (context instanceof BusinessContextEvaluationContext sandbox) {
+        sandbox.charge(value.getValue());
+      }
+      return value;
+    }
+
+    @Override
+    public boolean canWrite(EvaluationContext context, Object target, String name) {
+      return false;
+    }
+
+    @Override
+    public void write(EvaluationContext context, Object target, String name, Object newValue) throws AccessException {
+      throw new AccessException("Condition context is read-only");
+    }
+  }
+
+  /**
+   * 只解析白名单中的方法，调用计入预算；包装后的方法调用不会被编译，每次都经过检查
+   */
+  private record MeteredMethodResolver(MethodResolver delegate) implements MethodResolver {
+
+    @Override
+    public MethodExecutor resolve(EvaluationContext context, Object target, String name,
+                                  List<TypeDescriptor> argumentTypes) throws AccessException {
+      if (!(context instanceof BusinessContextEvaluationContext sandbox) || !sandbox.isMethodAllowed(name)) {
+        return null;
+      }
+      MethodExecutor executor = delegate.resolve(context, target, name, argumentTypes);
+      // 执行器会被表达式缓存并在之后的求值中复用，预算取自每次调用传入的上下文
+      return executor == null ? null : (current, object, arguments) -> {
+        TypedValue value = executor.execute(current, object, arguments);
+        if (current instanceof BusinessContextEvaluationContext metered) {
+          metered.charge(value.getValue());
+        }
+        return value;
+      };
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionCompiler.Relation;
+
+/**
+ * 列比较内核：double 列与常量逐元素比较，结果按位写入 long 数组，第 i 行对应 out[i >>> 6] 的第 (i & 63) 位
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 10:20
+ **/
+
+interface ColumnKernels {
+
+  /**
+   * @param column   列数据，只读取前 rows 个元素
+   * @param rows     行数
+   * @param relation 比较运算，列元素在左、常量在右
+   * @param constant 常量
+   * @param out      结果位图，长度至少为 (rows + 63) / 64
+   */
+  void compare(double[] column, int rows, Relation relation, double constant, long[] out);
+}
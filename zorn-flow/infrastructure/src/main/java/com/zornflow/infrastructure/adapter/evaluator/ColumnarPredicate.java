@@ -0,0 +1,226 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionCompiler.And;
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionCompiler.FieldComparison;
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionCompiler.Not;
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionCompiler.Or;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 原生条件的列式批量求值计划
+ * 条件只由数值字段与常量的比较及其与/或/非组合构成时，把引用的字段从一批业务数据中一次性抽取为 double 列，
+ * 在列上逐个比较得到位图后按位组合，内层循环没有 Map 查找和装箱。
+ * double 列按基本类型比较，NaN 与逐行求值一致：与任何常量都不相等也不可比。
+ * BigDecimal 按舍入到最近的 double 抽取：舍入单调，舍入后与字段的每个比较常量都不相等时，double 比较的结果与十进制比较相同；
+ * 与某个常量相等时只有十进制取值也恰好等于该常量才能按列求值。
+ * 某一行的字段缺失、不是整型/double/BigDecimal，超出 2^53、转为 double 会丢失精度的 long，
+ * 或者是按列比较结果不确定的 BigDecimal 时，该行不计入结果，由调用方逐行求值
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 11:05
+ **/
+
+@Slf4j
+final class ColumnarPredicate {
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+  private static final String VECTOR_KERNELS = ColumnarPredicate.class.getPackageName() + ".VectorColumnKernels";
+  private static final long MAX_EXACT_LONG = 1L << 53;
+
+  static final ColumnKernels KERNELS = detectKernels();
+
+  private final List<String> fields;
+  private final List<List<BigDecimal>> constants;
+  private final ColumnOp root;
+
+  private ColumnarPredicate(List<String> fields, List<List<BigDecimal>> constants, ColumnOp root) {
+    this.fields = List.copyOf(fields);
+    this.constants = constants.stream().map(List::copyOf).toList();
+    this.root = root;
+  }
+
+  /**
+   * @return 列式计划，条件包含列式不支持的节点时为 null
+   */
+  static ColumnarPredicate of(BoolNode node) {
+    List<String> fields = new ArrayList<>();
+    List<List<BigDecimal>> constants = new ArrayList<>();
+    ColumnOp root = plan(node, fields, constants);
+    return root == null ? null : new ColumnarPredicate(fields, constants, root);
+  }
+
+  /**
+   * @param rows 一批业务数据
+   * @return 列式求值的结果，未能按列求值的行在 {@link Result#resolved} 中对应位为 0
+   */
+  Result evaluate(List<Map<String, Object>> rows) {
+    int size = rows.size();
+    double[][] columns = new double[fields.size()][size];
+    long[] resolved = new long[words(size)];
+    for (int i = 0; i < size; i++) {
+      Map<String, Object> row = rows.get(i);
+      boolean exact = true;
+      for (int f = 0; f < columns.length && exact; f++) {
+        exact = extract(row.get(fields.get(f)), constants.get(f), columns[f], i);
+      }
+      if (exact) {
+        resolved[i >>> 6] |= 1L << i;
+      }
+    }
+    long[] matches = root.apply(new Columns(columns, size));
+    for (int w = 0; w < matches.length; w++) {
+      matches[w] &= resolved[w];
+    }
+    return new Result(matches, resolved);
+  }
+
+  List<String> fields() {
+    return fields;
+  }
+
+  /**
+   * @param constants 该字段参与比较的常量的十进制取值
+   */
+  private static boolean extract(Object value, List<BigDecimal> constants, double[] column, int row) {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      column[row] = ((Number) value).intValue();
+      return true;
+    }
+    if (value instanceof Long l) {
+      column[row] = l;
+      return l >= -MAX_EXACT_LONG && l <= MAX_EXACT_LONG;
+    }
+    if (value instanceof Double d) {
+      column[row] = d;
+      return true;
+    }
+    if (value instanceof BigDecimal decimal) {
+      double rounded = decimal.doubleValue();
+      column[row] = rounded;
+      for (BigDecimal constant : constants) {
+        if (rounded == constant.doubleValue() && decimal.compareTo(constant) != 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static ColumnOp plan(BoolNode node, List<String> fields, List<List<BigDecimal>> constants) {
+    return switch (node) {
+      case And and -> combine(plan(and.left(), fields, constants), plan(and.right(), fields, constants), true);
+      case Or or -> combine(plan(or.left(), fields, constants), plan(or.right(), fields, constants), false);
+      case Not not -> {
+        ColumnOp operand = plan(not.operand(), fields, constants);
+        yield operand == null ? null : columns -> {
+          long[] bits = operand.apply(columns);
+          for (int w = 0; w < bits.length; w++) {
+            bits[w] = ~bits[w];
+          }
+          return bits;
+        };
+      }
+      case FieldComparison comparison when isExact(comparison.constant()) -> {
+        String field = comparison.field().name();
+        int index = fields.indexOf(field);
+        if (index < 0) {
+          index = fields.size();
+          fields.add(field);
+          constants.add(new ArrayList<>());
+        }
+        constants.get(index).add(decimalOf(comparison.constant()));
+        int column = index;
+        double constant = comparison.constant().doubleValue();
+        yield columns -> {
+          long[] bits = new long[words(columns.rows())];
+          KERNELS.compare(columns.values()[column], columns.rows(), comparison.relation(), constant, bits);
+          return bits;
+        };
+      }
+      default -> null;
+    };
+  }
+
+  private static ColumnOp combine(ColumnOp left, ColumnOp right, boolean and) {
+    if (left == null || right == null) {
+      return null;
+    }
+    return columns -> {
+      long[] l = left.apply(columns);
+      long[] r = right.apply(columns);
+      for (int w = 0; w < l.length; w++) {
+        l[w] = and ? l[w] & r[w] : l[w] | r[w];
+      }
+      return l;
+    };
+  }
+
+  private static boolean isExact(Number constant) {
+    if (constant instanceof Double) {
+      return true;
+    }
+    long value = constant.longValue();
+    return value >= -MAX_EXACT_LONG && value <= MAX_EXACT_LONG;
+  }
+
+  /**
+   * 与 SpEL 一致，double 常量按其十进制字符串转换
+   */
+  private static BigDecimal decimalOf(Number constant) {
+    return constant instanceof Double ? new BigDecimal(constant.toString()) : BigDecimal.valueOf(constant.longValue());
+  }
+
+  private static int words(int rows) {
+    return (rows + Long.SIZE - 1) >>> 6;
+  }
+
+  /**
+   * @return Vector API 内核；构建时没有包含（未以 -Pzornflow.vectorApi=true 构建）或 JVM 未启用孵化模块时为 null
+   */
+  static ColumnKernels vectorKernels() {
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      return null;
+    }
+    try {
+      return (ColumnKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      log.warn("Vector API 不可用: {}", e.toString());
+      return null;
+    }
+  }
+
+  private static ColumnKernels detectKernels() {
+    ColumnKernels kernels = vectorKernels();
+    if (kernels != null) {
+      log.info("列式条件求值使用 Vector API 内核");
+      return kernels;
+    }
+    log.info("列式条件求值使用标量内核，Vector API 内核需要以 -Pzornflow.vectorApi=true 构建并以 --add-modules={} 启动", VECTOR_MODULE);
+    return new ScalarColumnKernels();
+  }
+
+  @FunctionalInterface
+  private interface ColumnOp {
+
+    long[] apply(Columns columns);
+  }
+
+  private record Columns(double[][] values, int rows) {
+  }
+
+  /**
+   * @param matches  按列求值命中的行
+   * @param resolved 按列求值的行，为 0 的行需要逐行求值
+   */
+  record Result(long[] matches, long[] resolved) {
+  }
+}
@@ -0,0 +1,43 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 条件表达式的静态分析结果
+ *
+ * @param variables         表达式读取的全部业务数据字段（裸属性名和 #变量）
+ * @param requiredVariables 必然会被读取的裸属性名；任一字段不存在时 SpEL 一定抛出异常，求值器据此直接返回 false
+ * @param constantResult    与业务数据无关的恒定结果（恒真/恒假），不是常量条件时为 null
+ * @param cost              静态估算的求值开销，沙箱据此拒绝过于昂贵的条件
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 9:40
+ **/
+
+public record ConditionAnalysis(Set<String> variables, Set<String> requiredVariables, Boolean constantResult, int cost) {
+
+  public static final ConditionAnalysis EMPTY = new ConditionAnalysis(Set.of(), Set.of(), null, 0);
+
+  public ConditionAnalysis {
+    variables = Set.copyOf(variables);
+    requiredVariables = Set.copyOf(requiredVariables);
+  }
+
+  public Optional<Boolean> constant() {
+    return Optional.ofNullable(constantResult);
+  }
+
+  /**
+   * @return 第一个缺失的必需字段，全部存在时返回 null
+   */
+  public String firstMissing(Map<String, Object> data) {
+    for (String variable : requiredVariables) {
+      if (!data.containsKey(variable)) {
+        return variable;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,366 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.domain.common.config.model.ModelConfig;
+import com.zornflow.domain.rule.types.Condition;
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
+import com.zornflow.infrastructure.config.model.ProcessChainConfig;
+import com.zornflow.infrastructure.config.model.ProcessNodeConfig;
+import com.zornflow.infrastructure.config.model.RuleChainConfig;
+import com.zornflow.infrastructure.config.model.RuleConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.ExpressionState;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.*;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 条件表达式的加载期静态分析
+ * 配置源发布配置之前，对每个条件解析一次并做基本的类型检查：
+ * 拒绝无法解析的表达式、只读求值上下文不支持的语法（类型引用、构造器、Bean 引用、函数、赋值）
+ * 以及结果不可能是布尔值的表达式（数值/字符串字面量、算术运算、集合字面量）；
+ * 同时提取表达式读取的业务数据字段，供求值器在必需字段缺失时跳过求值；
+ * 并对不读取业务数据的子表达式做常量折叠，识别恒真/恒假的条件。
+ * 启用沙箱时另外拒绝静态开销超限、调用白名单以外方法、使用非字面量或可能灾难性回溯的正则的条件；
+ * 声明了事实类型时校验属性导航链上的属性都存在
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 9:55
+ **/
+
+@Slf4j
+@Component
+public class ConditionAnalyzer {
+
+  /**
+   * 开销估算：普通节点计 1，方法调用与正则匹配另计固定开销，选择/投影内部按假定的集合大小放大
+   */
+  static final int METHOD_COST = 10;
+  static final int REGEX_COST = 50;
+  static final int ASSUMED_COLLECTION_SIZE = 100;
+  /**
+   * 量词作用于本身含有量词的分组，例如 (a+)+、(\w*)*，匹配失败时回溯次数随输入长度指数增长
+   */
+  private static final Pattern NESTED_QUANTIFIER = Pattern.compile("\\((?:[^()\\\\]|\\\\.)*[+*}]\\)[+*{]");
+
+  private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+  private static final Set<String> RESERVED_VARIABLES = Set.of("root", "this", AggregateFunctions.VARIABLE_NAME);
+  /**
+   * 常量子表达式求值用的空上下文
+   */
+  private static final BusinessContextEvaluationContext CONSTANT_CONTEXT =
+    new BusinessContextEvaluationContext(Map.of(), AggregateFunctions.VARIABLE_NAME, null);
+
+  private final EvaluatorProperties.Sandbox sandbox;
+  private final Map<String, FactTypes.FactType> facts;
+
+  public ConditionAnalyzer(EvaluatorProperties properties) {
+    this.sandbox = properties.getSandbox();
+    this.facts = FactTypes.declare(properties.getFacts(), getClass().getClassLoader());
+  }
+
+  /**
+   * 校验配置中的所有条件，存在无效条件时抛出 {@link IllegalArgumentException}
+   */
+  public void validate(ModelConfig config) {
+    switch (config) {
+      case RuleChainConfig chain when chain.rules() != null -> {
+        for (RuleConfig rule : chain.rules()) {
+          if (rule.condition() != null) {
+            analyze(rule.condition(), "rule chain " + chain.id() + ", rule " + rule.id());
+          }
+        }
+      }
+      case ProcessChainConfig chain when chain.nodes() != null -> {
+        for (ProcessNodeConfig node : chain.nodes()) {
+          if (node.conditions() == null) {
+            continue;
+          }
+          for (ProcessNodeConfig.GatewayConditionConfig condition : node.conditions()) {
+            analyze(condition.condition(), "process chain " + chain.id() + ", node " + node.id());
+          }
+        }
+      }
+      default -> {
+      }
+    }
+  }
+
+  /**
+   * @param expression 条件原文，例如 "#{claimAmount <= 10000}"
+   */
+  public ConditionAnalysis analyze(String expression) {
+    return analyze(expression, "condition");
+  }
+
+  private ConditionAnalysis analyze(String expression, String location) {
+    try {
+      SpelExpression parsed = (SpelExpression) PARSER.parseExpression(Condition.of(expression).getPureExpression());
+      ConditionAnalysis analysis = analyze(parsed);
+      if (sandbox.isEnabled()) {
+        checkSandbox(parsed.getAST(), analysis);
+      }
+      if (!facts.isEmpty()) {
+        checkFacts(parsed.getAST(), true);
+      }
+      log.debug("条件表达式分析 [{}] {} -> 读取字段: {}, 必需字段: {}, 开销: {}", location, expression,
+        analysis.variables(), analysis.requiredVariables(), analysis.cost());
+      return analysis;
+    } catch (ParseException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid condition in " + location + ": " + expression + " | " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 分析已解析的表达式
+   *
+   * @throws IllegalArgumentException 表达式使用了不支持的语法或结果不可能是布尔值
+   */
+  static ConditionAnalysis analyze(SpelExpression expression) {
+    SpelNode root = expression.getAST();
+    if (!canBeBoolean(root)) {
+      throw new IllegalArgumentException("Condition must evaluate to a boolean, but got " + root.getClass().getSimpleName());
+    }
+    Set<String> variables = new LinkedHashSet<>();
+    Set<String> required = new LinkedHashSet<>();
+    visit(root, true, true, variables, required);
+    return new ConditionAnalysis(variables, required, constantOf(root), costOf(root));
+  }
+
+  /**
+   * 静态估算求值开销；选择/投影的条件对每个元素求值一次，嵌套时开销按集合大小的乘积增长
+   */
+  static int costOf(SpelNode node) {
+    long children = 0;
+    for (int i = 0; i < node.getChildCount(); i++) {
+      children += costOf(node.getChild(i));
+    }
+    long cost = switch (node) {
+      case Selection ignored -> 1 + children * ASSUMED_COLLECTION_SIZE;
+      case Projection ignored -> 1 + children * ASSUMED_COLLECTION_SIZE;
+      case MethodReference ignored -> METHOD_COST + children;
+      case OperatorMatches ignored -> REGEX_COST + children;
+      default -> 1 + children;
+    };
+    return (int) Math.min(cost, Integer.MAX_VALUE);
+  }
+
+  private void checkSandbox(SpelNode root, ConditionAnalysis analysis) {
+    if (analysis.cost() > sandbox.getMaxCost()) {
+      throw new IllegalArgumentException("Condition cost " + analysis.cost() + " exceeds sandbox limit " + sandbox.getMaxCost());
+    }
+    checkOperations(root);
+  }
+
+  private void checkOperations(SpelNode node) {
+    switch (node) {
+      case MethodReference method when !sandbox.getAllowedMethods().contains(method.getName()) ->
+        throw unsupported("method in sandbox", node);
+      case OperatorMatches matches -> {
+        if (!(matches.getRightOperand() instanceof StringLiteral literal)) {
+          throw unsupported("non-literal regex in sandbox", node);
+        }
+        String pattern = String.valueOf(literal.getLiteralValue().getValue());
+        if (NESTED_QUANTIFIER.matcher(pattern).find()) {
+          throw unsupported("regex with nested quantifiers in sandbox", node);
+        }
+      }
+      default -> {
+      }
+    }
+    for (int i = 0; i < node.getChildCount(); i++) {
+      checkOperations(node.getChild(i));
+    }
+  }
+
+  /**
+   * 从声明了类型的事实出发的属性导航，沿声明类型逐级校验属性存在，例如 policyInfo.statu 在加载时即被拒绝；
+   * 导航到未注册的类型（String、Map、集合等）或经过索引、方法调用后不再校验
+   *
+   * @param rootScope 裸属性名是否相对于业务数据根对象解析
+   */
+  private void checkFacts(SpelNode node, boolean rootScope) {
+    if (!(node instanceof CompoundExpression compound)) {
+      for (int i = 0; i < node.getChildCount(); i++) {
+        checkFacts(node.getChild(i), rootScope);
+      }
+      return;
+    }
+    SpelNode head = compound.getChild(0);
+    checkFacts(head, rootScope);
+    FactTypes.FactType type = switch (head) {
+      case PropertyOrFieldReference property when rootScope -> facts.get(property.getName());
+      case VariableReference variable -> facts.get(variable.toStringAST().substring(1));
+      default -> null;
+    };
+    for (int i = 1; i < compound.getChildCount(); i++) {
+      SpelNode step = compound.getChild(i);
+      if (type != null && step instanceof PropertyOrFieldReference property) {
+        FactTypes.FactProperty declared = type.properties().get(property.getName());
+        if (declared == null) {
+          throw new IllegalArgumentException("Unknown property '" + property.getName() + "' of fact type "
+            + type.type().getName() + " in '" + compound.toStringAST() + "'");
+        }
+        type = FactTypes.of(declared.type());
+      } else {
+        type = null;
+      }
+      // 选择与投影内部的裸属性相对集合元素解析
+      boolean elementScope = step instanceof Selection || step instanceof Projection;
+      for (int j = 0; j < step.getChildCount(); j++) {
+        checkFacts(step.getChild(j), !elementScope);
+      }
+    }
+  }
+
+  /**
+   * 常量折叠：不读取任何数据的子表达式直接求值，布尔运算按短路语义化简。
+   * 只在化简前后结果完全一致时折叠，例如 x && false 恒为 false（x 求值失败时条件同样为 false），
+   * 而 x || true 不折叠（x 求值失败时条件为 false）
+   *
+   * @return 恒定的布尔结果，无法确定时为 null
+   */
+  static Boolean constantOf(SpelNode node) {
+    switch (node) {
+      case OpAnd and -> {
+        Boolean left = constantOf(and.getChild(0));
+        Boolean right = constantOf(and.getChild(1));
+        if (Boolean.FALSE.equals(left) || Boolean.FALSE.equals(right)) {
+          return Boolean.FALSE;
+        }
+        return Boolean.TRUE.equals(left) && Boolean.TRUE.equals(right) ? Boolean.TRUE : null;
+      }
+      case OpOr or -> {
+        Boolean left = constantOf(or.getChild(0));
+        if (Boolean.TRUE.equals(left)) {
+          return Boolean.TRUE;
+        }
+        return Boolean.FALSE.equals(left) ? constantOf(or.getChild(1)) : null;
+      }
+      case OperatorNot not -> {
+        Boolean operand = constantOf(not.getChild(0));
+        return operand == null ? null : !operand;
+      }
+      case Ternary ternary -> {
+        Boolean condition = constantOf(ternary.getChild(0));
+        return condition == null ? null : constantOf(ternary.getChild(condition ? 1 : 2));
+      }
+      default -> {
+        if (!(node instanceof SpelNodeImpl impl) || readsData(node)) {
+          return null;
+        }
+        try {
+          Object value = impl.getValue(new ExpressionState(CONSTANT_CONTEXT));
+          return value instanceof Boolean b ? b : null;
+        } catch (RuntimeException e) {
+          return null;
+        }
+      }
+    }
+  }
+
+  private static boolean readsData(SpelNode node) {
+    if (node instanceof PropertyOrFieldReference || node instanceof VariableReference || node instanceof MethodReference
+      || node instanceof FunctionReference || node instanceof BeanReference || node instanceof TypeReference
+      || node instanceof ConstructorReference || node instanceof Assign || node instanceof OpInc || node instanceof OpDec) {
+      return true;
+    }
+    for (int i = 0; i < node.getChildCount(); i++) {
+      if (readsData(node.getChild(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param unconditional 节点是否在每次求值时都一定会被执行（不在短路运算的右侧、三元分支等位置）
+   * @param rootScope     裸属性名是否相对于业务数据根对象解析
+   */
+  private static void visit(SpelNode node, boolean unconditional, boolean rootScope,
+                            Set<String> variables, Set<String> required) {
+    switch (node) {
+      case TypeReference ignored -> throw unsupported("type reference", node);
+      case ConstructorReference ignored -> throw unsupported("constructor", node);
+      case BeanReference ignored -> throw unsupported("bean reference", node);
+      case FunctionReference ignored -> throw unsupported("function", node);
+      case Assign ignored -> throw unsupported("assignment", node);
+      case OpInc ignored -> throw unsupported("assignment", node);
+      case OpDec ignored -> throw unsupported("assignment", node);
+      case PropertyOrFieldReference property -> {
+        if (rootScope) {
+          variables.add(property.getName());
+          if (unconditional) {
+            required.add(property.getName());
+          }
+        }
+      }
+      case VariableReference variable -> {
+        String name = variable.toStringAST().substring(1);
+        if (!RESERVED_VARIABLES.contains(name)) {
+          variables.add(name);
+        }
+      }
+      case CompoundExpression compound -> {
+        visit(compound.getChild(0), unconditional, rootScope, variables, required);
+        // 后续节点是对前一个结果的导航，其方法参数、索引表达式相对根对象求值，但可能被安全导航短路；
+        // 选择与投影内部的裸属性相对集合元素解析
+        for (int i = 1; i < compound.getChildCount(); i++) {
+          SpelNode step = compound.getChild(i);
+          boolean elementScope = step instanceof Selection || step instanceof Projection;
+          visitChildren(step, false, !elementScope, variables, required);
+        }
+      }
+      case OpAnd and -> visitBranches(and, unconditional, rootScope, variables, required);
+      case OpOr or -> visitBranches(or, unconditional, rootScope, variables, required);
+      case Elvis elvis -> visitBranches(elvis, unconditional, rootScope, variables, required);
+      case Ternary ternary -> visitBranches(ternary, unconditional, rootScope, variables, required);
+      case MethodReference method -> visitChildren(method, false, true, variables, required);
+      default -> visitChildren(node, unconditional, rootScope, variables, required);
+    }
+  }
+
+  private static void visitBranches(SpelNode node, boolean unconditional, boolean rootScope,
+                                    Set<String> variables, Set<String> required) {
+    visit(node.getChild(0), unconditional, rootScope, variables, required);
+    for (int i = 1; i < node.getChildCount(); i++) {
+      visit(node.getChild(i), false, rootScope, variables, required);
+    }
+  }
+
+  private static void visitChildren(SpelNode node, boolean unconditional, boolean rootScope,
+                                    Set<String> variables, Set<String> required) {
+    for (int i = 0; i < node.getChildCount(); i++) {
+      visit(node.getChild(i), unconditional, rootScope, variables, required);
+    }
+  }
+
+  private static boolean canBeBoolean(SpelNode node) {
+    return switch (node) {
+      case BooleanLiteral ignored -> true;
+      case Literal ignored -> false;
+      case OpPlus ignored -> false;
+      case OpMinus ignored -> false;
+      case OpMultiply ignored -> false;
+      case OpDivide ignored -> false;
+      case OpModulus ignored -> false;
+      case OperatorPower ignored -> false;
+      case InlineList ignored -> false;
+      case InlineMap ignored -> false;
+      case Projection ignored -> false;
+      default -> true;
+    };
+  }
+
+  private static IllegalArgumentException unsupported(String feature, SpelNode node) {
+    return new IllegalArgumentException("Unsupported " + feature + " '" + node.toStringAST() + "'");
+  }
+}
@@ -0,0 +1,16 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+/**
+ * 沙箱求值超出步数或时间预算，由 {@link SpelConditionEvaluator} 捕获后按条件不满足处理并计数
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 10:12
+ **/
+
+final class ConditionBudgetExceededException extends RuntimeException {
+
+  ConditionBudgetExceededException(String message) {
+    super(message, null, false, false);
+  }
+}
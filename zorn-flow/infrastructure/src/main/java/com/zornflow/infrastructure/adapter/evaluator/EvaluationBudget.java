@@ -0,0 +1,60 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 单次沙箱求值的步数与时间预算，只在一次求值内使用，不需要线程安全
+ * 属性读取、变量读取和方法调用各计一步；读到集合、Map 或数组时再按元素个数计，
+ * 因为随后的选择、投影会逐个元素求值
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 10:10
+ **/
+
+final class EvaluationBudget {
+
+  private final long maxSteps;
+  private final long maxNanos;
+  private final long startedAt;
+  private long steps;
+
+  EvaluationBudget(long maxSteps, Duration maxTime) {
+    this.maxSteps = maxSteps;
+    this.maxNanos = maxTime.toNanos();
+    this.startedAt = System.nanoTime();
+  }
+
+  /**
+   * 记录一次访问，读到的值是集合时按元素个数追加步数
+   *
+   * @throws ConditionBudgetExceededException 步数或时间超出预算
+   */
+  void charge(Object value) {
+    steps += 1 + sizeOf(value);
+    if (steps > maxSteps) {
+      throw new ConditionBudgetExceededException("step budget exceeded: " + steps + " > " + maxSteps);
+    }
+    long elapsed = System.nanoTime() - startedAt;
+    if (elapsed > maxNanos) {
+      throw new ConditionBudgetExceededException("time budget exceeded: " + Duration.ofNanos(elapsed));
+    }
+  }
+
+  long steps() {
+    return steps;
+  }
+
+  private static long sizeOf(Object value) {
+    if (value instanceof Collection<?> collection) {
+      return collection.size();
+    }
+    if (value instanceof Map<?, ?> map) {
+      return map.size();
+    }
+    return value != null && value.getClass().isArray() ? Array.getLength(value) : 0;
+  }
+}
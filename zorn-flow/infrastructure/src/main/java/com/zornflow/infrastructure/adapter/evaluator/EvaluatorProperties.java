@@ -0,0 +1,72 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 条件表达式求值配置
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 9:20
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "zornflow.evaluator")
+public class EvaluatorProperties {
+  /**
+   * 已解析表达式缓存的最大条目数，超出后按访问频率淘汰
+   */
+  private long expressionCacheSize = 2048;
+  /**
+   * SpEL 编译模式：OFF 始终解释执行；MIXED 编译失败或运行时类型变化时回退解释执行；
+   * IMMEDIATE 编译后不再回退，类型变化时求值直接失败
+   */
+  private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+  /**
+   * 预热用的样例业务数据，启动时用它们对所有已加载的条件求值一次，使编译在流量到来之前完成
+   */
+  private List<Map<String, Object>> warmUpSamples = new ArrayList<>();
+  /**
+   * 声明的类型化事实：业务数据字段名到类全名，例如 policyInfo: com.acme.PolicyInfo。
+   * 这些字段的属性导航通过启动时生成的访问器读取，不经过反射；加载配置时校验条件引用的属性是否存在
+   */
+  private Map<String, String> facts = new LinkedHashMap<>();
+  /**
+   * 条件沙箱，限制单个条件的开销；启用后条件只解释执行，编译模式不生效
+   */
+  private Sandbox sandbox = new Sandbox();
+
+  @Data
+  public static class Sandbox {
+    private boolean enabled = false;
+    /**
+     * 加载时静态估算的开销上限，超出的条件拒绝加载
+     */
+    private int maxCost = 1000;
+    /**
+     * 单次求值的步数上限：每次属性读取、变量读取、方法调用计一步，读到集合时另按元素个数计
+     */
+    private long maxSteps = 10_000;
+    /**
+     * 单次求值的时间上限
+     */
+    private Duration maxTime = Duration.ofMillis(10);
+    /**
+     * 允许调用的方法名，包括 #agg 的聚合函数
+     */
+    private Set<String> allowedMethods = new LinkedHashSet<>(List.of(
+      "count", "sum", "distinct", "size", "isEmpty", "length", "contains", "containsKey",
+      "startsWith", "endsWith", "toUpperCase", "toLowerCase", "trim"));
+  }
+}
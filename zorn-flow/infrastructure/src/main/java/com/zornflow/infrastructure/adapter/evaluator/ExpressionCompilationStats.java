@@ -0,0 +1,23 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import java.util.Map;
+
+/**
+ * 缓存中条件表达式的编译情况快照
+ *
+ * @param compiled        已编译为字节码的表达式数量
+ * @param interpreted     尝试编译失败、回退为解释执行的表达式数量
+ * @param pending         尚未尝试编译的表达式数量（未求值过或编译模式为 OFF）
+ * @param fallbackReasons 回退表达式到原因的映射
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 10:20
+ **/
+
+public record ExpressionCompilationStats(
+  long compiled,
+  long interpreted,
+  long pending,
+  Map<String, String> fallbackReasons
+) {
+}
@@ -0,0 +1,57 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypedValue;
+
+import java.util.function.Function;
+
+/**
+ * 通过 {@link FactTypes} 生成的访问器读取声明的事实类型的属性
+ * 排在反射访问器之前；反射访问器每次读取都要按 (类型, 属性名) 查找缓存、创建最优访问器再 Method.invoke，
+ * 而本访问器本身就在上下文的访问器列表中，会被表达式节点直接缓存复用。
+ * 不可编译，只用于解释执行；编译执行时 SpEL 生成的字节码本来就直接调用读方法
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 11:05
+ **/
+
+final class FactPropertyAccessor implements PropertyAccessor {
+
+  static final FactPropertyAccessor INSTANCE = new FactPropertyAccessor();
+
+  private FactPropertyAccessor() {
+  }
+
+  @Override
+  public Class<?>[] getSpecificTargetClasses() {
+    return null;
+  }
+
+  @Override
+  public boolean canRead(EvaluationContext context, Object target, String name) {
+    return target != null && FactTypes.accessor(target.getClass(), name) != null;
+  }
+
+  @Override
+  public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
+    Function<Object, Object> getter = target == null ? null : FactTypes.accessor(target.getClass(), name);
+    if (getter == null) {
+      // 缓存了本访问器的表达式节点遇到其它类型的对象时，重新查找访问器
+      throw new AccessException("Property '" + name + "' is not a declared fact property");
+    }
+    return new TypedValue(getter.apply(target));
+  }
+
+  @Override
+  public boolean canWrite(EvaluationContext context, Object target, String name) {
+    return false;
+  }
+
+  @Override
+  public void write(EvaluationContext context, Object target, String name, Object newValue) throws AccessException {
+    throw new AccessException("Condition context is read-only");
+  }
+}
@@ -0,0 +1,189 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.infrastructure.adapter.support.MethodAccess;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 声明的类型化事实
+ * 业务数据中除了嵌套的 Map，也可以放入 LoanApplication、保单记录这样的类型化对象，按字段名在 zornflow.evaluator.facts 中声明其类型。
+ * 注册时为声明的类型及其属性中的自定义类型的每个属性（getX/isX 读方法、record 组件）用 LambdaMetafactory 生成访问器，
+ * 条件中的属性导航（如 policyInfo.status）直接调用生成的访问器，不再逐次反射查找读方法和 Method.invoke；
+ * 加载配置时据此校验条件引用的属性是否存在
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 10:20
+ **/
+
+@Slf4j
+final class FactTypes {
+
+  private static final Map<Class<?>, FactType> TYPES = new ConcurrentHashMap<>();
+
+  private FactTypes() {
+  }
+
+  /**
+   * 解析并注册声明的事实类型，重复声明同一类型时复用已生成的访问器
+   *
+   * @param facts 业务数据字段名到类全名，例如 policyInfo -> com.acme.PolicyInfo
+   * @return 字段名到事实类型
+   * @throws IllegalStateException 类不存在
+   */
+  static Map<String, FactType> declare(Map<String, String> facts, ClassLoader classLoader) {
+    Map<String, FactType> declared = new LinkedHashMap<>();
+    facts.forEach((field, className) -> {
+      Class<?> type;
+      try {
+        type = ClassUtils.forName(className.trim(), classLoader);
+      } catch (ClassNotFoundException | LinkageError e) {
+        throw new IllegalStateException("Fact type of '" + field + "' not found: " + className, e);
+      }
+      if (!isFactType(type)) {
+        throw new IllegalStateException("Fact type of '" + field + "' must be a concrete class or record: " + className);
+      }
+      declared.put(field, register(type));
+    });
+    return Collections.unmodifiableMap(declared);
+  }
+
+  /**
+   * 注册类型并为其属性生成访问器；属性的类型本身是自定义类型时一并注册，以支持 a.b.c 这样的多级导航
+   */
+  static synchronized FactType register(Class<?> type) {
+    FactType registered = TYPES.get(type);
+    if (registered != null) {
+      return registered;
+    }
+    FactType factType = new FactType(type, Collections.unmodifiableMap(properties(type)));
+    // 先发布再注册属性类型，自引用的类型不会无限递归
+    TYPES.put(type, factType);
+    for (FactProperty property : factType.properties().values()) {
+      if (isFactType(property.type())) {
+        register(property.type());
+      }
+    }
+    log.debug("注册事实类型 {}，属性: {}", type.getName(), factType.properties().keySet());
+    return factType;
+  }
+
+  /**
+   * @return 已注册的事实类型，未注册时为 null；按运行时类型精确匹配，不查找父类
+   */
+  static FactType of(Class<?> type) {
+    return TYPES.get(type);
+  }
+
+  /**
+   * @return 生成的属性访问器，类型未注册或没有该属性时为 null
+   */
+  static Function<Object, Object> accessor(Class<?> type, String name) {
+    FactType factType = TYPES.get(type);
+    if (factType == null) {
+      return null;
+    }
+    FactProperty property = factType.properties().get(name);
+    return property == null ? null : property.getter();
+  }
+
+  /**
+   * 与 SpEL 的属性解析顺序一致：先 getX/isX，再 record 风格的 x()
+   */
+  private static Map<String, FactProperty> properties(Class<?> type) {
+    Map<String, FactProperty> properties = new LinkedHashMap<>();
+    for (Method method : type.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.isBridge()
+        || method.getDeclaringClass() == Object.class) {
+        continue;
+      }
+      String name = method.getName();
+      Class<?> returnType = method.getReturnType();
+      String suffix = null;
+      if (name.length() > 3 && name.startsWith("get") && returnType != void.class) {
+        suffix = name.substring(3);
+      } else if (name.length() > 2 && name.startsWith("is") && (returnType == boolean.class || returnType == Boolean.class)) {
+        suffix = name.substring(2);
+      }
+      if (suffix != null) {
+        FactProperty property = new FactProperty(returnType, getter(type, method));
+        // SpEL 按首字母大写拼接读方法名，getURL 既可以写作 URL 也可以写作 uRL
+        properties.putIfAbsent(StringUtils.uncapitalize(suffix), property);
+        properties.putIfAbsent(suffix, property);
+      }
+    }
+    if (type.isRecord()) {
+      for (RecordComponent component : type.getRecordComponents()) {
+        if (!properties.containsKey(component.getName())) {
+          properties.put(component.getName(), new FactProperty(component.getType(), getter(type, component.getAccessor())));
+        }
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * 生成以读方法为实现的 Function，无法生成时退回到 MethodHandle 调用，见 {@link MethodAccess}
+   */
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> getter(Class<?> type, Method method) {
+    MethodAccess access;
+    try {
+      access = MethodAccess.of(type, method);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot access property " + method.getName() + " of fact type " + type.getName(), e);
+    }
+    Object getter = access.implement(Function.class, "apply", MethodType.methodType(Object.class, Object.class),
+      access.handle().type().wrap(), null);
+    if (getter != null) {
+      return (Function<Object, Object>) getter;
+    }
+    MethodHandle generic = access.handle().asType(MethodType.methodType(Object.class, Object.class));
+    return target -> {
+      try {
+        return generic.invokeExact(target);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    };
+  }
+
+  /**
+   * 只有具体的自定义类型作为事实类型；JDK 类型、集合、Map、接口和抽象类的运行时类型各不相同，按 SpEL 的方式解析
+   */
+  private static boolean isFactType(Class<?> type) {
+    return !type.isPrimitive() && !type.isArray() && !type.isEnum() && !type.isInterface()
+      && !Modifier.isAbstract(type.getModifiers()) && !type.getName().startsWith("java.")
+      && !type.getName().startsWith("javax.") && !Map.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type);
+  }
+
+  /**
+   * @param type       事实类型
+   * @param properties 属性名到属性
+   */
+  record FactType(Class<?> type, Map<String, FactProperty> properties) {
+  }
+
+  /**
+   * @param type   属性的声明类型
+   * @param getter 生成的访问器
+   */
+  record FactProperty(Class<?> type, Function<Object, Object> getter) {
+  }
+}
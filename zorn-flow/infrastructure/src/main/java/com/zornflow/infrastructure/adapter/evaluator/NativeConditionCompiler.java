@@ -0,0 +1,727 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 把条件表达式一次性编译为闭包树
+ * 支持的子集与 SpEL 语法一致：比较（== != < <= > >= 及 eq/ne/lt/le/gt/ge）、逻辑运算（&& || ! 及 and/or/not）、
+ * 数值/字符串/布尔/null 字面量、属性导航（a.b、a?.b、a['b']、#var，目标为 Map 或声明的事实类型）和内联列表成员判断 {'A','B'}.contains(x)。
+ * 其余语法（方法调用、算术、三元、类型引用等）抛出 {@link UnsupportedExpressionException}，由调用方整体交给 SpEL
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 16:30
+ **/
+
+final class NativeConditionCompiler {
+
+  /**
+   * 在 SpEL 中有特殊含义、原生子集不处理的变量
+   */
+  private static final Set<String> RESERVED_VARIABLES = Set.of("root", "this", AggregateFunctions.VARIABLE_NAME);
+
+  private final String text;
+  private int pos;
+  private Token token;
+
+  private NativeConditionCompiler(String text) {
+    this.text = text;
+  }
+
+  /**
+   * @param expression 纯表达式，不含 #{ }
+   */
+  static BoolNode compile(String expression) throws UnsupportedExpressionException {
+    NativeConditionCompiler compiler = new NativeConditionCompiler(expression);
+    compiler.advance();
+    ValueNode root = compiler.parseOr();
+    if (compiler.token.kind != Kind.END) {
+      throw compiler.unsupported();
+    }
+    if (root instanceof BoolNode bool) {
+      return bool;
+    }
+    if (root instanceof Constant constant) {
+      return ConstantBool.of(Boolean.TRUE.equals(constant.value()));
+    }
+    return data -> {
+      Object value = root.value(data);
+      if (value == null) {
+        return false;
+      }
+      if (value instanceof Boolean b) {
+        return b;
+      }
+      throw NativeFallbackException.INSTANCE;
+    };
+  }
+
+  // ---------------------------------------------------------------- 语法分析
+
+  private ValueNode parseOr() throws UnsupportedExpressionException {
+    ValueNode left = parseAnd();
+    while (token.isOperator("||") || token.isKeyword("or")) {
+      advance();
+      left = or(left, parseAnd());
+    }
+    return left;
+  }
+
+  private ValueNode parseAnd() throws UnsupportedExpressionException {
+    ValueNode left = parseRelational();
+    while (token.isOperator("&&") || token.isKeyword("and")) {
+      advance();
+      left = and(left, parseRelational());
+    }
+    return left;
+  }
+
+  private ValueNode parseRelational() throws UnsupportedExpressionException {
+    ValueNode left = parseUnary();
+    Relation relation = Relation.of(token);
+    if (relation == null) {
+      return left;
+    }
+    advance();
+    ValueNode right = parseUnary();
+    return relation(left, relation, right);
+  }
+
+  private ValueNode parseUnary() throws UnsupportedExpressionException {
+    if (token.isOperator("!") || token.isKeyword("not")) {
+      advance();
+      ValueNode operand = parseUnary();
+      Boolean constant = constantBoolean(operand);
+      if (constant != null) {
+        return ConstantBool.of(!constant);
+      }
+      return new Not(asBool(operand));
+    }
+    if (token.isOperator("-") && peekIsDigit()) {
+      advance();
+      return new Constant(negate(parseNumber()));
+    }
+    return parsePrimary();
+  }
+
+  private ValueNode parsePrimary() throws UnsupportedExpressionException {
+    Token current = token;
+    switch (current.kind) {
+      case NUMBER -> {
+        return new Constant(parseNumber());
+      }
+      case STRING -> {
+        advance();
+        return new Constant(current.text);
+      }
+      case VARIABLE -> {
+        if (RESERVED_VARIABLES.contains(current.text)) {
+          throw unsupported();
+        }
+        advance();
+        String name = current.text;
+        return parseNavigation(data -> data.get(name));
+      }
+      case IDENTIFIER -> {
+        if (current.isKeyword("true") || current.isKeyword("false")) {
+          advance();
+          return new Constant(Boolean.parseBoolean(current.text.toLowerCase(Locale.ROOT)));
+        }
+        if (current.isKeyword("null")) {
+          advance();
+          return new Constant(null);
+        }
+        advance();
+        if (token.isOperator("(")) {
+          throw unsupported();
+        }
+        // 业务数据是根对象，裸属性名按 Map 键读取
+        return parseNavigation(new FieldRef(current.text));
+      }
+      case OPERATOR -> {
+        if (current.isOperator("(")) {
+          advance();
+          ValueNode inner = parseOr();
+          expect(")");
+          return parseNavigation(inner);
+        }
+        if (current.isOperator("{")) {
+          return parseInlineListContains();
+        }
+        throw unsupported();
+      }
+      default -> throw unsupported();
+    }
+  }
+
+  private ValueNode parseNavigation(ValueNode target) throws UnsupportedExpressionException {
+    ValueNode node = target;
+    while (true) {
+      if (token.isOperator(".") || token.isOperator("?.")) {
+        boolean safe = token.isOperator("?.");
+        advance();
+        if (token.kind != Kind.IDENTIFIER) {
+          throw unsupported();
+        }
+        String name = token.text;
+        advance();
+        if (token.isOperator("(")) {
+          throw unsupported();
+        }
+        node = property(node, name, safe);
+      } else if (token.isOperator("[")) {
+        advance();
+        if (token.kind != Kind.STRING) {
+          throw unsupported();
+        }
+        String key = token.text;
+        advance();
+        expect("]");
+        ValueNode owner = node;
+        node = data -> {
+          Object value = owner.value(data);
+          if (value instanceof Map<?, ?> map) {
+            return map.get(key);
+          }
+          throw NativeFallbackException.INSTANCE;
+        };
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private ValueNode parseInlineListContains() throws UnsupportedExpressionException {
+    expect("{");
+    Set<Object> members = new HashSet<>();
+    if (!token.isOperator("}")) {
+      do {
+        if (token.isOperator(",")) {
+          advance();
+        }
+        if (!(parseUnary() instanceof Constant constant)) {
+          throw unsupported();
+        }
+        members.add(constant.value());
+      } while (token.isOperator(","));
+    }
+    expect("}");
+    expect(".");
+    if (token.kind != Kind.IDENTIFIER || !token.text.equals("contains")) {
+      throw unsupported();
+    }
+    advance();
+    expect("(");
+    ValueNode candidate = parseOr();
+    expect(")");
+    // 与 SpEL 的 List.contains 一致，按 equals 判断，不做数值提升
+    return (BoolNode) data -> members.contains(candidate.value(data));
+  }
+
+  // ---------------------------------------------------------------- 节点构造
+
+  /**
+   * 常量折叠：false && x 与 x && false 恒为 false（x 求值失败时结果同样是 false），true && x 化简为 x
+   */
+  private static ValueNode and(ValueNode left, ValueNode right) {
+    Boolean l = constantBoolean(left);
+    Boolean r = constantBoolean(right);
+    if (Boolean.FALSE.equals(l) || Boolean.FALSE.equals(r)) {
+      return ConstantBool.FALSE;
+    }
+    if (Boolean.TRUE.equals(l)) {
+      return asBool(right);
+    }
+    if (Boolean.TRUE.equals(r)) {
+      return asBool(left);
+    }
+    return new And(asBool(left), asBool(right));
+  }
+
+  /**
+   * 常量折叠：true || x 恒为 true，false || x 与 x || false 化简为 x；
+   * x || true 不折叠，x 求值失败时结果是 false
+   */
+  private static ValueNode or(ValueNode left, ValueNode right) {
+    Boolean l = constantBoolean(left);
+    Boolean r = constantBoolean(right);
+    if (Boolean.TRUE.equals(l)) {
+      return ConstantBool.TRUE;
+    }
+    if (Boolean.FALSE.equals(l)) {
+      return asBool(right);
+    }
+    if (Boolean.FALSE.equals(r)) {
+      return asBool(left);
+    }
+    return new Or(asBool(left), asBool(right));
+  }
+
+  private static Boolean constantBoolean(ValueNode node) {
+    if (node instanceof ConstantBool constant) {
+      return constant.value();
+    }
+    return node instanceof Constant constant && constant.value() instanceof Boolean b ? b : null;
+  }
+
+  private static ValueNode property(ValueNode owner, String name, boolean safe) {
+    return new PropertyRef(owner, name, safe);
+  }
+
+  private static BoolNode asBool(ValueNode node) {
+    if (node instanceof BoolNode bool) {
+      return bool;
+    }
+    Boolean constant = constantBoolean(node);
+    if (constant != null) {
+      return ConstantBool.of(constant);
+    }
+    return data -> {
+      if (node.value(data) instanceof Boolean b) {
+        return b;
+      }
+      throw NativeFallbackException.INSTANCE;
+    };
+  }
+
+  private static BoolNode relation(ValueNode left, Relation relation, ValueNode right) {
+    if (left instanceof Constant l && right instanceof Constant r) {
+      return ConstantBool.of(relation.test(l.value(), r.value()));
+    }
+    if (left instanceof Constant && !(right instanceof Constant)) {
+      return relation(right, relation.mirror(), left);
+    }
+    if (right instanceof Constant constant && constant.value() instanceof Number number) {
+      if (!NativeOperations.isIntegral(number) && !(number instanceof Double)) {
+        return data -> relation.test(left.value(data), number);
+      }
+      return left instanceof FieldRef field
+        ? FieldComparison.of(field, relation, number)
+        : new NumericComparison(left, relation, number);
+    }
+    if (right instanceof Constant constant && constant.value() == null && (relation == Relation.EQ || relation == Relation.NE)) {
+      boolean expectNull = relation == Relation.EQ;
+      return data -> (left.value(data) == null) == expectNull;
+    }
+    return data -> relation.test(left.value(data), right.value(data));
+  }
+
+  // ---------------------------------------------------------------- 词法分析
+
+  private Number parseNumber() throws UnsupportedExpressionException {
+    String literal = token.text;
+    advance();
+    char suffix = Character.toLowerCase(literal.charAt(literal.length() - 1));
+    try {
+      if (suffix == 'l') {
+        return Long.parseLong(literal.substring(0, literal.length() - 1));
+      }
+      if (suffix == 'f' || suffix == 'd') {
+        throw unsupported();
+      }
+      if (literal.contains(".") || literal.contains("e") || literal.contains("E")) {
+        return Double.parseDouble(literal);
+      }
+      return Integer.parseInt(literal);
+    } catch (NumberFormatException e) {
+      throw unsupported();
+    }
+  }
+
+  private static Number negate(Number number) {
+    return switch (number) {
+      case Integer i -> -i;
+      case Long l -> -l;
+      default -> -number.doubleValue();
+    };
+  }
+
+  private void expect(String operator) throws UnsupportedExpressionException {
+    if (!token.isOperator(operator)) {
+      throw unsupported();
+    }
+    advance();
+  }
+
+  private boolean peekIsDigit() {
+    return pos < text.length() && Character.isDigit(text.charAt(pos));
+  }
+
+  private UnsupportedExpressionException unsupported() {
+    return new UnsupportedExpressionException("Unsupported token '" + token.text + "' at " + token.start + " in: " + text);
+  }
+
+  private void advance() throws UnsupportedExpressionException {
+    while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+      pos++;
+    }
+    int start = pos;
+    if (pos >= text.length()) {
+      token = new Token(Kind.END, "", start);
+      return;
+    }
+    char c = text.charAt(pos);
+    if (Character.isJavaIdentifierStart(c)) {
+      token = new Token(Kind.IDENTIFIER, readIdentifier(), start);
+    } else if (c == '#') {
+      pos++;
+      if (pos >= text.length() || !Character.isJavaIdentifierStart(text.charAt(pos))) {
+        token = new Token(Kind.OPERATOR, "#", start);
+        throw unsupported();
+      }
+      token = new Token(Kind.VARIABLE, readIdentifier(), start);
+    } else if (Character.isDigit(c)) {
+      token = new Token(Kind.NUMBER, readNumber(), start);
+    } else if (c == '\'' || c == '"') {
+      token = new Token(Kind.STRING, readString(c), start);
+    } else {
+      token = new Token(Kind.OPERATOR, readOperator(), start);
+    }
+  }
+
+  private String readIdentifier() {
+    int start = pos;
+    while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+      pos++;
+    }
+    return text.substring(start, pos);
+  }
+
+  private String readNumber() {
+    int start = pos;
+    while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+      pos++;
+    }
+    if (pos + 1 < text.length() && text.charAt(pos) == '.' && Character.isDigit(text.charAt(pos + 1))) {
+      pos++;
+      while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+        pos++;
+      }
+    }
+    if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+      pos++;
+      if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+        pos++;
+      }
+      while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+        pos++;
+      }
+    }
+    if (pos < text.length() && "lLfFdD".indexOf(text.charAt(pos)) >= 0) {
+      pos++;
+    }
+    return text.substring(start, pos);
+  }
+
+  private String readString(char quote) throws UnsupportedExpressionException {
+    StringBuilder value = new StringBuilder();
+    pos++;
+    while (pos < text.length()) {
+      char c = text.charAt(pos++);
+      if (c != quote) {
+        value.append(c);
+      } else if (pos < text.length() && text.charAt(pos) == quote) {
+        // SpEL 用连续两个引号转义引号本身
+        value.append(quote);
+        pos++;
+      } else {
+        return value.toString();
+      }
+    }
+    token = new Token(Kind.STRING, value.toString(), pos);
+    throw unsupported();
+  }
+
+  private String readOperator() {
+    for (String operator : List.of("==", "!=", "<=", ">=", "&&", "||", "?.")) {
+      if (text.startsWith(operator, pos)) {
+        pos += operator.length();
+        return operator;
+      }
+    }
+    return String.valueOf(text.charAt(pos++));
+  }
+
+  private enum Kind {IDENTIFIER, VARIABLE, NUMBER, STRING, OPERATOR, END}
+
+  private record Token(Kind kind, String text, int start) {
+
+    boolean isOperator(String operator) {
+      return kind == Kind.OPERATOR && text.equals(operator);
+    }
+
+    boolean isKeyword(String keyword) {
+      return kind == Kind.IDENTIFIER && text.equalsIgnoreCase(keyword);
+    }
+  }
+
+  /**
+   * 折叠后的布尔常量，{@link NativeConditionEvaluator#constantResult} 据此识别恒真/恒假条件
+   */
+  record ConstantBool(boolean value) implements BoolNode {
+
+    static final ConstantBool TRUE = new ConstantBool(true);
+    static final ConstantBool FALSE = new ConstantBool(false);
+
+    static ConstantBool of(boolean value) {
+      return value ? TRUE : FALSE;
+    }
+
+    @Override
+    public boolean test(TypedContext data) {
+      return value;
+    }
+  }
+
+  /**
+   * 根对象上的裸属性，例如 claimAmount
+   */
+  record FieldRef(String name) implements ValueNode {
+
+    @Override
+    public Object value(TypedContext data) {
+      Object result = data.get(name);
+      // 键不存在时 SpEL 会抛出异常，交给 SpEL 给出同样的结果
+      if (result == null && !data.containsKey(name)) {
+        throw NativeFallbackException.INSTANCE;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * 属性导航，例如 policyInfo.status：Map 按键读取，声明的事实类型通过生成的访问器读取，
+   * 并以单态内联缓存记住上一次遇到的类型，同一节点上的后续读取不再查表
+   */
+  static final class PropertyRef implements ValueNode {
+
+    private final ValueNode owner;
+    private final String name;
+    private final boolean safe;
+    /**
+     * 多个线程同时写入时只是各自重新查表，绑定本身不可变
+     */
+    private FactBinding cached;
+
+    PropertyRef(ValueNode owner, String name, boolean safe) {
+      this.owner = owner;
+      this.name = name;
+      this.safe = safe;
+    }
+
+    @Override
+    public Object value(TypedContext data) {
+      Object value = owner.value(data);
+      if (value instanceof Map<?, ?> map) {
+        Object result = map.get(name);
+        // 键不存在时 SpEL 会抛出异常，交给 SpEL 给出同样的结果
+        if (result == null && !map.containsKey(name)) {
+          throw NativeFallbackException.INSTANCE;
+        }
+        return result;
+      }
+      if (value == null) {
+        if (safe) {
+          return null;
+        }
+        // null 上的非安全导航需要 SpEL 报错
+        throw NativeFallbackException.INSTANCE;
+      }
+      FactBinding binding = cached;
+      if (binding == null || binding.type() != value.getClass()) {
+        Function<Object, Object> getter = FactTypes.accessor(value.getClass(), name);
+        if (getter == null) {
+          // 未声明的类型需要反射，交给 SpEL
+          throw NativeFallbackException.INSTANCE;
+        }
+        binding = new FactBinding(value.getClass(), getter);
+        cached = binding;
+      }
+      return binding.getter().apply(value);
+    }
+
+    private record FactBinding(Class<?> type, Function<Object, Object> getter) {
+    }
+  }
+
+  /**
+   * 非顶层字段（如 policyInfo.level、#level）与整数或 double 常量的比较，按常量类型特化
+   */
+  record NumericComparison(ValueNode operand, Relation relation, Number constant) implements BoolNode {
+
+    @Override
+    public boolean test(TypedContext data) {
+      Object value = operand.value(data);
+      if (constant instanceof Double) {
+        if (value instanceof Double || value instanceof Integer || value instanceof Long || value instanceof Float
+          || value instanceof Short || value instanceof Byte) {
+          return relation.test(((Number) value).doubleValue(), constant.doubleValue());
+        }
+      } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+        return relation.accept(Long.compare(((Number) value).longValue(), constant.longValue()));
+      } else if (value instanceof Double d) {
+        return relation.test(d.doubleValue(), constant.longValue());
+      }
+      return relation.test(value, constant);
+    }
+  }
+
+  /**
+   * 顶层字段与整数或 double 常量的比较，按字段在当前上下文版本上归一化后的类型特化：
+   * long 与 double 直接按基本类型比较，BigDecimal 按缩放整数比较，其它取值按原始值比较；{@link ColumnarPredicate} 据此把字段抽取为列
+   *
+   * @param unscaled 常量的缩放整数表示，与 SpEL 一致，double 常量按其十进制字符串转换
+   * @param scale    常量的小数位数
+   * @param decimal  常量能否表示为缩放整数
+   */
+  record FieldComparison(FieldRef field, int slot, Relation relation, Number constant,
+                         long unscaled, int scale, boolean decimal) implements BoolNode {
+
+    static FieldComparison of(FieldRef field, Relation relation, Number constant) {
+      BigDecimal value = constant instanceof Double ? new BigDecimal(constant.toString()) : BigDecimal.valueOf(constant.longValue());
+      BigDecimal normalized = value.scale() < 0 ? value.setScale(0) : value;
+      boolean decimal = normalized.unscaledValue().bitLength() < Long.SIZE;
+      return new FieldComparison(field, TypedContext.slotOf(field.name()), relation, constant,
+        decimal ? normalized.unscaledValue().longValue() : 0, normalized.scale(), decimal);
+    }
+
+    @Override
+    public boolean test(TypedContext data) {
+      switch (data.kind(slot, field.name())) {
+        case TypedContext.LONG -> {
+          long value = data.longValue(slot);
+          return constant instanceof Double
+            ? relation.test((double) value, constant.doubleValue())
+            : relation.accept(Long.compare(value, constant.longValue()));
+        }
+        case TypedContext.DOUBLE -> {
+          return relation.test(data.doubleValue(slot), constant.doubleValue());
+        }
+        case TypedContext.DECIMAL -> {
+          if (decimal) {
+            int comparison = NativeOperations.compareScaled(data.longValue(slot), data.scale(slot), unscaled, scale);
+            if (comparison != NativeOperations.INCOMPARABLE) {
+              return relation.accept(comparison);
+            }
+          }
+          return relation.test(data.get(field.name()), constant);
+        }
+        default -> {
+          return relation.test(data.get(field.name()), constant);
+        }
+      }
+    }
+  }
+
+  record And(BoolNode left, BoolNode right) implements BoolNode {
+
+    @Override
+    public boolean test(TypedContext data) {
+      return left.test(data) && right.test(data);
+    }
+  }
+
+  record Or(BoolNode left, BoolNode right) implements BoolNode {
+
+    @Override
+    public boolean test(TypedContext data) {
+      return left.test(data) || right.test(data);
+    }
+  }
+
+  record Not(BoolNode operand) implements BoolNode {
+
+    @Override
+    public boolean test(TypedContext data) {
+      return !operand.test(data);
+    }
+  }
+
+  private record Constant(Object value) implements ValueNode {
+
+    @Override
+    public Object value(TypedContext data) {
+      return value;
+    }
+  }
+
+  enum Relation {
+    EQ, NE, LT, LE, GT, GE;
+
+    static Relation of(Token token) {
+      if (token.kind == Kind.OPERATOR) {
+        return switch (token.text) {
+          case "==" -> EQ;
+          case "!=" -> NE;
+          case "<" -> LT;
+          case "<=" -> LE;
+          case ">" -> GT;
+          case ">=" -> GE;
+          default -> null;
+        };
+      }
+      if (token.kind == Kind.IDENTIFIER) {
+        return switch (token.text.toLowerCase(Locale.ROOT)) {
+          case "eq" -> EQ;
+          case "ne" -> NE;
+          case "lt" -> LT;
+          case "le" -> LE;
+          case "gt" -> GT;
+          case "ge" -> GE;
+          default -> null;
+        };
+      }
+      return null;
+    }
+
+    Relation mirror() {
+      return switch (this) {
+        case LT -> GT;
+        case LE -> GE;
+        case GT -> LT;
+        case GE -> LE;
+        default -> this;
+      };
+    }
+
+    boolean accept(int comparison) {
+      return switch (this) {
+        case EQ -> comparison == 0;
+        case NE -> comparison != 0;
+        case LT -> comparison < 0;
+        case LE -> comparison <= 0;
+        case GT -> comparison > 0;
+        case GE -> comparison >= 0;
+      };
+    }
+
+    /**
+     * 与 SpEL 一致，浮点数按基本类型比较：NaN 与任何值都不相等也不可比，-0.0 等于 0.0
+     */
+    boolean test(double left, double right) {
+      return switch (this) {
+        case EQ -> left == right;
+        case NE -> left != right;
+        case LT -> left < right;
+        case LE -> left <= right;
+        case GT -> left > right;
+        case GE -> left >= right;
+      };
+    }
+
+    boolean test(Object left, Object right) {
+      if (left instanceof Number l && right instanceof Number r && NativeOperations.isFloatingPoint(l, r)) {
+        return test(l.doubleValue(), r.doubleValue());
+      }
+      return switch (this) {
+        case EQ -> NativeOperations.equal(left, right);
+        case NE -> !NativeOperations.equal(left, right);
+        default -> accept(NativeOperations.compare(left, right));
+      };
+    }
+  }
+}
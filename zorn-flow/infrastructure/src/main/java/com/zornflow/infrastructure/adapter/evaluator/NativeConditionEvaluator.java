@@ -0,0 +1,158 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.ConditionEvaluator;
+import com.zornflow.domain.rule.types.Condition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 原生条件求值器
+ * 把常用的条件子集（比较、逻辑运算、null 判断、属性导航、内联列表成员判断）一次性编译为闭包树，
+ * 数值比较按字面量类型特化，求值时不走反射；不支持的表达式以及运行时超出快速路径的情况透明地交给 {@link SpelConditionEvaluator}。
+ * 通过 zornflow.evaluator.engine=native 启用
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 17:05
+ **/
+
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "zornflow.evaluator", name = "engine", havingValue = "native")
+public class NativeConditionEvaluator implements ConditionEvaluator {
+
+  /**
+   * 不支持原生编译的表达式在缓存中的占位
+   */
+  private static final BoolNode DELEGATE = data -> {
+    throw NativeFallbackException.INSTANCE;
+  };
+
+  private final SpelConditionEvaluator delegate;
+  private final Cache<String, BoolNode> compiledCache;
+
+  public NativeConditionEvaluator(SpelConditionEvaluator delegate, EvaluatorProperties properties) {
+    this.delegate = delegate;
+    this.compiledCache = Caffeine.newBuilder()
+      .maximumSize(properties.getExpressionCacheSize())
+      .build();
+  }
+
+  @Override
+  public boolean evaluate(Condition condition, BusinessContext context) {
+    if (condition == null || condition.expression() == null || condition.expression().isBlank()) {
+      return false;
+    }
+    return test(compiledCache.get(condition.expression(), key -> compile(condition)), condition, context);
+  }
+
+  /**
+   * 条件只由数值字段与常量的比较组合而成时按列批量求值，其余情况以及列式无法精确处理的行逐行求值
+   */
+  @Override
+  public BitSet evaluateAll(Condition condition, List<BusinessContext> contexts) {
+    BitSet matches = new BitSet(contexts.size());
+    if (condition == null || condition.expression() == null || condition.expression().isBlank() || contexts.isEmpty()) {
+      return matches;
+    }
+    BoolNode node = compiledCache.get(condition.expression(), key -> compile(condition));
+    if (node == DELEGATE) {
+      return delegate.evaluateAll(condition, contexts);
+    }
+    if (node instanceof NativeConditionCompiler.ConstantBool constant) {
+      matches.set(0, constant.value() ? contexts.size() : 0);
+      return matches;
+    }
+    // 列式计划的构造与批量大小无关，按批构造即可，不占用缓存
+    ColumnarPredicate columnar = ColumnarPredicate.of(node);
+    if (columnar == null) {
+      for (int i = 0; i < contexts.size(); i++) {
+        if (test(node, condition, contexts.get(i))) {
+          matches.set(i);
+        }
+      }
+      return matches;
+    }
+    ColumnarPredicate.Result result = columnar.evaluate(contexts.stream().map(BusinessContext::data).toList());
+    matches.or(BitSet.valueOf(result.matches()));
+    BitSet resolved = BitSet.valueOf(result.resolved());
+    for (int i = resolved.nextClearBit(0); i < contexts.size(); i = resolved.nextClearBit(i + 1)) {
+      if (test(node, condition, contexts.get(i))) {
+        matches.set(i);
+      }
+    }
+    return matches;
+  }
+
+  private boolean test(BoolNode node, Condition condition, BusinessContext context) {
+    if (node == DELEGATE) {
+      return delegate.evaluate(condition, context);
+    }
+    try {
+      return node.test(TypedContext.of(context.data()));
+    } catch (NativeFallbackException e) {
+      return delegate.evaluate(condition, context);
+    } catch (RuntimeException e) {
+      log.error("Error evaluating native expression: {} | Error: {}", condition.expression(), e.getMessage());
+      return false;
+    }
+  }
+
+  @Override
+  public Optional<Boolean> constantResult(Condition condition) {
+    if (condition == null || condition.expression() == null || condition.expression().isBlank()) {
+      return Optional.empty();
+    }
+    BoolNode node = compiledCache.get(condition.expression(), key -> compile(condition));
+    if (node instanceof NativeConditionCompiler.ConstantBool constant) {
+      return Optional.of(constant.value());
+    }
+    return node == DELEGATE ? delegate.constantResult(condition) : Optional.empty();
+  }
+
+  /**
+   * 当前缓存中交给 SpEL 处理的表达式
+   */
+  public Set<String> delegatedExpressions() {
+    return compiledCache.asMap().entrySet().stream()
+      .filter(entry -> entry.getValue() == DELEGATE)
+      .map(Map.Entry::getKey)
+      .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * 当前缓存中原生编译的表达式数量
+   */
+  public long nativeExpressionCount() {
+    return compiledCache.asMap().values().stream().filter(node -> node != DELEGATE).count();
+  }
+
+  public void invalidateCompiledCache() {
+    compiledCache.invalidateAll();
+  }
+
+  private static BoolNode compile(Condition condition) {
+    try {
+      return NativeConditionCompiler.compile(condition.getPureExpression());
+    } catch (UnsupportedExpressionException e) {
+      log.debug("条件表达式交给 SpEL 求值: {}", e.getMessage());
+      return DELEGATE;
+    } catch (NativeFallbackException e) {
+      // 常量折叠时遇到无法比较的字面量
+      return DELEGATE;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+/**
+ * 原生求值遇到超出快速路径的情况时抛出（例如访问 POJO 属性、Map 中缺少键、操作数不是布尔值），
+ * 由 {@link NativeConditionEvaluator} 捕获后交给 SpEL 重新求值，保证两者结果一致。
+ * 不携带堆栈，使用单例
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 16:12
+ **/
+
+final class NativeFallbackException extends RuntimeException {
+
+  static final NativeFallbackException INSTANCE = new NativeFallbackException();
+
+  private NativeFallbackException() {
+    super(null, null, false, false);
+  }
+}
@@ -0,0 +1,157 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 原生条件语言的比较语义，与 SpEL 的 StandardTypeComparator / 相等判断保持一致：
+ * 数值按 BigDecimal、Double、Float、BigInteger、整型的顺序提升后比较，null 小于任何值
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 16:20
+ **/
+
+final class NativeOperations {
+
+  private NativeOperations() {
+  }
+
+  /**
+   * {@link #compareScaled} 无法在 long 范围内比较时的返回值
+   */
+  static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+  private static final long[] POWERS_OF_TEN = new long[19];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  /**
+   * 比较两个缩放整数 unscaled × 10^-scale，与 BigDecimal.compareTo 一致；对齐小数位时溢出返回 {@link #INCOMPARABLE}
+   */
+  static int compareScaled(long leftUnscaled, int leftScale, long rightUnscaled, int rightScale) {
+    if (leftScale == rightScale) {
+      return Long.compare(leftUnscaled, rightUnscaled);
+    }
+    if (leftScale < rightScale) {
+      long aligned = rescale(leftUnscaled, rightScale - leftScale);
+      return aligned == Long.MIN_VALUE ? INCOMPARABLE : Long.compare(aligned, rightUnscaled);
+    }
+    long aligned = rescale(rightUnscaled, leftScale - rightScale);
+    return aligned == Long.MIN_VALUE ? INCOMPARABLE : Long.compare(leftUnscaled, aligned);
+  }
+
+  /**
+   * @return unscaled × 10^digits，溢出时为 Long.MIN_VALUE
+   */
+  private static long rescale(long unscaled, int digits) {
+    if (digits >= POWERS_OF_TEN.length) {
+      return unscaled == 0 ? 0 : Long.MIN_VALUE;
+    }
+    long factor = POWERS_OF_TEN[digits];
+    long high = Math.multiplyHigh(unscaled, factor);
+    long low = unscaled * factor;
+    return (high == 0 && low >= 0) || (high == -1 && low < 0) ? low : Long.MIN_VALUE;
+  }
+
+  static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  /**
+   * SpEL 对含 Double/Float 且不含 BigDecimal 的数值比较使用基本类型运算
+   */
+  static boolean isFloatingPoint(Number left, Number right) {
+    return !(left instanceof BigDecimal || right instanceof BigDecimal)
+      && (left instanceof Double || right instanceof Double || left instanceof Float || right instanceof Float);
+  }
+
+  static boolean equal(Object left, Object right) {
+    if (left instanceof Number l && right instanceof Number r) {
+      return compareNumbers(l, r) == 0;
+    }
+    if (left instanceof CharSequence l && right instanceof CharSequence r) {
+      return l.toString().equals(r.toString());
+    }
+    if (left == null || right == null) {
+      return left == right;
+    }
+    if (left.equals(right)) {
+      return true;
+    }
+    return left instanceof Comparable<?> && left.getClass() == right.getClass() && compare(left, right) == 0;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static int compare(Object left, Object right) {
+    if (left == null) {
+      return right == null ? 0 : -1;
+    }
+    if (right == null) {
+      return 1;
+    }
+    if (left instanceof Number l && right instanceof Number r) {
+      return compareNumbers(l, r);
+    }
+    if (left instanceof Comparable comparable
+      && (left.getClass().isInstance(right) || right.getClass().isInstance(left))) {
+      return comparable.compareTo(right);
+    }
+    // 类型不可比较，交给 SpEL 给出同样的错误
+    throw NativeFallbackException.INSTANCE;
+  }
+
+  static int compareNumbers(Number left, Number right) {
+    if (left instanceof BigDecimal || right instanceof BigDecimal) {
+      return toBigDecimal(left).compareTo(toBigDecimal(right));
+    }
+    if (left instanceof Double || right instanceof Double) {
+      return comparePrimitive(left.doubleValue(), right.doubleValue());
+    }
+    if (left instanceof Float || right instanceof Float) {
+      return comparePrimitive(left.floatValue(), right.floatValue());
+    }
+    if (left instanceof BigInteger || right instanceof BigInteger) {
+      return toBigInteger(left).compareTo(toBigInteger(right));
+    }
+    if (isIntegral(left) && isIntegral(right)) {
+      return Long.compare(left.longValue(), right.longValue());
+    }
+    return Double.compare(left.doubleValue(), right.doubleValue());
+  }
+
+  /**
+   * 与 SpEL 及列式求值一致按基本类型比较，-0.0 等于 0.0；NaN 与任何值都不可比，无法用比较结果表示，交给 SpEL
+   */
+  private static int comparePrimitive(double left, double right) {
+    if (left < right) {
+      return -1;
+    }
+    if (left > right) {
+      return 1;
+    }
+    if (left == right) {
+      return 0;
+    }
+    throw NativeFallbackException.INSTANCE;
+  }
+
+  private static BigDecimal toBigDecimal(Number number) {
+    if (number instanceof BigDecimal decimal) {
+      return decimal;
+    }
+    if (number instanceof BigInteger integer) {
+      return new BigDecimal(integer);
+    }
+    return isIntegral(number) ? BigDecimal.valueOf(number.longValue()) : new BigDecimal(number.toString());
+  }
+
+  private static BigInteger toBigInteger(Number number) {
+    return number instanceof BigInteger integer ? integer : BigInteger.valueOf(number.longValue());
+  }
+}
@@ -0,0 +1,130 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 已解析的条件表达式及其编译状态
+ * SpEL 只有在解释执行过一次、知道了各节点的运行时类型之后才能编译，
+ * 因此每次求值后尝试编译，直到成功或达到尝试上限；失败时记录第一个无法编译的语法节点作为回退原因。
+ * MIXED 模式下解析器按 IMMEDIATE 模式工作，编译后的字节码执行失败时（例如同一字段先后出现不同的运行时类型）抛出异常，
+ * 由这里显式丢弃编译结果、复位编译状态并改为解释执行本次求值，之后在尝试上限内重新编译
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 10:05
+ **/
+
+final class ParsedCondition {
+
+  /**
+   * 短路分支（如 a != null && a.b == 'x'）可能要多次求值才能覆盖到所有节点，超过此次数仍无法编译则保持解释执行
+   */
+  static final int MAX_COMPILE_ATTEMPTS = 3;
+  static final String REVERTED = "compiled expression failed at runtime and was reverted to interpreted mode";
+
+  private final String source;
+  private final Expression expression;
+  private final ConditionAnalysis analysis;
+  private final AtomicInteger compileAttempts = new AtomicInteger();
+  private volatile boolean compiled;
+  private volatile String fallbackReason;
+
+  ParsedCondition(String source, Expression expression, ConditionAnalysis analysis) {
+    this.source = source;
+    this.expression = expression;
+    this.analysis = analysis;
+  }
+
+  String source() {
+    return source;
+  }
+
+  Expression expression() {
+    return expression;
+  }
+
+  ConditionAnalysis analysis() {
+    return analysis;
+  }
+
+  boolean isCompiled() {
+    return compiled;
+  }
+
+  /**
+   * 尚未尝试编译或仍在尝试中时为 null
+   */
+  String fallbackReason() {
+    return fallbackReason;
+  }
+
+  boolean isAttempted() {
+    return compiled || fallbackReason != null;
+  }
+
+  /**
+   * 求值，成功后按编译模式尝试编译；MIXED 模式下编译后的字节码执行失败时回退解释执行并记录回退原因，
+   * 本次不再尝试编译，之后的求值在尝试上限内重新编译
+   */
+  Boolean evaluate(EvaluationContext context, SpelCompilerMode mode) {
+    Boolean result;
+    try {
+      result = expression.getValue(context, Boolean.class);
+    } catch (SpelEvaluationException e) {
+      if (mode != SpelCompilerMode.MIXED || !compiled || !(expression instanceof SpelExpression spel)
+        || e.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+        throw e;
+      }
+      spel.revertToInterpreted();
+      compiled = false;
+      fallbackReason = REVERTED;
+      return expression.getValue(context, Boolean.class);
+    }
+    afterEvaluation(mode);
+    return result;
+  }
+
+  /**
+   * 一次成功求值之后调用，按编译模式尝试把表达式编译为字节码
+   */
+  private void afterEvaluation(SpelCompilerMode mode) {
+    if (mode == SpelCompilerMode.OFF || !(expression instanceof SpelExpression spel)) {
+      return;
+    }
+    if (compiled) {
+      return;
+    }
+    if (compileAttempts.get() >= MAX_COMPILE_ATTEMPTS || compileAttempts.incrementAndGet() > MAX_COMPILE_ATTEMPTS) {
+      return;
+    }
+    try {
+      if (spel.compileExpression()) {
+        compiled = true;
+        fallbackReason = null;
+        return;
+      }
+      fallbackReason = describeFirstUncompilable(spel.getAST());
+    } catch (RuntimeException e) {
+      fallbackReason = "compilation failed: " + e.getMessage();
+    }
+  }
+
+  private static String describeFirstUncompilable(SpelNode node) {
+    for (int i = 0; i < node.getChildCount(); i++) {
+      SpelNode child = node.getChild(i);
+      if (child instanceof SpelNodeImpl impl && !impl.isCompilable()) {
+        return describeFirstUncompilable(child);
+      }
+    }
+    return node.getClass().getSimpleName() + " '" + node.toStringAST() + "' is not compilable";
+  }
+}
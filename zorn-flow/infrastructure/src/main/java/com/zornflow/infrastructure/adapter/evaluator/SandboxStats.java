@@ -0,0 +1,16 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import java.util.Map;
+
+/**
+ * 沙箱求值统计快照
+ *
+ * @param abortedEvaluations  超出预算被中止的求值次数
+ * @param abortedByExpression 各表达式被中止的次数，只包含中止过的表达式
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 10:15
+ **/
+
+public record SandboxStats(long abortedEvaluations, Map<String, Long> abortedByExpression) {
+}
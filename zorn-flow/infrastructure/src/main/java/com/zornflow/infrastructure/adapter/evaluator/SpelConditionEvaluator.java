@@ -1,13 +1,29 @@
 package com.zornflow.infrastructure.adapter.evaluator;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.rule.service.ConditionEvaluator;
 import com.zornflow.domain.rule.types.Condition;
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Service;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * description
  *
@@ -20,7 +36,43 @@ import org.springframework.stereotype.Service;
 @Service
 public class SpelConditionEvaluator implements ConditionEvaluator {
 
-  private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+  private final SpelExpressionParser parser;
+  private final SpelCompilerMode compilerMode;
+  private final AggregateFunctions aggregateFunctions;
+  private final EvaluatorProperties properties;
+  private final EvaluatorProperties.Sandbox sandbox;
+  /**
+   * 解释执行时通过生成的访问器读取声明的事实类型的属性；编译执行生成的字节码本来就直接调用读方法
+   */
+  private final boolean factAccessors;
+  /**
+   * 已解析的表达式，以条件原文为键；解析后的 Expression 线程安全，可在请求间共享
+   */
+  private final Cache<String, ParsedCondition> expressionCache;
+  /**
+   * 各表达式超出沙箱预算被中止的次数，以条件原文为键；不随缓存淘汰和配置刷新丢失
+   */
+  private final Map<String, LongAdder> budgetExceeded = new ConcurrentHashMap<>();
+
+  public SpelConditionEvaluator(AggregateFunctions aggregateFunctions, EvaluatorProperties properties) {
+    this.aggregateFunctions = aggregateFunctions;
+    this.properties = properties;
+    this.sandbox = properties.getSandbox();
+    // 编译后的字节码直接读取属性，不经过计入预算的访问器，沙箱启用时只解释执行
+    this.compilerMode = sandbox.isEnabled() ? SpelCompilerMode.OFF : properties.getCompilerMode();
+    if (sandbox.isEnabled() && properties.getCompilerMode() != SpelCompilerMode.OFF) {
+      log.warn("条件沙箱已启用，忽略编译模式 {}，条件表达式只解释执行", properties.getCompilerMode());
+    }
+    this.factAccessors = compilerMode == SpelCompilerMode.OFF
+      && !FactTypes.declare(properties.getFacts(), getClass().getClassLoader()).isEmpty();
+    // MIXED 模式下解析器按 IMMEDIATE 工作，编译执行失败时抛出异常，由 ParsedCondition 显式回退并记录
+    SpelCompilerMode parserMode = compilerMode == SpelCompilerMode.MIXED ? SpelCompilerMode.IMMEDIATE : compilerMode;
+    this.parser = new SpelExpressionParser(new SpelParserConfiguration(parserMode, getClass().getClassLoader()));
+    this.expressionCache = Caffeine.newBuilder()
+      .maximumSize(properties.getExpressionCacheSize())
+      .recordStats()
+      .build();
+  }
 
   @Override
   public boolean evaluate(Condition condition, BusinessContext context) {
@@ -28,17 +80,190 @@ public class SpelConditionEvaluator implements ConditionEvaluator {
       return false; // 或者根据业务定义返回true
     }
     try {
-      var expression = PARSER.parseExpression(condition.expression());
-      // 将BusinessContext中的数据作为SpEL的变量
-      var evaluationContext = new StandardEvaluationContext();
-      evaluationContext.setVariables(context.data());
-
-      Boolean result = expression.getValue(evaluationContext, Boolean.class);
-      return Boolean.TRUE.equals(result);
+      return evaluateParsed(parsed(condition), context);
     } catch (Exception e) {
       // 实际项目中应记录详细日志
       log.error("Error evaluating SpEL expression: {} | Error: {}", condition.expression(), e.getMessage());
       return false;
     }
   }
+
+  @Override
+  public Optional<Boolean> constantResult(Condition condition) {
+    if (condition == null || condition.expression() == null || condition.expression().isBlank()) {
+      return Optional.empty();
+    }
+    try {
+      return parsed(condition).analysis().constant();
+    } catch (Exception e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * 批量求值只解析一次表达式
+   */
+  @Override
+  public BitSet evaluateAll(Condition condition, List<BusinessContext> contexts) {
+    BitSet matches = new BitSet(contexts.size());
+    if (condition == null || condition.expression() == null || condition.expression().isBlank()) {
+      return matches;
+    }
+    ParsedCondition parsed;
+    try {
+      parsed = parsed(condition);
+    } catch (Exception e) {
+      log.error("Error evaluating SpEL expression: {} | Error: {}", condition.expression(), e.getMessage());
+      return matches;
+    }
+    for (int i = 0; i < contexts.size(); i++) {
+      try {
+        if (evaluateParsed(parsed, contexts.get(i))) {
+          matches.set(i);
+        }
+      } catch (Exception e) {
+        log.error("Error evaluating SpEL expression: {} | Error: {}", condition.expression(), e.getMessage());
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * 预热：解析给定的条件并用配置的样例数据各求值一次，触发编译
+   * 样例数据缺少字段导致的求值失败不影响启动，这些表达式会在真实流量下继续尝试编译
+   *
+   * @param expressions 条件原文，例如 "#{claimAmount <= 10000}"
+   */
+  public void warmUp(Collection<String> expressions) {
+    for (String text : expressions) {
+      try {
+        ParsedCondition parsed = parsed(Condition.of(text));
+        for (Map<String, Object> sample : properties.getWarmUpSamples()) {
+          try {
+            evaluateParsed(parsed, new BusinessContext(sample));
+          } catch (Exception e) {
+            log.debug("预热求值失败: {} | {}", text, e.getMessage());
+          }
+        }
+      } catch (Exception e) {
+        log.warn("预热时无法解析条件表达式: {} | {}", text, e.getMessage());
+      }
+    }
+    log.info("条件表达式预热完成，编译模式: {}，{}", compilerMode, compilationStats());
+  }
+
+  private ParsedCondition parsed(Condition condition) {
+    return expressionCache.get(condition.expression(), key -> {
+      var expression = parser.parseExpression(condition.getPureExpression());
+      return new ParsedCondition(key, expression, analyze(expression));
+    });
+  }
+
+  private static ConditionAnalysis analyze(Expression expression) {
+    try {
+      return expression instanceof SpelExpression spel ? ConditionAnalyzer.analyze(spel) : ConditionAnalysis.EMPTY;
+    } catch (IllegalArgumentException e) {
+      // 未经配置源校验的表达式，不做跳过，交给 SpEL 给出真实的错误
+      return ConditionAnalysis.EMPTY;
+    }
+  }
+
+  private boolean evaluateParsed(ParsedCondition parsed, BusinessContext context) {
+    ConditionAnalysis analysis = parsed.analysis();
+    if (analysis.constantResult() != null) {
+      return analysis.constantResult();
+    }
+    // 必需字段缺失时 SpEL 必然抛出异常，直接给出确定的结果，省去异常和错误日志的开销
+    String missing = analysis.firstMissing(context.data());
+    if (missing != null) {
+      log.debug("条件 {} 缺少必需字段 '{}'，跳过求值并返回 false", parsed.source(), missing);
+      return false;
+    }
+    // 业务数据既是根对象也是变量，直接读取不复制；滑动窗口聚合函数以 #agg 访问，例如 #agg.count('claims', #applicantName, '30d')
+    var budget = sandbox.isEnabled() ? new EvaluationBudget(sandbox.getMaxSteps(), sandbox.getMaxTime()) : null;
+    var evaluationContext = new BusinessContextEvaluationContext(context.data(), AggregateFunctions.VARIABLE_NAME,
+      aggregateFunctions, budget, sandbox.getAllowedMethods(), factAccessors);
+
+    Boolean result;
+    try {
+      result = parsed.evaluate(evaluationContext, compilerMode);
+    } catch (RuntimeException e) {
+      ConditionBudgetExceededException exceeded = budgetExceeded(e);
+      if (exceeded == null) {
+        throw e;
+      }
+      budgetExceeded.computeIfAbsent(parsed.source(), key -> new LongAdder()).increment();
+      log.warn("条件 {} 超出沙箱预算，中止求值并返回 false: {}", parsed.source(), exceeded.getMessage());
+      return false;
+    }
+    return Boolean.TRUE.equals(result);
+  }
+
+  /**
+   * SpEL 会把访问器抛出的异常包装为 SpelEvaluationException
+   */
+  private static ConditionBudgetExceededException budgetExceeded(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConditionBudgetExceededException exceeded) {
+        return exceeded;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 表达式缓存的命中、未命中与淘汰统计
+   */
+  public CacheStats expressionCacheStats() {
+    return expressionCache.stats();
+  }
+
+  /**
+   * 当前缓存的表达式数量；先执行挂起的淘汰，保证结果不超过上限
+   */
+  public long expressionCacheSize() {
+    expressionCache.cleanUp();
+    return expressionCache.estimatedSize();
+  }
+
+  /**
+   * 当前缓存中各表达式的编译情况
+   */
+  public ExpressionCompilationStats compilationStats() {
+    long compiled = 0;
+    long pending = 0;
+    Map<String, String> fallbackReasons = new LinkedHashMap<>();
+    for (ParsedCondition parsed : expressionCache.asMap().values()) {
+      if (parsed.isCompiled()) {
+        compiled++;
+      } else if (parsed.isAttempted()) {
+        fallbackReasons.put(parsed.source(), parsed.fallbackReason());
+      } else {
+        pending++;
+      }
+    }
+    return new ExpressionCompilationStats(compiled, fallbackReasons.size(), pending, Map.copyOf(fallbackReasons));
+  }
+
+  /**
+   * 各表达式超出沙箱预算被中止的次数，包括已被淘汰或刷新的表达式
+   */
+  public SandboxStats sandboxStats() {
+    long aborted = 0;
+    Map<String, Long> abortedByExpression = new LinkedHashMap<>();
+    for (Map.Entry<String, LongAdder> entry : budgetExceeded.entrySet()) {
+      long count = entry.getValue().sum();
+      aborted += count;
+      abortedByExpression.put(entry.getKey(), count);
+    }
+    return new SandboxStats(aborted, Map.copyOf(abortedByExpression));
+  }
+
+  /**
+   * 清空已解析的表达式，配置刷新后由 {@link com.zornflow.infrastructure.boot.ConfigRefreshListener} 调用
+   */
+  public void invalidateExpressionCache() {
+    log.info("清空条件表达式缓存，当前统计: {}", expressionCache.stats());
+    expressionCache.invalidateAll();
+  }
 }
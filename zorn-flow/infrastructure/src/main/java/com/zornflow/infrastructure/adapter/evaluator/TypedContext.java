@@ -0,0 +1,154 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一次条件求值中业务数据的类型化取值视图，原生条件节点在它上面求值
+ * 与数值常量比较的顶层字段在编译时分配槽位，首次读取时按取值类型归一化一次：
+ * Integer/Long/Short/Byte 归一为 long，Double 归一为 double，unscaled 值能放进 long 的 BigDecimal 归一为缩放整数（unscaled + scale）；
+ * 同一条件中对该字段的其它比较直接读取归一化结果，不再重复判断类型、换算 BigDecimal。
+ * 处理器会原地修改业务数据 Map，视图只在一次求值内有效，不跨条件复用
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 16:40
+ **/
+
+final class TypedContext {
+
+  static final byte UNRESOLVED = 0;
+  static final byte LONG = 1;
+  static final byte DOUBLE = 2;
+  static final byte DECIMAL = 3;
+  /**
+   * 缺失、null 或其它类型（Float、BigInteger、字符串等），按原始值比较
+   */
+  static final byte OTHER = 4;
+
+  private static final Map<String, Integer> SLOTS = new ConcurrentHashMap<>();
+
+  private final Map<String, Object> data;
+  private byte[] kinds;
+  private long[] longs;
+  private double[] doubles;
+  private int[] scales;
+
+  private TypedContext(Map<String, Object> data) {
+    this.data = data;
+  }
+
+  /**
+   * 为一次求值创建数据 Map 的视图
+   */
+  static TypedContext of(Map<String, Object> data) {
+    return new TypedContext(data);
+  }
+
+  /**
+   * 编译时为字段分配槽位，同名字段在所有条件中共用一个槽位
+   */
+  static synchronized int slotOf(String field) {
+    Integer slot = SLOTS.get(field);
+    if (slot == null) {
+      slot = SLOTS.size();
+      SLOTS.put(field, slot);
+    }
+    return slot;
+  }
+
+  Object get(String key) {
+    return data.get(key);
+  }
+
+  boolean containsKey(String key) {
+    return data.containsKey(key);
+  }
+
+  Map<String, Object> data() {
+    return data;
+  }
+
+  /**
+   * 字段的归一化类型，首次访问时解析；字段不存在时抛出 {@link NativeFallbackException}
+   */
+  byte kind(int slot, String field) {
+    if (kinds == null || slot >= kinds.length) {
+      // 条件没有访问数值槽位时不分配
+      grow(slot);
+    }
+    byte kind = kinds[slot];
+    return kind != UNRESOLVED ? kind : resolve(slot, field);
+  }
+
+  long longValue(int slot) {
+    return longs[slot];
+  }
+
+  double doubleValue(int slot) {
+    return doubles[slot];
+  }
+
+  int scale(int slot) {
+    return scales[slot];
+  }
+
+  private byte resolve(int slot, String field) {
+    Object value = data.get(field);
+    if (value == null && !data.containsKey(field)) {
+      // 键不存在时 SpEL 会抛出异常，交给 SpEL 给出同样的结果
+      throw NativeFallbackException.INSTANCE;
+    }
+    byte kind = switch (value) {
+      case Integer i -> {
+        longs[slot] = i;
+        yield LONG;
+      }
+      case Long l -> {
+        longs[slot] = l;
+        yield LONG;
+      }
+      case Short s -> {
+        longs[slot] = s;
+        yield LONG;
+      }
+      case Byte b -> {
+        longs[slot] = b;
+        yield LONG;
+      }
+      case Double d -> {
+        doubles[slot] = d;
+        yield DOUBLE;
+      }
+      case BigDecimal decimal -> {
+        BigDecimal normalized = decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+        if (normalized.unscaledValue().bitLength() >= Long.SIZE) {
+          yield OTHER;
+        }
+        longs[slot] = normalized.unscaledValue().longValue();
+        scales[slot] = normalized.scale();
+        yield DECIMAL;
+      }
+      case null, default -> OTHER;
+    };
+    kinds[slot] = kind;
+    return kind;
+  }
+
+  private void grow(int slot) {
+    int size = Math.max(slot + 1, kinds == null ? SLOTS.size() : kinds.length * 2);
+    if (kinds == null) {
+      kinds = new byte[size];
+      longs = new long[size];
+      doubles = new double[size];
+      scales = new int[size];
+      return;
+    }
+    kinds = Arrays.copyOf(kinds, size);
+    longs = Arrays.copyOf(longs, size);
+    doubles = Arrays.copyOf(doubles, size);
+    scales = Arrays.copyOf(scales, size);
+  }
+}
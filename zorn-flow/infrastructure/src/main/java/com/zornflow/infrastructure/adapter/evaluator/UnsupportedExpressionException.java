@@ -0,0 +1,16 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+/**
+ * 表达式超出原生条件语言支持的子集，整个表达式交给 SpEL 处理
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 16:12
+ **/
+
+final class UnsupportedExpressionException extends Exception {
+
+  UnsupportedExpressionException(String message) {
+    super(message, null, false, false);
+  }
+}
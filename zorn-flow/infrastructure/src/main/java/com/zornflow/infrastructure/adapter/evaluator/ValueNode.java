@@ -0,0 +1,15 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+/**
+ * 原生条件表达式的取值节点，直接在业务数据的类型化视图上求值
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/14 16:10
+ **/
+
+@FunctionalInterface
+interface ValueNode {
+
+  Object value(TypedContext data);
+}
@@ -1,15 +1,27 @@
 package com.zornflow.infrastructure.adapter.handler;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.zornflow.domain.common.valueobject.BusinessContext;
 import com.zornflow.domain.rule.service.HandlerExecutor;
 import com.zornflow.domain.rule.types.HandlerType;
 import com.zornflow.domain.rule.valueobject.Handler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
- * description
+ * 类处理器执行器
+ * 处理器标识是 Spring Bean 的名称，或者 Bean 的类全名（容器中该类型的 Bean 唯一时）；
+ * 这样的 Bean 需要实现 {@link RuleExecutable}。标识也可以写作 Bean#方法名（例如 validator#checkPolicy），
+ * 直接调用 Bean 的任意公共方法，参数的取值规则见 {@link HandlerMethods}，参数 resultKey 存在时把返回值写回业务数据。
+ * 标识在加载配置时解析，方法参数按每个处理器的参数绑定（包括类型化的参数记录），执行时直接调用，不再查找 Bean 也不经过反射
  *
  * @author <a href="mailto: me@panoshu.top">panoshu</a>
  * @version 1.0
@@ -21,28 +33,83 @@ import org.springframework.stereotype.Service;
 public class ClassHandlerExecutor implements HandlerExecutor {
 
   private final ApplicationContext applicationContext; // 用于从Spring容器中获取Bean
+  /**
+   * 处理器标识到已解析的 Bean 或方法，按处理器参数生成绑定；Bean 在运行期间不变，配置刷新后新出现的标识在加载时补充解析
+   */
+  private final Map<String, Function<Handler, HandlerMethods.BoundHandler>> resolved = new ConcurrentHashMap<>();
+  private final Map<Handler, HandlerMethods.BoundHandler> bindings = new ConcurrentHashMap<>();
+  /**
+   * 按处理器实例缓存绑定结果：规则链未变化时复用同一个领域对象，执行时按引用查找，不对参数求哈希
+   */
+  private final Cache<Handler, HandlerMethods.BoundHandler> instances = Caffeine.newBuilder().weakKeys().build();
+
+  @Override
+  public HandlerType type() {
+    return HandlerType.CLASS;
+  }
 
   @Override
-  public boolean supports(Handler handler) {
-    return HandlerType.CLASS.equals(handler.type());
+  public void prepare(Handler handler) {
+    bindings.computeIfAbsent(handler, this::bind);
   }
 
   @Override
   public void execute(Handler handler, BusinessContext context) {
+    // 未经配置源加载的处理器（例如直接构造的规则链）在首次执行时解析
+    HandlerMethods.BoundHandler bound = instances.get(handler, key -> bindings.computeIfAbsent(key, this::bind));
+    Object result;
     try {
-      // handler.identifier() 应该是Spring Bean的名称
-      String beanName = handler.getClass().getSimpleName();
-      Object bean = applicationContext.getBean(beanName);
+      result = bound.invoke(handler, context);
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to execute class handler: " + handler.handler(), e);
+    }
+    if (result != null && handler.getParameter(HandlerParameters.RESULT_KEY) instanceof String resultKey) {
+      context.data().put(resultKey, result);
+    }
+  }
+
+  /**
+   * 配置刷新时丢弃按处理器参数绑定的结果，已解析的 Bean 和方法保留
+   */
+  @Override
+  public void invalidate() {
+    bindings.clear();
+    instances.invalidateAll();
+  }
 
-      if (bean instanceof RuleExecutable executable) {
-        // 如果Bean实现了我们定义的标准接口，直接调用
+  private HandlerMethods.BoundHandler bind(Handler handler) {
+    return resolved.computeIfAbsent(handler.handler(), this::resolve).apply(handler);
+  }
+
+  private Function<Handler, HandlerMethods.BoundHandler> resolve(String identifier) {
+    int hash = identifier.indexOf('#');
+    if (hash < 0) {
+      RuleExecutable executable = executable(identifier);
+      HandlerMethods.BoundHandler bound = (handler, context) -> {
         executable.execute(context);
-      } else {
-        // 也可以支持通过反射调用任意方法，但约定接口更健壮
-        throw new UnsupportedOperationException("Bean " + beanName + " does not implement RuleExecutable interface.");
-      }
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to execute class handler: " + handler.getClass().getSimpleName(), e);
+        return null;
+      };
+      return handler -> bound;
+    }
+    return HandlerMethods.bind(bean(identifier.substring(0, hash)), identifier.substring(hash + 1))::bind;
+  }
+
+  private RuleExecutable executable(String identifier) {
+    Object bean = bean(identifier);
+    if (bean instanceof RuleExecutable executable) {
+      return executable;
+    }
+    // 不实现接口的 Bean 通过 Bean#方法名 调用
+    throw new IllegalArgumentException("Bean " + identifier + " does not implement RuleExecutable interface.");
+  }
+
+  private Object bean(String identifier) {
+    try {
+      return applicationContext.containsBean(identifier)
+        ? applicationContext.getBean(identifier)
+        : applicationContext.getBean(ClassUtils.forName(identifier, applicationContext.getClassLoader()));
+    } catch (ClassNotFoundException | LinkageError | BeansException e) {
+      throw new IllegalArgumentException("Unknown class handler '" + identifier + "': no bean with this name or type", e);
     }
   }
 
@@ -0,0 +1,30 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 按内容缓存编译结果（脚本类、WASM 模块）时使用的内容哈希
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/21 14:10
+ **/
+
+final class ContentHash {
+
+  private ContentHash() {
+  }
+
+  /**
+   * @return 内容的 SHA-256 摘要，64 个小写十六进制字符
+   */
+  static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+
+import java.util.Map;
+
+/**
+ * 脚本处理器的脚本基类
+ * 脚本中的 context 是业务数据本身（不是副本），parameters 是处理器参数；
+ * 以属性方法的形式声明，静态编译的脚本也能按类型解析这两个变量
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 20:55
+ **/
+
+public abstract class ContextScript extends Script {
+
+  public Map<String, Object> getContext() {
+    return ((ContextBinding) getBinding()).data;
+  }
+
+  public Map<String, Object> getParameters() {
+    return ((ContextBinding) getBinding()).parameters;
+  }
+
+  /**
+   * 直接以业务数据作为变量表，脚本读到的未声明变量就是业务字段，不复制上下文
+   */
+  static final class ContextBinding extends Binding {
+
+    private final Map<String, Object> data;
+    private final Map<String, Object> parameters;
+
+    ContextBinding(Map<String, Object> data, Map<String, Object> parameters) {
+      super(data);
+      this.data = data;
+      this.parameters = parameters;
+    }
+
+    @Override
+    public Object getVariable(String name) {
+      return switch (name) {
+        case "context" -> data;
+        case "parameters" -> parameters;
+        default -> super.getVariable(name);
+      };
+    }
+
+    @Override
+    public boolean hasVariable(String name) {
+      return "context".equals(name) || "parameters".equals(name) || super.hasVariable(name);
+    }
+  }
+}
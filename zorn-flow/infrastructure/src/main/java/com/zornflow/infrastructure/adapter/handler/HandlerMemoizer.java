@@ -0,0 +1,384 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 幂等处理器的结果缓存
+ * 处理器通过参数 memoize 声明自己是幂等的，例如 memoize: {key: "#{currency + ':' + amount}", ttl: PT10M}，
+ * key 是对业务数据求值的 SpEL 表达式。未命中时处理器在业务数据的深拷贝（Map、集合和数组逐层复制）上执行，
+ * 缓存它对业务数据的改动（新增、修改、删除的字段），命中时把缓存的改动的拷贝应用到业务数据上，不再执行处理器；
+ * 嵌套的 Map、集合和数组被就地修改时同样按字段记录，其他可变对象被就地修改时无法识别，这类处理器不应声明为幂等。
+ * 同一个键的并发请求只有一个执行处理器，其余在等待超时和调用方取消之前等待它的结果
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/18 10:20
+ **/
+
+@Slf4j
+@Component
+public class HandlerMemoizer {
+
+  static final String MEMOIZE = "memoize";
+
+  private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+  /**
+   * 只读取业务数据，不允许调用方法或构造对象
+   */
+  private static final EvaluationContext KEY_CONTEXT = SimpleEvaluationContext
+    .forPropertyAccessors(new MapAccessor(), DataBindingPropertyAccessor.forReadOnlyAccess())
+    .build();
+
+  private final AsyncCache<MemoKey, ContextUpdates> cache;
+  private final Duration waitTimeout;
+  private final Map<Handler, MemoSpec> specs = new ConcurrentHashMap<>();
+  /**
+   * 按处理器实例缓存包装后的执行器，执行时按引用查找
+   */
+  private final Cache<Handler, Optional<HandlerExecutor>> memoized = Caffeine.newBuilder().weakKeys().build();
+  private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+  public HandlerMemoizer(HandlerProperties properties) {
+    this.waitTimeout = properties.getMemo().getWaitTimeout();
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(properties.getMemo().getMaxSize())
+      // 淘汰统计只是计数，在维护线程上直接执行，统计快照清理后即是准确的
+      .executor(Runnable::run)
+      .expireAfter(new Expiry<MemoKey, ContextUpdates>() {
+        @Override
+        public long expireAfterCreate(MemoKey key, ContextUpdates value, long currentTime) {
+          return key.spec().ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(MemoKey key, ContextUpdates value, long currentTime, long currentDuration) {
+          return key.spec().ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(MemoKey key, ContextUpdates value, long currentTime, long currentDuration) {
+          return currentDuration;
+        }
+      })
+      .removalListener((MemoKey key, ContextUpdates value, RemovalCause cause) -> {
+        if (key != null && cause.wasEvicted()) {
+          key.spec().counters().evictions.increment();
+        }
+      })
+      .buildAsync();
+  }
+
+  /**
+   * @return 处理器是否声明为幂等
+   */
+  public boolean isMemoized(Handler handler) {
+    return handler.parameters().get(MEMOIZE) != null;
+  }
+
+  /**
+   * 校验幂等声明，加载配置时调用
+   *
+   * @throws IllegalArgumentException 声明不完整或键表达式无法解析
+   */
+  public void validate(Handler handler) {
+    if (isMemoized(handler)) {
+      spec(handler);
+    }
+  }
+
+  /**
+   * @return 包装了结果缓存的执行器
+   */
+  public Optional<HandlerExecutor> memoized(Handler handler, HandlerExecutor delegate) {
+    return memoized.get(handler, key -> Optional.of(new MemoizedHandlerExecutor(spec(key), delegate)));
+  }
+
+  /**
+   * @return 各处理器（按处理器标识汇总）的命中、未命中与淘汰统计
+   */
+  public Map<String, MemoStats> stats() {
+    cache.synchronous().cleanUp();
+    return counters.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().snapshot(),
+      (a, b) -> a, LinkedHashMap::new));
+  }
+
+  /**
+   * 配置刷新时丢弃所有缓存的结果和解析后的声明，统计保留
+   */
+  public void invalidate() {
+    log.info("清空幂等处理器结果缓存，当前统计: {}", stats());
+    specs.clear();
+    memoized.invalidateAll();
+    cache.synchronous().invalidateAll();
+  }
+
+  private MemoSpec spec(Handler handler) {
+    return specs.computeIfAbsent(handler, this::parse);
+  }
+
+  @SuppressWarnings("unchecked")
+  private MemoSpec parse(Handler handler) {
+    if (!(handler.getParameter(MEMOIZE) instanceof Map<?, ?> declaration)) {
+      throw new IllegalArgumentException("Parameter 'memoize' of handler '" + handler.handler() + "' must be a map with key and ttl");
+    }
+    MemoParameters parameters = HandlerParameters.bind(MemoParameters.class, (Map<String, Object>) declaration);
+    String source = parameters.key().strip();
+    if (source.startsWith("#{") && source.endsWith("}")) {
+      source = source.substring(2, source.length() - 1);
+    }
+    Expression key;
+    try {
+      key = PARSER.parseExpression(source);
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid memoize key of handler '" + handler.handler() + "': " + e.getMessage(), e);
+    }
+    // 其余参数相同的处理器共享缓存条目
+    Map<String, Object> identity = new HashMap<>(handler.parameters());
+    identity.remove(MEMOIZE);
+    return new MemoSpec(handler.type(), handler.handler(), Collections.unmodifiableMap(identity), key, parameters.ttl(),
+      counters.computeIfAbsent(handler.handler(), id -> new Counters()));
+  }
+
+  /**
+   * 幂等声明
+   *
+   * @param key 键表达式
+   * @param ttl 缓存结果的有效期
+   */
+  record MemoParameters(String key, Duration ttl) {
+    MemoParameters {
+      if (key == null || key.isBlank()) {
+        throw new IllegalArgumentException("memoize.key is required");
+      }
+      if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+        throw new IllegalArgumentException("memoize.ttl must be a positive duration");
+      }
+    }
+  }
+
+  /**
+   * 解析后的幂等声明；处理器类型、标识和其余参数参与缓存键的比较
+   */
+  private record MemoSpec(HandlerType type, String handler, Map<String, Object> parameters, Expression key, Duration ttl,
+                          Counters counters) {
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || o instanceof MemoSpec that && type == that.type && handler.equals(that.handler)
+        && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * handler.hashCode() + parameters.hashCode();
+    }
+  }
+
+  private record MemoKey(MemoSpec spec, Object value) {
+  }
+
+  /**
+   * 处理器对业务数据的改动
+   */
+  private record ContextUpdates(Map<String, Object> updated, Set<String> removed) {
+
+    /**
+     * @param before 执行前的业务数据
+     * @param after  处理器在深拷贝上执行后的业务数据，嵌套容器与执行前的不是同一个对象，按内容比较
+     */
+    static ContextUpdates diff(Map<String, Object> before, Map<String, Object> after) {
+      Map<String, Object> updated = new HashMap<>();
+      after.forEach((name, value) -> {
+        if (!Objects.deepEquals(before.get(name), value)) {
+          updated.put(name, value);
+        }
+      });
+      Set<String> removed = before.keySet().stream().filter(name -> !after.containsKey(name)).collect(Collectors.toUnmodifiableSet());
+      return new ContextUpdates(Map.copyOf(updated), removed);
+    }
+
+    /**
+     * 缓存的值在请求之间共享，应用时复制嵌套容器，调用方之后的就地修改不会影响缓存
+     */
+    void applyTo(BusinessContext context) {
+      updated.forEach((name, value) -> context.data().put(name, deepCopy(value)));
+      removed.forEach(context.data()::remove);
+    }
+  }
+
+  /**
+   * 逐层复制 Map、List、Set 和对象数组（复制为 LinkedHashMap、ArrayList、LinkedHashSet），其余值原样返回
+   */
+  static Object deepCopy(Object value) {
+    return switch (value) {
+      case Map<?, ?> map -> {
+        Map<Object, Object> copy = new LinkedHashMap<>();
+        map.forEach((k, v) -> copy.put(k, deepCopy(v)));
+        yield copy;
+      }
+      case List<?> list -> list.stream().map(HandlerMemoizer::deepCopy).collect(Collectors.toCollection(ArrayList::new));
+      case Set<?> set -> set.stream().map(HandlerMemoizer::deepCopy).collect(Collectors.toCollection(LinkedHashSet::new));
+      case Object[] array -> {
+        Object[] copy = array.clone();
+        // 元素类型更具体的数组放不下复制出的容器，只复制数组本身
+        if (array.getClass().getComponentType() == Object.class) {
+          for (int i = 0; i < copy.length; i++) {
+            copy[i] = deepCopy(copy[i]);
+          }
+        }
+        yield copy;
+      }
+      case null, default -> value;
+    };
+  }
+
+  private static final class Counters {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    MemoStats snapshot() {
+      return new MemoStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+  }
+
+  private final class MemoizedHandlerExecutor implements HandlerExecutor {
+
+    private final MemoSpec spec;
+    private final HandlerExecutor delegate;
+
+    MemoizedHandlerExecutor(MemoSpec spec, HandlerExecutor delegate) {
+      this.spec = spec;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public HandlerType type() {
+      return delegate.type();
+    }
+
+    @Override
+    public void prepare(Handler handler) {
+      delegate.prepare(handler);
+    }
+
+    @Override
+    public void execute(Handler handler, BusinessContext context) {
+      execute(handler, context, null);
+    }
+
+    @Override
+    public void execute(Handler handler, BusinessContext context, CancellationToken cancellationToken) {
+      Object value;
+      try {
+        value = spec.key().getValue(KEY_CONTEXT, context.data());
+      } catch (EvaluationException e) {
+        throw new IllegalStateException("Failed to evaluate memoize key of handler '" + handler.handler() + "'", e);
+      }
+      MemoKey key = new MemoKey(spec, value);
+      CompletableFuture<ContextUpdates> created = new CompletableFuture<>();
+      CompletableFuture<ContextUpdates> existing = cache.asMap().putIfAbsent(key, created);
+      if (existing != null) {
+        ContextUpdates updates = await(existing, handler, cancellationToken);
+        if (updates != null) {
+          spec.counters().hits.increment();
+          updates.applyTo(context);
+          return;
+        }
+        // 正在进行的执行失败了或等待超时，自行执行，不缓存
+        spec.counters().misses.increment();
+        invoke(handler, context, cancellationToken);
+        return;
+      }
+      spec.counters().misses.increment();
+      try {
+        Map<String, Object> copy = new HashMap<>(context.data());
+        copy.replaceAll((name, field) -> deepCopy(field));
+        BusinessContext scratch = new BusinessContext(copy);
+        invoke(handler, scratch, cancellationToken);
+        ContextUpdates updates = ContextUpdates.diff(context.data(), scratch.data());
+        created.complete(updates);
+        updates.applyTo(context);
+      } catch (RuntimeException | Error e) {
+        // 失败的结果不缓存，等待者各自执行
+        created.complete(null);
+        cache.asMap().remove(key, created);
+        throw e;
+      }
+    }
+
+    private void invoke(Handler handler, BusinessContext context, CancellationToken cancellationToken) {
+      if (cancellationToken == null) {
+        delegate.execute(handler, context);
+      } else {
+        delegate.execute(handler, context, cancellationToken);
+      }
+    }
+
+    /**
+     * 等待正在进行的执行；调用方取消时只放弃等待，不影响正在执行的请求
+     *
+     * @return 缓存的改动，执行失败或等待超时时为 null
+     */
+    private ContextUpdates await(CompletableFuture<ContextUpdates> future, Handler handler, CancellationToken cancellationToken) {
+      CompletableFuture<ContextUpdates> waiting = cancellationToken == null
+        ? future
+        : cancellationToken.propagateTo(future.thenApply(updates -> updates));
+      try {
+        return waiting.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        log.warn("等待幂等处理器 {} 的结果超过 {}，自行执行", handler.handler(), waitTimeout);
+        return null;
+      } catch (ExecutionException e) {
+        return null;
+      } catch (CancellationException e) {
+        if (cancellationToken != null) {
+          cancellationToken.throwIfCancelled();
+        }
+        throw e;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CancellationException("Interrupted while waiting for memoized handler '" + handler.handler() + "'");
+      }
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.valueobject.Handler;
+import com.zornflow.infrastructure.adapter.support.MethodAccess;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 把 Bean 的任意公共方法绑定为处理器调用
+ * 方法参数按类型或名称取值：{@link BusinessContext} 和 {@link Handler} 按类型注入；记录类型的参数（没有 {@link HandlerParam}）
+ * 由处理器参数绑定为类型化的参数记录，见 {@link HandlerParameters}；其余参数按 {@link HandlerParam} 或参数名
+ * 先取处理器参数（转换为参数类型）、再取业务数据。
+ * 方法按处理器标识解析一次，不超过 3 个参数的方法通过 LambdaMetafactory 生成以 Bean 为接收者的函数式接口实现，
+ * 调用相当于一次接口调用加方法本身的虚调用，更多参数时退回 MethodHandle，同样不经过反射；
+ * 参数按处理器（即每条规则的处理器配置）在加载配置时绑定一次，来自处理器参数的取值在执行时是常量
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/17 15:40
+ **/
+
+final class HandlerMethods {
+
+  private static final List<Class<?>> VALUE_INVOKERS = List.of(Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class);
+  private static final List<Class<?>> VOID_INVOKERS = List.of(VoidInvoker0.class, VoidInvoker1.class, VoidInvoker2.class, VoidInvoker3.class);
+
+  private HandlerMethods() {
+  }
+
+  /**
+   * @param bean       目标 Bean，可以是 CGLIB 代理
+   * @param methodName 公共方法名，不能重载
+   * @throws IllegalArgumentException 方法不存在、有重载或参数无法确定取值来源
+   */
+  static MethodBinding bind(Object bean, String methodName) {
+    Class<?> type = ClassUtils.getUserClass(bean);
+    List<Method> candidates = Arrays.stream(type.getMethods())
+      .filter(method -> method.getName().equals(methodName) && !Modifier.isStatic(method.getModifiers()) && !method.isBridge())
+      .toList();
+    if (candidates.isEmpty()) {
+      throw new IllegalArgumentException("No public method '" + methodName + "' on " + type.getName());
+    }
+    if (candidates.size() > 1) {
+      throw new IllegalArgumentException("Ambiguous handler method '" + methodName + "' on " + type.getName() + ": overloads are not supported");
+    }
+    Method method = candidates.getFirst();
+    Parameter[] parameters = method.getParameters();
+    ArgumentBinder[] arguments = new ArgumentBinder[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      arguments[i] = argument(method, i, parameters[i]);
+    }
+    return new MethodBinding(method, arguments, invoker(bean, type, method));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentBinder argument(Method method, int index, Parameter parameter) {
+    if (parameter.getType() == BusinessContext.class) {
+      return handler -> (h, context) -> context;
+    }
+    if (parameter.getType() == Handler.class) {
+      return handler -> (h, context) -> h;
+    }
+    HandlerParam annotation = parameter.getAnnotation(HandlerParam.class);
+    if (annotation == null && parameter.getType().isRecord()) {
+      Class<? extends Record> recordType = (Class<? extends Record>) parameter.getType();
+      return handler -> {
+        Record bound = HandlerParameters.bind(recordType, handler.parameters());
+        return (h, context) -> bound;
+      };
+    }
+    String name;
+    if (annotation != null) {
+      name = annotation.value();
+    } else if (parameter.isNamePresent()) {
+      name = parameter.getName();
+    } else {
+      throw new IllegalArgumentException("Cannot resolve parameter '" + parameter.getName() + "' of handler method "
+        + method.getDeclaringClass().getName() + "#" + method.getName() + ": annotate it with @HandlerParam or compile with -parameters");
+    }
+    TypeDescriptor target = HandlerParameters.parameterType(method, index);
+    return handler -> {
+      Object configured = handler.parameters().get(name);
+      if (configured != null) {
+        // 配置中的取值在加载时转换，执行时是常量
+        Object value = HandlerParameters.convert(configured, target, name);
+        return (h, context) -> value;
+      }
+      return (h, context) -> context.data().get(name);
+    };
+  }
+
+  /**
+   * 生成以 Bean 为接收者的调用器；无法生成时返回把参数展开后调用的 MethodHandle
+   */
+  private static Object invoker(Object bean, Class<?> type, Method method) {
+    MethodAccess access;
+    try {
+      access = MethodAccess.of(type, method);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Cannot access handler method " + type.getName() + "#" + method.getName(), e);
+    }
+    int arity = method.getParameterCount();
+    if (arity < VALUE_INVOKERS.size()) {
+      Object invoker = invoker(access, bean, method.getReturnType() == void.class);
+      if (invoker != null) {
+        return invoker;
+      }
+    }
+    return access.handle().bindTo(bean)
+      .asSpreader(Object[].class, arity)
+      .asType(MethodType.methodType(Object.class, Object[].class));
+  }
+
+  /**
+   * 以 Bean 为捕获的接收者生成对应参数个数的函数式接口实现；参数按包装类型声明，基本类型由生成的代码拆箱
+   */
+  private static Object invoker(MethodAccess access, Object bean, boolean returnsVoid) {
+    MethodType implementation = access.handle().type().dropParameterTypes(0, 1);
+    int arity = implementation.parameterCount();
+    Class<?> invokerType = (returnsVoid ? VOID_INVOKERS : VALUE_INVOKERS).get(arity);
+    MethodType erased = MethodType.genericMethodType(arity);
+    MethodType instantiated = implementation.wrap();
+    if (returnsVoid) {
+      erased = erased.changeReturnType(void.class);
+      instantiated = instantiated.changeReturnType(void.class);
+    }
+    return access.implement(invokerType, "invoke", erased, instantiated, bean);
+  }
+
+  private static BoundHandler specialize(Object invoker, ArgumentResolver[] a) {
+    return switch (invoker) {
+      case Invoker0 i -> (handler, context) -> i.invoke();
+      case Invoker1 i -> (handler, context) -> i.invoke(a[0].resolve(handler, context));
+      case Invoker2 i -> (handler, context) -> i.invoke(a[0].resolve(handler, context), a[1].resolve(handler, context));
+      case Invoker3 i -> (handler, context) -> i.invoke(a[0].resolve(handler, context), a[1].resolve(handler, context),
+        a[2].resolve(handler, context));
+      case VoidInvoker0 i -> (handler, context) -> {
+        i.invoke();
+        return null;
+      };
+      case VoidInvoker1 i -> (handler, context) -> {
+        i.invoke(a[0].resolve(handler, context));
+        return null;
+      };
+      case VoidInvoker2 i -> (handler, context) -> {
+        i.invoke(a[0].resolve(handler, context), a[1].resolve(handler, context));
+        return null;
+      };
+      case VoidInvoker3 i -> (handler, context) -> {
+        i.invoke(a[0].resolve(handler, context), a[1].resolve(handler, context), a[2].resolve(handler, context));
+        return null;
+      };
+      case MethodHandle spread -> (handler, context) -> {
+        Object[] values = new Object[a.length];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = a[i].resolve(handler, context);
+        }
+        try {
+          return spread.invokeExact(values);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new UndeclaredThrowableException(e);
+        }
+      };
+      default -> throw new IllegalStateException("Unexpected invoker " + invoker.getClass());
+    };
+  }
+
+  /**
+   * 按处理器标识解析的方法绑定
+   *
+   * @param method    处理器方法
+   * @param arguments 各参数的绑定方式
+   * @param invoker   生成的调用器或展开参数的 MethodHandle
+   */
+  record MethodBinding(Method method, ArgumentBinder[] arguments, Object invoker) {
+
+    /**
+     * 按处理器的参数绑定方法参数
+     *
+     * @throws IllegalArgumentException 处理器参数无法绑定到参数类型
+     */
+    BoundHandler bind(Handler handler) {
+      ArgumentResolver[] resolvers = new ArgumentResolver[arguments.length];
+      for (int i = 0; i < resolvers.length; i++) {
+        resolvers[i] = arguments[i].bind(handler);
+      }
+      return specialize(invoker, resolvers);
+    }
+  }
+
+  /**
+   * 绑定后的处理器调用，返回方法的返回值，void 方法返回 null
+   */
+  @FunctionalInterface
+  interface BoundHandler {
+    Object invoke(Handler handler, BusinessContext context);
+  }
+
+  @FunctionalInterface
+  private interface ArgumentResolver {
+    Object resolve(Handler handler, BusinessContext context);
+  }
+
+  /**
+   * 按处理器的参数确定一个方法参数的取值方式
+   */
+  @FunctionalInterface
+  private interface ArgumentBinder {
+    ArgumentResolver bind(Handler handler);
+  }
+
+  public interface Invoker0 {
+    Object invoke();
+  }
+
+  public interface Invoker1 {
+    Object invoke(Object a);
+  }
+
+  public interface Invoker2 {
+    Object invoke(Object a, Object b);
+  }
+
+  public interface Invoker3 {
+    Object invoke(Object a, Object b, Object c);
+  }
+
+  public interface VoidInvoker0 {
+    void invoke();
+  }
+
+  public interface VoidInvoker1 {
+    void invoke(Object a);
+  }
+
+  public interface VoidInvoker2 {
+    void invoke(Object a, Object b);
+  }
+
+  public interface VoidInvoker3 {
+    void invoke(Object a, Object b, Object c);
+  }
+}
@@ -0,0 +1,24 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明处理器方法参数的取值名称：先取处理器参数中的同名值，没有时取业务数据中的同名字段。
+ * 使用 -parameters 编译时可以省略，直接使用参数名
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/17 15:30
+ **/
+
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HandlerParam {
+
+  String value();
+}
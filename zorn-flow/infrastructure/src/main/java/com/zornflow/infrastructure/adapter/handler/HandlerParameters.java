@@ -0,0 +1,90 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 把处理器参数绑定为类型化的参数记录
+ * 记录组件按名称取处理器参数中的值并转换为组件类型（例如 "500" 转为 int，"PT5S" 转为 Duration，
+ * Map 转为嵌套记录）；基本类型组件缺少取值时拒绝，其余组件缺少取值时为 null，
+ * 记录的紧凑构造器可以进一步校验取值。绑定只在加载配置时进行一次，执行时直接使用不可变的记录实例
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/17 19:20
+ **/
+
+final class HandlerParameters {
+
+  /**
+   * 把处理器的返回值写入业务数据的字段名，类、脚本和 HTTP 处理器通用
+   */
+  static final String RESULT_KEY = "resultKey";
+
+  private static final ConversionService CONVERSION = ApplicationConversionService.getSharedInstance();
+
+  private HandlerParameters() {
+  }
+
+  /**
+   * @throws IllegalArgumentException 缺少必填取值、取值无法转换或记录构造器拒绝
+   */
+  static <R extends Record> R bind(Class<R> type, Map<String, Object> values) {
+    RecordComponent[] components = type.getRecordComponents();
+    Object[] arguments = new Object[components.length];
+    for (int i = 0; i < components.length; i++) {
+      RecordComponent component = components[i];
+      Object value = values.get(component.getName());
+      if (value == null) {
+        if (component.getType().isPrimitive()) {
+          throw new IllegalArgumentException("Missing handler parameter '" + component.getName() + "' of " + type.getSimpleName());
+        }
+        continue;
+      }
+      arguments[i] = convert(value, componentType(component), component.getName());
+    }
+    try {
+      Constructor<R> constructor = type.getDeclaredConstructor(Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+      constructor.setAccessible(true);
+      return constructor.newInstance(arguments);
+    } catch (InvocationTargetException e) {
+      throw new IllegalArgumentException("Invalid handler parameters for " + type.getSimpleName() + ": " + e.getCause().getMessage(), e.getCause());
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      throw new IllegalArgumentException("Cannot bind handler parameters to " + type.getName() + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 按目标类型（包括泛型参数）转换单个取值；Map 到记录的转换递归绑定
+   */
+  @SuppressWarnings("unchecked")
+  static Object convert(Object value, TypeDescriptor target, String name) {
+    if (target.getType().isRecord() && value instanceof Map<?, ?> map) {
+      return bind((Class<? extends Record>) target.getType(), (Map<String, Object>) map);
+    }
+    try {
+      return CONVERSION.convert(value, TypeDescriptor.forObject(value), target);
+    } catch (ConversionException e) {
+      throw new IllegalArgumentException("Handler parameter '" + name + "' cannot be converted to " + target + ": " + value, e);
+    }
+  }
+
+  static TypeDescriptor parameterType(Method method, int index) {
+    return new TypeDescriptor(new MethodParameter(method, index));
+  }
+
+  private static TypeDescriptor componentType(RecordComponent component) {
+    return new TypeDescriptor(ResolvableType.forType(component.getGenericType()), null, component.getAnnotations());
+  }
+}
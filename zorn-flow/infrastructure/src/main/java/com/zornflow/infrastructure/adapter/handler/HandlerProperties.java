@@ -0,0 +1,212 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 规则处理器执行配置
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 20:40
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "zornflow.handler")
+public class HandlerProperties {
+  /**
+   * 脚本处理器
+   */
+  private Script script = new Script();
+  /**
+   * JAR 插件处理器
+   */
+  private Jar jar = new Jar();
+  /**
+   * HTTP 处理器
+   */
+  private Http http = new Http();
+  /**
+   * WebAssembly 处理器
+   */
+  private Wasm wasm = new Wasm();
+  /**
+   * 参考数据查找处理器
+   */
+  private Lookup lookup = new Lookup();
+  /**
+   * 幂等处理器的结果缓存
+   */
+  private Memo memo = new Memo();
+  /**
+   * 处理器的 CPU 时间与内存分配统计
+   */
+  private Accounting accounting = new Accounting();
+  /**
+   * 定期在日志中输出幂等缓存命中和资源计量统计的间隔，为 0 时不输出
+   */
+  private Duration statsLogInterval = Duration.ofMinutes(5);
+
+  @Data
+  public static class Script {
+    /**
+     * 已编译脚本类的最大数量，超出后按访问频率淘汰，淘汰时连同类加载器一起释放
+     */
+    private long cacheSize = 512;
+    /**
+     * 每个脚本保留的空闲脚本实例数，并发超出时临时创建实例，用完后丢弃
+     */
+    private int poolSize = 16;
+    /**
+     * 是否默认静态编译，单个处理器可以通过参数 compileStatic 覆盖；
+     * 静态编译的脚本调用不经过元类分派，但变量必须声明类型
+     */
+    private boolean compileStatic = false;
+  }
+
+  @Data
+  public static class Jar {
+    /**
+     * 插件目录，目录下的 JAR 按 名称-版本.jar 命名，同名插件使用版本最高的一个
+     */
+    private String pluginDir = "plugin";
+    /**
+     * 扫描插件目录的间隔，发现新版本时热切换；为 0 时只在配置刷新时扫描
+     */
+    private Duration scanInterval = Duration.ofSeconds(10);
+  }
+
+  @Data
+  public static class Http {
+    /**
+     * 建立连接的超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * 单次请求的默认超时时间，处理器参数 timeout 可覆盖
+     */
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    /**
+     * 批量请求默认的攒批等待时间，处理器参数 batch.maxDelay 可覆盖
+     */
+    private Duration batchMaxDelay = Duration.ofMillis(2);
+  }
+
+  @Data
+  public static class Wasm {
+    /**
+     * 模块目录，处理器标识是其中 .wasm 文件的相对路径
+     */
+    private String moduleDir = "wasm";
+    /**
+     * 已编译模块的最大数量，按内容哈希缓存，内容相同的模块共享
+     */
+    private long cacheSize = 64;
+    /**
+     * 是否把模块编译为 JVM 字节码，为 false 时解释执行
+     */
+    private boolean compile = true;
+    /**
+     * 单次执行的默认时间上限，处理器参数 timeout 可覆盖，为 0 时不限制
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+  }
+
+  @Data
+  public static class Lookup {
+    /**
+     * 后台重新加载参考表的默认间隔，加载完成后切换到新版本；为 0 时只在启动后首次使用时加载
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    /**
+     * 内存映射文件所在目录，为空时使用系统临时目录
+     */
+    private String mappedDir;
+    /**
+     * 表名到参考表定义，处理器标识是表名
+     */
+    private Map<String, Table> tables = new LinkedHashMap<>();
+  }
+
+  @Data
+  public static class Table {
+    /**
+     * 加载整张表的 SQL 查询，与 csv 二选一
+     */
+    private String query;
+    /**
+     * 本地 CSV 文件路径，首行是列名，与 query 二选一
+     */
+    private String csv;
+    /**
+     * 主键列，取值必须唯一；取值都是整数时使用基本类型 long 的索引
+     */
+    private String key;
+    /**
+     * 是否把行数据放在内存映射文件中，只在堆内保留主键索引，用于很大的表
+     */
+    private boolean mapped = false;
+    /**
+     * 覆盖默认的刷新间隔
+     */
+    private Duration refreshInterval;
+  }
+
+  @Data
+  public static class Memo {
+    /**
+     * 所有幂等处理器共享的缓存条目上限，超出后按访问频率淘汰；每个处理器的过期时间在处理器参数 memoize.ttl 中声明
+     */
+    private long maxSize = 10_000;
+    /**
+     * 等待同一个键上正在进行的执行的最长时间，超时后自行执行处理器，结果不缓存
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+  }
+
+  @Data
+  public static class Accounting {
+    private boolean enabled = false;
+    /**
+     * 超出配额时的处理方式
+     */
+    private QuotaAction action = QuotaAction.LOG;
+    /**
+     * 所有处理器的默认配额，未设置的项不做限制
+     */
+    private Quota quota = new Quota();
+    /**
+     * 按处理器标识覆盖默认配额
+     */
+    private Map<String, Quota> handlers = new LinkedHashMap<>();
+  }
+
+  @Data
+  public static class Quota {
+    /**
+     * 单次执行的 CPU 时间上限
+     */
+    private Duration maxCpuTime;
+    /**
+     * 单次执行在当前线程上分配的内存上限
+     */
+    private DataSize maxAllocated;
+  }
+
+  public enum QuotaAction {
+    /**
+     * 记录警告日志
+     */
+    LOG,
+    /**
+     * 抛出 {@link HandlerQuotaExceededException}，中止规则链的执行
+     */
+    REJECT
+  }
+}
@@ -0,0 +1,16 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+/**
+ * 处理器单次执行超出 CPU 时间或内存分配配额，配额动作为 REJECT 时在处理器执行结束后抛出，规则链执行失败
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/18 15:30
+ **/
+
+public final class HandlerQuotaExceededException extends RuntimeException {
+
+  HandlerQuotaExceededException(String message) {
+    super(message, null, false, false);
+  }
+}
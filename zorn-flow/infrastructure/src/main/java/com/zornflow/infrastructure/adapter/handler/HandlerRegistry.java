@@ -0,0 +1,108 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.config.model.ModelConfig;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.service.HandlerExecutorFactory;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import com.zornflow.infrastructure.config.model.RuleChainConfig;
+import com.zornflow.infrastructure.config.model.RuleConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 处理器注册表
+ * 启动时按 {@link HandlerType} 把执行器放入 EnumMap，执行时按类型直接分派，不再逐个询问执行器；
+ * 配置源加载或刷新配置时通过 {@link #validate} 让执行器预先解析每个处理器（例如把类处理器的标识解析为 Bean），
+ * 未知的处理器在配置发布之前就被拒绝，而不是在请求到来时才失败。
+ * 声明了 memoize 参数的处理器分派到包装了结果缓存的执行器，见 {@link HandlerMemoizer}
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 15:10
+ **/
+
+@Slf4j
+@Service
+public class HandlerRegistry implements HandlerExecutorFactory {
+
+  /**
+   * 值为预先构造的 Optional，分派时不分配对象
+   */
+  private final Map<HandlerType, Optional<HandlerExecutor>> executors = new EnumMap<>(HandlerType.class);
+  private final HandlerMemoizer memoizer;
+
+  public HandlerRegistry(List<HandlerExecutor> executors) {
+    this(executors, null);
+  }
+
+  @Autowired
+  public HandlerRegistry(List<HandlerExecutor> executors, HandlerMemoizer memoizer) {
+    this.memoizer = memoizer;
+    for (HandlerType type : HandlerType.values()) {
+      this.executors.put(type, Optional.empty());
+    }
+    for (HandlerExecutor executor : executors) {
+      Optional<HandlerExecutor> existing = this.executors.put(executor.type(), Optional.of(executor));
+      if (existing.isPresent()) {
+        throw new IllegalStateException("Duplicate handler executors for type " + executor.type() + ": "
+          + existing.get().getClass().getName() + ", " + executor.getClass().getName());
+      }
+    }
+    log.info("已注册处理器执行器: {}", this.executors);
+  }
+
+  @Override
+  public Optional<HandlerExecutor> getExecutor(Handler handler) {
+    Optional<HandlerExecutor> executor = executors.get(handler.type());
+    if (memoizer == null || executor.isEmpty() || !memoizer.isMemoized(handler)) {
+      return executor;
+    }
+    return memoizer.memoized(handler, executor.get());
+  }
+
+  /**
+   * 配置刷新时让每个执行器丢弃预先解析的结果（见 {@link HandlerExecutor#invalidate}），
+   * 并清空幂等处理器的结果缓存：处理器的实现可能随配置变化，缓存的处理结果不再可信
+   */
+  public void invalidate() {
+    executors.values().forEach(executor -> executor.ifPresent(HandlerExecutor::invalidate));
+    if (memoizer != null) {
+      memoizer.invalidate();
+    }
+  }
+
+  /**
+   * 预先解析配置中的所有处理器，存在无法执行的处理器时抛出 {@link IllegalArgumentException}
+   */
+  public void validate(ModelConfig config) {
+    if (!(config instanceof RuleChainConfig chain) || chain.rules() == null) {
+      return;
+    }
+    for (RuleConfig rule : chain.rules()) {
+      RuleConfig.HandlerConfig handle = rule.handle();
+      if (handle == null || handle.type() == null) {
+        continue;
+      }
+      Handler handler = Handler.of(HandlerType.valueOf(handle.type().name()), handle.handler(), handle.parameters());
+      String location = "rule chain " + chain.id() + ", rule " + rule.id();
+      HandlerExecutor executor = executors.get(handler.type())
+        .orElseThrow(() -> new IllegalArgumentException(
+          "No handler executor for type " + handler.type() + " in " + location));
+      try {
+        executor.prepare(handler);
+        if (memoizer != null) {
+          memoizer.validate(handler);
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid handler in " + location + ": " + e.getMessage(), e);
+      }
+    }
+  }
+}
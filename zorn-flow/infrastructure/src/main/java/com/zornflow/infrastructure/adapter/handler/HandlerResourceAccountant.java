@@ -0,0 +1,220 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.service.ExecutionListener;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 处理器资源计量
+ * 在 {@link #onHandlerStart} 与 {@link #onHandlerInvoked} 之间（两者在同一线程上成对调用）通过 {@link ThreadMXBean}
+ * 读取当前线程的 CPU 时间和已分配字节数，差值即处理器本次执行的开销，按处理器标识和规则链分别汇总。
+ * 墙钟耗时看不出处理器制造的 GC 压力，分配字节数可以。
+ * 处理器成功执行后检查配额：超出时按配置记录警告或抛出 {@link HandlerQuotaExceededException} 中止规则链，
+ * 此时处理器已经执行完毕，配额是软限制。处理器内部嵌套执行的规则链计入外层处理器；
+ * 处理器把工作交给其他线程时只计入当前线程上的部分，JVM 不支持的计量项（例如虚拟线程上的 CPU 时间）不计入
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/18 15:40
+ **/
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "zornflow.handler.accounting", name = "enabled", havingValue = "true")
+public class HandlerResourceAccountant implements ExecutionListener {
+
+  private static final long UNLIMITED = Long.MAX_VALUE;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final com.sun.management.ThreadMXBean allocations;
+  private final HandlerProperties.QuotaAction action;
+  private final Budget defaultBudget;
+  private final Map<String, Budget> budgets = new HashMap<>();
+  private final Map<String, Counters> handlerCounters = new ConcurrentHashMap<>();
+  private final Map<String, Counters> chainCounters = new ConcurrentHashMap<>();
+  private final ThreadLocal<Frames> frames = ThreadLocal.withInitial(Frames::new);
+
+  public HandlerResourceAccountant(HandlerProperties properties) {
+    HandlerProperties.Accounting accounting = properties.getAccounting();
+    this.action = accounting.getAction();
+    this.defaultBudget = Budget.of(accounting.getQuota());
+    accounting.getHandlers().forEach((handler, quota) -> budgets.put(handler, Budget.of(quota)));
+
+    if (threads.isCurrentThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+      threads.setThreadCpuTimeEnabled(true);
+    }
+    if (threads instanceof com.sun.management.ThreadMXBean extended && extended.isThreadAllocatedMemorySupported()) {
+      if (!extended.isThreadAllocatedMemoryEnabled()) {
+        extended.setThreadAllocatedMemoryEnabled(true);
+      }
+      this.allocations = extended;
+    } else {
+      this.allocations = null;
+    }
+    log.info("处理器资源计量已启用，CPU 时间: {}，内存分配: {}，超出配额时: {}",
+      threads.isCurrentThreadCpuTimeSupported(), allocations != null, action);
+  }
+
+  @Override
+  public void onRuleMatched(RuleChain ruleChain, Rule rule, BusinessContext context) {
+    frames.get().chain = ruleChain.getId().value();
+  }
+
+  @Override
+  public void onHandlerStart(Rule rule, BusinessContext context) {
+    frames.get().push(cpuTime(), allocatedBytes());
+  }
+
+  @Override
+  public void onHandlerInvoked(Rule rule, BusinessContext context, long elapsedNanos, Throwable failure) {
+    Frames current = frames.get();
+    if (current.depth == 0) {
+      return;
+    }
+    long cpu = delta(current.cpu[current.depth - 1], cpuTime());
+    long allocated = delta(current.allocated[current.depth - 1], allocatedBytes());
+    String chain = current.pop();
+
+    String handler = rule.getHandler().handler();
+    Budget budget = budgets.getOrDefault(handler, defaultBudget);
+    boolean exceeded = failure == null && (cpu > budget.maxCpuNanos() || allocated > budget.maxAllocatedBytes());
+    handlerCounters.computeIfAbsent(handler, id -> new Counters()).record(cpu, allocated, exceeded);
+    if (chain != null) {
+      chainCounters.computeIfAbsent(chain, id -> new Counters()).record(cpu, allocated, exceeded);
+    }
+    if (!exceeded) {
+      return;
+    }
+    String message = "Handler '" + handler + "' of rule " + rule.getId().value() + " in rule chain " + chain
+      + " exceeded its quota: cpu " + Duration.ofNanos(cpu) + " (max " + describe(budget.maxCpuNanos()) + "), allocated "
+      + allocated + " bytes (max " + describe(budget.maxAllocatedBytes()) + ")";
+    if (action == HandlerProperties.QuotaAction.REJECT) {
+      throw new HandlerQuotaExceededException(message);
+    }
+    log.warn(message);
+  }
+
+  /**
+   * @return 各处理器（按处理器标识汇总）的资源统计
+   */
+  public Map<String, HandlerResourceStats> handlerStats() {
+    return snapshot(handlerCounters);
+  }
+
+  /**
+   * @return 各规则链（按规则链标识汇总其中所有处理器）的资源统计
+   */
+  public Map<String, HandlerResourceStats> chainStats() {
+    return snapshot(chainCounters);
+  }
+
+  private static Map<String, HandlerResourceStats> snapshot(Map<String, Counters> counters) {
+    Map<String, HandlerResourceStats> stats = new TreeMap<>();
+    counters.forEach((id, value) -> stats.put(id, value.snapshot()));
+    return stats;
+  }
+
+  private long cpuTime() {
+    return threads.getCurrentThreadCpuTime();
+  }
+
+  private long allocatedBytes() {
+    return allocations != null ? allocations.getCurrentThreadAllocatedBytes() : -1;
+  }
+
+  /**
+   * 计量不可用时两端读数为 -1，差值记为 -1
+   */
+  private static long delta(long start, long end) {
+    return start < 0 || end < 0 ? -1 : end - start;
+  }
+
+  private static String describe(long limit) {
+    return limit == UNLIMITED ? "unlimited" : String.valueOf(limit);
+  }
+
+  private record Budget(long maxCpuNanos, long maxAllocatedBytes) {
+
+    static Budget of(HandlerProperties.Quota quota) {
+      return new Budget(
+        quota.getMaxCpuTime() != null ? quota.getMaxCpuTime().toNanos() : UNLIMITED,
+        quota.getMaxAllocated() != null ? quota.getMaxAllocated().toBytes() : UNLIMITED);
+    }
+  }
+
+  /**
+   * 当前线程上正在执行的处理器，处理器内部可能嵌套执行规则链
+   */
+  private static final class Frames {
+    private String chain;
+    private String[] chains = new String[4];
+    private long[] cpu = new long[4];
+    private long[] allocated = new long[4];
+    private int depth;
+
+    void push(long cpuTime, long allocatedBytes) {
+      if (depth == cpu.length) {
+        chains = Arrays.copyOf(chains, depth * 2);
+        cpu = Arrays.copyOf(cpu, depth * 2);
+        allocated = Arrays.copyOf(allocated, depth * 2);
+      }
+      chains[depth] = chain;
+      cpu[depth] = cpuTime;
+      allocated[depth] = allocatedBytes;
+      depth++;
+    }
+
+    String pop() {
+      depth--;
+      String popped = chains[depth];
+      chains[depth] = null;
+      // 嵌套的规则链结束后，外层规则链的后续规则仍由 onRuleMatched 重新设置
+      chain = popped;
+      return popped;
+    }
+  }
+
+  private static final class Counters {
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAccumulator maxCpuNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxAllocatedBytes = new LongAccumulator(Math::max, 0);
+    private final LongAdder quotaViolations = new LongAdder();
+
+    void record(long cpu, long allocated, boolean exceeded) {
+      invocations.increment();
+      if (cpu >= 0) {
+        cpuNanos.add(cpu);
+        maxCpuNanos.accumulate(cpu);
+      }
+      if (allocated >= 0) {
+        allocatedBytes.add(allocated);
+        maxAllocatedBytes.accumulate(allocated);
+      }
+      if (exceeded) {
+        quotaViolations.increment();
+      }
+    }
+
+    HandlerResourceStats snapshot() {
+      return new HandlerResourceStats(invocations.sum(), cpuNanos.sum(), allocatedBytes.sum(),
+        maxCpuNanos.get(), maxAllocatedBytes.get(), quotaViolations.sum());
+    }
+  }
+}
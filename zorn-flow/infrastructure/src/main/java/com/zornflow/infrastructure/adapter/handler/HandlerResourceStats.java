@@ -0,0 +1,27 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+/**
+ * 处理器资源统计快照，计量不可用（例如虚拟线程上的 CPU 时间）的执行不计入对应的总量
+ *
+ * @param invocations       执行次数
+ * @param cpuNanos          CPU 时间总量（纳秒）
+ * @param allocatedBytes    在执行线程上分配的内存总量（字节）
+ * @param maxCpuNanos       单次执行的最大 CPU 时间
+ * @param maxAllocatedBytes 单次执行的最大内存分配
+ * @param quotaViolations   超出配额的次数
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/18 15:35
+ **/
+
+public record HandlerResourceStats(long invocations, long cpuNanos, long allocatedBytes,
+                                   long maxCpuNanos, long maxAllocatedBytes, long quotaViolations) {
+
+  public long averageCpuNanos() {
+    return invocations == 0 ? 0 : cpuNanos / invocations;
+  }
+
+  public long averageAllocatedBytes() {
+    return invocations == 0 ? 0 : allocatedBytes / invocations;
+  }
+}
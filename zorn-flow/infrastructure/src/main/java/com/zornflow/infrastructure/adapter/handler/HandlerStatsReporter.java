@@ -0,0 +1,87 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 处理器统计日志
+ * 按 zornflow.handler.stats-log-interval 定期输出幂等处理器的缓存命中情况，启用资源计量时还输出按处理器和按规则链
+ * 汇总的 CPU 时间与内存分配；统计均为累计值，没有数据时不输出
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/21 10:30
+ **/
+
+@Slf4j
+@Component
+public class HandlerStatsReporter implements SmartInitializingSingleton, DisposableBean {
+
+  private final HandlerMemoizer memoizer;
+  private final ObjectProvider<HandlerResourceAccountant> accountant;
+  private final Duration interval;
+  private ScheduledExecutorService scheduler;
+
+  public HandlerStatsReporter(HandlerProperties properties, HandlerMemoizer memoizer,
+                              ObjectProvider<HandlerResourceAccountant> accountant) {
+    this.memoizer = memoizer;
+    this.accountant = accountant;
+    this.interval = properties.getStatsLogInterval();
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (interval == null || !interval.isPositive()) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+      .name("handler-stats-report").daemon(true).factory());
+    scheduler.scheduleWithFixedDelay(this::reportQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * @return 当前统计的日志行，没有数据时为空
+   */
+  List<String> report() {
+    List<String> lines = new ArrayList<>();
+    Map<String, MemoStats> memo = memoizer.stats();
+    if (!memo.isEmpty()) {
+      lines.add("幂等处理器缓存统计: " + memo);
+    }
+    HandlerResourceAccountant resources = accountant.getIfAvailable();
+    if (resources != null) {
+      Map<String, HandlerResourceStats> handlers = resources.handlerStats();
+      if (!handlers.isEmpty()) {
+        lines.add("处理器资源统计: " + handlers);
+        lines.add("规则链处理器资源统计: " + resources.chainStats());
+      }
+    }
+    return lines;
+  }
+
+  private void reportQuietly() {
+    try {
+      report().forEach(log::info);
+    } catch (RuntimeException e) {
+      log.warn("输出处理器统计失败", e);
+    }
+  }
+}
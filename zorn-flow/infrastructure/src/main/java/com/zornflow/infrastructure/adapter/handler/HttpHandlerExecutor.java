@@ -0,0 +1,410 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP 处理器执行器
+ * 处理器标识是 URL 模板，{name} 占位符取业务数据中的同名字段（URL 编码后替换），例如
+ * https://scoring.internal/v1/customers/{customerId}/score。处理器参数：
+ * <ul>
+ *   <li>method：请求方法，默认 POST；GET 请求把 request 映射的字段作为查询参数</li>
+ *   <li>request：请求体字段名到业务数据字段名的映射，业务数据中没有的字段不发送</li>
+ *   <li>response：业务数据字段名到响应 JSON Pointer（例如 /risk/level）的映射，响应中没有的字段不写入</li>
+ *   <li>resultKey：把整个响应写入业务数据的字段名</li>
+ *   <li>timeout：请求超时，默认见 zornflow.handler.http.request-timeout</li>
+ *   <li>batch：{maxSize, maxDelay}，同一个 URL 的并发请求在 maxDelay 内攒成一批，以 JSON 数组发送一次，
+ *   服务端按相同顺序返回 JSON 数组；只支持 POST</li>
+ * </ul>
+ * 所有处理器共享一个 {@link HttpClient}：非阻塞，连接按目标地址池化并保持长连接，HTTP/2 时复用同一连接。
+ * 处理器在加载配置时解析为端点，执行时不再解析参数；调用方取消时放弃等待并取消进行中的请求
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/18 20:10
+ **/
+
+@Slf4j
+@Service
+public class HttpHandlerExecutor implements HandlerExecutor, DisposableBean {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\{([^{}]+)}");
+
+  private final HandlerProperties.Http properties;
+  private final HttpClient client;
+  private final ScheduledExecutorService scheduler;
+  private final Map<Handler, Endpoint> endpoints = new ConcurrentHashMap<>();
+  /**
+   * 请求方法和 URL 到正在攒批的请求
+   */
+  private final Map<String, PendingBatch> batches = new ConcurrentHashMap<>();
+
+  public HttpHandlerExecutor(HandlerProperties properties) {
+    this.properties = properties.getHttp();
+    this.client = HttpClient.newBuilder()
+      .connectTimeout(this.properties.getConnectTimeout())
+      .followRedirects(HttpClient.Redirect.NORMAL)
+      .build();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("http-handler-batch").daemon().factory());
+  }
+
+  @Override
+  public HandlerType type() {
+    return HandlerType.HTTP;
+  }
+
+  @Override
+  public void prepare(Handler handler) {
+    endpoints.computeIfAbsent(handler, this::parse);
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context) {
+    execute(handler, context, CancellationToken.NONE);
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context, CancellationToken cancellationToken) {
+    Endpoint endpoint = endpoints.computeIfAbsent(handler, this::parse);
+    CompletableFuture<JsonNode> response = endpoint.batch() != null
+      ? enqueue(endpoint, endpoint.uri(context), endpoint.body(context))
+      : send(endpoint, endpoint.request(context));
+    cancellationToken.propagateTo(response);
+    JsonNode body;
+    try {
+      body = response.get(endpoint.timeout().toNanos(), TimeUnit.NANOSECONDS);
+    } catch (CancellationException e) {
+      cancellationToken.throwIfCancelled();
+      throw e;
+    } catch (TimeoutException e) {
+      response.cancel(true);
+      throw new IllegalStateException("HTTP handler " + handler.handler() + " timed out after " + endpoint.timeout(), e);
+    } catch (InterruptedException e) {
+      response.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for HTTP handler " + handler.handler());
+    } catch (Exception e) {
+      // 请求自身的超时与等待超时相同，两者先后触发取决于调度，按同样的方式报告；取消后请求失败时按取消报告
+      cancellationToken.throwIfCancelled();
+      Throwable cause = e.getCause() != null ? e.getCause() : e;
+      if (cause instanceof HttpTimeoutException) {
+        throw new IllegalStateException("HTTP handler " + handler.handler() + " timed out after " + endpoint.timeout(), cause);
+      }
+      throw new IllegalStateException("Failed to execute HTTP handler: " + handler.handler(), cause);
+    }
+    endpoint.apply(body, context);
+  }
+
+  /**
+   * 配置刷新时丢弃解析后的端点，客户端和连接池保留
+   */
+  @Override
+  public void invalidate() {
+    endpoints.clear();
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdownNow();
+    client.shutdownNow();
+  }
+
+  private CompletableFuture<JsonNode> send(Endpoint endpoint, HttpRequest request) {
+    CompletableFuture<HttpResponse<String>> exchange = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    CompletableFuture<JsonNode> result = exchange.thenApply(response -> read(endpoint, response));
+    // 派生的 future 被取消时不会传回上游，需要单独取消进行中的请求
+    result.whenComplete((body, failure) -> {
+      if (failure instanceof CancellationException) {
+        exchange.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  private static JsonNode read(Endpoint endpoint, HttpResponse<String> response) {
+    if (response.statusCode() >= 300) {
+      throw new IllegalStateException(endpoint.method() + " " + response.uri() + " returned status " + response.statusCode());
+    }
+    try {
+      return response.body().isBlank() ? MAPPER.missingNode() : MAPPER.readTree(response.body());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(endpoint.method() + " " + response.uri() + " returned malformed JSON", e);
+    }
+  }
+
+  /**
+   * 把请求加入同一个 URL 正在攒批的批次；批次满或等待时间到时发送
+   */
+  private CompletableFuture<JsonNode> enqueue(Endpoint endpoint, URI uri, ObjectNode body) {
+    String key = endpoint.method() + " " + uri;
+    CompletableFuture<JsonNode> result = new CompletableFuture<>();
+    while (true) {
+      PendingBatch batch = batches.computeIfAbsent(key, k -> {
+        PendingBatch created = new PendingBatch(endpoint, uri);
+        scheduler.schedule(() -> flush(key, created), endpoint.batch().maxDelay().toNanos(), TimeUnit.NANOSECONDS);
+        return created;
+      });
+      int size = batch.add(body, result);
+      if (size < 0) {
+        // 批次刚刚被发送，加入下一个批次
+        continue;
+      }
+      if (size >= endpoint.batch().maxSize()) {
+        flush(key, batch);
+      }
+      return result;
+    }
+  }
+
+  private void flush(String key, PendingBatch batch) {
+    batches.remove(key, batch);
+    List<Map.Entry<ObjectNode, CompletableFuture<JsonNode>>> requests = batch.close();
+    if (requests == null) {
+      return;
+    }
+    log.debug("发送批量请求 {}，共 {} 个", key, requests.size());
+    ArrayNode array = MAPPER.createArrayNode();
+    requests.forEach(request -> array.add(request.getKey()));
+    HttpRequest request = batch.endpoint().builder(batch.uri()).POST(HttpRequest.BodyPublishers.ofString(array.toString())).build();
+    send(batch.endpoint(), request).whenComplete((response, failure) -> {
+      if (failure == null && (!response.isArray() || response.size() != requests.size())) {
+        failure = new IllegalStateException("Batch endpoint " + batch.uri() + " must return a JSON array of " + requests.size() + " elements");
+      }
+      for (int i = 0; i < requests.size(); i++) {
+        if (failure != null) {
+          requests.get(i).getValue().completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+        } else {
+          requests.get(i).getValue().complete(response.get(i));
+        }
+      }
+    });
+  }
+
+  private Endpoint parse(Handler handler) {
+    HttpParameters parameters = HandlerParameters.bind(HttpParameters.class, handler.parameters());
+    String method = parameters.method() != null ? parameters.method().toUpperCase(Locale.ROOT) : "POST";
+    if (!List.of("GET", "POST", "PUT", "PATCH", "DELETE").contains(method)) {
+      throw new IllegalArgumentException("Unsupported HTTP method '" + parameters.method() + "' of handler " + handler.handler());
+    }
+    if (parameters.batch() != null && !"POST".equals(method)) {
+      throw new IllegalArgumentException("Batching is only supported for POST handlers: " + handler.handler());
+    }
+    List<String> segments = new ArrayList<>();
+    List<String> variables = new ArrayList<>();
+    Matcher matcher = PLACEHOLDER.matcher(handler.handler());
+    int last = 0;
+    while (matcher.find()) {
+      segments.add(handler.handler().substring(last, matcher.start()));
+      variables.add(matcher.group(1).strip());
+      last = matcher.end();
+    }
+    segments.add(handler.handler().substring(last));
+    try {
+      URI sample = URI.create(String.join("x", segments));
+      if (!"http".equals(sample.getScheme()) && !"https".equals(sample.getScheme())) {
+        throw new IllegalArgumentException("scheme must be http or https");
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid URL template of HTTP handler '" + handler.handler() + "': " + e.getMessage(), e);
+    }
+    Map<String, JsonPointer> response = new LinkedHashMap<>();
+    if (parameters.response() != null) {
+      parameters.response().forEach((field, pointer) -> {
+        try {
+          response.put(field, JsonPointer.compile(pointer.startsWith("/") ? pointer : "/" + pointer));
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Invalid response mapping '" + field + "' of HTTP handler " + handler.handler() + ": " + e.getMessage(), e);
+        }
+      });
+    }
+    HttpParameters.Batch batch = parameters.batch();
+    if (batch != null && batch.maxDelay() == null) {
+      batch = new HttpParameters.Batch(batch.maxSize(), properties.getBatchMaxDelay());
+    }
+    return new Endpoint(method, List.copyOf(segments), List.copyOf(variables),
+      parameters.request() != null ? Map.copyOf(parameters.request()) : Map.of(), Map.copyOf(response),
+      handler.getParameter(HandlerParameters.RESULT_KEY) instanceof String resultKey ? resultKey : null,
+      parameters.timeout() != null ? parameters.timeout() : properties.getRequestTimeout(), batch);
+  }
+
+  /**
+   * HTTP 处理器参数
+   */
+  record HttpParameters(String method, Map<String, String> request, Map<String, String> response, Duration timeout, Batch batch) {
+    HttpParameters {
+      if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+        throw new IllegalArgumentException("timeout must be a positive duration");
+      }
+    }
+
+    /**
+     * @param maxSize  一批最多的请求数，达到后立即发送
+     * @param maxDelay 第一个请求到达后最多等待的时间
+     */
+    record Batch(int maxSize, Duration maxDelay) {
+      Batch {
+        if (maxSize < 2) {
+          throw new IllegalArgumentException("batch.maxSize must be at least 2");
+        }
+        if (maxDelay != null && maxDelay.isNegative()) {
+          throw new IllegalArgumentException("batch.maxDelay must not be negative");
+        }
+      }
+    }
+  }
+
+  /**
+   * 解析后的处理器
+   *
+   * @param segments  URL 模板中占位符之间的文本，比占位符多一个
+   * @param variables URL 模板中的占位符
+   * @param request   请求体字段名到业务数据字段名
+   * @param response  业务数据字段名到响应中的位置
+   */
+  private record Endpoint(String method, List<String> segments, List<String> variables, Map<String, String> request,
+                          Map<String, JsonPointer> response, String resultKey, Duration timeout, HttpParameters.Batch batch) {
+
+    URI uri(BusinessContext context) {
+      StringBuilder uri = new StringBuilder(segments.getFirst());
+      for (int i = 0; i < variables.size(); i++) {
+        Object value = context.data().get(variables.get(i));
+        if (value == null) {
+          throw new IllegalStateException("Missing URL variable '" + variables.get(i) + "' in business context");
+        }
+        uri.append(encode(value)).append(segments.get(i + 1));
+      }
+      if ("GET".equals(method) && !request.isEmpty()) {
+        char separator = uri.indexOf("?") < 0 ? '?' : '&';
+        for (Map.Entry<String, String> field : request.entrySet()) {
+          Object value = context.data().get(field.getValue());
+          if (value != null) {
+            uri.append(separator).append(encode(field.getKey())).append('=').append(encode(value));
+            separator = '&';
+          }
+        }
+      }
+      return URI.create(uri.toString());
+    }
+
+    ObjectNode body(BusinessContext context) {
+      ObjectNode body = MAPPER.createObjectNode();
+      request.forEach((field, key) -> {
+        Object value = context.data().get(key);
+        if (value != null) {
+          body.set(field, MAPPER.valueToTree(value));
+        }
+      });
+      return body;
+    }
+
+    HttpRequest.Builder builder(URI uri) {
+      return HttpRequest.newBuilder(uri)
+        .timeout(timeout)
+        .header("Accept", "application/json")
+        .header("Content-Type", "application/json");
+    }
+
+    HttpRequest request(BusinessContext context) {
+      HttpRequest.BodyPublisher body = "GET".equals(method) || "DELETE".equals(method)
+        ? HttpRequest.BodyPublishers.noBody()
+        : HttpRequest.BodyPublishers.ofString(body(context).toString());
+      return builder(uri(context)).method(method, body).build();
+    }
+
+    void apply(JsonNode body, BusinessContext context) {
+      response.forEach((field, pointer) -> {
+        JsonNode value = body.at(pointer);
+        if (!value.isMissingNode() && !value.isNull()) {
+          context.data().put(field, MAPPER.convertValue(value, Object.class));
+        }
+      });
+      if (resultKey != null && !body.isMissingNode() && !body.isNull()) {
+        context.data().put(resultKey, MAPPER.convertValue(body, Object.class));
+      }
+    }
+
+    private static String encode(Object value) {
+      return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8).replace("+", "%20");
+    }
+  }
+
+  /**
+   * 正在攒批的请求，发送后关闭，之后到达的请求进入新的批次
+   */
+  private static final class PendingBatch {
+    private final Endpoint endpoint;
+    private final URI uri;
+    private List<Map.Entry<ObjectNode, CompletableFuture<JsonNode>>> requests = new ArrayList<>();
+
+    PendingBatch(Endpoint endpoint, URI uri) {
+      this.endpoint = endpoint;
+      this.uri = uri;
+    }
+
+    Endpoint endpoint() {
+      return endpoint;
+    }
+
+    URI uri() {
+      return uri;
+    }
+
+    /**
+     * @return 加入后的批次大小，批次已关闭时返回 -1
+     */
+    synchronized int add(ObjectNode body, CompletableFuture<JsonNode> result) {
+      if (requests == null) {
+        return -1;
+      }
+      requests.add(Map.entry(body, result));
+      return requests.size();
+    }
+
+    /**
+     * @return 批次中的请求，已经关闭过时返回 null
+     */
+    synchronized List<Map.Entry<ObjectNode, CompletableFuture<JsonNode>>> close() {
+      List<Map.Entry<ObjectNode, CompletableFuture<JsonNode>>> closed = requests;
+      requests = null;
+      return closed;
+    }
+  }
+}
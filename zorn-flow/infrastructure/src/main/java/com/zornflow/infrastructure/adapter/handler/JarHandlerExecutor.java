@@ -0,0 +1,393 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import com.zornflow.infrastructure.adapter.handler.ClassHandlerExecutor.RuleExecutable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * JAR 插件处理器执行器
+ * 处理器标识为 插件名/类全名，例如 biz-rule/com.acme.rule.AuditRule（也接受 ./plugin/biz-rule.jar/com.acme.rule.AuditRule 的写法）；
+ * 插件目录下按 名称-版本.jar 命名的 JAR 中版本最高的一个生效，每个版本使用独立的类加载器，
+ * 类和实例按版本缓存。发现新版本时先在新类加载器中解析旧版本用到的所有类，成功后原子切换，
+ * 正在旧版本上执行的请求照常完成，最后一个请求结束后才关闭旧类加载器
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/17 10:20
+ **/
+
+@Slf4j
+@Service
+public class JarHandlerExecutor implements HandlerExecutor, SmartInitializingSingleton, DisposableBean {
+
+  private static final Pattern VERSIONED_JAR = Pattern.compile("(.+?)(?:-(\\d[\\w.\\-]*))?\\.jar");
+
+  private final HandlerProperties.Jar properties;
+  private final Map<String, PluginVersion> plugins = new ConcurrentHashMap<>();
+  private final Map<String, HandlerRef> refs = new ConcurrentHashMap<>();
+  private final AtomicInteger openVersions = new AtomicInteger();
+  private ScheduledExecutorService scanner;
+
+  public JarHandlerExecutor(HandlerProperties properties) {
+    this.properties = properties.getJar();
+  }
+
+  @Override
+  public HandlerType type() {
+    return HandlerType.JAR;
+  }
+
+  @Override
+  public void prepare(Handler handler) {
+    HandlerRef ref = ref(handler.handler());
+    PluginVersion version = acquire(ref.plugin());
+    try {
+      version.resolve(ref.className());
+    } finally {
+      version.exit();
+    }
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context) {
+    HandlerRef ref = ref(handler.handler());
+    PluginVersion version = acquire(ref.plugin());
+    try {
+      RuleExecutable executable = version.resolve(ref.className());
+      try {
+        executable.execute(context);
+      } catch (Exception e) {
+        throw new RuntimeException("Failed to execute jar handler: " + handler.handler() + " (version " + version.version + ")", e);
+      }
+    } finally {
+      version.exit();
+    }
+  }
+
+  /**
+   * 插件不随配置刷新卸载，只检查插件目录中是否有新版本
+   */
+  @Override
+  public void invalidate() {
+    reload();
+  }
+
+  /**
+   * 扫描插件目录，已加载的插件出现新版本（或文件被替换）时切换到新版本；
+   * 新版本无法解析旧版本用到的类时保留旧版本
+   */
+  public synchronized void reload() {
+    for (PluginVersion current : List.copyOf(plugins.values())) {
+      Optional<Path> latest = latest(current.plugin);
+      if (latest.isEmpty()) {
+        log.warn("插件目录中已找不到插件 {}，继续使用已加载的版本 {}", current.plugin, current.version);
+        continue;
+      }
+      if (latest.get().equals(current.path) && lastModified(latest.get()) == current.lastModified) {
+        continue;
+      }
+      PluginVersion next = open(current.plugin, latest.get());
+      try {
+        // 预先解析旧版本用到的类，切换后的第一个请求不承担类加载和实例化
+        current.instances.keySet().forEach(next::resolve);
+      } catch (IllegalArgumentException e) {
+        log.error("插件 {} 的新版本 {} 无法加载，继续使用版本 {}", current.plugin, next.version, current.version, e);
+        next.exit();
+        continue;
+      }
+      if (!plugins.replace(current.plugin, current, next)) {
+        next.exit();
+        continue;
+      }
+      current.exit();
+      log.info("插件 {} 已从版本 {} 切换到版本 {}", current.plugin, current.version, next.version);
+    }
+  }
+
+  /**
+   * @return 插件当前生效的版本，未加载时为空
+   */
+  public Optional<String> loadedVersion(String plugin) {
+    return Optional.ofNullable(plugins.get(plugin)).map(version -> version.version);
+  }
+
+  /**
+   * @return 尚未关闭的类加载器数量，包括仍有请求在执行的旧版本
+   */
+  int openVersionCount() {
+    return openVersions.get();
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    long interval = properties.getScanInterval().toMillis();
+    if (interval <= 0) {
+      return;
+    }
+    scanner = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+      .name("jar-handler-scanner").daemon(true).factory());
+    scanner.scheduleWithFixedDelay(this::reloadQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    if (scanner != null) {
+      scanner.shutdown();
+    }
+    plugins.values().forEach(PluginVersion::exit);
+    plugins.clear();
+  }
+
+  private void reloadQuietly() {
+    try {
+      reload();
+    } catch (RuntimeException e) {
+      log.error("扫描插件目录失败", e);
+    }
+  }
+
+  /**
+   * 取得插件当前版本并登记一次使用；取到的版本恰好被切换并关闭时重新获取
+   */
+  private PluginVersion acquire(String plugin) {
+    while (true) {
+      PluginVersion version = plugins.computeIfAbsent(plugin, this::load);
+      if (version.enter()) {
+        return version;
+      }
+    }
+  }
+
+  private PluginVersion load(String plugin) {
+    Path jar = latest(plugin).orElseThrow(() -> new IllegalArgumentException(
+      "Unknown jar handler plugin '" + plugin + "': no jar in plugin directory " + pluginDir().toAbsolutePath()));
+    return open(plugin, jar);
+  }
+
+  private PluginVersion open(String plugin, Path jar) {
+    String version = versionOf(jar);
+    try {
+      PluginVersion opened = new PluginVersion(plugin, version, jar, lastModified(jar), new PluginClassLoader(jar.toUri().toURL()));
+      openVersions.incrementAndGet();
+      log.info("已加载插件 {} 版本 {}: {}", plugin, version, jar);
+      return opened;
+    } catch (MalformedURLException e) {
+      throw new IllegalArgumentException("Invalid plugin jar " + jar, e);
+    }
+  }
+
+  /**
+   * 插件目录中该插件版本最高的 JAR
+   */
+  private Optional<Path> latest(String plugin) {
+    Path dir = pluginDir();
+    if (!Files.isDirectory(dir)) {
+      return Optional.empty();
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      return files
+        .filter(Files::isRegularFile)
+        .filter(file -> {
+          Matcher matcher = VERSIONED_JAR.matcher(file.getFileName().toString());
+          return matcher.matches() && matcher.group(1).equals(plugin);
+        })
+        .max(Comparator.comparing(JarHandlerExecutor::versionOf, JarHandlerExecutor::compareVersions));
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to list plugin directory " + dir, e);
+    }
+  }
+
+  private Path pluginDir() {
+    return Path.of(properties.getPluginDir());
+  }
+
+  private HandlerRef ref(String identifier) {
+    return refs.computeIfAbsent(identifier, JarHandlerExecutor::parse);
+  }
+
+  private static HandlerRef parse(String identifier) {
+    int slash = identifier.lastIndexOf('/');
+    if (slash <= 0 || slash == identifier.length() - 1) {
+      throw new IllegalArgumentException("Invalid jar handler '" + identifier + "', expected <plugin>/<class name>");
+    }
+    String jar = identifier.substring(0, slash);
+    jar = jar.substring(jar.lastIndexOf('/') + 1);
+    Matcher matcher = VERSIONED_JAR.matcher(jar);
+    String plugin = matcher.matches() ? matcher.group(1) : jar;
+    return new HandlerRef(plugin, identifier.substring(slash + 1));
+  }
+
+  private static String versionOf(Path jar) {
+    Matcher matcher = VERSIONED_JAR.matcher(jar.getFileName().toString());
+    return matcher.matches() && matcher.group(2) != null ? matcher.group(2) : "0";
+  }
+
+  /**
+   * 按数字段比较版本号，1.10.0 高于 1.9.0；非数字段按字符串比较
+   */
+  static int compareVersions(String left, String right) {
+    String[] a = left.split("[.\\-]");
+    String[] b = right.split("[.\\-]");
+    for (int i = 0; i < Math.max(a.length, b.length); i++) {
+      String x = i < a.length ? a[i] : "0";
+      String y = i < b.length ? b[i] : "0";
+      int result = x.chars().allMatch(Character::isDigit) && y.chars().allMatch(Character::isDigit)
+        ? new BigInteger(x).compareTo(new BigInteger(y))
+        : x.compareTo(y);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  private static long lastModified(Path jar) {
+    try {
+      return Files.getLastModifiedTime(jar).toMillis();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  private record HandlerRef(String plugin, String className) {
+  }
+
+  /**
+   * 插件的一个版本；引用计数中包含注册表自身持有的一次，被切换后计数归零时关闭类加载器
+   */
+  private final class PluginVersion {
+
+    private final String plugin;
+    private final String version;
+    private final Path path;
+    private final long lastModified;
+    private final URLClassLoader loader;
+    private final Map<String, RuleExecutable> instances = new ConcurrentHashMap<>();
+    private final AtomicInteger refs = new AtomicInteger(1);
+
+    PluginVersion(String plugin, String version, Path path, long lastModified, URLClassLoader loader) {
+      this.plugin = plugin;
+      this.version = version;
+      this.path = path;
+      this.lastModified = lastModified;
+      this.loader = loader;
+    }
+
+    boolean enter() {
+      int current;
+      do {
+        current = refs.get();
+        if (current == 0) {
+          return false;
+        }
+      } while (!refs.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    void exit() {
+      if (refs.decrementAndGet() == 0) {
+        try {
+          loader.close();
+        } catch (IOException e) {
+          log.warn("关闭插件 {} 版本 {} 的类加载器失败", plugin, version, e);
+        }
+        openVersions.decrementAndGet();
+        log.info("插件 {} 版本 {} 已卸载", plugin, version);
+      }
+    }
+
+    RuleExecutable resolve(String className) {
+      return instances.computeIfAbsent(className, this::instantiate);
+    }
+
+    private RuleExecutable instantiate(String className) {
+      Class<?> type;
+      try {
+        type = Class.forName(className, true, loader);
+      } catch (ClassNotFoundException | LinkageError e) {
+        throw new IllegalArgumentException("Unknown jar handler class '" + className + "' in " + path.getFileName(), e);
+      }
+      if (!RuleExecutable.class.isAssignableFrom(type)) {
+        throw new IllegalArgumentException("Class " + className + " in " + path.getFileName() + " does not implement RuleExecutable interface.");
+      }
+      try {
+        return (RuleExecutable) type.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException("Failed to instantiate jar handler class '" + className + "' in " + path.getFileName(), e);
+      }
+    }
+  }
+
+  /**
+   * 插件类优先从插件 JAR 加载，插件可以自带与引擎不同版本的依赖，也可以使用 com.zornflow 下的包名；
+   * JDK、日志接口以及插件 API（RuleExecutable、BusinessContext 所在的包）始终由引擎加载，保证类型一致
+   */
+  private static final class PluginClassLoader extends URLClassLoader {
+
+    private static final List<String> SHARED_PREFIXES = List.of("java.", "javax.", "jdk.", "sun.", "org.slf4j.");
+    private static final Set<String> API_PACKAGES = Set.of(
+      RuleExecutable.class.getPackageName(), BusinessContext.class.getPackageName());
+
+    static {
+      registerAsParallelCapable();
+    }
+
+    PluginClassLoader(URL jar) {
+      super(new URL[]{jar}, JarHandlerExecutor.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> type = findLoadedClass(name);
+        if (type == null && !isShared(name)) {
+          try {
+            type = findClass(name);
+          } catch (ClassNotFoundException ignored) {
+            // 插件中没有，交给引擎加载
+          }
+        }
+        if (type == null) {
+          type = getParent().loadClass(name);
+        }
+        if (resolve) {
+          resolveClass(type);
+        }
+        return type;
+      }
+    }
+
+    private static boolean isShared(String name) {
+      int lastDot = name.lastIndexOf('.');
+      return SHARED_PREFIXES.stream().anyMatch(name::startsWith)
+        || lastDot > 0 && API_PACKAGES.contains(name.substring(0, lastDot));
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 参考数据查找处理器执行器
+ * 处理器标识是 zornflow.handler.lookup.tables 中定义的表名。参考表（黑名单、机构代码、费率表等）从 SQL 查询或本地 CSV
+ * 整体加载为内存中的不可变索引，执行时按主键查找，不获取数据库连接；表在首次使用时加载，之后在后台按刷新间隔重新加载，
+ * 加载完成后切换到新版本，加载失败时继续使用当前版本。处理器参数：
+ * <ul>
+ *   <li>key：业务数据中主键取值所在的字段，必填</li>
+ *   <li>fields：业务数据字段名到列名的映射，找不到行时不写入，列取值为空时删除字段</li>
+ *   <li>resultKey：把整行（列名到取值）写入业务数据的字段名，找不到行时不写入</li>
+ *   <li>found：写入是否找到行的字段名，例如黑名单只需要判断是否存在</li>
+ * </ul>
+ * 三者都没有声明时把整行按列名写入业务数据
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/19 17:20
+ **/
+
+@Slf4j
+@Service
+public class LookupHandlerExecutor implements HandlerExecutor, DisposableBean {
+
+  private final HandlerProperties.Lookup properties;
+  private final ReferenceTableLoader loader;
+  private final ScheduledExecutorService scheduler;
+  /**
+   * 表名到当前版本；刷新时整体替换，查找只读取一次引用
+   */
+  private final Map<String, ReferenceTable> tables = new ConcurrentHashMap<>();
+  private final Map<Handler, LookupCall> calls = new ConcurrentHashMap<>();
+
+  public LookupHandlerExecutor(HandlerProperties properties, ObjectProvider<DSLContext> dsl) {
+    this.properties = properties.getLookup();
+    String mappedDir = this.properties.getMappedDir();
+    this.loader = new ReferenceTableLoader(dsl, mappedDir == null || mappedDir.isBlank()
+      ? Path.of(System.getProperty("java.io.tmpdir"), "zornflow-lookup")
+      : Path.of(mappedDir));
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("lookup-table-refresh").daemon().factory());
+  }
+
+  @Override
+  public HandlerType type() {
+    return HandlerType.LOOKUP;
+  }
+
+  @Override
+  public void prepare(Handler handler) {
+    calls.computeIfAbsent(handler, this::resolve);
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context) {
+    LookupCall call = calls.computeIfAbsent(handler, this::resolve);
+    ReferenceTable table = table(call.table());
+    Object[] row = table.find(context.data().get(call.key()));
+    if (call.found() != null) {
+      context.data().put(call.found(), row != null);
+    }
+    if (row == null) {
+      return;
+    }
+    if (call.resultKey() != null) {
+      context.data().put(call.resultKey(), table.asMap(row));
+    }
+    call.fields().forEach((field, column) -> {
+      int index = table.column(column);
+      if (index < 0) {
+        return;
+      }
+      if (row[index] == null) {
+        context.data().remove(field);
+      } else {
+        context.data().put(field, row[index]);
+      }
+    });
+  }
+
+  /**
+   * 立即在后台重新加载参考表，完成后切换到新版本
+   *
+   * @return 新版本的快照；加载失败时异常完成，当前版本不变
+   */
+  public CompletableFuture<ReferenceTableStats> refresh(String table) {
+    return CompletableFuture.supplyAsync(() -> tables.containsKey(table) ? reload(table) : table(table).stats(), scheduler);
+  }
+
+  /**
+   * @return 已加载的表名到当前版本的快照
+   */
+  public Map<String, ReferenceTableStats> stats() {
+    Map<String, ReferenceTableStats> stats = new TreeMap<>();
+    tables.forEach((name, table) -> stats.put(name, table.stats()));
+    return Collections.unmodifiableMap(stats);
+  }
+
+  /**
+   * 配置刷新时丢弃解析后的查找，参考表和刷新计划保留
+   */
+  @Override
+  public void invalidate() {
+    calls.clear();
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.shutdownNow();
+  }
+
+  private LookupCall resolve(Handler handler) {
+    LookupParameters parameters = HandlerParameters.bind(LookupParameters.class, handler.parameters());
+    ReferenceTable table;
+    try {
+      table = table(handler.handler());
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Cannot load reference table '" + handler.handler() + "': " + e.getMessage(), e);
+    }
+    Map<String, String> fields = new LinkedHashMap<>();
+    if (parameters.fields() != null) {
+      parameters.fields().forEach((field, column) -> {
+        if (table.column(column) < 0) {
+          throw new IllegalArgumentException("Reference table '" + handler.handler() + "' has no column '" + column + "', columns: " + table.columns());
+        }
+        fields.put(field, column);
+      });
+    } else if (parameters.resultKey() == null && parameters.found() == null) {
+      table.columns().forEach(column -> fields.put(column, column));
+    }
+    return new LookupCall(handler.handler(), parameters.key(), Collections.unmodifiableMap(fields), parameters.resultKey(), parameters.found());
+  }
+
+  private ReferenceTable table(String name) {
+    ReferenceTable table = tables.get(name);
+    return table != null ? table : tables.computeIfAbsent(name, this::loadFirst);
+  }
+
+  private ReferenceTable loadFirst(String name) {
+    HandlerProperties.Table definition = definition(name);
+    ReferenceTable table = loader.load(name, definition);
+    log.info("已加载参考表 {}，共 {} 行", table, table.stats().rows());
+    Duration interval = definition.getRefreshInterval() != null ? definition.getRefreshInterval() : properties.getRefreshInterval();
+    if (interval.isPositive()) {
+      scheduler.scheduleWithFixedDelay(() -> refreshQuietly(name), interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    return table;
+  }
+
+  private ReferenceTableStats reload(String name) {
+    ReferenceTable table = loader.load(name, definition(name));
+    ReferenceTable previous = tables.put(name, table);
+    log.info("参考表 {} 已切换到新版本 {}，共 {} 行", previous, table, table.stats().rows());
+    return table.stats();
+  }
+
+  private void refreshQuietly(String name) {
+    try {
+      reload(name);
+    } catch (RuntimeException e) {
+      log.warn("刷新参考表 {} 失败，继续使用当前版本", name, e);
+    }
+  }
+
+  private HandlerProperties.Table definition(String name) {
+    HandlerProperties.Table definition = properties.getTables().get(name);
+    if (definition == null) {
+      throw new IllegalArgumentException("Unknown reference table '" + name + "', defined tables: " + properties.getTables().keySet());
+    }
+    return definition;
+  }
+
+  /**
+   * 查找处理器参数
+   *
+   * @param key       业务数据中主键取值所在的字段
+   * @param fields    业务数据字段名到列名的映射
+   * @param resultKey 写入整行的字段名
+   * @param found     写入是否找到行的字段名
+   */
+  record LookupParameters(String key, Map<String, String> fields, String resultKey, String found) {
+    LookupParameters {
+      if (key == null || key.isBlank()) {
+        throw new IllegalArgumentException("key must name the business data field holding the lookup key");
+      }
+    }
+  }
+
+  private record LookupCall(String table, String key, Map<String, String> fields, String resultKey, String found) {
+  }
+}
@@ -0,0 +1,20 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+/**
+ * 幂等处理器结果缓存的统计快照
+ *
+ * @param hits      命中次数，包括等待同一个键正在进行的执行
+ * @param misses    未命中（实际执行处理器）的次数
+ * @param evictions 因过期或超出容量被淘汰的条目数
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/18 10:05
+ **/
+
+public record MemoStats(long hits, long misses, long evictions) {
+
+  public double hitRatio() {
+    long requests = hits + misses;
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+}
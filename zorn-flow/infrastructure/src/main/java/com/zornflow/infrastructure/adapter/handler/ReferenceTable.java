@@ -0,0 +1,449 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 参考表的一个不可变版本
+ * 主键取值都是整数时使用开放寻址的 long 数组索引，查找不装箱、不分配对象；否则按主键的字符串形式建立哈希索引。
+ * 行数据保存在堆内，或者写入内存映射文件只在堆内保留主键索引和行偏移（映射后立即删除文件，映射在缓冲区被回收前一直有效）；
+ * 映射文件中整数保存为 long，其余数值保存为 double，BigDecimal 保留精度，布尔保持不变，其他取值保存为字符串。
+ * 刷新时构建新的版本并整体替换，正在使用旧版本的查找不受影响
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/19 16:30
+ **/
+
+final class ReferenceTable {
+
+  private static final byte NULL = 0;
+  private static final byte LONG = 1;
+  private static final byte DOUBLE = 2;
+  private static final byte BOOL = 3;
+  private static final byte STRING = 4;
+  private static final byte DECIMAL = 5;
+
+  private final String name;
+  private final long version;
+  private final Instant loadedAt;
+  private final List<String> columns;
+  private final Map<String, Integer> columnIndexes;
+  private final Index index;
+  private final Rows rows;
+
+  private ReferenceTable(String name, long version, List<String> columns, Index index, Rows rows) {
+    this.name = name;
+    this.version = version;
+    this.loadedAt = Instant.now();
+    this.columns = columns;
+    Map<String, Integer> columnIndexes = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      columnIndexes.put(columns.get(i), i);
+    }
+    this.columnIndexes = Collections.unmodifiableMap(columnIndexes);
+    this.index = index;
+    this.rows = rows;
+  }
+
+  /**
+   * @param mappedFile 行数据写入的内存映射文件，为 null 时保存在堆内
+   */
+  static Builder builder(String name, List<String> columns, String keyColumn, Path mappedFile) {
+    return new Builder(name, columns, keyColumn, mappedFile);
+  }
+
+  /**
+   * 按主键查找一行，返回的数组按 {@link #columns()} 排列，调用方不得修改
+   *
+   * @return 行数据，没有时为 null
+   */
+  Object[] find(Object key) {
+    if (key == null) {
+      return null;
+    }
+    int row = index.row(key);
+    return row < 0 ? null : rows.get(row);
+  }
+
+  /**
+   * @return 列在行数据中的位置，没有该列时为 -1
+   */
+  int column(String column) {
+    return columnIndexes.getOrDefault(column, -1);
+  }
+
+  /**
+   * @return 列名到取值的不可变视图，取值可以为 null
+   */
+  Map<String, Object> asMap(Object[] values) {
+    Map<String, Object> row = new LinkedHashMap<>(columns.size() * 2);
+    for (int i = 0; i < values.length; i++) {
+      row.put(columns.get(i), values[i]);
+    }
+    return Collections.unmodifiableMap(row);
+  }
+
+  List<String> columns() {
+    return columns;
+  }
+
+  ReferenceTableStats stats() {
+    return new ReferenceTableStats(version, index.size(), index instanceof LongIndex, rows instanceof MappedRows, loadedAt);
+  }
+
+  @Override
+  public String toString() {
+    return name + "@" + version;
+  }
+
+  /**
+   * 逐行构建参考表，主键重复或为空时拒绝
+   */
+  static final class Builder implements AutoCloseable {
+
+    private final String name;
+    private final List<String> columns;
+    private final int keyColumn;
+    private final List<Object> keys = new ArrayList<>();
+    private final List<Object[]> heapRows;
+    private final Path mappedFile;
+    private final DataOutputStream mappedRows;
+    private int[] offsets;
+
+    private Builder(String name, List<String> columns, String keyColumn, Path mappedFile) {
+      this.name = name;
+      this.columns = List.copyOf(columns);
+      this.keyColumn = this.columns.indexOf(keyColumn);
+      if (this.keyColumn < 0) {
+        throw new IllegalArgumentException("Reference table '" + name + "' has no key column '" + keyColumn + "', columns: " + columns);
+      }
+      this.mappedFile = mappedFile;
+      if (mappedFile == null) {
+        this.heapRows = new ArrayList<>();
+        this.mappedRows = null;
+      } else {
+        this.heapRows = null;
+        this.offsets = new int[1024];
+        try {
+          this.mappedRows = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(mappedFile), 1 << 16));
+        } catch (IOException e) {
+          throw new UncheckedIOException("Cannot create mapped file for reference table '" + name + "': " + mappedFile, e);
+        }
+      }
+    }
+
+    /**
+     * @param values 按列排列的一行取值，数组交给构建器，调用方不再修改
+     */
+    Builder add(Object[] values) {
+      if (values.length != columns.size()) {
+        throw new IllegalArgumentException("Reference table '" + name + "' row " + keys.size() + " has " + values.length
+          + " values but " + columns.size() + " columns");
+      }
+      Object key = values[keyColumn];
+      if (key == null) {
+        throw new IllegalArgumentException("Reference table '" + name + "' row " + keys.size() + " has no key");
+      }
+      if (heapRows != null) {
+        heapRows.add(values);
+      } else {
+        write(values);
+      }
+      keys.add(key);
+      return this;
+    }
+
+    ReferenceTable build(long version) {
+      Index index = LongIndex.supports(keys) ? new LongIndex(name, keys) : new StringIndex(name, keys);
+      Rows rows = heapRows != null ? new HeapRows(heapRows.toArray(Object[][]::new)) : map();
+      return new ReferenceTable(name, version, columns, index, rows);
+    }
+
+    /**
+     * 删除映射文件：构建完成后映射仍然有效，构建失败时丢弃已写入的行
+     */
+    @Override
+    public void close() {
+      if (mappedRows != null) {
+        try {
+          mappedRows.close();
+          Files.deleteIfExists(mappedFile);
+        } catch (IOException ignored) {
+          // 临时文件删除失败不影响当前版本
+        }
+      }
+    }
+
+    private void write(Object[] values) {
+      int row = keys.size();
+      // DataOutputStream 的计数在 int 上限处饱和
+      if (mappedRows.size() == Integer.MAX_VALUE) {
+        throw new IllegalStateException("Reference table '" + name + "' exceeds the 2GB limit of a mapped file");
+      }
+      if (row == offsets.length) {
+        offsets = Arrays.copyOf(offsets, row * 2);
+      }
+      offsets[row] = mappedRows.size();
+      try {
+        for (Object value : values) {
+          writeValue(mappedRows, value);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot write mapped file for reference table '" + name + "': " + mappedFile, e);
+      }
+    }
+
+    private Rows map() {
+      try {
+        mappedRows.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot write mapped file for reference table '" + name + "': " + mappedFile, e);
+      }
+      try (FileChannel channel = FileChannel.open(mappedFile, StandardOpenOption.READ)) {
+        if (channel.size() > Integer.MAX_VALUE) {
+          throw new IllegalStateException("Reference table '" + name + "' exceeds the 2GB limit of a mapped file");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        return new MappedRows(buffer, Arrays.copyOf(offsets, keys.size()), columns.size());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot map file for reference table '" + name + "': " + mappedFile, e);
+      } finally {
+        close();
+      }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+      if (value == null) {
+        out.writeByte(NULL);
+      } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+        out.writeByte(LONG);
+        out.writeLong(((Number) value).longValue());
+      } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+        writeString(out, DECIMAL, value.toString());
+      } else if (value instanceof Number number) {
+        out.writeByte(DOUBLE);
+        out.writeDouble(number.doubleValue());
+      } else if (value instanceof Boolean bool) {
+        out.writeByte(BOOL);
+        out.writeBoolean(bool);
+      } else {
+        writeString(out, STRING, value.toString());
+      }
+    }
+
+    private static void writeString(DataOutputStream out, byte type, String value) throws IOException {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeByte(type);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * 主键到行号的索引
+   */
+  private interface Index {
+
+    /**
+     * @return 行号，没有时为 -1
+     */
+    int row(Object key);
+
+    int size();
+  }
+
+  /**
+   * 整数主键的开放寻址索引：键保存在 long 数组中，行号加一保存在 int 数组中（0 表示空槽），容量至少是行数的两倍
+   */
+  private static final class LongIndex implements Index {
+
+    private final long[] keys;
+    private final int[] rows;
+    private final int mask;
+    private final int size;
+
+    LongIndex(String table, List<Object> source) {
+      int capacity = Integer.highestOneBit(Math.max(2, source.size() * 2 - 1)) << 1;
+      this.keys = new long[capacity];
+      this.rows = new int[capacity];
+      this.mask = capacity - 1;
+      this.size = source.size();
+      for (int row = 0; row < size; row++) {
+        long key = exact(source.get(row));
+        int slot = slot(key);
+        while (rows[slot] != 0) {
+          if (keys[slot] == key) {
+            throw new IllegalArgumentException("Duplicate key " + key + " in reference table '" + table + "'");
+          }
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        rows[slot] = row + 1;
+      }
+    }
+
+    static boolean supports(List<Object> keys) {
+      for (Object key : keys) {
+        if (!(key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte)
+          && !(key instanceof BigInteger integer && integer.bitLength() < Long.SIZE)
+          && !(key instanceof BigDecimal decimal && isLong(decimal))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int row(Object key) {
+      if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+        return row(((Number) key).longValue());
+      }
+      if (key instanceof BigInteger integer) {
+        return integer.bitLength() < Long.SIZE ? row(integer.longValue()) : -1;
+      }
+      if (key instanceof BigDecimal decimal) {
+        return isLong(decimal) ? row(decimal.longValueExact()) : -1;
+      }
+      if (key instanceof CharSequence text) {
+        try {
+          return row(Long.parseLong(text, 0, text.length(), 10));
+        } catch (NumberFormatException e) {
+          return -1;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    private int row(long key) {
+      int slot = slot(key);
+      int row;
+      while ((row = rows[slot]) != 0) {
+        if (keys[slot] == key) {
+          return row - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private int slot(long key) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static long exact(Object key) {
+      return key instanceof BigDecimal decimal ? decimal.longValueExact() : ((Number) key).longValue();
+    }
+
+    private static boolean isLong(BigDecimal decimal) {
+      try {
+        decimal.longValueExact();
+        return true;
+      } catch (ArithmeticException e) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * 其他主键按字符串形式建立的哈希索引
+   */
+  private static final class StringIndex implements Index {
+
+    private final Map<String, Integer> rows;
+
+    StringIndex(String table, List<Object> keys) {
+      Map<String, Integer> rows = new HashMap<>(keys.size() * 2);
+      for (int row = 0; row < keys.size(); row++) {
+        if (rows.put(keys.get(row).toString(), row) != null) {
+          throw new IllegalArgumentException("Duplicate key " + keys.get(row) + " in reference table '" + table + "'");
+        }
+      }
+      this.rows = Collections.unmodifiableMap(rows);
+    }
+
+    @Override
+    public int row(Object key) {
+      return rows.getOrDefault(key.toString(), -1);
+    }
+
+    @Override
+    public int size() {
+      return rows.size();
+    }
+  }
+
+  private interface Rows {
+
+    Object[] get(int row);
+  }
+
+  private record HeapRows(Object[][] rows) implements Rows {
+
+    @Override
+    public Object[] get(int row) {
+      return rows[row];
+    }
+  }
+
+  /**
+   * 内存映射文件中的行数据，按绝对位置读取，多个线程共享同一个只读缓冲区
+   */
+  private record MappedRows(ByteBuffer buffer, int[] offsets, int columns) implements Rows {
+
+    @Override
+    public Object[] get(int row) {
+      Object[] values = new Object[columns];
+      int position = offsets[row];
+      for (int i = 0; i < columns; i++) {
+        byte type = buffer.get(position++);
+        switch (type) {
+          case NULL -> values[i] = null;
+          case LONG -> {
+            values[i] = buffer.getLong(position);
+            position += Long.BYTES;
+          }
+          case DOUBLE -> {
+            values[i] = buffer.getDouble(position);
+            position += Double.BYTES;
+          }
+          case BOOL -> values[i] = buffer.get(position++) != 0;
+          case STRING, DECIMAL -> {
+            byte[] bytes = new byte[buffer.getInt(position)];
+            buffer.get(position + Integer.BYTES, bytes);
+            position += Integer.BYTES + bytes.length;
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            values[i] = type == DECIMAL ? new BigDecimal(text) : text;
+          }
+          default -> throw new IllegalStateException("Corrupted mapped reference table at " + position);
+        }
+      }
+      return values;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 从 SQL 查询或本地 CSV 文件加载参考表
+ * 查询结果按游标逐行读取，保留 JDBC 返回的取值类型。CSV 文件为 UTF-8 编码，首行是列名，支持双引号转义；
+ * 单元格为空时取值为 null，形如 42 的整数转为 Long，形如 0.035 的小数转为 BigDecimal，true/false 转为布尔，
+ * 其余保留为字符串（有前导零的编号如 0012 仍是字符串）
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/19 16:50
+ **/
+
+final class ReferenceTableLoader {
+
+  private static final int FETCH_SIZE = 1_000;
+  private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9]\\d{0,17})");
+  private static final Pattern DECIMAL = Pattern.compile("-?(0|[1-9]\\d*)\\.\\d+");
+
+  private final ObjectProvider<DSLContext> dsl;
+  private final Path mappedDir;
+  private final AtomicLong versions = new AtomicLong();
+
+  ReferenceTableLoader(ObjectProvider<DSLContext> dsl, Path mappedDir) {
+    this.dsl = dsl;
+    this.mappedDir = mappedDir;
+  }
+
+  /**
+   * @throws IllegalArgumentException 表定义无效或数据不满足主键约束
+   */
+  ReferenceTable load(String name, HandlerProperties.Table table) {
+    if ((table.getQuery() == null) == (table.getCsv() == null)) {
+      throw new IllegalArgumentException("Reference table '" + name + "' must define exactly one of query and csv");
+    }
+    if (table.getKey() == null || table.getKey().isBlank()) {
+      throw new IllegalArgumentException("Reference table '" + name + "' must define its key column");
+    }
+    long version = versions.incrementAndGet();
+    Path mappedFile = table.isMapped() ? mappedFile(name, version) : null;
+    return table.getQuery() != null
+      ? query(name, table, mappedFile, version)
+      : csv(name, table, mappedFile, version);
+  }
+
+  private ReferenceTable query(String name, HandlerProperties.Table table, Path mappedFile, long version) {
+    DSLContext context = dsl.getIfAvailable();
+    if (context == null) {
+      throw new IllegalArgumentException("Reference table '" + name + "' is loaded by a query but no database is configured");
+    }
+    try (Cursor<Record> cursor = context.resultQuery(table.getQuery()).fetchSize(FETCH_SIZE).fetchLazy()) {
+      List<String> columns = Arrays.stream(cursor.fields()).map(Field::getName).toList();
+      try (ReferenceTable.Builder builder = ReferenceTable.builder(name, columns, table.getKey(), mappedFile)) {
+        for (Record record : cursor) {
+          builder.add(record.intoArray());
+        }
+        return builder.build(version);
+      }
+    }
+  }
+
+  private ReferenceTable csv(String name, HandlerProperties.Table table, Path mappedFile, long version) {
+    Path path = Path.of(table.getCsv());
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      List<String> header = readRecord(reader);
+      if (header == null) {
+        throw new IllegalArgumentException("Reference table '" + name + "' CSV file has no header: " + path);
+      }
+      List<String> columns = header.stream().map(String::strip).toList();
+      try (ReferenceTable.Builder builder = ReferenceTable.builder(name, columns, table.getKey(), mappedFile)) {
+        List<String> cells;
+        while ((cells = readRecord(reader)) != null) {
+          Object[] values = new Object[cells.size()];
+          for (int i = 0; i < values.length; i++) {
+            values[i] = value(cells.get(i));
+          }
+          builder.add(values);
+        }
+        return builder.build(version);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read reference table '" + name + "' from " + path, e);
+    }
+  }
+
+  private Path mappedFile(String name, long version) {
+    try {
+      Files.createDirectories(mappedDir);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot create mapped file directory " + mappedDir, e);
+    }
+    return mappedDir.resolve(name + "-" + version + ".tbl");
+  }
+
+  /**
+   * 读取一条 CSV 记录，引号内可以包含逗号、换行和转义的双引号；跳过空行
+   *
+   * @return 单元格，文件结束时为 null
+   */
+  private static List<String> readRecord(BufferedReader reader) throws IOException {
+    int c = reader.read();
+    while (c == '\r' || c == '\n') {
+      c = reader.read();
+    }
+    if (c == -1) {
+      return null;
+    }
+    List<String> cells = new ArrayList<>();
+    StringBuilder cell = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new IOException("Unterminated quoted CSV field: " + cell);
+        }
+        if (c == '"') {
+          c = reader.read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+        }
+        cell.append((char) c);
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        cells.add(cell.toString());
+        cell.setLength(0);
+      } else if (c == '\n' || c == -1) {
+        cells.add(cell.toString());
+        return cells;
+      } else if (c != '\r') {
+        cell.append((char) c);
+      }
+      c = reader.read();
+    }
+  }
+
+  private static Object value(String cell) {
+    if (cell.isEmpty()) {
+      return null;
+    }
+    if (INTEGER.matcher(cell).matches()) {
+      return Long.parseLong(cell);
+    }
+    if (DECIMAL.matcher(cell).matches()) {
+      return new BigDecimal(cell);
+    }
+    if ("true".equals(cell) || "false".equals(cell)) {
+      return Boolean.parseBoolean(cell);
+    }
+    return cell;
+  }
+}
@@ -0,0 +1,18 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import java.time.Instant;
+
+/**
+ * 参考表当前版本的快照
+ *
+ * @param version       版本号，每次加载递增
+ * @param rows          行数
+ * @param primitiveKeys 是否使用 long 主键索引
+ * @param mapped        行数据是否在内存映射文件中
+ * @param loadedAt      加载完成的时间
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/19 16:30
+ **/
+public record ReferenceTableStats(long version, int rows, boolean primitiveKeys, boolean mapped, Instant loadedAt) {
+}
@@ -0,0 +1,198 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.Script;
+import groovy.transform.CompileStatic;
+import lombok.extern.slf4j.Slf4j;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 脚本处理器执行器
+ * 脚本内容放在处理器参数 script 中，目前只支持 Groovy。每段脚本按内容编译一次，
+ * 生成的脚本类以内容哈希命名并缓存，执行时从池中取空闲的脚本实例，把业务数据直接作为变量表绑定，不复制上下文；
+ * 参数 resultKey 存在时把脚本的返回值写回业务数据。
+ * 每个脚本类使用独立的类加载器，缓存淘汰或配置刷新时连同类加载器一起释放，不会在元空间中累积
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/16 21:10
+ **/
+
+@Slf4j
+@Service
+public class ScriptHandlerExecutor implements HandlerExecutor {
+
+  static final String SCRIPT = "script";
+  static final String LANGUAGE = "language";
+  static final String COMPILE_STATIC = "compileStatic";
+
+  /**
+   * 归还到池中的实例不再引用上一次执行的业务数据
+   */
+  private static final Binding EMPTY_BINDING = new Binding();
+
+  private final HandlerProperties.Script properties;
+  private final Cache<ScriptKey, CompiledScript> compiledCache;
+
+  public ScriptHandlerExecutor(HandlerProperties properties) {
+    this.properties = properties.getScript();
+    this.compiledCache = Caffeine.newBuilder()
+      .maximumSize(this.properties.getCacheSize())
+      .removalListener((ScriptKey key, CompiledScript compiled, RemovalCause cause) -> {
+        if (compiled != null) {
+          compiled.release();
+        }
+      })
+      .build();
+  }
+
+  @Override
+  public HandlerType type() {
+    return HandlerType.SCRIPT;
+  }
+
+  @Override
+  public void prepare(Handler handler) {
+    compiled(handler);
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context) {
+    CompiledScript compiled = compiled(handler);
+    Script script = compiled.acquire();
+    Object result;
+    try {
+      script.setBinding(new ContextScript.ContextBinding(context.data(), handler.parameters()));
+      result = script.run();
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to execute script handler: " + handler.handler(), e);
+    } finally {
+      script.setBinding(EMPTY_BINDING);
+      compiled.release(script);
+    }
+    if (handler.getParameter(HandlerParameters.RESULT_KEY) instanceof String resultKey && result != null) {
+      context.data().put(resultKey, result);
+    }
+  }
+
+  /**
+   * 配置刷新时丢弃所有已编译的脚本类，下次加载或执行时按新配置重新编译
+   */
+  @Override
+  public void invalidate() {
+    compiledCache.invalidateAll();
+    compiledCache.cleanUp();
+  }
+
+  /**
+   * @return 当前缓存的脚本类数量
+   */
+  public long compiledScriptCount() {
+    compiledCache.cleanUp();
+    return compiledCache.estimatedSize();
+  }
+
+  private CompiledScript compiled(Handler handler) {
+    if (!(handler.getParameter(SCRIPT) instanceof String source) || source.isBlank()) {
+      throw new IllegalArgumentException("Script handler '" + handler.handler() + "' has no script parameter");
+    }
+    Object language = handler.getParameter(LANGUAGE);
+    if (language != null && !"groovy".equalsIgnoreCase(language.toString())) {
+      throw new IllegalArgumentException("Unsupported script language '" + language + "' of script handler '"
+        + handler.handler() + "', only groovy is supported");
+    }
+    Object compileStatic = handler.getParameter(COMPILE_STATIC);
+    boolean statically = compileStatic == null ? properties.isCompileStatic() : Boolean.parseBoolean(compileStatic.toString());
+    return compiledCache.get(new ScriptKey(source, statically), key -> compile(handler.handler(), key));
+  }
+
+  private CompiledScript compile(String name, ScriptKey key) {
+    CompilerConfiguration configuration = new CompilerConfiguration();
+    configuration.setScriptBaseClass(ContextScript.class.getName());
+    if (key.compileStatic()) {
+      configuration.addCompilationCustomizers(new ASTTransformationCustomizer(CompileStatic.class));
+    }
+    // 每个脚本类独占一个类加载器，类加载器不可达后脚本类才能被卸载
+    GroovyClassLoader loader = new GroovyClassLoader(ContextScript.class.getClassLoader(), configuration);
+    try {
+      GroovyCodeSource codeSource = new GroovyCodeSource(key.source(), "HandlerScript_" + ContentHash.sha256(key.source().getBytes(StandardCharsets.UTF_8)).substring(0, 32), "/groovy/script");
+      codeSource.setCachable(false);
+      Class<?> type = loader.parseClass(codeSource);
+      log.debug("已编译脚本处理器 {} 为 {}，静态编译: {}", name, type.getName(), key.compileStatic());
+      return new CompiledScript(type.asSubclass(Script.class).getDeclaredConstructor(), loader, properties.getPoolSize());
+    } catch (CompilationFailedException | ReflectiveOperationException e) {
+      close(loader);
+      throw new IllegalArgumentException("Failed to compile script of script handler '" + name + "': " + e.getMessage(), e);
+    }
+  }
+
+  private static void close(GroovyClassLoader loader) {
+    try {
+      loader.clearCache();
+      loader.close();
+    } catch (IOException e) {
+      log.warn("关闭脚本类加载器失败", e);
+    }
+  }
+
+  /**
+   * 脚本内容相同但编译方式不同时生成不同的类
+   */
+  private record ScriptKey(String source, boolean compileStatic) {
+  }
+
+  /**
+   * 编译好的脚本类及其空闲实例池；脚本实例只在绑定变量上有状态，执行前重新绑定即可复用
+   */
+  private static final class CompiledScript {
+
+    private final Constructor<? extends Script> constructor;
+    private final GroovyClassLoader loader;
+    private final ArrayBlockingQueue<Script> pool;
+
+    CompiledScript(Constructor<? extends Script> constructor, GroovyClassLoader loader, int poolSize) {
+      this.constructor = constructor;
+      this.loader = loader;
+      this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    Script acquire() {
+      Script script = pool.poll();
+      if (script != null) {
+        return script;
+      }
+      try {
+        return constructor.newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Failed to instantiate script " + constructor.getDeclaringClass().getName(), e);
+      }
+    }
+
+    void release(Script script) {
+      pool.offer(script);
+    }
+
+    void release() {
+      pool.clear();
+      close(loader);
+    }
+  }
+}
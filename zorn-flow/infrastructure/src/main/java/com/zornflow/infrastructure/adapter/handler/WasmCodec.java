@@ -0,0 +1,167 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 业务数据在 WASM 线性内存中的紧凑编码
+ * 全部为小端序：2 字节字段数，随后每个字段依次是 1 字节名称长度、UTF-8 名称、1 字节类型和取值。
+ * 类型：0 空值（输出中表示删除该字段，无取值），1 i64（8 字节），2 f64（8 字节），3 布尔（1 字节），
+ * 4 字符串（4 字节长度和 UTF-8 内容）。整数编码为 i64，其余数值编码为 f64，字符序列和枚举编码为字符串。
+ * BigDecimal 和 BigInteger 只有取值是 i64 范围内的整数时才能编码（编码为 i64），金额、费率这类小数编码为 f64 会丢失精度，
+ * 按无法编码的取值处理，需要时由规则先转为字符串或按最小单位换算为整数。解码时 i64 为 Long，f64 为 Double，
+ * 写回业务数据后原来的 BigDecimal 字段变为 Long 或 Double
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/19 10:20
+ **/
+
+final class WasmCodec {
+
+  static final byte NULL = 0;
+  static final byte I64 = 1;
+  static final byte F64 = 2;
+  static final byte BOOL = 3;
+  static final byte STRING = 4;
+
+  private static final int MAX_FIELDS = 0xFFFF;
+  private static final int MAX_NAME = 0xFF;
+
+  private WasmCodec() {
+  }
+
+  /**
+   * @return 取值能否编码
+   */
+  static boolean supports(Object value) {
+    if (value instanceof BigDecimal decimal) {
+      return exactLong(decimal);
+    }
+    if (value instanceof BigInteger integer) {
+      return integer.bitLength() < Long.SIZE;
+    }
+    return value instanceof Number || value instanceof Boolean || value instanceof CharSequence || value instanceof Enum<?>;
+  }
+
+  /**
+   * 编码给定的字段；names 为 null 时编码业务数据中所有能编码的字段，否则只编码列出的字段（业务数据中没有的编码为空值）
+   *
+   * @throws IllegalStateException 列出的字段取值无法编码
+   */
+  static byte[] encode(Map<String, Object> data, Collection<String> names) {
+    Map<String, Object> fields = new LinkedHashMap<>();
+    if (names == null) {
+      data.forEach((name, value) -> {
+        if (supports(value) && name.getBytes(StandardCharsets.UTF_8).length <= MAX_NAME) {
+          fields.put(name, value);
+        }
+      });
+    } else {
+      for (String name : names) {
+        Object value = data.get(name);
+        if (value != null && !supports(value)) {
+          throw new IllegalStateException("Field '" + name + "' of type " + value.getClass().getName() + " cannot be passed to a WASM handler");
+        }
+        fields.put(name, value);
+      }
+    }
+    if (fields.size() > MAX_FIELDS) {
+      throw new IllegalStateException("Too many fields for a WASM handler: " + fields.size());
+    }
+    int size = 2;
+    for (Map.Entry<String, Object> field : fields.entrySet()) {
+      size += 2 + field.getKey().getBytes(StandardCharsets.UTF_8).length + payloadSize(field.getValue());
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putShort((short) fields.size());
+    fields.forEach((name, value) -> {
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      buffer.put((byte) bytes.length).put(bytes);
+      if (value == null) {
+        buffer.put(NULL);
+      } else if (integral(value)) {
+        buffer.put(I64).putLong(((Number) value).longValue());
+      } else if (value instanceof Number number) {
+        buffer.put(F64).putDouble(number.doubleValue());
+      } else if (value instanceof Boolean bool) {
+        buffer.put(BOOL).put((byte) (bool ? 1 : 0));
+      } else {
+        byte[] text = string(value).getBytes(StandardCharsets.UTF_8);
+        buffer.put(STRING).putInt(text.length).put(text);
+      }
+    });
+    return buffer.array();
+  }
+
+  /**
+   * 解码处理器的输出，空值字段的取值为 null
+   *
+   * @throws IllegalStateException 输出格式错误
+   */
+  static Map<String, Object> decode(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    try {
+      int count = Short.toUnsignedInt(buffer.getShort());
+      Map<String, Object> fields = new LinkedHashMap<>(count * 2);
+      for (int i = 0; i < count; i++) {
+        byte[] name = new byte[Byte.toUnsignedInt(buffer.get())];
+        buffer.get(name);
+        byte type = buffer.get();
+        Object value = switch (type) {
+          case NULL -> null;
+          case I64 -> buffer.getLong();
+          case F64 -> buffer.getDouble();
+          case BOOL -> buffer.get() != 0;
+          case STRING -> {
+            byte[] text = new byte[buffer.getInt()];
+            buffer.get(text);
+            yield new String(text, StandardCharsets.UTF_8);
+          }
+          default -> throw new IllegalStateException("Unknown value type " + type);
+        };
+        fields.put(new String(name, StandardCharsets.UTF_8), value);
+      }
+      return fields;
+    } catch (RuntimeException e) {
+      throw new IllegalStateException("Malformed WASM handler output: " + e.getMessage(), e);
+    }
+  }
+
+  private static int payloadSize(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof Number) {
+      return 8;
+    }
+    if (value instanceof Boolean) {
+      return 1;
+    }
+    return 4 + string(value).getBytes(StandardCharsets.UTF_8).length;
+  }
+
+  private static boolean integral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+      || value instanceof BigDecimal || value instanceof BigInteger;
+  }
+
+  private static boolean exactLong(BigDecimal decimal) {
+    try {
+      decimal.longValueExact();
+      return true;
+    } catch (ArithmeticException e) {
+      return false;
+    }
+  }
+
+  private static String string(Object value) {
+    return value instanceof Enum<?> constant ? constant.name() : value.toString();
+  }
+}
@@ -0,0 +1,371 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.dylibso.chicory.compiler.MachineFactoryCompiler;
+import com.dylibso.chicory.runtime.ChicoryInterruptedException;
+import com.dylibso.chicory.runtime.ExportFunction;
+import com.dylibso.chicory.runtime.ImportValues;
+import com.dylibso.chicory.runtime.Instance;
+import com.dylibso.chicory.runtime.Machine;
+import com.dylibso.chicory.runtime.Memory;
+import com.dylibso.chicory.wasm.ChicoryException;
+import com.dylibso.chicory.wasm.Parser;
+import com.dylibso.chicory.wasm.WasmModule;
+import com.dylibso.chicory.wasm.types.ExportSection;
+import com.dylibso.chicory.wasm.types.ExternalType;
+import com.dylibso.chicory.wasm.types.FunctionType;
+import com.dylibso.chicory.wasm.types.ValType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * WebAssembly 处理器执行器
+ * 处理器标识是模块目录（zornflow.handler.wasm.module-dir）中 .wasm 文件的相对路径，模块在纯 Java 的 Chicory 运行时上执行，
+ * 不提供任何宿主导入，模块只能读写自己的线性内存。模块按内容哈希解析并编译为 JVM 字节码一次，内容相同的模块共享；
+ * 每个线程持有每个模块的一个实例，执行时不创建实例。
+ * <p>
+ * 模块需要导出 memory、alloc(i32 len) -> i32 和处理函数（参数 function，默认 handle）(i32 ptr, i32 len) -> i64。
+ * 业务数据按 {@link WasmCodec} 编码后写入 alloc 分配的输入缓冲区（实例内复用，只在需要更大的缓冲区时再次调用 alloc，
+ * 模块不应再使用这段内存），处理函数返回输出的位置和长度（高 32 位为地址，低 32 位为长度，为 0 时没有输出），
+ * 输出按同样的编码解码后写回业务数据，空值表示删除字段。参数 inputs 列出传入的字段，未设置时传入所有能编码的字段。
+ * <p>
+ * 模块在调用线程上执行。超过时间上限（参数 timeout，默认见 zornflow.handler.wasm.timeout）或规则链被取消时中断执行线程，
+ * Chicory 在循环和函数调用处检查中断标志后终止执行，被中断的实例随即丢弃
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/19 11:00
+ **/
+
+@Slf4j
+@Service
+public class WasmHandlerExecutor implements HandlerExecutor, DisposableBean {
+
+  static final String DEFAULT_FUNCTION = "handle";
+  static final String ALLOC = "alloc";
+
+  private static final FunctionType ALLOC_TYPE = FunctionType.of(new ValType[]{ValType.I32}, new ValType[]{ValType.I32});
+  private static final FunctionType HANDLE_TYPE = FunctionType.of(new ValType[]{ValType.I32, ValType.I32}, new ValType[]{ValType.I64});
+
+  private final HandlerProperties.Wasm properties;
+  private final Path moduleDir;
+  /**
+   * 模块内容哈希到已编译的模块
+   */
+  private final Cache<String, CompiledModule> modules;
+  /**
+   * 重新加载时按文件内容重新查找模块
+   */
+  private final Map<Handler, WasmCall> calls = new ConcurrentHashMap<>();
+  /**
+   * 到达时间上限时中断执行线程；执行结束时取消计时，取消的计时立即从队列中移除
+   */
+  private final ScheduledThreadPoolExecutor watchdog;
+
+  public WasmHandlerExecutor(HandlerProperties properties) {
+    this.properties = properties.getWasm();
+    this.moduleDir = Path.of(this.properties.getModuleDir()).toAbsolutePath().normalize();
+    this.modules = Caffeine.newBuilder().maximumSize(this.properties.getCacheSize()).build();
+    this.watchdog = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().name("wasm-watchdog").daemon().factory());
+    this.watchdog.setRemoveOnCancelPolicy(true);
+  }
+
+  @Override
+  public HandlerType type() {
+    return HandlerType.WASM;
+  }
+
+  @Override
+  public void prepare(Handler handler) {
+    calls.computeIfAbsent(handler, this::resolve);
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context) {
+    execute(handler, context, CancellationToken.NONE);
+  }
+
+  @Override
+  public void execute(Handler handler, BusinessContext context, CancellationToken cancellationToken) {
+    cancellationToken.throwIfCancelled();
+    WasmCall call = calls.computeIfAbsent(handler, this::resolve);
+    byte[] input = WasmCodec.encode(context.data(), call.inputs());
+    byte[] output;
+    Interruption interruption = new Interruption(call.timeout(), cancellationToken);
+    try {
+      output = call.module().instance().call(call.function(), input);
+    } catch (ChicoryException e) {
+      // 陷入或被中断后实例的内存和全局变量状态不可信，丢弃当前线程的实例
+      call.module().discard();
+      boolean timedOut = interruption.stop();
+      if (e instanceof ChicoryInterruptedException) {
+        cancellationToken.throwIfCancelled();
+        if (timedOut) {
+          throw new IllegalStateException("WASM handler " + handler.handler() + " timed out after " + call.timeout(), e);
+        }
+        throw new CancellationException("WASM handler " + handler.handler() + " was interrupted");
+      }
+      throw new RuntimeException("Failed to execute wasm handler: " + handler.handler(), e);
+    } finally {
+      interruption.stop();
+    }
+    WasmCodec.decode(output).forEach((name, value) -> {
+      if (value == null) {
+        context.data().remove(name);
+      } else {
+        context.data().put(name, value);
+      }
+    });
+  }
+
+  /**
+   * 配置刷新时丢弃解析后的调用，下次加载时重新读取模块文件；内容未变的模块不重新编译
+   */
+  @Override
+  public void invalidate() {
+    calls.clear();
+  }
+
+  @Override
+  public void destroy() {
+    watchdog.shutdownNow();
+  }
+
+  /**
+   * @return 当前缓存的已编译模块数量
+   */
+  public long compiledModuleCount() {
+    modules.cleanUp();
+    return modules.estimatedSize();
+  }
+
+  private WasmCall resolve(Handler handler) {
+    Path path = moduleDir.resolve(handler.handler()).normalize();
+    if (!path.startsWith(moduleDir)) {
+      throw new IllegalArgumentException("WASM module '" + handler.handler() + "' is outside of module directory " + moduleDir);
+    }
+    byte[] bytes;
+    try {
+      bytes = Files.readAllBytes(path);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read WASM module '" + handler.handler() + "' from " + path, e);
+    }
+    CompiledModule module = modules.get(ContentHash.sha256(bytes), key -> compile(handler.handler(), bytes));
+    WasmParameters parameters = HandlerParameters.bind(WasmParameters.class, handler.parameters());
+    String function = parameters.function() != null ? parameters.function() : DEFAULT_FUNCTION;
+    // 在加载线程上实例化一次，缺少导出或签名不符时在发布配置之前拒绝
+    module.instance().function(function);
+    return new WasmCall(module, function, parameters.inputs() != null ? List.copyOf(parameters.inputs()) : null,
+      parameters.timeout() != null ? parameters.timeout() : properties.getTimeout());
+  }
+
+  private CompiledModule compile(String name, byte[] bytes) {
+    WasmModule module;
+    try {
+      module = Parser.parse(bytes);
+    } catch (ChicoryException e) {
+      throw new IllegalArgumentException("Invalid WASM module '" + name + "': " + e.getMessage(), e);
+    }
+    Function<Instance, Machine> machineFactory = properties.isCompile() ? MachineFactoryCompiler.compile(module) : null;
+    log.debug("已{}WASM 处理器模块 {}", properties.isCompile() ? "编译" : "解析", name);
+    return new CompiledModule(name, module, machineFactory);
+  }
+
+  /**
+   * WASM 处理器参数
+   *
+   * @param function 处理函数的导出名
+   * @param inputs   传入模块的业务数据字段
+   * @param timeout  单次执行的时间上限
+   */
+  record WasmParameters(String function, List<String> inputs, Duration timeout) {
+    WasmParameters {
+      if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+        throw new IllegalArgumentException("timeout must be a positive duration");
+      }
+      if (inputs != null) {
+        for (String input : inputs) {
+          if (input.isEmpty() || input.getBytes(StandardCharsets.UTF_8).length > 0xFF) {
+            throw new IllegalArgumentException("inputs must be names of 1 to 255 bytes: " + input);
+          }
+        }
+      }
+    }
+  }
+
+  private record WasmCall(CompiledModule module, String function, List<String> inputs, Duration timeout) {
+  }
+
+  /**
+   * 一次执行期间的中断：超时或令牌被取消时中断执行线程，最多一次；执行结束后不再中断，注销取消回调，并清除由它设置的中断标志
+   */
+  private final class Interruption implements Runnable {
+
+    private final Thread thread = Thread.currentThread();
+    private final ScheduledFuture<?> timer;
+    private final CancellationToken.Registration cancellation;
+    private boolean running = true;
+    private boolean interrupted;
+    private boolean timedOut;
+
+    Interruption(Duration timeout, CancellationToken cancellationToken) {
+      this.timer = timeout != null && timeout.isPositive() ? watchdog.schedule(this, timeout.toNanos(), TimeUnit.NANOSECONDS) : null;
+      this.cancellation = cancellationToken.onCancel(() -> interrupt(false));
+    }
+
+    @Override
+    public void run() {
+      interrupt(true);
+    }
+
+    /**
+     * @return 是否因超时被中断
+     */
+    synchronized boolean stop() {
+      if (running) {
+        running = false;
+        if (timer != null) {
+          timer.cancel(false);
+        }
+        cancellation.close();
+        if (interrupted) {
+          Thread.interrupted();
+        }
+      }
+      return timedOut;
+    }
+
+    private synchronized void interrupt(boolean timeout) {
+      if (running && !interrupted) {
+        interrupted = true;
+        timedOut = timeout;
+        thread.interrupt();
+      }
+    }
+  }
+
+  /**
+   * 已编译的模块和各线程的实例；模块被淘汰后线程上的实例随之不可达
+   */
+  private static final class CompiledModule {
+
+    private final String name;
+    private final WasmModule module;
+    private final Function<Instance, Machine> machineFactory;
+    private final Set<String> exportedFunctions = new HashSet<>();
+    private final ThreadLocal<ModuleInstance> instances = ThreadLocal.withInitial(this::instantiate);
+
+    CompiledModule(String name, WasmModule module, Function<Instance, Machine> machineFactory) {
+      this.name = name;
+      this.module = module;
+      this.machineFactory = machineFactory;
+      ExportSection exports = module.exportSection();
+      for (int i = 0; i < exports.exportCount(); i++) {
+        if (exports.getExport(i).exportType() == ExternalType.FUNCTION) {
+          exportedFunctions.add(exports.getExport(i).name());
+        }
+      }
+    }
+
+    ModuleInstance instance() {
+      return instances.get();
+    }
+
+    void discard() {
+      instances.remove();
+    }
+
+    private ModuleInstance instantiate() {
+      Instance.Builder builder = Instance.builder(module).withImportValues(ImportValues.empty());
+      if (machineFactory != null) {
+        builder = builder.withMachineFactory(machineFactory);
+      }
+      Instance instance;
+      try {
+        instance = builder.build();
+      } catch (ChicoryException e) {
+        throw new IllegalArgumentException("Cannot instantiate WASM module '" + name + "' (host imports are not provided): " + e.getMessage(), e);
+      }
+      if (instance.memory() == null) {
+        throw new IllegalArgumentException("WASM module '" + name + "' does not export its memory");
+      }
+      return new ModuleInstance(name, instance, exportedFunctions);
+    }
+  }
+
+  /**
+   * 线程独占的模块实例
+   */
+  private static final class ModuleInstance {
+
+    private final String name;
+    private final Instance instance;
+    private final Memory memory;
+    private final Set<String> exported;
+    private final ExportFunction alloc;
+    private final Map<String, ExportFunction> functions = new HashMap<>();
+    private int buffer;
+    private int capacity;
+
+    ModuleInstance(String name, Instance instance, Set<String> exported) {
+      this.name = name;
+      this.instance = instance;
+      this.memory = instance.memory();
+      this.exported = exported;
+      this.alloc = export(ALLOC, ALLOC_TYPE);
+    }
+
+    ExportFunction function(String function) {
+      return functions.computeIfAbsent(function, key -> export(key, HANDLE_TYPE));
+    }
+
+    byte[] call(String function, byte[] input) {
+      ExportFunction handle = function(function);
+      if (input.length > capacity) {
+        buffer = (int) alloc.apply(input.length)[0];
+        capacity = input.length;
+      }
+      memory.write(buffer, input);
+      long result = handle.apply(buffer, input.length)[0];
+      if (result == 0) {
+        return new byte[]{0, 0};
+      }
+      return memory.readBytes((int) (result >>> 32), (int) result);
+    }
+
+    private ExportFunction export(String function, FunctionType expected) {
+      if (!exported.contains(function)) {
+        throw new IllegalArgumentException("WASM module '" + name + "' does not export function " + function);
+      }
+      FunctionType actual = instance.exportType(function);
+      if (!actual.typesMatch(expected)) {
+        throw new IllegalArgumentException("WASM function " + name + "#" + function + " must have type " + expected + " but was " + actual);
+      }
+      return instance.export(function);
+    }
+  }
+}
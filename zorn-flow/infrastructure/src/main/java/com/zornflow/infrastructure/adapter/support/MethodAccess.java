@@ -0,0 +1,68 @@
+package com.zornflow.infrastructure.adapter.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * 不经过反射调用方法：先在目标类型的私有 Lookup 上取得 MethodHandle，无法取得时退回公共 Lookup；
+ * 有完整权限时用 LambdaMetafactory 生成函数式接口实现，生成的类与目标类型同属一个类加载器，
+ * 无法生成（例如目标类型在另一个模块中）时由调用方直接使用 {@link #handle()}
+ *
+ * @param type   声明方法的类型
+ * @param method 方法
+ * @param lookup 取得句柄的 Lookup
+ * @param handle 方法句柄
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/21 14:30
+ **/
+
+@Slf4j
+public record MethodAccess(Class<?> type, Method method, MethodHandles.Lookup lookup, MethodHandle handle) {
+
+  /**
+   * @throws IllegalAccessException 私有 Lookup 和公共 Lookup 都无法访问该方法
+   */
+  public static MethodAccess of(Class<?> type, Method method) throws IllegalAccessException {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+      return new MethodAccess(type, method, lookup, lookup.unreflect(method));
+    } catch (IllegalAccessException e) {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      return new MethodAccess(type, method, lookup, lookup.unreflect(method));
+    }
+  }
+
+  /**
+   * 生成以方法为实现的函数式接口实例
+   *
+   * @param functionalInterface 函数式接口
+   * @param name                接口方法名
+   * @param erased              接口方法擦除后的类型
+   * @param instantiated        接口方法实例化后的类型
+   * @param receiver            捕获为接收者的对象，为 null 时不捕获（接收者作为接口方法的第一个参数传入）
+   * @return 生成的实例；没有完整权限或无法生成时为 null
+   */
+  public Object implement(Class<?> functionalInterface, String name, MethodType erased, MethodType instantiated, Object receiver) {
+    if (!lookup.hasFullPrivilegeAccess()) {
+      return null;
+    }
+    try {
+      MethodType factory = receiver == null
+        ? MethodType.methodType(functionalInterface)
+        : MethodType.methodType(functionalInterface, type);
+      CallSite site = LambdaMetafactory.metafactory(lookup, name, factory, erased, handle, instantiated);
+      return receiver == null ? site.getTarget().invoke() : site.getTarget().invoke(receiver);
+    } catch (Throwable e) {
+      log.debug("无法为 {}#{} 生成 {}，使用 MethodHandle: {}", type.getName(), method.getName(),
+        functionalInterface.getSimpleName(), e.getMessage());
+      return null;
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package com.zornflow.infrastructure.boot;
 
+import com.zornflow.infrastructure.adapter.evaluator.SpelConditionEvaluator;
+import com.zornflow.infrastructure.config.model.ProcessNodeConfig;
+import com.zornflow.infrastructure.config.model.RuleConfig;
 import com.zornflow.infrastructure.config.source.cache.CachingProcessChainCompositeConfigSourceDecorator;
 import com.zornflow.infrastructure.config.source.cache.CachingRuleChainCompositeConfigSourceDecorator;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +10,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * 应用启动后执行缓存预热。
  * 实现 CommandLineRunner 接口，Spring Boot 会在应用启动后自动执行 run 方法。
@@ -23,6 +31,7 @@ public class CacheWarmUpRunner implements CommandLineRunner {
 
   private final CachingRuleChainCompositeConfigSourceDecorator ruleCache;
   private final CachingProcessChainCompositeConfigSourceDecorator processCache;
+  private final SpelConditionEvaluator conditionEvaluator;
 
   @Override
   public void run(String... args) {
@@ -44,6 +53,33 @@ public class CacheWarmUpRunner implements CommandLineRunner {
       log.error("预热流程链缓存失败。", e);
     }
 
+    try {
+      log.info("正在预热条件表达式...");
+      conditionEvaluator.warmUp(collectConditions());
+    } catch (Exception e) {
+      log.error("预热条件表达式失败。", e);
+    }
+
     log.info("配置缓存预热完成。");
   }
+
+  private Set<String> collectConditions() {
+    Set<String> conditions = new LinkedHashSet<>();
+    ruleCache.loadAll().values().stream()
+      .filter(chain -> chain.rules() != null)
+      .flatMap(chain -> chain.rules().stream())
+      .map(RuleConfig::condition)
+      .filter(Objects::nonNull)
+      .forEach(conditions::add);
+    processCache.loadAll().values().stream()
+      .filter(chain -> chain.nodes() != null)
+      .flatMap(chain -> chain.nodes().stream())
+      .map(ProcessNodeConfig::conditions)
+      .filter(Objects::nonNull)
+      .flatMap(List::stream)
+      .map(ProcessNodeConfig.GatewayConditionConfig::condition)
+      .filter(Objects::nonNull)
+      .forEach(conditions::add);
+    return conditions;
+  }
 }
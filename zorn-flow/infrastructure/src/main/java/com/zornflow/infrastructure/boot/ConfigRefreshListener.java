@@ -1,9 +1,13 @@
 package com.zornflow.infrastructure.boot;
 
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionEvaluator;
+import com.zornflow.infrastructure.adapter.evaluator.SpelConditionEvaluator;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
 import com.zornflow.infrastructure.config.source.cache.CachingProcessChainCompositeConfigSourceDecorator;
 import com.zornflow.infrastructure.config.source.cache.CachingRuleChainCompositeConfigSourceDecorator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
@@ -22,11 +26,17 @@ public class ConfigRefreshListener {
 
   private final CachingRuleChainCompositeConfigSourceDecorator ruleCache;
   private final CachingProcessChainCompositeConfigSourceDecorator processCache;
+  private final SpelConditionEvaluator conditionEvaluator;
+  private final ObjectProvider<NativeConditionEvaluator> nativeConditionEvaluator;
+  private final HandlerRegistry handlerRegistry;
 
   @EventListener(ConfigRefreshEvent.class)
   public void onConfigRefresh(ConfigRefreshEvent event) {
     log.info("接收到配置刷新事件，类型: {}", event.getConfigType());
 
+    // 各执行器在重新加载之前丢弃预先解析的处理器，重新加载时配置源校验处理器，仍在使用的解析结果随即重新生成
+    handlerRegistry.invalidate();
+
     switch (event.getConfigType()) {
       case RULES:
         ruleCache.refresh();
@@ -39,5 +49,8 @@ public class ConfigRefreshListener {
         processCache.refresh();
         break;
     }
+    // 规则条件和网关条件都可能随配置变化，任何刷新都丢弃已解析的表达式
+    conditionEvaluator.invalidateExpressionCache();
+    nativeConditionEvaluator.ifAvailable(NativeConditionEvaluator::invalidateCompiledCache);
   }
 }
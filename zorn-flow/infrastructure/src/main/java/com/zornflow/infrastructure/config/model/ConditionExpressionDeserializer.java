@@ -0,0 +1,36 @@
+package com.zornflow.infrastructure.config.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * 条件表达式的反序列化器
+ * 兼容旧版配置文件中不带 #{} 的写法（例如 "true"、"amount > 100"），读取时补全为 #{...}；空白条件原样保留，由领域对象按 #{true} 处理
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/21 10:20
+ **/
+
+final class ConditionExpressionDeserializer extends StdDeserializer<String> {
+
+  ConditionExpressionDeserializer() {
+    super(String.class);
+  }
+
+  @Override
+  public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    String text = parser.getValueAsString();
+    if (text == null) {
+      return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+    String expression = text.trim();
+    if (expression.isEmpty() || (expression.startsWith("#{") && expression.endsWith("}"))) {
+      return text;
+    }
+    return "#{" + expression + "}";
+  }
+}
@@ -0,0 +1,37 @@
+package com.zornflow.infrastructure.config.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * 配置版本号的反序列化器
+ * 版本号是整数，同时兼容旧版配置文件中 "1.0"、1.0 这类写法：小数部分为 0 时取整数部分，否则视为格式错误
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/21 10:15
+ **/
+
+final class ConfigVersionDeserializer extends StdDeserializer<Integer> {
+
+  ConfigVersionDeserializer() {
+    super(Integer.class);
+  }
+
+  @Override
+  public Integer deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    String text = parser.getValueAsString();
+    if (text == null || text.isBlank()) {
+      return (Integer) context.handleUnexpectedToken(Integer.class, parser);
+    }
+    try {
+      return new BigDecimal(text.trim()).intValueExact();
+    } catch (ArithmeticException | NumberFormatException e) {
+      throw context.weirdStringException(text, Integer.class, "version must be an integer such as 1 or \"1.0\"");
+    }
+  }
+}
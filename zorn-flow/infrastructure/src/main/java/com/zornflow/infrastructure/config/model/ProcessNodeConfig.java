@@ -1,5 +1,6 @@
 package com.zornflow.infrastructure.config.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.zornflow.domain.common.config.model.ModelConfig;
 import lombok.Builder;
 
@@ -26,7 +27,7 @@ public record ProcessNodeConfig(
   Map<String, Object> properties,
   Optional<String> sharedNodeId,
   String status,
-  Integer version,
+  @JsonDeserialize(using = ConfigVersionDeserializer.class) Integer version,
   OffsetDateTime createdAt,
   OffsetDateTime updatedAt
 ) implements ModelConfig {
@@ -54,7 +55,7 @@ public record ProcessNodeConfig(
   }
 
   public record GatewayConditionConfig(
-    String condition,
+    @JsonDeserialize(using = ConditionExpressionDeserializer.class) String condition,
     String next) {
   }
 }
@@ -1,5 +1,6 @@
 package com.zornflow.infrastructure.config.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.zornflow.domain.common.config.model.ModelConfig;
 import lombok.Builder;
 
@@ -20,7 +21,7 @@ public record RuleChainConfig(
   String description,
   List<RuleConfig> rules,
   String status,
-  Integer version,
+  @JsonDeserialize(using = ConfigVersionDeserializer.class) Integer version,
   OffsetDateTime createdAt,
   OffsetDateTime updatedAt
 ) implements ModelConfig {
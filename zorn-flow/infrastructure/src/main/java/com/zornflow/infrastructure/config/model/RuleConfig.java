@@ -1,6 +1,7 @@
 package com.zornflow.infrastructure.config.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.zornflow.domain.common.config.model.ModelConfig;
 import lombok.Builder;
 
@@ -20,11 +21,11 @@ public record RuleConfig(
   String id,
   String name,
   @JsonProperty(defaultValue = "100") Integer priority,
-  String condition,
+  @JsonDeserialize(using = ConditionExpressionDeserializer.class) String condition,
   HandlerConfig handle,
   Optional<String> sharedRuleId,
   String status,
-  Integer version,
+  @JsonDeserialize(using = ConfigVersionDeserializer.class) Integer version,
   OffsetDateTime createdAt,
   OffsetDateTime updatedAt
 ) implements ModelConfig {
@@ -46,6 +47,6 @@ public record RuleConfig(
   }
 
   public record HandlerConfig(Type type, String handler, Map<String, Object> parameters) {
-    public enum Type {CLASS, SCRIPT, JAR}
+    public enum Type {CLASS, SCRIPT, JAR, HTTP, WASM, LOOKUP}
   }
 }
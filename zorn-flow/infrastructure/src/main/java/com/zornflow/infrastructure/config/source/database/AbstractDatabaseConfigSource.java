@@ -2,6 +2,8 @@ package com.zornflow.infrastructure.config.source.database;
 
 import com.zornflow.domain.common.config.model.ModelConfig;
 import com.zornflow.domain.common.config.source.ReadWriteConfigSource;
+import com.zornflow.infrastructure.adapter.evaluator.ConditionAnalyzer;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
 import lombok.RequiredArgsConstructor;
 import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
@@ -22,6 +24,8 @@ public sealed abstract class AbstractDatabaseConfigSource<T extends ModelConfig>
   permits DatabaseRuleChainConfigSource, DatabaseProcessChainConfigSource {
 
   protected final DSLContext dsl;
+  protected final ConditionAnalyzer conditionAnalyzer;
+  protected final HandlerRegistry handlerRegistry;
 
   @Override
   public Optional<T> load(String id) throws IOException {
@@ -31,6 +35,19 @@ public sealed abstract class AbstractDatabaseConfigSource<T extends ModelConfig>
   // 将 loan(String) 委托给一个更具体的名字，避免重写警告
   protected abstract Optional<T> loadById(String id);
 
+  /**
+   * 发布前校验配置中的条件表达式并预先解析处理器，存在无效条件或未知处理器时抛出 IllegalArgumentException
+   */
+  protected T analyzed(T config) {
+    validate(config);
+    return config;
+  }
+
+  protected void validate(T config) {
+    conditionAnalyzer.validate(config);
+    handlerRegistry.validate(config);
+  }
+
   @Override
   public ConfigSourceType getSourceType() {
     return ConfigSourceType.DATABASE;
@@ -7,6 +7,8 @@ import com.zornflow.infrastructure.persistence.jooq.tables.records.ChainNodesRec
 import com.zornflow.infrastructure.persistence.jooq.tables.records.ProcessChainsRecord;
 import com.zornflow.infrastructure.persistence.jooq.tables.records.SharedNodesRecord;
 import com.zornflow.infrastructure.persistence.mapper.ProcessPersistenceMapper;
+import com.zornflow.infrastructure.adapter.evaluator.ConditionAnalyzer;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
 import org.jooq.DSLContext;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,9 +27,11 @@ public non-sealed class DatabaseProcessChainConfigSource extends AbstractDatabas
 
   public DatabaseProcessChainConfigSource(
     DSLContext dsl,
+    ConditionAnalyzer conditionAnalyzer,
+    HandlerRegistry handlerRegistry,
     ProcessPersistenceMapper processPersistenceMapper
   ) {
-    super(dsl);
+    super(dsl, conditionAnalyzer, handlerRegistry);
     this.processPersistenceMapper = processPersistenceMapper;
   }
 
@@ -42,7 +46,7 @@ public non-sealed class DatabaseProcessChainConfigSource extends AbstractDatabas
     }
 
     List<ProcessNodeConfig> nodes = findNodesForChain(id);
-    return Optional.of(processPersistenceMapper.toDto(chainRecord, nodes));
+    return Optional.of(analyzed(processPersistenceMapper.toDto(chainRecord, nodes)));
   }
 
   @Override
@@ -51,7 +55,7 @@ public non-sealed class DatabaseProcessChainConfigSource extends AbstractDatabas
       .where(PROCESS_CHAINS.RECORD_STATUS.eq(RecordStatus.ACTIVE.getDbValue()))
       .fetch();
     return chainRecords.stream()
-      .map(r -> processPersistenceMapper.toDto(r, findNodesForChain(r.getId())))
+      .map(r -> analyzed(processPersistenceMapper.toDto(r, findNodesForChain(r.getId()))))
       .collect(Collectors.toMap(ProcessChainConfig::id, config -> config));
   }
 
@@ -103,6 +107,7 @@ public non-sealed class DatabaseProcessChainConfigSource extends AbstractDatabas
   @Transactional
   public Optional<ProcessChainConfig> save(ProcessChainConfig modelConfig) {
     validateChain(modelConfig);
+    validate(modelConfig);
 
     String chainId = modelConfig.id();
     OffsetDateTime now = OffsetDateTime.now();
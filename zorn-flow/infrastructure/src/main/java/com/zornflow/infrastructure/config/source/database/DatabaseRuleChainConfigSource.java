@@ -7,6 +7,8 @@ import com.zornflow.infrastructure.persistence.jooq.tables.records.ChainRulesRec
 import com.zornflow.infrastructure.persistence.jooq.tables.records.RuleChainsRecord;
 import com.zornflow.infrastructure.persistence.jooq.tables.records.SharedRulesRecord;
 import com.zornflow.infrastructure.persistence.mapper.RulePersistenceMapper;
+import com.zornflow.infrastructure.adapter.evaluator.ConditionAnalyzer;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
 import org.jooq.DSLContext;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,9 +30,11 @@ public non-sealed class DatabaseRuleChainConfigSource extends AbstractDatabaseCo
 
   public DatabaseRuleChainConfigSource(
     DSLContext dsl,
+    ConditionAnalyzer conditionAnalyzer,
+    HandlerRegistry handlerRegistry,
     RulePersistenceMapper rulePersistenceMapper
   ) {
-    super(dsl);
+    super(dsl, conditionAnalyzer, handlerRegistry);
     this.rulePersistenceMapper = rulePersistenceMapper;
   }
 
@@ -46,7 +50,7 @@ public non-sealed class DatabaseRuleChainConfigSource extends AbstractDatabaseCo
     }
 
     List<RuleConfig> rules = findRulesForChain(id);
-    return Optional.of(rulePersistenceMapper.toDto(chainRecord, rules));
+    return Optional.of(analyzed(rulePersistenceMapper.toDto(chainRecord, rules)));
   }
 
   @Override
@@ -55,7 +59,7 @@ public non-sealed class DatabaseRuleChainConfigSource extends AbstractDatabaseCo
       .where(RULE_CHAINS.RECORD_STATUS.eq(RecordStatus.ACTIVE.getDbValue()))
       .fetch();
     return chainRecords.stream()
-      .map(r -> rulePersistenceMapper.toDto(r, findRulesForChain(r.getId())))
+      .map(r -> analyzed(rulePersistenceMapper.toDto(r, findRulesForChain(r.getId()))))
       .collect(Collectors.toMap(RuleChainConfig::id, config -> config));
   }
 
@@ -102,6 +106,7 @@ public non-sealed class DatabaseRuleChainConfigSource extends AbstractDatabaseCo
   @Transactional
   public Optional<RuleChainConfig> save(RuleChainConfig modelConfig) {
     validateChain(modelConfig);
+    validate(modelConfig);
 
     String chainId = modelConfig.id();
     OffsetDateTime now = OffsetDateTime.now();
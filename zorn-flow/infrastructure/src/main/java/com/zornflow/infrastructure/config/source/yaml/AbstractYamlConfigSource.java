@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.zornflow.domain.common.config.model.ModelConfig;
 import com.zornflow.domain.common.config.source.ReadableConfigSource;
+import com.zornflow.infrastructure.adapter.evaluator.ConditionAnalyzer;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
@@ -33,6 +35,8 @@ public abstract sealed class AbstractYamlConfigSource<C extends ModelConfig, I e
 
   protected final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
   protected final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+  protected final ConditionAnalyzer conditionAnalyzer;
+  protected final HandlerRegistry handlerRegistry;
 
   // 模板方法，定义了加载和合并的整体算法骨架
   @Override
@@ -115,6 +119,10 @@ public abstract sealed class AbstractYamlConfigSource<C extends ModelConfig, I e
     Map<String, C> mergedChains = new HashMap<>();
     rawChains.forEach((chainId, chain) -> {
       C mergedChain = mergeChain(chain, sharedItems);
+      // 合并后再校验条件表达式与处理器，共享项中的条件和处理器同样被检查；
+      // 任何一条链无效时整个加载失败，刷新时缓存保留上一次成功加载的配置
+      conditionAnalyzer.validate(mergedChain);
+      handlerRegistry.validate(mergedChain);
       mergedChains.put(chainId, mergedChain);
       log.debug("加载并合并链: {}", chainId);
     });
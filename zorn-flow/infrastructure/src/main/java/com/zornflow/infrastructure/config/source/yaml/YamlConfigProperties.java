@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 /**
  * description
  *
@@ -15,9 +17,35 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "zornflow.config.yaml")
 public class YamlConfigProperties {
+  private static final String DEFAULT_SHARED_RULES_PATH = "classpath*:zornflow/shared-rules/*.yml";
+  private static final String DEFAULT_SHARED_NODES_PATH = "classpath*:zornflow/shared-nodes/*.yml";
+
   private String ruleChainsPath = "classpath*:zornflow/rule-chains/*.yml";
-  private String sharedRulesPath = "classpath*:zornflow/shared-rules/*.yml";
+  private String sharedRulesPath;
   private String processChainsPath = "classpath*:zornflow/process-chains/*.yml";
-  private String sharedNodesPath = "classpath*:zornflow/shared-nodes/*.yml";
+  private String sharedNodesPath;
+
+  /**
+   * 旧版配置键 global-rules-path，未配置 shared-rules-path 时生效
+   *
+   * @deprecated 使用 shared-rules-path
+   */
+  @Deprecated
+  private String globalRulesPath;
+
+  /**
+   * 旧版配置键 global-nodes-path，未配置 shared-nodes-path 时生效
+   *
+   * @deprecated 使用 shared-nodes-path
+   */
+  @Deprecated
+  private String globalNodesPath;
+
+  public String getSharedRulesPath() {
+    return Objects.requireNonNullElse(sharedRulesPath, Objects.requireNonNullElse(globalRulesPath, DEFAULT_SHARED_RULES_PATH));
+  }
 
+  public String getSharedNodesPath() {
+    return Objects.requireNonNullElse(sharedNodesPath, Objects.requireNonNullElse(globalNodesPath, DEFAULT_SHARED_NODES_PATH));
+  }
 }
@@ -1,10 +1,11 @@
 package com.zornflow.infrastructure.config.source.yaml;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.zornflow.infrastructure.adapter.evaluator.ConditionAnalyzer;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
 import com.zornflow.infrastructure.config.model.ProcessChainConfig;
 import com.zornflow.infrastructure.config.model.ProcessNodeConfig;
 import com.zornflow.infrastructure.config.model.RecordStatus;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -22,11 +23,16 @@ import java.util.Optional;
  **/
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public non-sealed class YamlProcessChainConfigSource extends AbstractYamlConfigSource<ProcessChainConfig, ProcessNodeConfig> {
 
   private final YamlConfigProperties yamlConfigProperties;
 
+  public YamlProcessChainConfigSource(YamlConfigProperties yamlConfigProperties, ConditionAnalyzer conditionAnalyzer,
+                                      HandlerRegistry handlerRegistry) {
+    super(conditionAnalyzer, handlerRegistry);
+    this.yamlConfigProperties = yamlConfigProperties;
+  }
+
   @Override
   protected String getItemName() {
     return "Nodes";
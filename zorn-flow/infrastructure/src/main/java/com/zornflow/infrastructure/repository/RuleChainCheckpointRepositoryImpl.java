@@ -0,0 +1,108 @@
+package com.zornflow.infrastructure.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.zornflow.domain.common.service.BusinessContextSerializer;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.repository.RuleChainCheckpointRepository;
+import com.zornflow.domain.rule.types.RuleChainId;
+import com.zornflow.domain.rule.types.RuleId;
+import com.zornflow.domain.rule.valueobject.RuleChainCheckpoint;
+import com.zornflow.infrastructure.persistence.mapper.JsonbMapperHelper;
+import lombok.RequiredArgsConstructor;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.JSONB;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 规则链执行检查点仓库，数据表见 002_rule_chain_checkpoints.sql
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/13 15:02
+ **/
+
+@Repository
+@RequiredArgsConstructor
+public class RuleChainCheckpointRepositoryImpl implements RuleChainCheckpointRepository {
+
+  // 检查点表尚未纳入 jOOQ 代码生成，这里直接声明表和字段
+  static final Table<Record> RULE_CHAIN_CHECKPOINTS = DSL.table(DSL.name("engine", "rule_chain_checkpoints"));
+  static final Field<String> EXECUTION_KEY = DSL.field(DSL.name("execution_key"), SQLDataType.VARCHAR(120));
+  static final Field<String> RULE_CHAIN_ID = DSL.field(DSL.name("rule_chain_id"), SQLDataType.VARCHAR(40));
+  static final Field<String> RULE_ID = DSL.field(DSL.name("rule_id"), SQLDataType.VARCHAR(40));
+  static final Field<JSONB> CONTEXT_DELTA = DSL.field(DSL.name("context_delta"), SQLDataType.JSONB);
+  static final Field<JSONB> REMOVED_KEYS = DSL.field(DSL.name("removed_keys"), SQLDataType.JSONB);
+  static final Field<OffsetDateTime> UPDATED_AT = DSL.field(DSL.name("updated_at"), SQLDataType.TIMESTAMPWITHTIMEZONE);
+
+  private final DSLContext dsl;
+  private final BusinessContextSerializer contextSerializer;
+  private final JsonbMapperHelper jsonbMapperHelper;
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<RuleChainCheckpoint> find(String executionKey, RuleChainId ruleChainId) {
+    return dsl.select(RULE_ID, CONTEXT_DELTA, REMOVED_KEYS)
+      .from(RULE_CHAIN_CHECKPOINTS)
+      .where(EXECUTION_KEY.eq(executionKey).and(RULE_CHAIN_ID.eq(ruleChainId.value())))
+      .fetchOptional()
+      .map(record -> new RuleChainCheckpoint(
+        executionKey,
+        ruleChainId,
+        RuleId.of(record.get(RULE_ID)),
+        contextSerializer.deserialize(record.get(CONTEXT_DELTA).data()).data(),
+        jsonbMapperHelper.fromJsonb(record.get(REMOVED_KEYS), new TypeReference<Set<String>>() {
+        })));
+  }
+
+  /**
+   * 检查点必须独立于外层事务提交，否则外层回滚时检查点会一起丢失
+   */
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void save(RuleChainCheckpoint checkpoint) {
+    JSONB delta = JSONB.valueOf(contextSerializer.serialize(new BusinessContext(checkpoint.changes())));
+    JSONB removals = jsonbMapperHelper.toJsonb(checkpoint.removals());
+    OffsetDateTime now = OffsetDateTime.now();
+    dsl.insertInto(RULE_CHAIN_CHECKPOINTS)
+      .set(EXECUTION_KEY, checkpoint.executionKey())
+      .set(RULE_CHAIN_ID, checkpoint.ruleChainId().value())
+      .set(RULE_ID, checkpoint.ruleId().value())
+      .set(CONTEXT_DELTA, delta)
+      .set(REMOVED_KEYS, removals)
+      .set(UPDATED_AT, now)
+      .onConflict(EXECUTION_KEY, RULE_CHAIN_ID)
+      .doUpdate()
+      .set(RULE_ID, checkpoint.ruleId().value())
+      .set(CONTEXT_DELTA, delta)
+      .set(REMOVED_KEYS, removals)
+      .set(UPDATED_AT, now)
+      .execute();
+  }
+
+  @Override
+  @Transactional
+  public void delete(String executionKey, RuleChainId ruleChainId) {
+    dsl.deleteFrom(RULE_CHAIN_CHECKPOINTS)
+      .where(EXECUTION_KEY.eq(executionKey).and(RULE_CHAIN_ID.eq(ruleChainId.value())))
+      .execute();
+  }
+
+  @Override
+  @Transactional
+  public void deleteByRuleChain(RuleChainId ruleChainId) {
+    dsl.deleteFrom(RULE_CHAIN_CHECKPOINTS)
+      .where(RULE_CHAIN_ID.eq(ruleChainId.value()))
+      .execute();
+  }
+}
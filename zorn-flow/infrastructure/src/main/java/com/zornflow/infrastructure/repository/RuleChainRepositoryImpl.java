@@ -19,7 +19,9 @@ import lombok.SneakyThrows;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -34,18 +36,22 @@ public class RuleChainRepositoryImpl implements RuleChainRepository {
   private final CachingRuleChainCompositeConfigSourceDecorator configSource;
   private final RuleDomainMapper mapper;
 
+  // 配置未变化时复用映射出的不可变规则，使执行服务中缓存的执行计划能够命中；
+  // 规则链本身可变，每次返回新的实例，调用方增删规则不会影响其他调用方
+  private final Map<String, MappedRuleChain> mappedChains = new ConcurrentHashMap<>();
+
   @Override
   @SneakyThrows
   public Optional<RuleChain> findById(RuleChainId ruleChainId) {
     return configSource.load(ruleChainId.value())
-      .map(mapper::toDomain);
+      .map(this::toDomain);
   }
 
   @Override
   @SneakyThrows
   public List<RuleChain> findAll() {
     return configSource.loadAll().values().stream()
-      .map(mapper::toDomain)
+      .map(this::toDomain)
       .collect(Collectors.toList());
   }
 
@@ -72,5 +78,24 @@ public class RuleChainRepositoryImpl implements RuleChainRepository {
   @Override
   public void deleteById(RuleChainId ruleChainId) {
     configSource.delete(ruleChainId.value());
+    mappedChains.remove(ruleChainId.value());
+  }
+
+  private RuleChain toDomain(RuleChainConfig config) {
+    MappedRuleChain mapped = mappedChains.get(config.id());
+    if (mapped == null || !mapped.config().equals(config)) {
+      mapped = new MappedRuleChain(config, mapper.toDomain(config));
+      mappedChains.put(config.id(), mapped);
+    }
+    RuleChain template = mapped.ruleChain();
+    return RuleChain.builder()
+      .id(template.getId())
+      .name(template.getName())
+      .description(template.getDescription())
+      .rules(template.getRules())
+      .build();
+  }
+
+  private record MappedRuleChain(RuleChainConfig config, RuleChain ruleChain) {
   }
 }
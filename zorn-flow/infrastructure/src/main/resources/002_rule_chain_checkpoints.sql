@@ -0,0 +1,20 @@
+SET
+search_path TO engine;
+
+-- =================================================================
+--  Rule Chain Execution Checkpoints
+-- =================================================================
+-- 规则链执行检查点表：每个 "执行标识 + 规则链" 只保留最新的检查点
+CREATE TABLE engine.rule_chain_checkpoints
+(
+  execution_key VARCHAR(120) NOT NULL,
+  rule_chain_id VARCHAR(40)  NOT NULL,
+  rule_id       VARCHAR(40)  NOT NULL,
+  context_delta JSONB,
+  removed_keys  JSONB,
+  created_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+  updated_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (execution_key, rule_chain_id)
+);
+COMMENT
+ON TABLE rule_chain_checkpoints IS '规则链执行检查点，记录最后完成的检查点规则与上下文变化量，用于中断后续跑';
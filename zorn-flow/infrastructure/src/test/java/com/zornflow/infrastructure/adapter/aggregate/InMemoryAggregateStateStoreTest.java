@@ -0,0 +1,252 @@
+package com.zornflow.infrastructure.adapter.aggregate;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("InMemoryAggregateStateStore 滑动窗口聚合单元测试")
+class InMemoryAggregateStateStoreTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2025-09-13T00:30:00Z"));
+  private AggregateProperties properties;
+  private InMemoryAggregateStateStore store;
+
+  @BeforeEach
+  void setUp() {
+    properties = new AggregateProperties();
+    properties.setBucket(Duration.ofHours(1));
+    properties.setRetention(Duration.ofDays(31));
+    store = new InMemoryAggregateStateStore(properties, clock);
+  }
+
+  @Test
+  @DisplayName("count/sum: 窗口只统计覆盖到的时间桶，过期事件随时间滑出窗口")
+  void countAndSum_shouldSlideWithTime() {
+    Instant now = clock.instant();
+    store.increment("claims", "alice", 100, now.minus(Duration.ofDays(40)));
+    store.increment("claims", "alice", 200, now.minus(Duration.ofDays(20)));
+    store.increment("claims", "alice", 300, now.minus(Duration.ofHours(5)));
+    store.increment("claims", "alice", 400, now);
+    store.increment("claims", "bob", 999, now);
+
+    assertThat(store.count("claims", "alice", Duration.ofDays(30))).isEqualTo(3);
+    assertThat(store.sum("claims", "alice", Duration.ofDays(30))).isEqualTo(900);
+    assertThat(store.count("claims", "alice", Duration.ofHours(1))).isEqualTo(1);
+    assertThat(store.count("claims", "unknown", Duration.ofDays(30))).isZero();
+
+    clock.advance(Duration.ofDays(11));
+
+    assertThat(store.count("claims", "alice", Duration.ofDays(30))).isEqualTo(2);
+    assertThat(store.sum("claims", "alice", Duration.ofDays(30))).isEqualTo(700);
+  }
+
+  @Test
+  @DisplayName("distinctCount: 跨时间桶合并去重，误差应在 HyperLogLog 标准误差范围内")
+  void distinctCount_shouldEstimateAcrossBuckets() {
+    Instant now = clock.instant();
+    for (int i = 0; i < 5000; i++) {
+      // 每个成员在两个不同的桶中各出现一次
+      store.addDistinct("devices", "alice", "device-" + i, now.minus(Duration.ofHours(i % 48)));
+      store.addDistinct("devices", "alice", "device-" + i, now.minus(Duration.ofHours(48 + i % 24)));
+    }
+    store.addDistinct("devices", "bob", "device-1", now);
+    store.addDistinct("devices", "bob", "device-1", now);
+
+    assertThat(store.distinctCount("devices", "alice", Duration.ofDays(30))).isCloseTo(5000, withinPercentage(10));
+    assertThat(store.distinctCount("devices", "bob", Duration.ofDays(30))).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("distinctCount: 较短窗口只统计窗口内出现的成员，乱序写入的较早成员不影响较短窗口")
+  void distinctCount_shouldOnlyCountMembersInsideWindow() {
+    Instant now = clock.instant();
+    store.addDistinct("devices", "alice", "device-new-1", now);
+    for (int i = 0; i < 1000; i++) {
+      store.addDistinct("devices", "alice", "device-old-" + i, now.minus(Duration.ofHours(48)));
+    }
+    store.addDistinct("devices", "alice", "device-new-2", now);
+
+    assertThat(store.distinctCount("devices", "alice", Duration.ofHours(1))).isEqualTo(2);
+    assertThat(store.distinctCount("devices", "alice", Duration.ofDays(3))).isCloseTo(1002, withinPercentage(10));
+
+    clock.advance(Duration.ofDays(30));
+
+    assertThat(store.distinctCount("devices", "alice", Duration.ofDays(31))).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("count/sum: 乱序写入较早的桶后，各窗口的累计值仍然正确")
+  void countAndSum_shouldAccountOutOfOrderWrites() {
+    Instant now = clock.instant();
+    store.increment("claims", "alice", 10, now);
+    store.increment("claims", "alice", 20, now.minus(Duration.ofDays(3)));
+    store.increment("claims", "alice", 30, now.minus(Duration.ofHours(2)));
+
+    assertThat(store.count("claims", "alice", Duration.ofHours(1))).isEqualTo(1);
+    assertThat(store.sum("claims", "alice", Duration.ofHours(3))).isEqualTo(40);
+    assertThat(store.sum("claims", "alice", Duration.ofDays(30))).isEqualTo(60);
+  }
+
+  @Test
+  @DisplayName("record: 未配置检查点时，过期实体也应在进入新的时间桶后被清理")
+  void record_shouldEvictExpiredEntities_withoutCheckpoint() {
+    AggregateProperties.Feed feed = new AggregateProperties.Feed();
+    feed.setMetric("claims");
+    feed.setEntityKey("applicantName");
+    feed.setDistinct("deviceId");
+    properties.setFeeds(List.of(feed));
+    for (int i = 0; i < 100; i++) {
+      store.record("i-" + i, new BusinessContext(Map.of("applicantName", "applicant-" + i, "deviceId", "d-" + i)), clock.instant());
+    }
+    assertThat(store.windowCount()).isEqualTo(100);
+
+    clock.advance(Duration.ofDays(32));
+    store.record("i-new", new BusinessContext(Map.of("applicantName", "alice", "deviceId", "d-new")), clock.instant());
+
+    assertThat(store.windowCount()).isEqualTo(1);
+    assertThat(store.count("claims", "alice", Duration.ofDays(1))).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("record: 应按聚合订阅从业务上下文中提取实体、数值和去重字段")
+  void record_shouldApplyConfiguredFeeds() {
+    AggregateProperties.Feed feed = new AggregateProperties.Feed();
+    feed.setMetric("claims");
+    feed.setEntityKey("applicantName");
+    feed.setValue("claimAmount");
+    feed.setDistinct("policyNumber");
+    properties.setFeeds(List.of(feed));
+
+    store.record("i-1", new BusinessContext(Map.of("applicantName", "alice", "claimAmount", 1500, "policyNumber", "P-1")), clock.instant());
+    store.record("i-2", new BusinessContext(Map.of("applicantName", "alice", "claimAmount", 500, "policyNumber", "P-2")), clock.instant());
+    store.record("i-3", new BusinessContext(Map.of("claimAmount", 700)), clock.instant());
+
+    assertThat(store.count("claims", "alice", Duration.ofDays(1))).isEqualTo(2);
+    assertThat(store.sum("claims", "alice", Duration.ofDays(1))).isEqualTo(2000);
+    assertThat(store.distinctCount("claims", "alice", Duration.ofDays(1))).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("record: 同一事件标识只记录一次，重启后从检查点恢复的标识同样去重，过期后被清理")
+  void record_shouldDeduplicateByEventId(@TempDir Path dir) throws Exception {
+    AggregateProperties.Feed feed = new AggregateProperties.Feed();
+    feed.setMetric("claims");
+    feed.setEntityKey("applicantName");
+    properties.setFeeds(List.of(feed));
+    BusinessContext context = new BusinessContext(Map.of("applicantName", "alice"));
+
+    assertThat(store.record("i-1", context, clock.instant())).isTrue();
+    clock.advance(Duration.ofHours(3));
+    assertThat(store.record("i-1", context, clock.instant())).isFalse();
+    store.checkpoint(dir.resolve("aggregate.bin"));
+    var restored = new InMemoryAggregateStateStore(properties, clock);
+    restored.restore(dir.resolve("aggregate.bin"));
+    assertThat(restored.record("i-1", context, clock.instant())).isFalse();
+
+    assertThat(restored.count("claims", "alice", Duration.ofDays(1))).isEqualTo(1);
+    clock.advance(Duration.ofDays(32));
+    assertThat(restored.record("i-1", context, clock.instant())).isTrue();
+  }
+
+  @Test
+  @DisplayName("checkpoint/restore: 检查点应能完整恢复状态，分桶参数变化时放弃恢复")
+  void checkpoint_shouldRoundTrip(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("aggregate.bin");
+    store.increment("claims", "alice", 250, clock.instant().minus(Duration.ofDays(2)));
+    store.addDistinct("devices", "alice", "device-1", clock.instant());
+    store.checkpoint(file);
+
+    var restored = new InMemoryAggregateStateStore(properties, clock);
+    restored.restore(file);
+
+    assertThat(restored.count("claims", "alice", Duration.ofDays(7))).isEqualTo(1);
+    assertThat(restored.sum("claims", "alice", Duration.ofDays(7))).isEqualTo(250);
+    assertThat(restored.distinctCount("devices", "alice", Duration.ofDays(7))).isEqualTo(1);
+
+    AggregateProperties other = new AggregateProperties();
+    other.setBucket(Duration.ofMinutes(10));
+    var incompatible = new InMemoryAggregateStateStore(other, clock);
+    incompatible.restore(file);
+
+    assertThat(incompatible.count("claims", "alice", Duration.ofDays(7))).isZero();
+  }
+
+  @Test
+  @DisplayName("restore: 应能读取按桶保存计数与求和的旧版本检查点")
+  void restore_shouldReadLegacyCheckpoint(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("aggregate.bin");
+    long bucket = Math.floorDiv(clock.instant().toEpochMilli(), Duration.ofHours(1).toMillis());
+    try (var out = new DataOutputStream(Files.newOutputStream(file))) {
+      out.writeInt(0x5A464147);
+      out.writeInt(2);
+      out.writeLong(Duration.ofHours(1).toMillis());
+      out.writeInt(745);
+      out.writeInt(1);
+      out.writeUTF("claims\u0000alice");
+      out.writeLong(bucket);
+      out.writeInt(2);
+      out.writeLong(bucket - 48);
+      out.writeLong(2);
+      out.writeDouble(300);
+      out.writeBoolean(false);
+      out.writeLong(bucket);
+      out.writeLong(1);
+      out.writeDouble(50);
+      out.writeBoolean(false);
+      out.writeInt(0);
+    }
+
+    store.restore(file);
+
+    assertThat(store.count("claims", "alice", Duration.ofHours(1))).isEqualTo(1);
+    assertThat(store.count("claims", "alice", Duration.ofDays(7))).isEqualTo(3);
+    assertThat(store.sum("claims", "alice", Duration.ofDays(7))).isEqualTo(350);
+  }
+
+  @Test
+  @DisplayName("parseWindow: 应支持简写和 ISO-8601 两种窗口格式")
+  void parseWindow_shouldSupportShorthandAndIso() {
+    assertThat(AggregateFunctions.parseWindow("30d")).isEqualTo(Duration.ofDays(30));
+    assertThat(AggregateFunctions.parseWindow("12h")).isEqualTo(Duration.ofHours(12));
+    assertThat(AggregateFunctions.parseWindow("PT15M")).isEqualTo(Duration.ofMinutes(15));
+    assertThatThrownBy(() -> AggregateFunctions.parseWindow("3w")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.infrastructure.config.model.ProcessChainConfig;
+import com.zornflow.infrastructure.config.model.ProcessNodeConfig;
+import com.zornflow.infrastructure.config.model.RuleChainConfig;
+import com.zornflow.infrastructure.config.model.RuleConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ConditionAnalyzer 条件静态分析单元测试")
+class ConditionAnalyzerTest {
+
+  private final ConditionAnalyzer analyzer = new ConditionAnalyzer(new EvaluatorProperties());
+
+  @Test
+  @DisplayName("analyze: 提取读取的字段，短路右侧和安全导航之后的字段不是必需字段")
+  void analyze_shouldExtractVariables() {
+    ConditionAnalysis analysis = analyzer.analyze(
+      "#{policyInfo != null && policyInfo.status == 'ACTIVE' && #agg.count('claims', #applicantName, '30d') < claimLimit}");
+
+    assertThat(analysis.variables()).containsExactlyInAnyOrder("policyInfo", "applicantName", "claimLimit");
+    assertThat(analysis.requiredVariables()).containsExactly("policyInfo");
+  }
+
+  @Test
+  @DisplayName("analyze: 选择/投影内部的裸属性相对集合元素，不计入业务字段")
+  void analyze_shouldIgnoreSelectionScope() {
+    ConditionAnalysis analysis = analyzer.analyze("#{claims.?[amount > threshold].size() > 0}");
+
+    assertThat(analysis.variables()).containsExactly("claims");
+    assertThat(analysis.requiredVariables()).containsExactly("claims");
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+    "#{true}                                  ; true",
+    "#{1 + 1 == 2}                            ; true",
+    "#{'ACTIVE' == 'CLOSED' or 10 > 5 * 3}    ; false",
+    "#{claimAmount > 0 && !(2 > 1)}           ; false",
+    "#{1 < 2 || claimAmount > 0}              ; true",
+    "#{1 > 2 ? claimAmount > 0 : true}        ; true",
+    "#{claimAmount > 0 || true}               ; ",
+    "#{false || claimAmount > 0}              ; ",
+    "#{claimAmount > 10 * 1000}               ; "
+  })
+  @DisplayName("analyze: 常量折叠识别恒真/恒假条件，可能改变失败语义的化简不做")
+  void analyze_shouldFoldConstants(String expression, Boolean expected) {
+    assertThat(analyzer.analyze(expression).constantResult()).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "#{claimAmount >}",
+    "#{T(java.lang.Runtime).getRuntime() != null}",
+    "#{new java.lang.Object() != null}",
+    "#{@someBean.enabled}",
+    "#{(claimAmount = 1) > 0}",
+    "#{claimAmount + 1}",
+    "#{'ACTIVE'}",
+    "claimAmount > 1"
+  })
+  @DisplayName("analyze: 拒绝无法解析、使用受限语法或结果不可能是布尔值的表达式")
+  void analyze_shouldRejectInvalidConditions(String expression) {
+    assertThatThrownBy(() -> analyzer.analyze(expression))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Invalid condition");
+  }
+
+  @Test
+  @DisplayName("validate: 规则链中存在无效条件时拒绝发布，并指出规则位置")
+  void validate_shouldRejectRuleChainWithInvalidCondition() {
+    RuleChainConfig chain = RuleChainConfig.builder()
+      .id("chain-1")
+      .rules(List.of(
+        RuleConfig.builder().id("rule-ok").condition("#{claimAmount > 0}").build(),
+        RuleConfig.builder().id("rule-bad").condition("#{claimAmount >}").build()))
+      .build();
+
+    assertThatThrownBy(() -> analyzer.validate(chain))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("rule chain chain-1, rule rule-bad");
+  }
+
+  @Test
+  @DisplayName("validate: 校验流程链网关条件")
+  void validate_shouldCheckGatewayConditions() {
+    ProcessNodeConfig gateway = ProcessNodeConfig.builder()
+      .id("gateway")
+      .conditions(List.of(new ProcessNodeConfig.GatewayConditionConfig("#{claimAmount <= 10000}", "next")))
+      .build();
+    ProcessChainConfig valid = ProcessChainConfig.builder().id("process-1").nodes(List.of(gateway)).build();
+    ProcessNodeConfig badGateway = ProcessNodeConfig.builder()
+      .id("gateway")
+      .conditions(List.of(new ProcessNodeConfig.GatewayConditionConfig("#{T(java.lang.System).exit(0)}", "next")))
+      .build();
+    ProcessChainConfig invalid = ProcessChainConfig.builder().id("process-2").nodes(List.of(badGateway)).build();
+
+    assertThatCode(() -> analyzer.validate(valid)).doesNotThrowAnyException();
+    assertThatThrownBy(() -> analyzer.validate(invalid))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("process chain process-2, node gateway");
+  }
+
+  @Test
+  @DisplayName("analyze: 静态估算开销，选择/投影按集合大小放大，嵌套时相乘")
+  void analyze_shouldEstimateCost() {
+    assertThat(analyzer.analyze("#{claimAmount > 1}").cost()).isEqualTo(3);
+    assertThat(analyzer.analyze("#{#name.startsWith('a')}").cost())
+      .isEqualTo(1 + 1 + ConditionAnalyzer.METHOD_COST + 1);
+    assertThat(analyzer.analyze("#{claims.?[amount > 1].size() > 0}").cost())
+      .isGreaterThan(3 * ConditionAnalyzer.ASSUMED_COLLECTION_SIZE)
+      .isLessThan(ConditionAnalyzer.ASSUMED_COLLECTION_SIZE * ConditionAnalyzer.ASSUMED_COLLECTION_SIZE);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "#{#name.getClass().getSimpleName() == 'String'}",
+    "#{claims.?[items.?[price > 1].size() > 0].size() > 0}",
+    "#{#name matches #pattern}",
+    "#{#name matches '(a+)+$'}",
+    "#{#name matches '^(\\w*)*@'}"
+  })
+  @DisplayName("analyze: 启用沙箱时拒绝白名单以外的方法、超出开销上限和可能灾难性回溯的正则")
+  void analyze_shouldRejectExpensiveConditionsInSandbox(String expression) {
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.getSandbox().setEnabled(true);
+    ConditionAnalyzer sandboxed = new ConditionAnalyzer(properties);
+
+    assertThatCode(() -> analyzer.analyze(expression)).doesNotThrowAnyException();
+    assertThatThrownBy(() -> sandboxed.analyze(expression))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Invalid condition");
+  }
+
+  @Test
+  @DisplayName("analyze: 沙箱允许白名单方法、聚合函数和字面量正则")
+  void analyze_shouldAcceptCheapConditionsInSandbox() {
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.getSandbox().setEnabled(true);
+    ConditionAnalyzer sandboxed = new ConditionAnalyzer(properties);
+
+    assertThatCode(() -> sandboxed.analyze(
+      "#{#name matches '[a-z]+-[0-9]{2,4}' and #agg.count('claims', #name, '30d') > 3 and claims.?[amount > 1].size() > 0}"))
+      .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("analyze: 声明了事实类型时，属性导航链上不存在的属性在加载时拒绝")
+  void analyze_shouldCheckDeclaredFactProperties() {
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.setFacts(Map.of("policyInfo", PolicyInfo.class.getName()));
+    ConditionAnalyzer typed = new ConditionAnalyzer(properties);
+
+    assertThatCode(() -> typed.analyze(
+      "#{policyInfo.status == 'ACTIVE' && #policyInfo.holder?.name.length() > 0 && policyInfo.tags.?[#this == 'vip'].size() > 0}"))
+      .doesNotThrowAnyException();
+    assertThatThrownBy(() -> typed.analyze("#{policyInfo.statu == 'ACTIVE'}"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unknown property 'statu'");
+    assertThatThrownBy(() -> typed.analyze("#{claims.size() > 0 || #policyInfo.holder.nmae == 'alice'}"))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unknown property 'nmae'")
+      .hasMessageContaining(Holder.class.getName());
+  }
+
+  @Test
+  @DisplayName("构造: 声明的事实类型不存在时启动失败")
+  void constructor_shouldRejectUnknownFactType() {
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.setFacts(Map.of("policyInfo", "com.example.MissingPolicy"));
+
+    assertThatThrownBy(() -> new ConditionAnalyzer(properties))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("com.example.MissingPolicy");
+  }
+
+  record PolicyInfo(String status, Holder holder, List<String> tags) {
+  }
+
+  record Holder(String name) {
+  }
+}
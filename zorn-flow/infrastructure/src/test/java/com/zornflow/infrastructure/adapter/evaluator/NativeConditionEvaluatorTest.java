@@ -0,0 +1,357 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.AggregateStateStore;
+import com.zornflow.domain.rule.types.Condition;
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NativeConditionEvaluator 原生条件求值单元测试")
+class NativeConditionEvaluatorTest {
+
+  @Mock
+  private AggregateStateStore aggregateStateStore;
+
+  private SpelConditionEvaluator spelEvaluator;
+  private NativeConditionEvaluator evaluator;
+
+  /**
+   * 覆盖各种取值类型与缺失情况的样例数据，用于和 SpEL 做结果对照
+   */
+  private static List<BusinessContext> samples() {
+    return List.of(
+      new BusinessContext(Map.of("claimAmount", 8000, "status", "ACTIVE", "vip", true,
+        "policyInfo", Map.of("status", "ACTIVE", "level", 3L))),
+      new BusinessContext(Map.of("claimAmount", 10000L, "status", "CLOSED", "vip", false,
+        "policyInfo", Map.of("status", "EXPIRED", "level", 1))),
+      new BusinessContext(Map.of("claimAmount", 10000.5d, "status", "A", "vip", true,
+        "policyInfo", Map.of("status", "ACTIVE"))),
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("9999.99"), "status", "B", "vip", false,
+        "policyInfo", Map.of())),
+      new BusinessContext(Map.of("claimAmount", 20000, "vip", "yes")),
+      new BusinessContext(Map.of()));
+  }
+
+  @BeforeEach
+  void setUp() {
+    spelEvaluator = spy(new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), new EvaluatorProperties()));
+    evaluator = new NativeConditionEvaluator(spelEvaluator, new EvaluatorProperties());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "#{claimAmount <= 10000}",
+    "#{claimAmount > 10000 && claimAmount <= 50000}",
+    "#{10000 >= claimAmount}",
+    "#{#claimAmount == 10000}",
+    "#{#claimAmount != 10000.5}",
+    "#{claimAmount lt 9999.995}",
+    "#{#claimAmount > -1 and not (#claimAmount == null)}",
+    "#{policyInfo != null && policyInfo.status == 'ACTIVE'}",
+    "#{#policyInfo?.status == 'ACTIVE' || #vip}",
+    "#{#policyInfo['level'] >= 2}",
+    "#{{'A','B'}.contains(#status)}",
+    "#{!{'CLOSED', 'EXPIRED'}.contains(status)}",
+    "#{#status == \"ACTIVE\" or #status eq 'it''s'}",
+    "#{vip}",
+    "#{!#vip}",
+    "#{#missing == null}",
+    "#{true}",
+    "#{1 < 2 && 'a' == 'b'}"
+  })
+  @DisplayName("evaluate: 支持的子集与 SpEL 求值结果一致")
+  void evaluate_shouldMatchSpel(String expression) {
+    Condition condition = Condition.of(expression);
+
+    for (BusinessContext sample : samples()) {
+      assertThat(evaluator.evaluate(condition, sample))
+        .as("%s with %s", expression, sample.data())
+        .isEqualTo(spelEvaluator.evaluate(condition, sample));
+    }
+    assertThat(evaluator.delegatedExpressions()).isEmpty();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "#{claimAmount == 10000}",
+    "#{claimAmount > 9999.99}",
+    "#{claimAmount <= 10000.001 && claimAmount >= -1e-3}",
+    "#{claimAmount != 0.1}",
+    "#{100 < claimAmount}",
+    "#{claimAmount gt 9223372036854775807L}"
+  })
+  @DisplayName("evaluate: BigDecimal、整数、double、字符串等取值按归一化类型比较，结果与 SpEL 一致")
+  void evaluate_shouldMatchSpelForTypedNumbers(String expression) {
+    Condition condition = Condition.of(expression);
+    List<Object> values = List.of(new BigDecimal("10000.00"), new BigDecimal("1E+4"), new BigDecimal("9999.995"),
+      new BigDecimal("-0.001"), new BigDecimal("0.10"), new BigDecimal("123456789012345678901234.5"),
+      10000, 10000L, (short) 100, 9999.995d, 0.1d, Long.MAX_VALUE, 7.5f, "10000");
+
+    for (Object value : values) {
+      BusinessContext context = new BusinessContext(Map.of("claimAmount", value));
+      assertThat(evaluator.evaluate(condition, context))
+        .as("%s with %s (%s)", expression, value, value.getClass().getSimpleName())
+        .isEqualTo(spelEvaluator.evaluate(condition, context));
+    }
+  }
+
+  @Test
+  @DisplayName("evaluate: 同一条件中字段只归一化一次，取值按缩放整数比较")
+  void evaluate_shouldNormalizeFieldOncePerEvaluation() {
+    TypedContext typed = TypedContext.of(Map.of("claimAmount", new BigDecimal("12000.50")));
+    int slot = TypedContext.slotOf("claimAmount");
+
+    assertThat(typed.kind(slot, "claimAmount")).isEqualTo(TypedContext.DECIMAL);
+    assertThat(typed.longValue(slot)).isEqualTo(1200050L);
+    assertThat(typed.scale(slot)).isEqualTo(2);
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount > 10000 && claimAmount <= 12000.5}"),
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("12000.50"))))).isTrue();
+  }
+
+  @Test
+  @DisplayName("evaluate: 处理器在两个条件之间原地修改字段时，后一个条件读取修改后的取值")
+  void evaluate_shouldSeeInPlaceUpdatesBetweenConditions() {
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", new BigDecimal("12000.50")));
+
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount > 10000}"), context)).isTrue();
+    // 与 HTTP、查表等处理器一样直接写入同一个数据 Map
+    context.data().put("claimAmount", 8000);
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount <= 10000}"), context)).isTrue();
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount > 10000}"), context)).isFalse();
+    verifyNoInteractions(spelEvaluator);
+  }
+
+  @Test
+  @DisplayName("compareScaled: 缩放整数比较与 BigDecimal.compareTo 一致，对齐小数位溢出时无法比较")
+  void compareScaled_shouldMatchBigDecimal() {
+    assertThat(NativeOperations.compareScaled(1000000L, 2, 10000L, 0)).isZero();
+    assertThat(NativeOperations.compareScaled(999999L, 2, 10000L, 0)).isNegative();
+    assertThat(NativeOperations.compareScaled(5L, 0, 49999L, 4)).isPositive();
+    assertThat(NativeOperations.compareScaled(-1L, 3, 0L, 0)).isNegative();
+    assertThat(NativeOperations.compareScaled(10L, 0, Long.MAX_VALUE, 18)).isEqualTo(NativeOperations.INCOMPARABLE);
+    assertThat(NativeOperations.compareScaled(Long.MAX_VALUE, 0, 1L, 1)).isEqualTo(NativeOperations.INCOMPARABLE);
+  }
+
+  @Test
+  @DisplayName("constantResult: 原生编译时折叠布尔常量，交给 SpEL 的表达式使用 SpEL 的分析结果")
+  void constantResult_shouldFoldConstants() {
+    assertThat(evaluator.constantResult(Condition.of("#{true}"))).contains(true);
+    assertThat(evaluator.constantResult(Condition.of("#{claimAmount > 0 and 1 > 2}"))).contains(false);
+    assertThat(evaluator.constantResult(Condition.of("#{not (1 == 1) || claimAmount > 0}"))).isEmpty();
+    assertThat(evaluator.constantResult(Condition.of("#{2 * 3 == 6}"))).contains(true);
+    assertThat(evaluator.constantResult(Condition.of("#{claimAmount > 0 || true}"))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("evaluate: 快速路径不调用 SpEL")
+  void evaluate_shouldNotTouchSpelOnFastPath() {
+    Condition condition = Condition.of("#{claimAmount <= 10000 && policyInfo.status == 'ACTIVE'}");
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 8000, "policyInfo", Map.of("status", "ACTIVE")));
+
+    assertThat(evaluator.evaluate(condition, context)).isTrue();
+
+    verifyNoInteractions(spelEvaluator);
+    assertThat(evaluator.nativeExpressionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("evaluate: 不支持的语法整体交给 SpEL")
+  void evaluate_shouldDelegateUnsupportedExpressions() {
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 8000, "name", "alice"));
+
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount * 2 > 10000}"), context)).isTrue();
+    assertThat(evaluator.evaluate(Condition.of("#{#name matches '[a-z]+'}"), context)).isTrue();
+    assertThat(evaluator.evaluate(Condition.of("#{#name.length() == 5}"), context)).isTrue();
+
+    assertThat(evaluator.delegatedExpressions()).containsExactlyInAnyOrder(
+      "#{claimAmount * 2 > 10000}", "#{#name matches '[a-z]+'}", "#{#name.length() == 5}");
+    verify(spelEvaluator, times(3)).evaluate(any(), any());
+  }
+
+  @Test
+  @DisplayName("evaluate: 运行时访问 POJO 属性时回退到 SpEL")
+  void evaluate_shouldFallBackForPojoNavigation() {
+    Condition condition = Condition.of("#{policy.status == 'ACTIVE'}");
+    BusinessContext context = new BusinessContext(Map.of("policy", new Policy("ACTIVE")));
+
+    assertThat(evaluator.evaluate(condition, context)).isTrue();
+
+    assertThat(evaluator.delegatedExpressions()).isEmpty();
+    verify(spelEvaluator).evaluate(condition, context);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "#{application.amount <= 10000 && application.secured}",
+    "#{#application.applicant.age >= 18 && application?.applicant.name == 'alice'}",
+    "#{application.applicant.vip or application.amount > 50000}",
+    "#{{'alice', 'bob'}.contains(application.applicant.name)}"
+  })
+  @DisplayName("evaluate: 声明的事实类型通过生成的访问器原生求值，不回退 SpEL，结果与 SpEL 一致")
+  void evaluate_shouldReadDeclaredFactsNatively(String expression) {
+    EvaluatorProperties properties = new EvaluatorProperties();
+    properties.setFacts(Map.of("application", LoanApplication.class.getName()));
+    SpelConditionEvaluator spel = spy(new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), properties));
+    NativeConditionEvaluator typed = new NativeConditionEvaluator(spel, properties);
+    Condition condition = Condition.of(expression);
+    List<BusinessContext> contexts = List.of(
+      new BusinessContext(Map.of("application", new LoanApplication(new BigDecimal("8000"), true, new Applicant("alice", 35, false)))),
+      new BusinessContext(Map.of("application", new LoanApplication(new BigDecimal("80000"), false, new Applicant("carol", 17, true)))));
+
+    for (BusinessContext context : contexts) {
+      assertThat(typed.evaluate(condition, context))
+        .as("%s on %s", expression, context.data())
+        .isEqualTo(spelEvaluator.evaluate(condition, context));
+    }
+
+    assertThat(typed.delegatedExpressions()).isEmpty();
+    verify(spel, never()).evaluate(any(), any());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "#{claimAmount <= 10000}",
+    "#{claimAmount > 5000 && claimAmount <= 50000.5}",
+    "#{!(claimAmount == 0) or score ge 0.75}",
+    "#{0.5 < score && (claimAmount != 20000 || score == 1)}",
+    "#{claimAmount > 10000 && status == 'ACTIVE'}",
+    "#{claimAmount * 2 > 10000}",
+    "#{1 > 2 && claimAmount > 0}",
+    "#{!(claimAmount > 10000) && claimAmount != 50000.5}",
+    "#{claimAmount >= 0.1 and not (claimAmount < 9999.995)}"
+  })
+  @DisplayName("evaluateAll: 批量结果与逐条 SpEL 求值一致，覆盖缺失字段、非数值、NaN、-0.0、BigDecimal 和超大 long")
+  void evaluateAll_shouldMatchSpel(String expression) {
+    Condition condition = Condition.of(expression);
+    Random random = new Random(42);
+    Object[] amounts = {0, 5000, 10000, 10000L, 10000.0d, 20000, 50000.5d, -0.0d, 0.0d, Double.NaN,
+      (1L << 53) + 1, new BigDecimal("10000"), new BigDecimal("10000.00"), new BigDecimal("10000.000000000000001"),
+      new BigDecimal("9999.995"), new BigDecimal("9999.9950000000000001"), new BigDecimal("0.1"), new BigDecimal("0.10"),
+      new BigDecimal("50000.5"), new BigDecimal("1E+400"), 7.5f, "10000"};
+    List<BusinessContext> contexts = new ArrayList<>();
+    for (int i = 0; i < 333; i++) {
+      Map<String, Object> data = new HashMap<>();
+      if (i % 17 != 0) {
+        data.put("claimAmount", amounts[random.nextInt(amounts.length)]);
+      }
+      data.put("score", random.nextInt(5) == 0 ? 1 : random.nextDouble());
+      data.put("status", random.nextBoolean() ? "ACTIVE" : "CLOSED");
+      contexts.add(new BusinessContext(data));
+    }
+
+    BitSet matches = evaluator.evaluateAll(condition, contexts);
+
+    for (int i = 0; i < contexts.size(); i++) {
+      assertThat(matches.get(i))
+        .as("%s with %s", expression, contexts.get(i).data())
+        .isEqualTo(spelEvaluator.evaluate(condition, contexts.get(i)));
+    }
+  }
+
+  @Test
+  @DisplayName("evaluateAll: 数值字段都能按列求值时不逐行求值")
+  void evaluateAll_shouldStayColumnarForNumericData() throws UnsupportedExpressionException {
+    Condition condition = Condition.of("#{claimAmount > 10000 && score >= 0.5}");
+    List<BusinessContext> contexts = List.of(
+      new BusinessContext(Map.of("claimAmount", 20000, "score", 0.9d)),
+      new BusinessContext(Map.of("claimAmount", 20000L, "score", 0.1d)),
+      new BusinessContext(Map.of("claimAmount", 9000.5d, "score", 1)),
+      new BusinessContext(Map.of("claimAmount", 10001, "score", 0.5d)));
+    ColumnarPredicate columnar = ColumnarPredicate.of(NativeConditionCompiler.compile(condition.getPureExpression()));
+
+    assertThat(columnar).isNotNull();
+    assertThat(columnar.fields()).containsExactly("claimAmount", "score");
+    assertThat(columnar.evaluate(contexts.stream().map(BusinessContext::data).toList()).resolved()).containsExactly(0b1111L);
+    assertThat(evaluator.evaluateAll(condition, contexts).stream().toArray()).containsExactly(0, 3);
+    verifyNoInteractions(spelEvaluator);
+  }
+
+  @Test
+  @DisplayName("evaluateAll: BigDecimal 舍入后不与比较常量重合时按列求值，重合且不相等时逐行求值")
+  void evaluateAll_shouldExtractDecimalsIntoColumns() throws UnsupportedExpressionException {
+    Condition condition = Condition.of("#{claimAmount > 10000 && claimAmount <= 50000.5}");
+    List<BusinessContext> contexts = List.of(
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("12000.33"))),
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("10000.00"))),
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("50000.50"))),
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("9999.99"))),
+      new BusinessContext(Map.of("claimAmount", new BigDecimal("10000.000000000000001"))));
+    ColumnarPredicate columnar = ColumnarPredicate.of(NativeConditionCompiler.compile(condition.getPureExpression()));
+
+    ColumnarPredicate.Result result = columnar.evaluate(contexts.stream().map(BusinessContext::data).toList());
+
+    assertThat(result.resolved()).containsExactly(0b01111L);
+    assertThat(result.matches()).containsExactly(0b00101L);
+    assertThat(evaluator.evaluateAll(condition, contexts).stream().toArray()).containsExactly(0, 2, 4);
+  }
+
+  @Test
+  @DisplayName("列比较内核: 启用 Vector API 内核时与标量内核结果一致，并被选为列式求值内核")
+  void columnKernels_shouldAgree() {
+    ColumnKernels vector = ColumnarPredicate.vectorKernels();
+    assumeTrue(vector != null, "未以 -Pzornflow.vectorApi=true 构建");
+    Random random = new Random(7);
+    int rows = 1000;
+    double[] column = new double[rows];
+    for (int i = 0; i < rows; i++) {
+      column[i] = random.nextInt(4) == 0 ? 100 : random.nextInt(200);
+    }
+    ColumnKernels scalar = new ScalarColumnKernels();
+
+    for (NativeConditionCompiler.Relation relation : NativeConditionCompiler.Relation.values()) {
+      long[] expected = new long[(rows + 63) / 64];
+      long[] actual = new long[expected.length];
+      scalar.compare(column, rows, relation, 100, expected);
+      vector.compare(column, rows, relation, 100, actual);
+      assertThat(actual).as(relation.name()).containsExactly(expected);
+    }
+    assertThat(ColumnarPredicate.KERNELS).isInstanceOf(vector.getClass());
+  }
+
+  record LoanApplication(BigDecimal amount, boolean secured, Applicant applicant) {
+  }
+
+  static class Applicant {
+
+    private final String name;
+    private final int age;
+    private final boolean vip;
+
+    Applicant(String name, int age, boolean vip) {
+      this.name = name;
+      this.age = age;
+      this.vip = vip;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public boolean isVip() {
+      return vip;
+    }
+  }
+
+  public record Policy(String status) {
+  }
+}
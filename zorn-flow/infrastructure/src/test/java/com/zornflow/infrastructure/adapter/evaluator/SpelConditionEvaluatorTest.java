@@ -0,0 +1,322 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.AggregateStateStore;
+import com.zornflow.domain.rule.types.Condition;
+import com.zornflow.infrastructure.adapter.aggregate.AggregateFunctions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SpelConditionEvaluator 条件求值单元测试")
+class SpelConditionEvaluatorTest {
+
+  @Mock
+  private AggregateStateStore aggregateStateStore;
+
+  private EvaluatorProperties properties;
+  private SpelConditionEvaluator evaluator;
+
+  @BeforeEach
+  void setUp() {
+    properties = new EvaluatorProperties();
+    evaluator = new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), properties);
+  }
+
+  @Test
+  @DisplayName("evaluate: 以变量形式访问业务上下文并返回布尔结果")
+  void evaluate_shouldUseContextVariables() {
+    Condition condition = Condition.of("#{#amount > 100}");
+
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("amount", 150)))).isTrue();
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("amount", 50)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("evaluate: 业务数据作为根对象，可直接按属性名访问，嵌套 Map 同样可读")
+  void evaluate_shouldReadDataAsRootObject() {
+    BusinessContext context = new BusinessContext(Map.of(
+      "claimAmount", 8000,
+      "policyInfo", Map.of("status", "ACTIVE")));
+
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount <= 10000}"), context)).isTrue();
+    assertThat(evaluator.evaluate(Condition.of("#{policyInfo != null && policyInfo.status == 'ACTIVE'}"), context)).isTrue();
+    assertThat(evaluator.evaluate(Condition.of("#{#policyInfo['status'] == 'ACTIVE'}"), context)).isTrue();
+  }
+
+  @Test
+  @DisplayName("evaluate: 上下文只读，禁止类型引用、构造器、Bean 引用和赋值")
+  void evaluate_shouldRejectUnsafeFeatures() {
+    Map<String, Object> data = new HashMap<>(Map.of("amount", 150, "policyInfo", new HashMap<>(Map.of("status", "ACTIVE"))));
+    BusinessContext context = new BusinessContext(data);
+
+    assertThat(evaluator.evaluate(Condition.of("#{T(java.lang.Boolean).TRUE}"), context)).isFalse();
+    assertThat(evaluator.evaluate(Condition.of("#{new java.lang.Boolean(true)}"), context)).isFalse();
+    assertThat(evaluator.evaluate(Condition.of("#{@someBean != null}"), context)).isFalse();
+    assertThat(evaluator.evaluate(Condition.of("#{(#amount = 1) == 1}"), context)).isFalse();
+    assertThat(evaluator.evaluate(Condition.of("#{(amount = 1) == 1}"), context)).isFalse();
+    assertThat(evaluator.evaluate(Condition.of("#{(policyInfo['status'] = 'X') == 'X'}"), context)).isFalse();
+
+    assertThat(context.data()).containsEntry("amount", 150);
+    assertThat(context.data().get("policyInfo")).isEqualTo(Map.of("status", "ACTIVE"));
+  }
+
+  @Test
+  @DisplayName("evaluate: 必需字段缺失时不进入 SpEL，直接返回 false；短路右侧的字段缺失不影响结果")
+  void evaluate_shouldSkipWhenRequiredVariableMissing() {
+    BusinessContext context = new BusinessContext(Map.of("vip", true));
+
+    assertThat(evaluator.evaluate(Condition.of("#{claimAmount <= 10000}"), context)).isFalse();
+    assertThat(evaluator.evaluate(Condition.of("#{vip || claimAmount <= 10000}"), context)).isTrue();
+  }
+
+  @Test
+  @DisplayName("evaluate: 同一表达式只解析一次，后续求值命中缓存")
+  void evaluate_shouldParseEachExpressionOnce() {
+    Condition condition = Condition.of("#{#amount > 100}");
+    BusinessContext context = new BusinessContext(Map.of("amount", 150));
+
+    for (int i = 0; i < 5; i++) {
+      evaluator.evaluate(condition, context);
+    }
+    evaluator.evaluate(Condition.of("#{#amount < 100}"), context);
+
+    assertThat(evaluator.expressionCacheStats().missCount()).isEqualTo(2);
+    assertThat(evaluator.expressionCacheStats().hitCount()).isEqualTo(4);
+    assertThat(evaluator.expressionCacheSize()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("evaluate: 缓存条目数受配置上限约束")
+  void evaluate_shouldBoundCacheSize() {
+    properties.setExpressionCacheSize(10);
+    evaluator = new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), properties);
+    BusinessContext context = new BusinessContext(Map.of("amount", 150));
+
+    for (int i = 0; i < 200; i++) {
+      evaluator.evaluate(Condition.of("#{#amount > " + i + "}"), context);
+    }
+
+    assertThat(evaluator.expressionCacheSize()).isLessThanOrEqualTo(10);
+    assertThat(evaluator.expressionCacheStats().evictionCount()).isPositive();
+  }
+
+  @Test
+  @DisplayName("invalidateExpressionCache: 配置刷新后重新解析表达式")
+  void invalidate_shouldForceReparse() {
+    Condition condition = Condition.of("#{#amount > 100}");
+    BusinessContext context = new BusinessContext(Map.of("amount", 150));
+    evaluator.evaluate(condition, context);
+
+    evaluator.invalidateExpressionCache();
+    evaluator.evaluate(condition, context);
+
+    assertThat(evaluator.expressionCacheStats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("evaluate: 无法解析的表达式返回 false 且不进入缓存")
+  void evaluate_shouldReturnFalseOnParseError() {
+    assertThat(evaluator.evaluate(Condition.of("#{#amount >}"), new BusinessContext(Map.of()))).isFalse();
+    assertThat(evaluator.expressionCacheSize()).isZero();
+  }
+
+  @Test
+  @DisplayName("compilerMode=MIXED: 可编译的比较表达式在首次求值后编译为字节码")
+  void mixedMode_shouldCompileAfterFirstEvaluation() {
+    evaluator = compilingEvaluator(SpelCompilerMode.MIXED);
+    Condition condition = Condition.of("#{#amount > 100}");
+
+    assertThat(evaluator.compilationStats().pending()).isZero();
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("amount", 150)))).isTrue();
+
+    assertThat(evaluator.compilationStats().compiled()).isEqualTo(1);
+    // 编译后的字节码给出同样的结果
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("amount", 150)))).isTrue();
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("amount", 50)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("compilerMode=MIXED: 按属性名访问业务数据的表达式同样可以编译")
+  void mixedMode_shouldCompileRootPropertyAccess() {
+    evaluator = compilingEvaluator(SpelCompilerMode.MIXED);
+    Condition condition = Condition.of("#{claimAmount <= 10000}");
+
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("claimAmount", 8000)))).isTrue();
+
+    assertThat(evaluator.compilationStats().compiled()).isEqualTo(1);
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("claimAmount", 20000)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("compilerMode=MIXED: 不可编译的表达式回退解释执行并记录原因")
+  void mixedMode_shouldRecordFallbackReason() {
+    evaluator = compilingEvaluator(SpelCompilerMode.MIXED);
+    Condition condition = Condition.of("#{#name matches '[a-z]+'}");
+
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("name", "alice")))).isTrue();
+
+    ExpressionCompilationStats stats = evaluator.compilationStats();
+    assertThat(stats.compiled()).isZero();
+    assertThat(stats.interpreted()).isEqualTo(1);
+    assertThat(stats.fallbackReasons().get("#{#name matches '[a-z]+'}")).contains("OperatorMatches");
+  }
+
+  @Test
+  @DisplayName("compilerMode=MIXED: 编译后的字节码执行失败回退解释执行时，不再计为已编译")
+  void mixedMode_shouldResetCompiledStateAfterRuntimeFallback() {
+    properties.setFacts(Map.of("policyInfo", PolicyInfo.class.getName()));
+    evaluator = compilingEvaluator(SpelCompilerMode.MIXED);
+    Condition condition = Condition.of("#{policyInfo.status == 'ACTIVE'}");
+
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("policyInfo", new PolicyInfo("ACTIVE", new Holder(30)))))).isTrue();
+    assertThat(evaluator.compilationStats().compiled()).isEqualTo(1);
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("policyInfo", Map.of("status", "ACTIVE"))))).isTrue();
+
+    ExpressionCompilationStats stats = evaluator.compilationStats();
+    assertThat(stats.compiled()).isZero();
+    assertThat(stats.fallbackReasons()).containsEntry("#{policyInfo.status == 'ACTIVE'}", ParsedCondition.REVERTED);
+
+    // 之后的求值按新的运行时类型重新编译
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("policyInfo", Map.of("status", "ACTIVE"))))).isTrue();
+    assertThat(evaluator.compilationStats().compiled()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("compilerMode=OFF: 不尝试编译")
+  void offMode_shouldNotCompile() {
+    evaluator.evaluate(Condition.of("#{#amount > 100}"), new BusinessContext(Map.of("amount", 150)));
+
+    assertThat(evaluator.compilationStats().compiled()).isZero();
+    assertThat(evaluator.compilationStats().pending()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("warmUp: 用样例数据预先求值，流量到来前已完成编译；样例缺字段不影响预热")
+  void warmUp_shouldCompileBeforeTraffic() {
+    properties.setWarmUpSamples(List.of(Map.of("amount", 1)));
+    evaluator = compilingEvaluator(SpelCompilerMode.MIXED);
+
+    evaluator.warmUp(List.of("#{#amount > 100}", "#{#policy.status == 'ACTIVE'}", "#{#amount >}"));
+
+    ExpressionCompilationStats stats = evaluator.compilationStats();
+    assertThat(stats.compiled()).isEqualTo(1);
+    assertThat(stats.pending()).isEqualTo(1);
+    assertThat(evaluator.expressionCacheStats().hitCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("sandbox: 读到的集合按元素个数计入预算，超出预算中止求值、返回 false 并计数")
+  void sandbox_shouldAbortOverBudgetEvaluations() {
+    properties.getSandbox().setEnabled(true);
+    properties.getSandbox().setMaxSteps(1000);
+    // 只验证步数预算，放宽时间预算，避免首次冷启动求值被时间预算中止
+    properties.getSandbox().setMaxTime(Duration.ofSeconds(5));
+    evaluator = new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), properties);
+    Condition condition = Condition.of("#{items.?[#this > 5].size() > 0}");
+    List<Integer> small = List.of(1, 6);
+    List<Integer> huge = java.util.stream.IntStream.range(0, 5000).boxed().toList();
+
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("items", small)))).isTrue();
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("items", huge)))).isFalse();
+    assertThat(evaluator.evaluate(condition, new BusinessContext(Map.of("items", huge)))).isFalse();
+
+    SandboxStats stats = evaluator.sandboxStats();
+    assertThat(stats.abortedEvaluations()).isEqualTo(2);
+    assertThat(stats.abortedByExpression()).containsEntry("#{items.?[#this > 5].size() > 0}", 2L);
+  }
+
+  @Test
+  @DisplayName("sandbox: 运行时只能调用白名单中的方法，每次求值都计入预算")
+  void sandbox_shouldRestrictMethodsAtRuntime() {
+    properties.getSandbox().setEnabled(true);
+    properties.getSandbox().setMaxSteps(3);
+    evaluator = compilingEvaluator(SpelCompilerMode.MIXED);
+    BusinessContext context = new BusinessContext(Map.of("name", "alice"));
+
+    assertThat(evaluator.evaluate(Condition.of("#{#name.getClass().getSimpleName() == 'String'}"), context)).isFalse();
+    for (int i = 0; i < ParsedCondition.MAX_COMPILE_ATTEMPTS + 1; i++) {
+      assertThat(evaluator.evaluate(Condition.of("#{#name.startsWith('a') and #name.length() == 5}"), context)).isFalse();
+    }
+    assertThat(evaluator.sandboxStats().abortedEvaluations()).isEqualTo(ParsedCondition.MAX_COMPILE_ATTEMPTS + 1);
+    assertThat(evaluator.evaluate(Condition.of("#{#name.startsWith('a')}"), context)).isTrue();
+  }
+
+  @Test
+  @DisplayName("sandbox: 配置了编译模式时仍只解释执行，多次求值后超出预算的表达式照样被中止")
+  void sandbox_shouldKeepMeteringAfterRepeatedEvaluations() {
+    properties.getSandbox().setEnabled(true);
+    properties.getSandbox().setMaxSteps(12);
+    Condition condition = Condition.of("#{a.b > 0 and a.c > 0 and a.d > 0}");
+    BusinessContext cheap = new BusinessContext(Map.of("a", Map.of("b", 1, "c", 0, "d", 1)));
+    BusinessContext expensive = new BusinessContext(Map.of("a", Map.of("b", 1, "c", 1, "d", 1)));
+
+    for (SpelCompilerMode mode : List.of(SpelCompilerMode.MIXED, SpelCompilerMode.IMMEDIATE)) {
+      SpelConditionEvaluator current = compilingEvaluator(mode);
+      for (int i = 0; i < ParsedCondition.MAX_COMPILE_ATTEMPTS + 1; i++) {
+        assertThat(current.evaluate(condition, cheap)).as("%s", mode).isFalse();
+      }
+      assertThat(current.compilationStats().compiled()).as("%s", mode).isZero();
+      assertThat(current.evaluate(condition, expensive)).as("%s", mode).isFalse();
+      assertThat(current.sandboxStats().abortedEvaluations()).as("%s", mode).isEqualTo(1);
+    }
+  }
+
+  @Test
+  @DisplayName("sandbox: 中止次数由求值器保存，清空表达式缓存后仍然保留")
+  void sandbox_shouldKeepAbortCountsAcrossInvalidation() {
+    properties.getSandbox().setEnabled(true);
+    properties.getSandbox().setMaxSteps(1);
+    evaluator = new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), properties);
+    Condition condition = Condition.of("#{a > 0 and b > 0}");
+    BusinessContext context = new BusinessContext(Map.of("a", 1, "b", 1));
+
+    assertThat(evaluator.evaluate(condition, context)).isFalse();
+    evaluator.invalidateExpressionCache();
+    assertThat(evaluator.evaluate(condition, context)).isFalse();
+
+    assertThat(evaluator.sandboxStats().abortedByExpression()).containsExactly(Map.entry("#{a > 0 and b > 0}", 2L));
+  }
+
+  @Test
+  @DisplayName("facts: 声明的事实类型在解释与编译执行下都能按属性导航，同一条件可交替读取 Map 与事实对象")
+  void facts_shouldNavigateDeclaredTypes() {
+    properties.setFacts(Map.of("policyInfo", PolicyInfo.class.getName()));
+    Condition condition = Condition.of("#{policyInfo.status == 'ACTIVE' && policyInfo.holder.age >= 18}");
+    BusinessContext typed = new BusinessContext(Map.of("policyInfo", new PolicyInfo("ACTIVE", new Holder(30))));
+    BusinessContext minor = new BusinessContext(Map.of("policyInfo", new PolicyInfo("ACTIVE", new Holder(16))));
+    BusinessContext untyped = new BusinessContext(Map.of("policyInfo", Map.of("status", "ACTIVE", "holder", Map.of("age", 30))));
+
+    for (SpelCompilerMode mode : SpelCompilerMode.values()) {
+      SpelConditionEvaluator current = compilingEvaluator(mode);
+      for (int i = 0; i < ParsedCondition.MAX_COMPILE_ATTEMPTS + 1; i++) {
+        assertThat(current.evaluate(condition, typed)).as("%s", mode).isTrue();
+        assertThat(current.evaluate(condition, minor)).as("%s", mode).isFalse();
+      }
+      assertThat(current.evaluate(condition, untyped)).as("%s", mode).isEqualTo(mode != SpelCompilerMode.IMMEDIATE);
+    }
+  }
+
+  private SpelConditionEvaluator compilingEvaluator(SpelCompilerMode mode) {
+    properties.setCompilerMode(mode);
+    return new SpelConditionEvaluator(new AggregateFunctions(aggregateStateStore), properties);
+  }
+
+  public record PolicyInfo(String status, Holder holder) {
+  }
+
+  public record Holder(int age) {
+  }
+}
@@ -0,0 +1,210 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClassHandlerExecutor Bean 方法处理器单元测试")
+class ClassHandlerExecutorTest {
+
+  @Mock
+  private ApplicationContext applicationContext;
+
+  private final PolicyValidator validator = new PolicyValidator();
+  private ClassHandlerExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ClassHandlerExecutor(applicationContext);
+    when(applicationContext.containsBean("validator")).thenReturn(true);
+    when(applicationContext.getBean("validator")).thenReturn(validator);
+  }
+
+  @Test
+  @DisplayName("execute: 按 Bean#方法名 调用任意方法，参数先取处理器参数再取业务数据，返回值写入 resultKey")
+  void execute_shouldInvokeBeanMethod() {
+    Handler handler = Handler.of(HandlerType.CLASS, "validator#checkPolicy",
+      Map.of("minAmount", 500, HandlerParameters.RESULT_KEY, "policyValid"));
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 800, "status", "ACTIVE"));
+
+    executor.prepare(handler);
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("policyValid", true);
+    verify(applicationContext, times(1)).getBean("validator");
+  }
+
+  @Test
+  @DisplayName("execute: void 方法、基本类型参数和注入 Handler 的方法")
+  void execute_shouldSupportVoidAndPrimitiveMethods() {
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 800));
+
+    executor.execute(Handler.of(HandlerType.CLASS, "validator#score", Map.of("base", 10, "resultKey", "score")), context);
+    executor.execute(Handler.of(HandlerType.CLASS, "validator#audit", Map.of("resultKey", "ignored")), context);
+
+    assertThat(context.data()).containsEntry("score", 810).containsEntry("auditedBy", "validator#audit")
+      .doesNotContainKey("ignored");
+  }
+
+  @Test
+  @DisplayName("execute: 超过 3 个参数的方法通过 MethodHandle 调用")
+  void execute_shouldSupportWideMethods() {
+    BusinessContext context = new BusinessContext(Map.of("a", "x", "b", "y", "c", "z"));
+
+    executor.execute(Handler.of(HandlerType.CLASS, "validator#concat", Map.of("d", "!", "resultKey", "joined")), context);
+
+    assertThat(context.data()).containsEntry("joined", "xyz!");
+  }
+
+  @Test
+  @DisplayName("execute: 方法抛出的异常包装后抛出")
+  void execute_shouldWrapMethodFailures() {
+    Handler handler = Handler.of(HandlerType.CLASS, "validator#fail");
+
+    assertThatThrownBy(() -> executor.execute(handler, new BusinessContext(Map.of())))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Failed to execute class handler: validator#fail")
+      .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("prepare: 方法不存在、存在重载、参数无法确定取值来源时在加载时拒绝")
+  void prepare_shouldRejectUnbindableMethods() {
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#missing")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("No public method 'missing'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#overloaded")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("overloads are not supported");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#unnamed")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("annotate it with @HandlerParam");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("does not implement RuleExecutable");
+  }
+
+  @Test
+  @DisplayName("prepare: 处理器参数在加载时绑定为类型化的参数记录，字符串取值转换为组件类型，执行时使用同一个实例")
+  void prepare_shouldBindTypedParameterRecord() {
+    Handler handler = Handler.of(HandlerType.CLASS, "validator#limit", Map.of(
+      "maxAmount", "1500", "window", "PT5M", "channels", "WEB,APP", "owner", Map.of("team", "risk", "level", "2"),
+      HandlerParameters.RESULT_KEY, "limits"));
+    BusinessContext first = new BusinessContext(Map.of());
+    BusinessContext second = new BusinessContext(Map.of());
+
+    executor.prepare(handler);
+    executor.execute(handler, first);
+    executor.execute(Handler.of(handler.type(), handler.handler(), handler.parameters()), second);
+
+    LimitParameters limits = (LimitParameters) first.data().get("limits");
+    assertThat(limits).isEqualTo(new LimitParameters(1500, Duration.ofMinutes(5), List.of("WEB", "APP"), new Owner("risk", 2)));
+    assertThat(second.data().get("limits")).isSameAs(limits);
+  }
+
+  @Test
+  @DisplayName("prepare: 配置中的具名参数在加载时转换为参数类型")
+  void prepare_shouldConvertConfiguredParameters() {
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 800));
+
+    executor.execute(Handler.of(HandlerType.CLASS, "validator#score", Map.of("base", "10", "resultKey", "score")), context);
+
+    assertThat(context.data()).containsEntry("score", 810);
+  }
+
+  @Test
+  @DisplayName("prepare: 缺少必填参数、取值无法转换、记录构造器拒绝时在加载时拒绝")
+  void prepare_shouldRejectInvalidParameters() {
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#limit", Map.of("window", "PT1M"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Missing handler parameter 'maxAmount'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#limit", Map.of("maxAmount", "lots"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Handler parameter 'maxAmount' cannot be converted");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#limit", Map.of("maxAmount", -1))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("maxAmount must be positive");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.CLASS, "validator#score", Map.of("base", "ten"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Handler parameter 'base' cannot be converted");
+  }
+
+  @Test
+  @DisplayName("invalidate: 配置刷新后按新参数重新绑定，已解析的 Bean 保留")
+  void invalidate_shouldRebindParameters() {
+    Handler handler = Handler.of(HandlerType.CLASS, "validator#limit", Map.of("maxAmount", 100, "resultKey", "limits"));
+    BusinessContext before = new BusinessContext(Map.of());
+    BusinessContext after = new BusinessContext(Map.of());
+
+    executor.execute(handler, before);
+    executor.invalidate();
+    executor.execute(handler, after);
+
+    assertThat(after.data().get("limits")).isEqualTo(before.data().get("limits")).isNotSameAs(before.data().get("limits"));
+    verify(applicationContext, times(1)).getBean("validator");
+  }
+
+  public static class PolicyValidator {
+
+    public boolean checkPolicy(BusinessContext context, @HandlerParam("minAmount") Integer minAmount,
+                               @HandlerParam("status") String status) {
+      return "ACTIVE".equals(status) && (Integer) context.data().get("claimAmount") >= minAmount;
+    }
+
+    public int score(@HandlerParam("base") int base, @HandlerParam("claimAmount") int claimAmount) {
+      return base + claimAmount;
+    }
+
+    public void audit(Handler handler, BusinessContext context) {
+      context.data().put("auditedBy", handler.handler());
+    }
+
+    public String concat(@HandlerParam("a") String a, @HandlerParam("b") String b,
+                         @HandlerParam("c") String c, @HandlerParam("d") String d) {
+      return a + b + c + d;
+    }
+
+    public LimitParameters limit(LimitParameters parameters) {
+      return parameters;
+    }
+
+    public void fail() {
+      throw new IllegalStateException("boom");
+    }
+
+    public void overloaded(BusinessContext context) {
+    }
+
+    public void overloaded(Handler handler) {
+    }
+
+    public void unnamed(String value) {
+    }
+  }
+
+  public record LimitParameters(int maxAmount, Duration window, List<String> channels, Owner owner) {
+    public LimitParameters {
+      if (maxAmount <= 0) {
+        throw new IllegalArgumentException("maxAmount must be positive");
+      }
+    }
+  }
+
+  public record Owner(String team, int level) {
+  }
+}
@@ -0,0 +1,256 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HandlerMemoizer 幂等处理器结果缓存单元测试")
+class HandlerMemoizerTest {
+
+  private final AtomicInteger invocations = new AtomicInteger();
+  private volatile CountDownLatch gate = new CountDownLatch(0);
+  private HandlerMemoizer memoizer;
+  private HandlerRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    HandlerProperties properties = new HandlerProperties();
+    properties.getMemo().setMaxSize(2);
+    memoizer = new HandlerMemoizer(properties);
+    registry = new HandlerRegistry(List.of(new QuoteExecutor()), memoizer);
+  }
+
+  @Test
+  @DisplayName("getExecutor: 相同键命中时不执行处理器，直接应用缓存的新增、修改和删除")
+  void execute_shouldReplayCachedUpdates() {
+    Handler handler = quote("#{currency + ':' + amount}", "PT10M");
+    BusinessContext first = new BusinessContext(Map.of("currency", "CNY", "amount", 100, "draft", true));
+    BusinessContext second = new BusinessContext(Map.of("currency", "CNY", "amount", 100, "draft", true, "other", "x"));
+
+    execute(handler, first);
+    execute(Handler.of(handler.type(), handler.handler(), handler.parameters()), second);
+
+    assertThat(invocations).hasValue(1);
+    assertThat(second.data()).containsEntry("premium", 150).containsEntry("amount", 100).containsEntry("other", "x")
+      .doesNotContainKey("draft");
+    assertThat(second.data()).containsAllEntriesOf(first.data());
+    assertThat(memoizer.stats()).containsEntry("quote", new MemoStats(1, 1, 0));
+  }
+
+  @Test
+  @DisplayName("getExecutor: 键不同或其余参数不同时分别执行，未声明 memoize 的处理器不经过缓存")
+  void execute_shouldSeparateKeysAndParameters() {
+    Handler handler = quote("currency + ':' + amount", "PT10M");
+
+    execute(handler, new BusinessContext(Map.of("currency", "CNY", "amount", 100)));
+    execute(handler, new BusinessContext(Map.of("currency", "USD", "amount", 100)));
+    execute(handler.withParameter("rate", 2), new BusinessContext(Map.of("currency", "CNY", "amount", 100)));
+    assertThat(registry.getExecutor(Handler.of(HandlerType.CLASS, "quote"))).containsInstanceOf(QuoteExecutor.class);
+
+    assertThat(invocations).hasValue(3);
+    assertThat(memoizer.stats().get("quote").hitRatio()).isZero();
+  }
+
+  @Test
+  @DisplayName("getExecutor: 过期和超出容量的条目被淘汰并计入统计")
+  void execute_shouldExpireAndEvict() throws InterruptedException {
+    Handler shortLived = quote("amount", "PT0.05S");
+
+    execute(shortLived, new BusinessContext(Map.of("amount", 1)));
+    TimeUnit.MILLISECONDS.sleep(100);
+    execute(shortLived, new BusinessContext(Map.of("amount", 1)));
+    assertThat(invocations).hasValue(2);
+
+    Handler handler = quote("amount", "PT10M");
+    IntStream.range(0, 10).forEach(amount -> execute(handler, new BusinessContext(Map.of("amount", amount))));
+
+    assertThat(memoizer.stats().get("quote").evictions()).isGreaterThanOrEqualTo(9);
+  }
+
+  @Test
+  @DisplayName("getExecutor: 同一个键的并发请求只执行一次处理器，其余等待并复用结果")
+  void execute_shouldPreventStampede() throws Exception {
+    Handler handler = quote("amount", "PT10M");
+    gate = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<BusinessContext>> results = IntStream.range(0, 8)
+        .mapToObj(i -> pool.submit(() -> {
+          BusinessContext context = new BusinessContext(Map.of("amount", 100));
+          execute(handler, context);
+          return context;
+        }))
+        .toList();
+      TimeUnit.MILLISECONDS.sleep(100);
+      gate.countDown();
+      for (Future<BusinessContext> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).data()).containsEntry("premium", 150);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertThat(invocations).hasValue(1);
+    assertThat(memoizer.stats().get("quote")).isEqualTo(new MemoStats(7, 1, 0));
+  }
+
+  @Test
+  @DisplayName("getExecutor: 处理器就地修改嵌套的 Map 和集合时，改动被缓存并在命中时重放，缓存的值不受调用方之后修改的影响")
+  @SuppressWarnings("unchecked")
+  void execute_shouldReplayNestedMutations() {
+    Handler handler = quote("amount", "PT10M");
+    BusinessContext first = new BusinessContext(Map.of("amount", 100, "quote", new HashMap<>(Map.of("tier", "basic")),
+      "tags", new ArrayList<>(List.of("new"))));
+    BusinessContext second = new BusinessContext(Map.of("amount", 100, "quote", new HashMap<>(Map.of("tier", "basic")),
+      "tags", new ArrayList<>(List.of("new"))));
+    Map<String, Object> original = (Map<String, Object>) first.data().get("quote");
+
+    execute(handler, first);
+    ((List<Object>) first.data().get("tags")).add("changed-later");
+    execute(handler, second);
+
+    assertThat(invocations).hasValue(1);
+    assertThat(original).containsOnlyKeys("tier");
+    assertThat(second.data().get("quote")).isEqualTo(Map.of("tier", "basic", "premium", 150));
+    assertThat(second.data().get("tags")).isEqualTo(List.of("new", "quoted"));
+  }
+
+  @Test
+  @DisplayName("getExecutor: 等待中的请求在调用方取消时放弃等待，等待超时后自行执行，均不影响正在执行的请求")
+  void execute_shouldStopWaitingOnCancellationAndTimeout() throws Exception {
+    HandlerProperties properties = new HandlerProperties();
+    properties.getMemo().setWaitTimeout(Duration.ofMillis(100));
+    memoizer = new HandlerMemoizer(properties);
+    registry = new HandlerRegistry(List.of(new QuoteExecutor()), memoizer);
+    Handler handler = quote("amount", "PT10M");
+    gate = new CountDownLatch(1);
+    try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+      Future<?> owner = pool.submit(() -> execute(handler, new BusinessContext(Map.of("amount", 100))));
+      while (invocations.get() == 0) {
+        TimeUnit.MILLISECONDS.sleep(5);
+      }
+      CancellationToken token = CancellationToken.create();
+      token.cancel("client disconnected");
+      HandlerExecutor executor = registry.getExecutor(handler).orElseThrow();
+
+      assertThatThrownBy(() -> executor.execute(handler, new BusinessContext(Map.of("amount", 100)), token))
+        .isInstanceOf(CancellationException.class)
+        .hasMessageContaining("client disconnected");
+      assertThat(invocations).hasValue(1);
+      Future<BusinessContext> timedOut = pool.submit(() -> {
+        BusinessContext context = new BusinessContext(Map.of("amount", 100));
+        execute(handler, context);
+        return context;
+      });
+      TimeUnit.MILLISECONDS.sleep(300);
+      gate.countDown();
+
+      assertThat(timedOut.get(5, TimeUnit.SECONDS).data()).containsEntry("premium", 150);
+      owner.get(5, TimeUnit.SECONDS);
+    }
+    assertThat(invocations).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("getExecutor: 处理器失败时不缓存结果，下一次请求重新执行")
+  void execute_shouldNotCacheFailures() {
+    Handler handler = quote("amount", "PT10M");
+
+    assertThatThrownBy(() -> execute(handler, new BusinessContext(Map.of("amount", -1))))
+      .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> execute(handler, new BusinessContext(Map.of("amount", -1))))
+      .isInstanceOf(IllegalStateException.class);
+
+    assertThat(invocations).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("validate: 缺少键、有效期无效或键表达式无法解析时在加载时拒绝")
+  void validate_shouldRejectInvalidDeclarations() {
+    assertThatThrownBy(() -> memoizer.validate(quote(" ", "PT1M")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("memoize.key is required");
+    assertThatThrownBy(() -> memoizer.validate(quote("amount", "PT0S")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("memoize.ttl must be a positive duration");
+    assertThatThrownBy(() -> memoizer.validate(quote("amount +", "PT1M")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Invalid memoize key");
+    assertThatThrownBy(() -> memoizer.validate(Handler.of(HandlerType.CLASS, "quote", Map.of(HandlerMemoizer.MEMOIZE, "amount"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("must be a map");
+  }
+
+  @Test
+  @DisplayName("invalidate: 配置刷新后丢弃缓存的结果，统计保留")
+  void invalidate_shouldDropCachedResults() {
+    Handler handler = quote("amount", "PT10M");
+
+    execute(handler, new BusinessContext(Map.of("amount", 100)));
+    memoizer.invalidate();
+    execute(handler, new BusinessContext(Map.of("amount", 100)));
+
+    assertThat(invocations).hasValue(2);
+    assertThat(memoizer.stats().get("quote").misses()).isEqualTo(2);
+  }
+
+  private Handler quote(String key, String ttl) {
+    return Handler.of(HandlerType.CLASS, "quote", Map.of(HandlerMemoizer.MEMOIZE, Map.of("key", key, "ttl", ttl)));
+  }
+
+  private void execute(Handler handler, BusinessContext context) {
+    registry.getExecutor(handler).orElseThrow().execute(handler, context);
+  }
+
+  private class QuoteExecutor implements HandlerExecutor {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void execute(Handler handler, BusinessContext context) {
+      invocations.incrementAndGet();
+      try {
+        gate.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      int amount = (Integer) context.data().get("amount");
+      if (amount < 0) {
+        throw new IllegalStateException("negative amount");
+      }
+      context.data().put("premium", amount * 3 / 2);
+      context.data().remove("draft");
+      if (context.data().get("quote") instanceof Map<?, ?> quote) {
+        ((Map<String, Object>) quote).put("premium", amount * 3 / 2);
+      }
+      if (context.data().get("tags") instanceof List<?> tags) {
+        ((List<Object>) tags).add("quoted");
+      }
+    }
+
+    @Override
+    public HandlerType type() {
+      return HandlerType.CLASS;
+    }
+  }
+}
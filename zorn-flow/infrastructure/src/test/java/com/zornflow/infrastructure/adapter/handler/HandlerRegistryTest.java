@@ -0,0 +1,159 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import com.zornflow.infrastructure.adapter.handler.ClassHandlerExecutor.RuleExecutable;
+import com.zornflow.infrastructure.config.model.RuleChainConfig;
+import com.zornflow.infrastructure.config.model.RuleConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HandlerRegistry 处理器注册表单元测试")
+class HandlerRegistryTest {
+
+  @Mock
+  private ApplicationContext applicationContext;
+  @Mock
+  private RuleExecutable auditHandler;
+
+  private ClassHandlerExecutor classHandlerExecutor;
+  private HandlerRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    classHandlerExecutor = new ClassHandlerExecutor(applicationContext);
+    registry = new HandlerRegistry(List.of(classHandlerExecutor));
+  }
+
+  @Test
+  @DisplayName("getExecutor: 按处理器类型分派，没有执行器的类型返回空")
+  void getExecutor_shouldDispatchByType() {
+    assertThat(registry.getExecutor(Handler.of(HandlerType.CLASS, "auditHandler"))).containsSame(classHandlerExecutor);
+    assertThat(registry.getExecutor(Handler.of(HandlerType.SCRIPT, "time-validator"))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("构造: 同一类型注册了多个执行器时启动失败")
+  void constructor_shouldRejectDuplicateExecutors() {
+    HandlerExecutor another = mock(HandlerExecutor.class);
+    when(another.type()).thenReturn(HandlerType.CLASS);
+
+    assertThatThrownBy(() -> new HandlerRegistry(List.of(classHandlerExecutor, another)))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("Duplicate handler executors for type CLASS");
+  }
+
+  @Test
+  @DisplayName("invalidate: 配置刷新时通知每个执行器丢弃解析结果，并清空幂等处理器的结果缓存")
+  void invalidate_shouldFanOutToExecutors() {
+    HandlerExecutor script = mock(HandlerExecutor.class);
+    when(script.type()).thenReturn(HandlerType.SCRIPT);
+    HandlerMemoizer memoizer = mock(HandlerMemoizer.class);
+
+    new HandlerRegistry(List.of(script), memoizer).invalidate();
+
+    verify(script).invalidate();
+    verify(memoizer).invalidate();
+  }
+
+  @Test
+  @DisplayName("validate: 加载时按 Bean 名称解析类处理器，执行时直接使用解析结果，不再查找 Bean")
+  void validate_shouldResolveClassHandlersOnce() {
+    when(applicationContext.containsBean("auditHandler")).thenReturn(true);
+    when(applicationContext.getBean("auditHandler")).thenReturn(auditHandler);
+    Handler handler = Handler.of(HandlerType.CLASS, "auditHandler");
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 100));
+
+    registry.validate(chain(RuleConfig.HandlerConfig.Type.CLASS, "auditHandler"));
+    classHandlerExecutor.execute(handler, context);
+    classHandlerExecutor.execute(handler, context);
+
+    verify(auditHandler, times(2)).execute(context);
+    verify(applicationContext, times(1)).getBean("auditHandler");
+  }
+
+  @Test
+  @DisplayName("validate: 标识不是 Bean 名称时按类全名查找唯一的 Bean")
+  void validate_shouldResolveClassHandlersByType() {
+    AuditHandler bean = new AuditHandler();
+    when(applicationContext.containsBean(AuditHandler.class.getName())).thenReturn(false);
+    when(applicationContext.getClassLoader()).thenReturn(getClass().getClassLoader());
+    when(applicationContext.getBean(AuditHandler.class)).thenReturn(bean);
+
+    registry.validate(chain(RuleConfig.HandlerConfig.Type.CLASS, AuditHandler.class.getName()));
+    classHandlerExecutor.execute(Handler.of(HandlerType.CLASS, AuditHandler.class.getName()), new BusinessContext(Map.of()));
+
+    assertThat(bean.invocations).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("validate: 未知的类处理器、不实现 RuleExecutable 的 Bean 和没有执行器的类型在加载时拒绝")
+  void validate_shouldRejectUnknownHandlers() {
+    when(applicationContext.containsBean("missingHandler")).thenReturn(false);
+    when(applicationContext.containsBean("plainBean")).thenReturn(true);
+    when(applicationContext.getBean("plainBean")).thenReturn(new Object());
+    when(applicationContext.getClassLoader()).thenReturn(getClass().getClassLoader());
+
+    assertThatThrownBy(() -> registry.validate(chain(RuleConfig.HandlerConfig.Type.CLASS, "missingHandler")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("rule chain chain-1, rule rule-1")
+      .hasMessageContaining("Unknown class handler 'missingHandler'");
+    assertThatThrownBy(() -> registry.validate(chain(RuleConfig.HandlerConfig.Type.CLASS, "plainBean")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("does not implement RuleExecutable");
+    assertThatThrownBy(() -> registry.validate(chain(RuleConfig.HandlerConfig.Type.SCRIPT, "time-validator")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("No handler executor for type SCRIPT");
+    verify(applicationContext, never()).getBean(eq("missingHandler"));
+  }
+
+  @Test
+  @DisplayName("execute: 未经加载校验的处理器在首次执行时解析，找不到时报错")
+  void execute_shouldResolveLazilyForUnvalidatedHandlers() {
+    when(applicationContext.containsBean("auditHandler")).thenReturn(true);
+    when(applicationContext.getBean("auditHandler")).thenReturn(auditHandler);
+    when(applicationContext.containsBean("missingHandler")).thenReturn(false);
+    when(applicationContext.getClassLoader()).thenReturn(getClass().getClassLoader());
+    BusinessContext context = new BusinessContext(Map.of());
+
+    classHandlerExecutor.execute(Handler.of(HandlerType.CLASS, "auditHandler"), context);
+
+    verify(auditHandler).execute(context);
+    assertThatThrownBy(() -> classHandlerExecutor.execute(Handler.of(HandlerType.CLASS, "missingHandler"), context))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unknown class handler 'missingHandler'");
+  }
+
+  private static RuleChainConfig chain(RuleConfig.HandlerConfig.Type type, String handler) {
+    RuleConfig rule = RuleConfig.builder()
+      .id("rule-1")
+      .condition("#{true}")
+      .handle(new RuleConfig.HandlerConfig(type, handler, Map.of()))
+      .build();
+    return RuleChainConfig.builder().id("chain-1").rules(List.of(rule)).build();
+  }
+
+  static class AuditHandler implements RuleExecutable {
+
+    private int invocations;
+
+    @Override
+    public void execute(BusinessContext context) {
+      invocations++;
+    }
+  }
+}
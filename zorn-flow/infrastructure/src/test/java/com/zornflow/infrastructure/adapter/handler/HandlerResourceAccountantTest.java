@@ -0,0 +1,151 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.entity.Rule;
+import com.zornflow.domain.rule.entity.RuleChain;
+import com.zornflow.domain.rule.service.HandlerExecutor;
+import com.zornflow.domain.rule.service.impl.DefaultRuleChainExecutionService;
+import com.zornflow.domain.rule.types.*;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HandlerResourceAccountant 处理器资源计量单元测试")
+class HandlerResourceAccountantTest {
+
+  private static final int ALLOCATION = 4 * 1024 * 1024;
+
+  private final AllocatingExecutor executor = new AllocatingExecutor();
+
+  @Test
+  @DisplayName("onHandlerInvoked: 按处理器标识和规则链汇总处理器在执行线程上的 CPU 时间和内存分配")
+  void execute_shouldAccountPerHandlerAndChain() {
+    HandlerResourceAccountant accountant = new HandlerResourceAccountant(new HandlerProperties());
+    RuleChain chain = chain("claims", rule("r1", "allocating"), rule("r2", "idle"));
+
+    service(accountant).execute(chain, new BusinessContext(Map.of()));
+    service(accountant).execute(chain, new BusinessContext(Map.of()));
+
+    HandlerResourceStats allocating = accountant.handlerStats().get("allocating");
+    HandlerResourceStats idle = accountant.handlerStats().get("idle");
+    assertThat(allocating.invocations()).isEqualTo(2);
+    assertThat(allocating.averageAllocatedBytes()).isGreaterThanOrEqualTo(ALLOCATION);
+    assertThat(allocating.maxCpuNanos()).isPositive();
+    assertThat(idle.maxAllocatedBytes()).isLessThan(ALLOCATION);
+    assertThat(accountant.chainStats().get("claims").invocations()).isEqualTo(4);
+    assertThat(accountant.chainStats().get("claims").allocatedBytes())
+      .isGreaterThanOrEqualTo(allocating.allocatedBytes() + idle.allocatedBytes());
+    assertThat(allocating.quotaViolations()).isZero();
+  }
+
+  @Test
+  @DisplayName("onHandlerInvoked: 超出配额时默认只记录，按处理器覆盖的配额优先于默认配额")
+  void execute_shouldLogQuotaViolations() {
+    HandlerProperties properties = new HandlerProperties();
+    properties.getAccounting().getQuota().setMaxAllocated(DataSize.ofMegabytes(1));
+    HandlerProperties.Quota generous = new HandlerProperties.Quota();
+    generous.setMaxAllocated(DataSize.ofMegabytes(64));
+    properties.getAccounting().getHandlers().put("allocating", generous);
+    HandlerResourceAccountant accountant = new HandlerResourceAccountant(properties);
+
+    BusinessContext result = service(accountant).execute(
+      chain("claims", rule("r1", "allocating"), rule("r2", "greedy")), new BusinessContext(Map.of()));
+
+    assertThat(result.data()).containsKeys("allocating", "greedy");
+    assertThat(accountant.handlerStats().get("allocating").quotaViolations()).isZero();
+    assertThat(accountant.handlerStats().get("greedy").quotaViolations()).isEqualTo(1);
+    assertThat(accountant.chainStats().get("claims").quotaViolations()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("onHandlerInvoked: 配额动作为 REJECT 时中止规则链，后续规则不再执行")
+  void execute_shouldRejectQuotaViolations() {
+    HandlerProperties properties = new HandlerProperties();
+    properties.getAccounting().setAction(HandlerProperties.QuotaAction.REJECT);
+    properties.getAccounting().getQuota().setMaxAllocated(DataSize.ofMegabytes(1));
+    properties.getAccounting().getQuota().setMaxCpuTime(Duration.ofSeconds(10));
+    HandlerResourceAccountant accountant = new HandlerResourceAccountant(properties);
+    BusinessContext context = new BusinessContext(Map.of());
+
+    assertThatThrownBy(() -> service(accountant).execute(
+      chain("claims", rule("r1", "greedy"), rule("r2", "idle")), context))
+      .isInstanceOf(HandlerQuotaExceededException.class)
+      .hasMessageContaining("Handler 'greedy' of rule r1 in rule chain claims exceeded its quota");
+
+    assertThat(context.data()).doesNotContainKey("idle");
+    assertThat(accountant.handlerStats()).doesNotContainKey("idle");
+  }
+
+  @Test
+  @DisplayName("onHandlerInvoked: 处理器失败时计入统计但不检查配额")
+  void execute_shouldAccountFailedHandlers() {
+    HandlerProperties properties = new HandlerProperties();
+    properties.getAccounting().setAction(HandlerProperties.QuotaAction.REJECT);
+    properties.getAccounting().getQuota().setMaxAllocated(DataSize.ofBytes(1));
+    HandlerResourceAccountant accountant = new HandlerResourceAccountant(properties);
+
+    assertThatThrownBy(() -> service(accountant).execute(chain("claims", rule("r1", "failing")), new BusinessContext(Map.of())))
+      .isInstanceOf(IllegalStateException.class);
+
+    assertThat(accountant.handlerStats().get("failing")).extracting(HandlerResourceStats::invocations, HandlerResourceStats::quotaViolations)
+      .containsExactly(1L, 0L);
+  }
+
+  @Test
+  @DisplayName("HandlerStatsReporter: 没有统计时不输出，启用计量后输出按处理器和规则链汇总的统计")
+  void report_shouldPublishAccountedStats() {
+    HandlerProperties properties = new HandlerProperties();
+    HandlerResourceAccountant accountant = new HandlerResourceAccountant(properties);
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("accountant", accountant);
+    HandlerStatsReporter reporter = new HandlerStatsReporter(properties, new HandlerMemoizer(properties),
+      beanFactory.getBeanProvider(HandlerResourceAccountant.class));
+
+    assertThat(reporter.report()).isEmpty();
+    service(accountant).execute(chain("claims", rule("r1", "idle")), new BusinessContext(Map.of()));
+
+    assertThat(reporter.report()).hasSize(2)
+      .anySatisfy(line -> assertThat(line).contains("idle=HandlerResourceStats[invocations=1"))
+      .anySatisfy(line -> assertThat(line).contains("claims=HandlerResourceStats[invocations=1"));
+  }
+
+  private DefaultRuleChainExecutionService service(HandlerResourceAccountant accountant) {
+    return new DefaultRuleChainExecutionService((condition, context) -> true, handler -> Optional.of(executor), null, null, accountant);
+  }
+
+  private static RuleChain chain(String id, Rule... rules) {
+    return RuleChain.builder().id(RuleChainId.of(id)).rules(List.of(rules)).build();
+  }
+
+  private static Rule rule(String id, String handler) {
+    return Rule.builder().id(RuleId.of(id)).priority(Priority.of(Integer.parseInt(id.substring(1)))).condition(Condition.of("#{true}"))
+      .handler(Handler.of(HandlerType.CLASS, handler)).build();
+  }
+
+  private static class AllocatingExecutor implements HandlerExecutor {
+
+    @Override
+    public void execute(Handler handler, BusinessContext context) {
+      switch (handler.handler()) {
+        case "allocating" -> context.data().put(handler.handler(), new byte[ALLOCATION]);
+        case "greedy" -> context.data().put(handler.handler(), new byte[4 * ALLOCATION]);
+        case "failing" -> throw new IllegalStateException("boom");
+        default -> context.data().put(handler.handler(), true);
+      }
+    }
+
+    @Override
+    public HandlerType type() {
+      return HandlerType.CLASS;
+    }
+  }
+}
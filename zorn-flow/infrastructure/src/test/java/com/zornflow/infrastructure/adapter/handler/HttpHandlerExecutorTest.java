@@ -0,0 +1,213 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HttpHandlerExecutor HTTP 处理器单元测试")
+class HttpHandlerExecutorTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private HttpServer server;
+  private HttpHandlerExecutor executor;
+  private String baseUrl;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/customers", exchange -> {
+      record(exchange);
+      String customer = exchange.getRequestURI().getPath().split("/")[2];
+      JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+      int amount = body.path("amount").asInt();
+      respond(exchange, 200, "{\"customer\":\"" + customer + "\",\"risk\":{\"score\":" + amount / 10 + ",\"level\":\"LOW\"}}");
+    });
+    server.createContext("/rates", exchange -> {
+      record(exchange);
+      respond(exchange, 200, "{\"query\":\"" + exchange.getRequestURI().getRawQuery() + "\"}");
+    });
+    server.createContext("/batch", exchange -> {
+      record(exchange);
+      ArrayNode response = MAPPER.createArrayNode();
+      MAPPER.readTree(exchange.getRequestBody()).forEach(item -> response.addObject().put("score", item.path("amount").asInt() * 2));
+      respond(exchange, 200, response.toString());
+    });
+    server.createContext("/error", exchange -> {
+      record(exchange);
+      respond(exchange, 503, "{}");
+    });
+    server.createContext("/slow", exchange -> {
+      record(exchange);
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      respond(exchange, 200, "{}");
+    });
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    executor = new HttpHandlerExecutor(new HandlerProperties());
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.destroy();
+    server.stop(0);
+  }
+
+  @Test
+  @DisplayName("execute: URL 模板取业务数据，请求体按 request 映射，响应按 JSON Pointer 写回业务数据")
+  void execute_shouldMapRequestAndResponse() {
+    Handler handler = Handler.of(HandlerType.HTTP, baseUrl + "/customers/{customerId}/score", Map.of(
+      "request", Map.of("amount", "claimAmount", "missing", "notInContext"),
+      "response", Map.of("riskScore", "/risk/score", "riskLevel", "risk/level", "absent", "/nothing")));
+    BusinessContext context = new BusinessContext(Map.of("customerId", "c 1", "claimAmount", 800));
+
+    executor.prepare(handler);
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("riskScore", 80).containsEntry("riskLevel", "LOW").doesNotContainKey("absent");
+    assertThat(requests).containsExactly("POST /customers/c%201/score");
+  }
+
+  @Test
+  @DisplayName("execute: GET 请求把 request 映射的字段作为查询参数，resultKey 写入整个响应")
+  void execute_shouldSendQueryParametersForGet() {
+    Handler handler = Handler.of(HandlerType.HTTP, baseUrl + "/rates", Map.of(
+      "method", "get", "request", Map.of("currency", "currency"), HandlerParameters.RESULT_KEY, "rates"));
+    BusinessContext context = new BusinessContext(Map.of("currency", "CNY"));
+
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("rates", Map.of("query", "currency=CNY"));
+  }
+
+  @Test
+  @DisplayName("execute: 声明 batch 时同一个 URL 的并发请求合并为一次请求，各自得到对应的响应元素")
+  void execute_shouldBatchConcurrentCalls() throws Exception {
+    Handler handler = Handler.of(HandlerType.HTTP, baseUrl + "/batch", Map.of(
+      "request", Map.of("amount", "amount"),
+      "response", Map.of("score", "/score"),
+      "batch", Map.of("maxSize", 8, "maxDelay", "PT1S")));
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<BusinessContext>> results = IntStream.range(0, 8)
+        .mapToObj(amount -> pool.submit(() -> {
+          BusinessContext context = new BusinessContext(Map.of("amount", amount));
+          executor.execute(handler, context);
+          return context;
+        }))
+        .toList();
+      for (int i = 0; i < results.size(); i++) {
+        assertThat(results.get(i).get(5, TimeUnit.SECONDS).data()).containsEntry("score", i * 2);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertThat(requests).containsExactly("POST /batch");
+  }
+
+  @Test
+  @DisplayName("execute: 未攒满的批次在等待时间到后发送")
+  void execute_shouldFlushBatchAfterDelay() {
+    Handler handler = Handler.of(HandlerType.HTTP, baseUrl + "/batch", Map.of(
+      "request", Map.of("amount", "amount"), "response", Map.of("score", "/score"), "batch", Map.of("maxSize", 100)));
+    BusinessContext context = new BusinessContext(Map.of("amount", 21));
+
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("score", 42);
+  }
+
+  @Test
+  @DisplayName("execute: 错误状态码和超时时抛出异常")
+  void execute_shouldFailOnErrorStatusAndTimeout() {
+    assertThatThrownBy(() -> executor.execute(Handler.of(HandlerType.HTTP, baseUrl + "/error"), new BusinessContext(Map.of())))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("Failed to execute HTTP handler")
+      .hasRootCauseMessage("POST " + baseUrl + "/error returned status 503");
+    assertThatThrownBy(() -> executor.execute(Handler.of(HandlerType.HTTP, baseUrl + "/slow", Map.of("timeout", "PT0.2S")),
+      new BusinessContext(Map.of())))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("timed out");
+  }
+
+  @Test
+  @DisplayName("execute: 调用方取消时放弃等待并抛出 CancellationException")
+  void execute_shouldHonorCancellation() {
+    CancellationToken token = CancellationToken.create();
+    Executors.newSingleThreadScheduledExecutor().schedule(() -> token.cancel("client disconnected"), 100, TimeUnit.MILLISECONDS);
+    long start = System.nanoTime();
+
+    assertThatThrownBy(() -> executor.execute(Handler.of(HandlerType.HTTP, baseUrl + "/slow"), new BusinessContext(Map.of()), token))
+      .isInstanceOf(CancellationException.class)
+      .hasMessageContaining("client disconnected");
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(3));
+  }
+
+  @Test
+  @DisplayName("prepare: 请求方法、URL 模板、批量声明、超时无效时在加载时拒绝")
+  void prepare_shouldRejectInvalidHandlers() {
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.HTTP, baseUrl + "/x", Map.of("method", "TRACE"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unsupported HTTP method");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.HTTP, "ftp://host/{id}")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Invalid URL template");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.HTTP, baseUrl + "/x",
+      Map.of("method", "GET", "batch", Map.of("maxSize", 8)))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("only supported for POST");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.HTTP, baseUrl + "/x", Map.of("batch", Map.of("maxSize", 1)))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("batch.maxSize must be at least 2");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.HTTP, baseUrl + "/x", Map.of("timeout", "PT0S"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("timeout must be a positive duration");
+  }
+
+  private void record(HttpExchange exchange) {
+    requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath());
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
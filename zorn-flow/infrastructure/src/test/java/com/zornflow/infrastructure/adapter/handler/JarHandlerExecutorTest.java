@@ -0,0 +1,260 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JarHandlerExecutor JAR 插件处理器单元测试")
+class JarHandlerExecutorTest {
+
+  @TempDir
+  Path workDir;
+
+  private Path pluginDir;
+  private JarHandlerExecutor executor;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    pluginDir = Files.createDirectories(workDir.resolve("plugin"));
+    HandlerProperties properties = new HandlerProperties();
+    properties.getJar().setPluginDir(pluginDir.toString());
+    properties.getJar().setScanInterval(Duration.ZERO);
+    executor = new JarHandlerExecutor(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.destroy();
+  }
+
+  @Test
+  @DisplayName("execute: 从版本最高的 JAR 加载处理器，实例按版本缓存，两种标识写法等价")
+  void execute_shouldLoadLatestVersionAndCacheInstances() throws Exception {
+    plugin("biz-rule-1.9.0.jar", versionedRule("1.9"));
+    plugin("biz-rule-1.10.0.jar", versionedRule("1.10"));
+    BusinessContext first = new BusinessContext(Map.of());
+    BusinessContext second = new BusinessContext(Map.of());
+
+    executor.execute(Handler.of(HandlerType.JAR, "biz-rule/com.acme.Rule"), first);
+    executor.execute(Handler.of(HandlerType.JAR, "./plugin/biz-rule.jar/com.acme.Rule"), second);
+
+    assertThat(first.data()).containsEntry("version", "1.10");
+    assertThat(second.data().get("instance")).isEqualTo(first.data().get("instance"));
+    assertThat(executor.loadedVersion("biz-rule")).contains("1.10.0");
+    assertThat(executor.openVersionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("reload: 发现新版本时预先解析后原子切换，并关闭旧版本的类加载器")
+  void reload_shouldSwapToNewVersion() throws Exception {
+    plugin("biz-rule-1.0.0.jar", versionedRule("1"));
+    Handler handler = Handler.of(HandlerType.JAR, "biz-rule/com.acme.Rule");
+    executor.prepare(handler);
+
+    plugin("biz-rule-2.0.0.jar", versionedRule("2"));
+    executor.reload();
+
+    BusinessContext context = new BusinessContext(Map.of());
+    executor.execute(handler, context);
+    assertThat(context.data()).containsEntry("version", "2");
+    assertThat(executor.loadedVersion("biz-rule")).contains("2.0.0");
+    assertThat(executor.openVersionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("reload: 正在旧版本上执行的请求照常完成，结束后才卸载旧版本")
+  void reload_shouldDrainInFlightExecutions() throws Exception {
+    plugin("biz-rule-1.0.0.jar", Map.of(
+      "com/acme/Slow.java", """
+        package com.acme;
+        import com.zornflow.domain.common.valueobject.BusinessContext;
+        import com.zornflow.infrastructure.adapter.handler.ClassHandlerExecutor.RuleExecutable;
+        import java.util.concurrent.CountDownLatch;
+        public class Slow implements RuleExecutable {
+          public void execute(BusinessContext context) {
+            try {
+              ((CountDownLatch) context.data().get("entered")).countDown();
+              ((CountDownLatch) context.data().get("release")).await();
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            // Helper 直到这里才加载，旧类加载器必须仍然打开
+            context.data().put("helper", new Helper().value());
+          }
+        }
+        """,
+      "com/acme/Helper.java", """
+        package com.acme;
+        class Helper {
+          String value() {
+            return "v1";
+          }
+        }
+        """));
+    Handler handler = Handler.of(HandlerType.JAR, "biz-rule/com.acme.Slow");
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BusinessContext context = new BusinessContext(Map.of("entered", entered, "release", release));
+    CompletableFuture<Void> inFlight = CompletableFuture.runAsync(() -> executor.execute(handler, context));
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    plugin("biz-rule-2.0.0.jar", Map.of("com/acme/Slow.java", """
+      package com.acme;
+      import com.zornflow.domain.common.valueobject.BusinessContext;
+      import com.zornflow.infrastructure.adapter.handler.ClassHandlerExecutor.RuleExecutable;
+      public class Slow implements RuleExecutable {
+        public void execute(BusinessContext context) {
+          context.data().put("helper", "v2");
+        }
+      }
+      """));
+    executor.reload();
+    assertThat(executor.loadedVersion("biz-rule")).contains("2.0.0");
+    assertThat(executor.openVersionCount()).isEqualTo(2);
+
+    release.countDown();
+    inFlight.get(5, TimeUnit.SECONDS);
+    assertThat(context.data()).containsEntry("helper", "v1");
+    assertThat(executor.openVersionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("reload: 新版本缺少旧版本用到的类时保留旧版本")
+  void reload_shouldKeepOldVersionWhenNewVersionIsBroken() throws Exception {
+    plugin("biz-rule-1.0.0.jar", versionedRule("1"));
+    Handler handler = Handler.of(HandlerType.JAR, "biz-rule/com.acme.Rule");
+    executor.prepare(handler);
+
+    plugin("biz-rule-2.0.0.jar", Map.of("com/acme/Other.java", "package com.acme; public class Other {}"));
+    executor.reload();
+
+    BusinessContext context = new BusinessContext(Map.of());
+    executor.execute(handler, context);
+    assertThat(context.data()).containsEntry("version", "1");
+    assertThat(executor.openVersionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("prepare: 格式错误的标识、不存在的插件或类、不实现 RuleExecutable 的类在加载时拒绝")
+  void prepare_shouldRejectUnknownHandlers() throws Exception {
+    plugin("biz-rule-1.0.0.jar", Map.of("com/acme/Other.java", "package com.acme; public class Other {}"));
+
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.JAR, "com.acme.Rule")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("expected <plugin>/<class name>");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.JAR, "missing/com.acme.Rule")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unknown jar handler plugin 'missing'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.JAR, "biz-rule/com.acme.Rule")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unknown jar handler class 'com.acme.Rule'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.JAR, "biz-rule/com.acme.Other")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("does not implement RuleExecutable");
+  }
+
+  @Test
+  @DisplayName("execute: 插件可以使用 com.zornflow 下的包名，只有插件 API 所在的包由引擎加载")
+  void execute_shouldLoadPluginClassesUnderEnginePackagePrefix() throws Exception {
+    plugin("zorn-plugin-1.0.0.jar", Map.of(
+      "com/zornflow/plugins/Rule.java", """
+        package com.zornflow.plugins;
+        import com.zornflow.domain.common.valueobject.BusinessContext;
+        import com.zornflow.infrastructure.adapter.handler.ClassHandlerExecutor.RuleExecutable;
+        public class Rule implements RuleExecutable {
+          public void execute(BusinessContext context) {
+            context.data().put("label", Labels.label());
+            context.data().put("loader", getClass().getClassLoader());
+          }
+        }
+        """,
+      "com/zornflow/plugins/Labels.java", """
+        package com.zornflow.plugins;
+        public class Labels {
+          public static String label() {
+            return "from-plugin";
+          }
+        }
+        """));
+    BusinessContext context = new BusinessContext(Map.of());
+
+    executor.execute(Handler.of(HandlerType.JAR, "zorn-plugin/com.zornflow.plugins.Rule"), context);
+
+    assertThat(context.data()).containsEntry("label", "from-plugin");
+    assertThat(context.data().get("loader")).isNotSameAs(JarHandlerExecutor.class.getClassLoader());
+  }
+
+  @Test
+  @DisplayName("compareVersions: 按数字段比较版本号")
+  void compareVersions_shouldCompareNumerically() {
+    assertThat(JarHandlerExecutor.compareVersions("1.10.0", "1.9.0")).isPositive();
+    assertThat(JarHandlerExecutor.compareVersions("2.0", "2.0.0")).isZero();
+    assertThat(JarHandlerExecutor.compareVersions("1.2", "1.10")).isNegative();
+  }
+
+  private static Map<String, String> versionedRule(String version) {
+    return Map.of("com/acme/Rule.java", """
+      package com.acme;
+      import com.zornflow.domain.common.valueobject.BusinessContext;
+      import com.zornflow.infrastructure.adapter.handler.ClassHandlerExecutor.RuleExecutable;
+      public class Rule implements RuleExecutable {
+        public void execute(BusinessContext context) {
+          context.data().put("version", "%s");
+          context.data().put("instance", System.identityHashCode(this));
+        }
+      }
+      """.formatted(version));
+  }
+
+  /**
+   * 编译源码并打包为插件目录中的 JAR
+   */
+  private void plugin(String jarName, Map<String, String> sources) throws IOException {
+    String name = jarName.substring(0, jarName.length() - ".jar".length());
+    Path src = Files.createDirectories(workDir.resolve("src").resolve(name));
+    Path classes = Files.createDirectories(workDir.resolve("classes").resolve(name));
+    List<String> args = new ArrayList<>(List.of("-d", classes.toString(), "-cp", System.getProperty("java.class.path")));
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      Path file = src.resolve(source.getKey());
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, source.getValue());
+      args.add(file.toString());
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertThat(compiler.run(null, null, null, args.toArray(String[]::new))).isZero();
+
+    try (OutputStream out = Files.newOutputStream(pluginDir.resolve(jarName));
+         JarOutputStream jar = new JarOutputStream(out);
+         Stream<Path> files = Files.walk(classes)) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        jar.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+        jar.write(Files.readAllBytes(file));
+        jar.closeEntry();
+      }
+    }
+  }
+}
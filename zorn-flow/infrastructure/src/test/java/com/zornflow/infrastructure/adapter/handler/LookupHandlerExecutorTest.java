@@ -0,0 +1,225 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
+
+@DisplayName("LookupHandlerExecutor 参考数据查找处理器单元测试")
+class LookupHandlerExecutorTest {
+
+  private static final String RATES = """
+    product,rate,name,code,vip
+    100,0.035,"Term, Life",0012,true
+    200,0.042,\"Say \"\"hi\"\"\",,false
+    """;
+
+  @TempDir
+  private Path dir;
+  private final HandlerProperties properties = new HandlerProperties();
+  private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+  private LookupHandlerExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    if (executor != null) {
+      executor.destroy();
+    }
+  }
+
+  @Test
+  @DisplayName("execute: CSV 表按整数主键建立 long 索引，按映射写入列、整行和是否找到")
+  void execute_shouldLookUpCsvTable() throws IOException {
+    table("rates", csv("rates.csv", RATES), "product", false);
+    Handler handler = Handler.of(HandlerType.LOOKUP, "rates", Map.of(
+      "key", "productId", "fields", Map.of("rate", "rate", "productName", "name"), "resultKey", "product", "found", "known"));
+    BusinessContext hit = new BusinessContext(Map.of("productId", 100));
+    BusinessContext textKey = new BusinessContext(Map.of("productId", "200"));
+    BusinessContext miss = new BusinessContext(Map.of("productId", 300, "rate", "unchanged"));
+
+    executor().prepare(handler);
+    executor.execute(handler, hit);
+    executor.execute(handler, textKey);
+    executor.execute(handler, miss);
+
+    assertThat(hit.data()).containsEntry("rate", new BigDecimal("0.035")).containsEntry("productName", "Term, Life").containsEntry("known", true);
+    assertThat(hit.data().get("product")).asInstanceOf(MAP).containsEntry("code", "0012").containsEntry("vip", true).containsEntry("product", 100L);
+    assertThat(textKey.data()).containsEntry("productName", "Say \"hi\"").containsEntry("known", true);
+    assertThat(miss.data()).containsEntry("rate", "unchanged").containsEntry("known", false).doesNotContainKey("product");
+    assertThat(executor.stats().get("rates")).extracting(ReferenceTableStats::rows, ReferenceTableStats::primitiveKeys, ReferenceTableStats::mapped)
+      .containsExactly(2, true, false);
+  }
+
+  @Test
+  @DisplayName("execute: 行数据放在内存映射文件中时结果相同，映射后文件被删除")
+  void execute_shouldReadRowsFromMappedFile() throws IOException {
+    Path mappedDir = dir.resolve("mapped");
+    properties.getLookup().setMappedDir(mappedDir.toString());
+    table("rates", csv("rates.csv", RATES), "product", true);
+    Handler handler = Handler.of(HandlerType.LOOKUP, "rates", Map.of("key", "productId"));
+    BusinessContext context = new BusinessContext(Map.of("productId", 200L, "code", "stale"));
+
+    executor().execute(handler, context);
+
+    assertThat(context.data()).containsEntry("rate", new BigDecimal("0.042")).containsEntry("name", "Say \"hi\"")
+      .doesNotContainKey("code").containsEntry("vip", false).containsEntry("product", 200L);
+    assertThat(executor.stats().get("rates").mapped()).isTrue();
+    try (var files = Files.list(mappedDir)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("execute: 查询表逐行读取数据库结果，非整数主键使用字符串索引，执行时不访问数据库")
+  void execute_shouldLookUpQueryTableWithoutDatabaseAccess() {
+    AtomicInteger queries = new AtomicInteger();
+    beanFactory.registerSingleton("dsl", DSL.using(new MockConnection(context -> {
+      queries.incrementAndGet();
+      DSLContext create = DSL.using(SQLDialect.POSTGRES);
+      Field<String> code = DSL.field(DSL.name("code"), String.class);
+      Field<String> name = DSL.field(DSL.name("name"), String.class);
+      Result<Record2<String, String>> result = create.newResult(code, name);
+      result.add(create.newRecord(code, name).values("B01", "总部"));
+      result.add(create.newRecord(code, name).values("B02", "上海分行"));
+      return new MockResult[]{new MockResult(result.size(), result)};
+    }), SQLDialect.POSTGRES));
+    HandlerProperties.Table table = new HandlerProperties.Table();
+    table.setQuery("select code, name from engine.branch");
+    table.setKey("code");
+    properties.getLookup().getTables().put("branch", table);
+    Handler handler = Handler.of(HandlerType.LOOKUP, "branch", Map.of("key", "branchCode", "fields", Map.of("branchName", "name")));
+
+    for (String branch : List.of("B01", "B02", "B01")) {
+      BusinessContext context = new BusinessContext(Map.of("branchCode", branch));
+      executor().execute(handler, context);
+      assertThat(context.data().get("branchName")).isEqualTo(branch.equals("B01") ? "总部" : "上海分行");
+    }
+
+    assertThat(queries).hasValue(1);
+    assertThat(executor.stats().get("branch").primitiveKeys()).isFalse();
+  }
+
+  @Test
+  @DisplayName("refresh: 后台加载完成后切换到新版本，加载失败时继续使用当前版本")
+  void refresh_shouldSwapVersions() throws Exception {
+    Path file = csv("rates.csv", RATES);
+    table("rates", file, "product", false);
+    Handler handler = Handler.of(HandlerType.LOOKUP, "rates", Map.of("key", "productId", "fields", Map.of("rate", "rate")));
+    executor().prepare(handler);
+    long version = executor.stats().get("rates").version();
+
+    Files.writeString(file, "product,rate\n100,0.05\n");
+    ReferenceTableStats refreshed = executor.refresh("rates").get(5, TimeUnit.SECONDS);
+    Files.writeString(file, "product,rate\n100,0.06\n100,0.07\n");
+
+    assertThat(refreshed.version()).isGreaterThan(version);
+    assertThat(refreshed.rows()).isEqualTo(1);
+    assertThatThrownBy(() -> executor.refresh("rates").get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasRootCauseMessage("Duplicate key 100 in reference table 'rates'");
+    BusinessContext context = new BusinessContext(Map.of("productId", 100));
+    executor.execute(handler, context);
+    assertThat(context.data()).containsEntry("rate", new BigDecimal("0.05"));
+  }
+
+  @Test
+  @DisplayName("refresh: 按刷新间隔在后台重新加载")
+  void refresh_shouldRunInBackground() throws Exception {
+    Path file = csv("rates.csv", RATES);
+    table("rates", file, "product", false).setRefreshInterval(Duration.ofMillis(50));
+    Handler handler = Handler.of(HandlerType.LOOKUP, "rates", Map.of("key", "productId", "fields", Map.of("rate", "rate")));
+    executor().prepare(handler);
+
+    Files.writeString(file, "product,rate\n100,0.09\n");
+    BusinessContext context = new BusinessContext(Map.of("productId", 100));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    do {
+      Thread.sleep(20);
+      executor.execute(handler, context);
+    } while (!new BigDecimal("0.09").equals(context.data().get("rate")) && System.nanoTime() < deadline);
+
+    assertThat(context.data()).containsEntry("rate", new BigDecimal("0.09"));
+  }
+
+  @Test
+  @DisplayName("prepare: 表未定义、定义无效、主键重复、缺少参数或列、没有数据库时在加载时拒绝")
+  void prepare_shouldRejectInvalidHandlers() throws IOException {
+    table("rates", csv("rates.csv", RATES), "product", false);
+    table("duplicated", csv("duplicated.csv", "id\n1\n1\n"), "id", false);
+    table("noKey", csv("no-key.csv", RATES), "missing", false);
+    table("both", csv("both.csv", RATES), "product", false).setQuery("select 1");
+    HandlerProperties.Table query = new HandlerProperties.Table();
+    query.setQuery("select 1");
+    query.setKey("id");
+    properties.getLookup().getTables().put("query", query);
+    executor();
+
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "unknown", Map.of("key", "id"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unknown reference table 'unknown'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "rates")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("key must name the business data field");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "rates", Map.of("key", "id", "fields", Map.of("x", "discount")))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("has no column 'discount'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "duplicated", Map.of("key", "id"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Duplicate key 1");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "noKey", Map.of("key", "id"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("has no key column 'missing'");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "both", Map.of("key", "id"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("exactly one of query and csv");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.LOOKUP, "query", Map.of("key", "id"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("no database is configured");
+  }
+
+  private LookupHandlerExecutor executor() {
+    if (executor == null) {
+      executor = new LookupHandlerExecutor(properties, beanFactory.getBeanProvider(DSLContext.class));
+    }
+    return executor;
+  }
+
+  private HandlerProperties.Table table(String name, Path csv, String key, boolean mapped) {
+    HandlerProperties.Table table = new HandlerProperties.Table();
+    table.setCsv(csv.toString());
+    table.setKey(key);
+    table.setMapped(mapped);
+    properties.getLookup().getTables().put(name, table);
+    return table;
+  }
+
+  private Path csv(String name, String content) throws IOException {
+    return Files.writeString(dir.resolve(name), content);
+  }
+}
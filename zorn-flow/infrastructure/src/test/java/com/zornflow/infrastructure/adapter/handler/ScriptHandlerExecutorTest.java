@@ -0,0 +1,149 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ScriptHandlerExecutor 脚本处理器单元测试")
+class ScriptHandlerExecutorTest {
+
+  private ScriptHandlerExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ScriptHandlerExecutor(new HandlerProperties());
+  }
+
+  @Test
+  @DisplayName("execute: 脚本直接读写业务数据，resultKey 存在时写回返回值")
+  void execute_shouldBindContextWithoutCopying() {
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 100, "deductible", 30));
+    Handler handler = script("""
+      context.put('payable', claimAmount - deductible)
+      return claimAmount > parameters.threshold
+      """, Map.of("threshold", 50, HandlerParameters.RESULT_KEY, "overThreshold"));
+
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("payable", 70).containsEntry("overThreshold", true);
+  }
+
+  @Test
+  @DisplayName("execute: 同一脚本只编译一次，内容不同的脚本各自编译")
+  void execute_shouldCompileOncePerContent() {
+    Handler first = script("context.put('hits', (context.hits ?: 0) + 1)", Map.of());
+    Handler same = Handler.of(HandlerType.SCRIPT, "another-name", first.parameters());
+    BusinessContext context = new BusinessContext(Map.of());
+
+    executor.prepare(first);
+    executor.execute(first, context);
+    executor.execute(same, context);
+    assertThat(executor.compiledScriptCount()).isEqualTo(1);
+    assertThat(context.data()).containsEntry("hits", 2);
+
+    executor.execute(script("context.put('other', true)", Map.of()), context);
+    assertThat(executor.compiledScriptCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("execute: 静态编译的脚本按基类属性解析 context 和 parameters")
+  void execute_shouldSupportStaticCompilation() {
+    BusinessContext context = new BusinessContext(Map.of("claimAmount", 100));
+    Handler handler = script("""
+      int amount = (Integer) context.get('claimAmount')
+      int factor = (Integer) parameters.get('factor')
+      context.put('weighted', amount * factor)
+      """, Map.of(ScriptHandlerExecutor.COMPILE_STATIC, true, "factor", 3));
+
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("weighted", 300);
+  }
+
+  @Test
+  @DisplayName("prepare: 缺少脚本、不支持的语言、编译失败（包括静态类型检查失败）在加载时拒绝")
+  void prepare_shouldRejectInvalidScripts() {
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.SCRIPT, "empty")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("has no script parameter");
+    assertThatThrownBy(() -> executor.prepare(script("1 + 1", Map.of(ScriptHandlerExecutor.LANGUAGE, "javascript"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unsupported script language 'javascript'");
+    assertThatThrownBy(() -> executor.prepare(script("def x = (", Map.of())))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Failed to compile script");
+    assertThatThrownBy(() -> executor.prepare(script("context.get('policyInfo').status", Map.of(ScriptHandlerExecutor.COMPILE_STATIC, "true"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Failed to compile script");
+    assertThat(executor.compiledScriptCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("execute: 脚本抛出的异常包装后抛出，实例仍可复用")
+  void execute_shouldWrapScriptFailures() {
+    Handler handler = script("if (context.fail) throw new IllegalStateException('boom'); context.put('ok', true)", Map.of());
+
+    assertThatThrownBy(() -> executor.execute(handler, new BusinessContext(Map.of("fail", true))))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Failed to execute script handler: test-script")
+      .hasRootCauseMessage("boom");
+    BusinessContext context = new BusinessContext(Map.of("fail", false));
+    executor.execute(handler, context);
+    assertThat(context.data()).containsEntry("ok", true);
+  }
+
+  @Test
+  @DisplayName("invalidate: 配置刷新后丢弃已编译的脚本类，之后按需重新编译")
+  void invalidate_shouldDropCompiledScripts() {
+    Handler handler = script("context.put('ok', true)", Map.of());
+    executor.prepare(handler);
+
+    executor.invalidate();
+    assertThat(executor.compiledScriptCount()).isZero();
+
+    BusinessContext context = new BusinessContext(Map.of());
+    executor.execute(handler, context);
+    assertThat(context.data()).containsEntry("ok", true);
+    assertThat(executor.compiledScriptCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("execute: 并发执行时每次执行只看到自己的业务数据")
+  void execute_shouldIsolateConcurrentExecutions() throws Exception {
+    Handler handler = script("context.put('doubled', value * 2)", Map.of());
+    List<Future<?>> futures = new ArrayList<>();
+    try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+      for (int t = 0; t < 8; t++) {
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < 500; i++) {
+            BusinessContext context = new BusinessContext(Map.of("value", i));
+            executor.execute(handler, context);
+            assertThat(context.data()).containsEntry("doubled", i * 2);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+  }
+
+  private static Handler script(String source, Map<String, Object> parameters) {
+    Map<String, Object> all = new HashMap<>(parameters);
+    all.put(ScriptHandlerExecutor.SCRIPT, source);
+    return Handler.of(HandlerType.SCRIPT, "test-script", all);
+  }
+}
@@ -0,0 +1,219 @@
+package com.zornflow.infrastructure.adapter.handler;
+
+import com.zornflow.domain.common.types.CancellationToken;
+import com.zornflow.domain.common.valueobject.BusinessContext;
+import com.zornflow.domain.rule.types.HandlerType;
+import com.zornflow.domain.rule.valueobject.Handler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("WasmHandlerExecutor WebAssembly 处理器单元测试")
+class WasmHandlerExecutorTest {
+
+  @TempDir
+  private Path moduleDir;
+  private final List<WasmHandlerExecutor> executors = new ArrayList<>();
+  private WasmHandlerExecutor executor;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    try (InputStream module = getClass().getResourceAsStream("/wasm/scoring.wasm")) {
+      byte[] bytes = module.readAllBytes();
+      Files.write(moduleDir.resolve("scoring.wasm"), bytes);
+      Files.createDirectories(moduleDir.resolve("copies"));
+      Files.write(moduleDir.resolve("copies/scoring-copy.wasm"), bytes);
+    }
+    Files.write(moduleDir.resolve("broken.wasm"), new byte[]{0, 'a', 's', 'm', 9, 9});
+    executor = executor(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executors.forEach(WasmHandlerExecutor::destroy);
+  }
+
+  @Test
+  @DisplayName("execute: 业务数据经线性内存传入模块，输出写回业务数据，空值删除字段")
+  void execute_shouldExchangeContextThroughLinearMemory() {
+    Handler handler = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("inputs", List.of("amount")));
+    BusinessContext context = new BusinessContext(Map.of("amount", 21, "draft", true));
+
+    executor.prepare(handler);
+    executor.execute(handler, context);
+    context.data().put("amount", 50);
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("doubled", 100L).containsEntry("note", "ok").doesNotContainKey("draft");
+  }
+
+  @Test
+  @DisplayName("execute: 每个线程使用自己的实例，并发执行互不干扰；解释执行的结果相同")
+  void execute_shouldUseInstancePerThread() throws Exception {
+    Handler handler = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("inputs", List.of("amount")));
+    WasmHandlerExecutor interpreted = executor(false);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<BusinessContext>> results = IntStream.range(0, 200)
+        .mapToObj(amount -> pool.submit(() -> {
+          BusinessContext context = new BusinessContext(Map.of("amount", amount));
+          (amount % 2 == 0 ? executor : interpreted).execute(handler, context);
+          return context;
+        }))
+        .toList();
+      for (int i = 0; i < results.size(); i++) {
+        assertThat(results.get(i).get(5, TimeUnit.SECONDS).data()).containsEntry("doubled", 2L * i);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("prepare: 内容相同的模块只编译一次")
+  void prepare_shouldCompileOncePerContentHash() {
+    executor.prepare(Handler.of(HandlerType.WASM, "scoring.wasm"));
+    executor.prepare(Handler.of(HandlerType.WASM, "copies/scoring-copy.wasm"));
+    executor.invalidate();
+    executor.prepare(Handler.of(HandlerType.WASM, "scoring.wasm"));
+
+    assertThat(executor.compiledModuleCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("execute: 模块陷入时包装后抛出，当前线程的实例被丢弃后可以继续执行")
+  void execute_shouldRecoverFromTraps() {
+    Handler boom = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("function", "boom"));
+    Handler handler = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("inputs", List.of("amount")));
+    BusinessContext context = new BusinessContext(Map.of("amount", 4));
+
+    assertThatThrownBy(() -> executor.execute(boom, context))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Failed to execute wasm handler: scoring.wasm");
+    executor.execute(handler, context);
+
+    assertThat(context.data()).containsEntry("doubled", 8L);
+  }
+
+  @Test
+  @DisplayName("execute: 超过时间上限时中断执行，编译和解释执行都能中断，之后线程可以继续执行")
+  void execute_shouldInterruptAfterTimeout() {
+    Handler spin = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("function", "spin", "timeout", "PT0.2S"));
+    Handler handler = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("inputs", List.of("amount")));
+
+    for (WasmHandlerExecutor wasm : List.of(executor, executor(false))) {
+      BusinessContext context = new BusinessContext(Map.of("amount", 4));
+      assertThatThrownBy(() -> wasm.execute(spin, context))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("timed out after PT0.2S");
+      wasm.execute(handler, context);
+
+      assertThat(context.data()).containsEntry("doubled", 8L);
+      assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+  }
+
+  @Test
+  @DisplayName("execute: 规则链被取消时中断执行并抛出 CancellationException")
+  void execute_shouldInterruptOnCancellation() {
+    Handler spin = Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("function", "spin"));
+    CancellationToken token = CancellationToken.create();
+    Thread.ofVirtual().start(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      token.cancel("deadline");
+    });
+
+    assertThatThrownBy(() -> executor.execute(spin, new BusinessContext(Map.of()), token))
+      .isInstanceOf(CancellationException.class)
+      .hasMessageContaining("deadline");
+    assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("timeout", "PT0S"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("timeout must be a positive duration");
+  }
+
+  @Test
+  @DisplayName("prepare: 模块不存在、格式错误、越出模块目录、缺少导出函数时在加载时拒绝")
+  void prepare_shouldRejectInvalidModules() {
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.WASM, "missing.wasm")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Cannot read WASM module");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.WASM, "broken.wasm")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Invalid WASM module");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.WASM, "../scoring.wasm")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("outside of module directory");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("function", "score"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("does not export function score");
+    assertThatThrownBy(() -> executor.prepare(Handler.of(HandlerType.WASM, "scoring.wasm", Map.of("function", "alloc"))))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("must have type");
+  }
+
+  @Test
+  @DisplayName("WasmCodec: 整数、浮点、布尔、字符串、枚举和空值往返编码，未列出字段时跳过无法编码的取值")
+  void codec_shouldRoundTripSupportedValues() {
+    BusinessContext context = new BusinessContext(Map.of("count", 3, "rate", 0.25, "vip", true, "name", "张三",
+      "day", DayOfWeek.MONDAY, "tags", List.of("a")));
+
+    Map<String, Object> decoded = WasmCodec.decode(WasmCodec.encode(context.data(), null));
+    Map<String, Object> listed = WasmCodec.decode(WasmCodec.encode(context.data(), List.of("count", "absent")));
+
+    assertThat(decoded).containsOnly(entry("count", 3L), entry("rate", 0.25), entry("vip", true),
+      entry("name", "张三"), entry("day", "MONDAY"));
+    assertThat(listed).containsExactly(entry("count", 3L), entry("absent", null));
+    assertThatThrownBy(() -> WasmCodec.encode(context.data(), List.of("tags")))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("cannot be passed to a WASM handler");
+  }
+
+  @Test
+  @DisplayName("WasmCodec: 整数取值的 BigDecimal 和 BigInteger 编码为 i64，小数和超出 i64 范围的取值不能编码")
+  void codec_shouldOnlyEncodeExactBigNumbers() {
+    BusinessContext context = new BusinessContext(Map.of("amount", new BigDecimal("1200.00"), "id", BigInteger.TEN,
+      "rate", new BigDecimal("0.035"), "huge", BigInteger.TWO.pow(64)));
+
+    Map<String, Object> decoded = WasmCodec.decode(WasmCodec.encode(context.data(), null));
+
+    assertThat(decoded).containsOnly(entry("amount", 1200L), entry("id", 10L));
+    assertThatThrownBy(() -> WasmCodec.encode(context.data(), List.of("rate")))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("Field 'rate' of type java.math.BigDecimal cannot be passed to a WASM handler");
+  }
+
+  private WasmHandlerExecutor executor(boolean compile) {
+    HandlerProperties properties = new HandlerProperties();
+    properties.getWasm().setModuleDir(moduleDir.toString());
+    properties.getWasm().setCompile(compile);
+    WasmHandlerExecutor wasm = new WasmHandlerExecutor(properties);
+    executors.add(wasm);
+    return wasm;
+  }
+}
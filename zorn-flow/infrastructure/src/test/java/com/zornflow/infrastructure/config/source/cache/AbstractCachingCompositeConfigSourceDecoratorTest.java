@@ -153,4 +153,23 @@ class AbstractCachingCompositeConfigSourceDecoratorTest {
     RuleChainConfig cachedItem = (RuleChainConfig) cache.get(ITEM_KEY_PREFIX + "id-1").get();
     assertEquals("Chain 1", cachedItem.name());
   }
+
+  @Test
+  @DisplayName("refresh(): Should keep the previous configs when the delegate fails validation")
+  void refresh_shouldKeepPreviousConfigs_whenReloadFails() throws IOException {
+    // Arrange
+    when(delegate.loadAll())
+      .thenReturn(Map.of("id-1", sampleConfig1))
+      .thenThrow(new IllegalArgumentException("Unknown CLASS handler: com.example.Missing"));
+    cachingDecorator.loadAll();
+
+    // Act
+    cachingDecorator.refresh();
+
+    // Assert
+    verify(delegate, times(2)).loadAll();
+    assertEquals(Map.of("id-1", sampleConfig1), cachingDecorator.loadAll());
+    assertEquals(Optional.of(sampleConfig1), cachingDecorator.load("id-1"));
+    verify(delegate, never()).load(anyString());
+  }
 }
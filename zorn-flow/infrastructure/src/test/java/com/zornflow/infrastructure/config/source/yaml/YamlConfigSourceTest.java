@@ -0,0 +1,132 @@
+package com.zornflow.infrastructure.config.source.yaml;
+
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.zornflow.infrastructure.adapter.evaluator.ConditionAnalyzer;
+import com.zornflow.infrastructure.adapter.evaluator.EvaluatorProperties;
+import com.zornflow.infrastructure.adapter.handler.HandlerProperties;
+import com.zornflow.infrastructure.adapter.handler.HandlerRegistry;
+import com.zornflow.infrastructure.adapter.handler.ScriptHandlerExecutor;
+import com.zornflow.infrastructure.config.model.ProcessChainConfig;
+import com.zornflow.infrastructure.config.model.RuleChainConfig;
+import com.zornflow.infrastructure.config.model.RuleConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("YAML 配置源加载与校验单元测试")
+class YamlConfigSourceTest {
+
+  private final HandlerRegistry handlerRegistry =
+    new HandlerRegistry(List.of(new ScriptHandlerExecutor(new HandlerProperties())));
+  private final ConditionAnalyzer conditionAnalyzer = new ConditionAnalyzer(new EvaluatorProperties());
+
+  @Test
+  @DisplayName("loadAll: 随应用发布的示例规则链都能通过条件和处理器校验，旧版的字符串版本号和不带 #{} 的条件照常读取")
+  void loadAll_shouldAcceptBundledSamples() throws IOException {
+    YamlConfigProperties properties = new YamlConfigProperties();
+    properties.setSharedRulesPath("classpath*:zornflow/rules/*.yml");
+
+    Map<String, RuleChainConfig> chains = new YamlRuleChainConfigSource(properties, conditionAnalyzer, handlerRegistry).loadAll();
+
+    assertThat(chains).containsOnlyKeys("loan-risk-rules", "test-rule-chain");
+    RuleChainConfig chain = chains.get("test-rule-chain");
+    assertThat(chain.version()).isEqualTo(1);
+    assertThat(chain.rules()).extracting(RuleConfig::id, RuleConfig::condition).containsExactly(
+      tuple("biz-rule1", "#{true}"), tuple("biz-rule2", "#{false}"), tuple("test-rule", "#{true}"));
+  }
+
+  @Test
+  @DisplayName("绑定配置: 旧版的 global-*-path 配置键在未配置 shared-*-path 时生效")
+  void bind_shouldAcceptLegacyGlobalPathKeys() {
+    Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+      "zornflow.config.yaml.global-rules-path", "classpath*:zornflow/rules/*.yml",
+      "zornflow.config.yaml.global-nodes-path", "classpath*:zornflow/nodes/*.yml",
+      "zornflow.config.yaml.shared-nodes-path", "classpath*:zornflow/shared/*.yml")));
+
+    YamlConfigProperties properties = binder.bind("zornflow.config.yaml", YamlConfigProperties.class).get();
+
+    assertThat(properties.getSharedRulesPath()).isEqualTo("classpath*:zornflow/rules/*.yml");
+    assertThat(properties.getSharedNodesPath()).isEqualTo("classpath*:zornflow/shared/*.yml");
+    assertThat(new YamlConfigProperties().getSharedRulesPath()).isEqualTo("classpath*:zornflow/shared-rules/*.yml");
+  }
+
+  @Test
+  @DisplayName("loadAll: 版本号带非零小数部分时加载失败")
+  void loadAll_shouldRejectFractionalVersions(@TempDir Path dir) throws IOException {
+    Files.writeString(dir.resolve("chains.yml"), """
+      minor-chain:
+        id: minor-chain
+        version: "1.5"
+        rules: []
+      """);
+    YamlConfigProperties properties = new YamlConfigProperties();
+    properties.setSharedRulesPath("file:" + dir + "/none/*.yml");
+    properties.setRuleChainsPath("file:" + dir + "/*.yml");
+    YamlRuleChainConfigSource source = new YamlRuleChainConfigSource(properties, conditionAnalyzer, handlerRegistry);
+
+    assertThatThrownBy(source::loadAll)
+      .isInstanceOf(InvalidFormatException.class)
+      .hasMessageContaining("version must be an integer");
+  }
+
+  @Test
+  @DisplayName("loadAll: 随应用发布的示例流程链都能通过条件和处理器校验")
+  void loadAll_shouldAcceptBundledProcessSamples() throws IOException {
+    YamlConfigProperties properties = new YamlConfigProperties();
+    properties.setProcessChainsPath("classpath*:zornflow/flow-chains/*.yml");
+    properties.setSharedNodesPath("classpath*:zornflow/nodes/*.yml");
+
+    Map<String, ProcessChainConfig> chains = new YamlProcessChainConfigSource(properties, conditionAnalyzer, handlerRegistry).loadAll();
+
+    assertThat(chains).containsOnlyKeys("loan-process", "test-flow");
+    assertThat(chains.get("loan-process").version()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("loadAll: 任何一条链的处理器无法解析时整个加载失败，不发布其余的链")
+  void loadAll_shouldFail_whenAnyChainIsInvalid(@TempDir Path dir) throws IOException {
+    Files.writeString(dir.resolve("chains.yml"), """
+      valid-chain:
+        id: valid-chain
+        rules:
+          - id: ok
+            priority: 1
+            condition: "#{true}"
+            handle:
+              type: SCRIPT
+              handler: ok
+              parameters:
+                script: "context.put('ok', true)"
+      broken-chain:
+        id: broken-chain
+        rules:
+          - id: missing
+            priority: 1
+            condition: "#{true}"
+            handle:
+              type: CLASS
+              handler: com.example.Missing
+      """);
+    YamlConfigProperties properties = new YamlConfigProperties();
+    properties.setSharedRulesPath("file:" + dir + "/none/*.yml");
+    properties.setRuleChainsPath("file:" + dir + "/*.yml");
+
+    YamlRuleChainConfigSource source = new YamlRuleChainConfigSource(properties, conditionAnalyzer, handlerRegistry);
+
+    assertThatThrownBy(source::loadAll)
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("broken-chain");
+  }
+}
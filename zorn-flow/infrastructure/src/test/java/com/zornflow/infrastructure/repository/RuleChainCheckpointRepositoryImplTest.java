@@ -0,0 +1,83 @@
+package com.zornflow.infrastructure.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zornflow.domain.rule.types.RuleChainId;
+import com.zornflow.domain.rule.types.RuleId;
+import com.zornflow.domain.rule.valueobject.RuleChainCheckpoint;
+import com.zornflow.infrastructure.adapter.serializer.BusinessContextJacksonSerializer;
+import com.zornflow.infrastructure.persistence.mapper.JsonbMapperHelper;
+import org.jooq.JSONB;
+import org.jooq.Record3;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.zornflow.infrastructure.repository.RuleChainCheckpointRepositoryImpl.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RuleChainCheckpointRepositoryImpl 单元测试")
+class RuleChainCheckpointRepositoryImplTest {
+
+  private final List<String> executedSql = new ArrayList<>();
+  private final JsonbMapperHelper jsonbMapperHelper = new JsonbMapperHelper(new ObjectMapper());
+
+  @Test
+  @DisplayName("save: 应以执行标识和规则链ID为键执行 upsert")
+  void save_shouldUpsertByExecutionKeyAndRuleChain() {
+    var repository = repositoryReturning(new MockResult(1));
+
+    repository.save(new RuleChainCheckpoint("instance-1/node-1", RuleChainId.of("chain-1"), RuleId.of("rule-1"),
+      Map.of("score", 42), Set.of("amount")));
+
+    assertThat(executedSql).singleElement().satisfies(sql -> assertThat(sql)
+      .contains("insert into \"engine\".\"rule_chain_checkpoints\"")
+      .contains("on conflict (\"execution_key\", \"rule_chain_id\") do update"));
+  }
+
+  @Test
+  @DisplayName("find: 应将记录还原为检查点（游标、上下文变化量和删除的键）")
+  void find_shouldMapRecordToCheckpoint() {
+    Result<Record3<String, JSONB, JSONB>> result = DSL.using(SQLDialect.POSTGRES).newResult(RULE_ID, CONTEXT_DELTA, REMOVED_KEYS);
+    var record = DSL.using(SQLDialect.POSTGRES).newRecord(RULE_ID, CONTEXT_DELTA, REMOVED_KEYS);
+    record.values("rule-1", JSONB.valueOf("{\"score\":42}"), JSONB.valueOf("[\"amount\"]"));
+    result.add(record);
+    var repository = repositoryReturning(new MockResult(1, result));
+
+    var checkpoint = repository.find("instance-1/node-1", RuleChainId.of("chain-1")).orElseThrow();
+
+    assertThat(checkpoint.ruleId()).isEqualTo(RuleId.of("rule-1"));
+    assertThat(checkpoint.changes()).containsExactlyEntriesOf(Map.of("score", 42));
+    assertThat(checkpoint.removals()).containsExactly("amount");
+    assertThat(executedSql).singleElement().satisfies(sql -> assertThat(sql).contains("where (\"execution_key\" = ?"));
+  }
+
+  @Test
+  @DisplayName("deleteByRuleChain: 应删除规则链的全部检查点")
+  void deleteByRuleChain_shouldDeleteAllCheckpointsOfChain() {
+    var repository = repositoryReturning(new MockResult(3));
+
+    repository.deleteByRuleChain(RuleChainId.of("chain-1"));
+
+    assertThat(executedSql).singleElement().satisfies(sql -> assertThat(sql)
+      .contains("delete from \"engine\".\"rule_chain_checkpoints\"")
+      .contains("where \"rule_chain_id\" = ?")
+      .doesNotContain("execution_key"));
+  }
+
+  private RuleChainCheckpointRepositoryImpl repositoryReturning(MockResult mockResult) {
+    var dsl = DSL.using(new MockConnection(context -> {
+      executedSql.add(context.sql());
+      return new MockResult[]{mockResult};
+    }), SQLDialect.POSTGRES);
+    return new RuleChainCheckpointRepositoryImpl(dsl, new BusinessContextJacksonSerializer(), jsonbMapperHelper);
+  }
+}
@@ -75,6 +75,23 @@ class RuleChainRepositoryImplTest {
     assertEquals(domainEntity, result.get());
   }
 
+  @Test
+  @DisplayName("findById should hand each caller its own chain sharing the mapped rules while the config is unchanged")
+  void findById_shouldIsolateCallers_whenConfigIsUnchanged() throws IOException {
+    when(configSource.load("chain-1")).thenReturn(Optional.of(dto));
+    when(mapper.toDomain(dto)).thenReturn(domainEntity);
+
+    RuleChain first = ruleChainRepository.findById(ruleChainId).orElseThrow();
+    first.addRule(Rule.builder().id(RuleId.of("rule-2")).handler(Handler.of(HandlerType.CLASS, "OtherHandler")).build());
+    RuleChain second = ruleChainRepository.findById(ruleChainId).orElseThrow();
+
+    assertNotSame(first, second);
+    assertEquals(2, first.getRuleCount());
+    assertEquals(1, second.getRuleCount());
+    assertSame(domainEntity.getRules().getFirst(), second.getRules().getFirst());
+    verify(mapper, times(1)).toDomain(dto);
+  }
+
   @Test
   @DisplayName("findById should return empty optional when config source finds nothing")
   void findById_shouldReturnEmpty_whenDtoIsNotFound() throws IOException {
@@ -0,0 +1,34 @@
+;; 测试用的 WASM 处理器模块，scoring.wasm 由本文件编译（wat2wasm scoring.wat）
+;; 输入固定为 {amount: i64}，输出 {doubled: amount * 2, note: "ok", draft: 删除}
+(module
+  (memory (export "memory") 1)
+  (global $heap (mut i32) (i32.const 1024))
+
+  ;; 简单的递增分配器，宿主只在需要更大的输入缓冲区时调用
+  (func (export "alloc") (param $len i32) (result i32)
+    (local $ptr i32)
+    (local.set $ptr (global.get $heap))
+    (global.set $heap (i32.add (global.get $heap) (local.get $len)))
+    (local.get $ptr))
+
+  ;; amount 位于输入的第 10 个字节（2 字节字段数 + 1 字节名称长度 + "amount" + 1 字节类型）
+  (func (export "handle") (param $ptr i32) (param $len i32) (result i64)
+    (i64.store offset=27 align=1 (i32.const 0)
+      (i64.mul (i64.load offset=10 align=1 (local.get $ptr)) (i64.const 2)))
+    ;; 输出位于 16，长度 38
+    (i64.const 68719476774))
+
+  (func (export "boom") (param $ptr i32) (param $len i32) (result i64)
+    (unreachable))
+
+  ;; 死循环，用于验证超时和取消
+  (func (export "spin") (param $ptr i32) (param $len i32) (result i64)
+    (loop $forever (br $forever))
+    (i64.const 0))
+
+  ;; 输出模板：3 个字段；doubled 的取值在 handle 中写入
+  (data (i32.const 16)
+    "\03\00"
+    "\07doubled\01\00\00\00\00\00\00\00\00"
+    "\04note\04\02\00\00\00ok"
+    "\05draft\00"))
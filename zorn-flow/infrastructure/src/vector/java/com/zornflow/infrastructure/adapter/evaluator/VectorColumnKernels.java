@@ -0,0 +1,52 @@
+package com.zornflow.infrastructure.adapter.evaluator;
+
+import com.zornflow.infrastructure.adapter.evaluator.NativeConditionCompiler.Relation;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 JDK Vector API 的列比较内核，按平台首选宽度一次比较多行，比较掩码直接拼入位图字；
+ * 只在以 -Pzornflow.vectorApi=true 构建时编译，并且仅在 JVM 以 --add-modules jdk.incubator.vector 启动时由 {@link ColumnarPredicate} 加载
+ *
+ * @author <a href="mailto: me@panoshu.top">panoshu</a>
+ * @version 1.0
+ * @since 2025/9/15 10:40
+ **/
+
+final class VectorColumnKernels implements ColumnKernels {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  @Override
+  public void compare(double[] column, int rows, Relation relation, double constant, long[] out) {
+    // 比较运算必须是 JIT 可见的常量，Vector API 才会被编译为 SIMD 指令，因此按运算分别调用
+    switch (relation) {
+      case EQ -> compare(column, rows, VectorOperators.EQ, relation, constant, out);
+      case NE -> compare(column, rows, VectorOperators.NE, relation, constant, out);
+      case LT -> compare(column, rows, VectorOperators.LT, relation, constant, out);
+      case LE -> compare(column, rows, VectorOperators.LE, relation, constant, out);
+      case GT -> compare(column, rows, VectorOperators.GT, relation, constant, out);
+      case GE -> compare(column, rows, VectorOperators.GE, relation, constant, out);
+    }
+  }
+
+  private static void compare(double[] column, int rows, VectorOperators.Comparison operator, Relation relation,
+                              double constant, long[] out) {
+    int lanes = SPECIES.length();
+    for (int base = 0; base < rows; base += Long.SIZE) {
+      int end = Math.min(base + Long.SIZE, rows);
+      int bound = base + SPECIES.loopBound(end - base);
+      long bits = 0;
+      int i = base;
+      // 车道数是 2 的幂且不超过 64，掩码不会跨越位图字
+      for (; i < bound; i += lanes) {
+        bits |= DoubleVector.fromArray(SPECIES, column, i).compare(operator, constant).toLong() << (i - base);
+      }
+      if (i < end) {
+        bits |= ScalarColumnKernels.word(column, i, end, relation, constant) << (i - base);
+      }
+      out[base >>> 6] = bits;
+    }
+  }
+}
@@ -4,11 +4,17 @@ import com.zornflow.application.dto.loan.ApproveRequest;
 import com.zornflow.application.dto.loan.LoanApplicationResponse;
 import com.zornflow.application.dto.loan.SubmitLoanApplicationRequest;
 import com.zornflow.application.service.LoanApplicationService;
+import com.zornflow.domain.common.types.CancellationToken;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
 
 @RestController
 @RequestMapping("/api/applications/loan")
@@ -17,10 +23,36 @@ public class LoanApplicationController {
 
   private final LoanApplicationService loanApplicationService;
 
+  @Value("${zornflow.web.submit-timeout:30s}")
+  private Duration submitTimeout;
+
+  /**
+   * API 端点：提交贷款申请。
+   * 以异步请求处理，请求超过 {@code zornflow.web.submit-timeout} 时取消令牌，引擎在规则之间检查并停止执行。
+   * 容器只有在下一次读写连接时才会发现客户端已断开，引擎处理期间不会回调 onError，
+   * 因此客户端断开后引擎最多继续执行到超时为止；onError 只在容器报告异步处理出错时取消令牌。
+   */
   @PostMapping("submit")
-  public ResponseEntity<LoanApplicationResponse> submitApplication(@RequestBody SubmitLoanApplicationRequest request) {
-    LoanApplicationResponse response = loanApplicationService.submitNewApplication(request);
-    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+  public WebAsyncTask<ResponseEntity<LoanApplicationResponse>> submitApplication(@RequestBody SubmitLoanApplicationRequest request) {
+    CancellationToken cancellationToken = CancellationToken.create();
+    WebAsyncTask<ResponseEntity<LoanApplicationResponse>> task = new WebAsyncTask<>(submitTimeout.toMillis(), () -> {
+      try {
+        LoanApplicationResponse response = loanApplicationService.submitNewApplication(request, cancellationToken);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+      } catch (CancellationException e) {
+        // 引擎可能先于超时回调写出结果，被取消的请求统一返回 503
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+      }
+    });
+    task.onTimeout(() -> {
+      cancellationToken.cancel("request timed out");
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    });
+    task.onError(() -> {
+      cancellationToken.cancel("async request failed");
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    });
+    return task;
   }
 
   /**
@@ -13,6 +13,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * 全局异常处理器。
@@ -67,6 +68,24 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, status);
   }
 
+  /**
+   * 处理因调用方放弃请求（超时、断开连接）而被取消的执行。
+   *
+   * @param ex CancellationException 异常实例
+   * @return 503 Service Unavailable 响应
+   */
+  @ExceptionHandler(CancellationException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorResponse handleCancellationException(CancellationException ex) {
+    log.info("请求处理已被取消: {}", ex.getMessage());
+    return new ErrorResponse(
+      HttpStatus.SERVICE_UNAVAILABLE.value(),
+      "Service Unavailable",
+      "请求处理已被取消，请稍后重试。",
+      null
+    );
+  }
+
   /**
    * 处理所有其他未被捕获的服务器内部异常。
    *
@@ -0,0 +1,119 @@
+package com.zornflow.interfaces.web.controller;
+
+import com.zornflow.application.service.LoanApplicationService;
+import com.zornflow.domain.common.types.CancellationToken;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoanApplicationController 异步提交单元测试")
+class LoanApplicationControllerTest {
+
+  private static final String REQUEST_BODY = """
+    {"applicantName":"alice","claimAmount":1500,
+     "policyInfo":{"policyId":"P-1","status":"ACTIVE"},
+     "accidentInfo":{"accidentTime":"2025-09-13T00:00:00Z"}}
+    """;
+
+  @Mock
+  private LoanApplicationService loanApplicationService;
+  @InjectMocks
+  private LoanApplicationController controller;
+
+  private MockMvc mockMvc;
+  private final AtomicReference<CancellationToken> observedToken = new AtomicReference<>();
+  private final CountDownLatch started = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(controller, "submitTimeout", Duration.ofSeconds(30));
+    mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    // 模拟一直运行到令牌被取消的引擎：只在规则之间检查令牌，不响应线程中断
+    when(loanApplicationService.submitNewApplication(any(), any())).thenAnswer(invocation -> {
+      CancellationToken token = invocation.getArgument(1);
+      observedToken.set(token);
+      started.countDown();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (!token.isCancelled() && System.nanoTime() < deadline) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      }
+      token.throwIfCancelled();
+      return null;
+    });
+  }
+
+  @Test
+  @DisplayName("submit: 请求超时时应取消令牌并返回 503")
+  void submit_shouldCancelToken_whenRequestTimesOut() throws Exception {
+    MvcResult result = startSubmit();
+
+    for (AsyncListener listener : asyncContext(result).getListeners()) {
+      listener.onTimeout(new AsyncEvent(asyncContext(result)));
+    }
+
+    assertThat(observedToken.get().isCancelled()).isTrue();
+    assertThat(observedToken.get().reason()).isEqualTo("request timed out");
+    WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(result.getRequest());
+    assertThat(asyncManager.hasConcurrentResult()).isTrue();
+    assertThat(asyncManager.getConcurrentResult()).isInstanceOfSatisfying(ResponseEntity.class,
+      response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+  }
+
+  @Test
+  @DisplayName("submit: 容器报告异步处理出错时应取消令牌")
+  void submit_shouldCancelToken_whenContainerReportsError() throws Exception {
+    MvcResult result = startSubmit();
+
+    for (AsyncListener listener : asyncContext(result).getListeners()) {
+      listener.onError(new AsyncEvent(asyncContext(result), new IOException("Broken pipe")));
+    }
+
+    assertThat(observedToken.get().isCancelled()).isTrue();
+    assertThat(observedToken.get().reason()).isEqualTo("async request failed");
+  }
+
+  private MvcResult startSubmit() throws Exception {
+    MvcResult result = mockMvc.perform(post("/api/applications/loan/submit")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(REQUEST_BODY))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(observedToken.get().isCancelled()).isFalse();
+    return result;
+  }
+
+  private static MockAsyncContext asyncContext(MvcResult result) {
+    return (MockAsyncContext) result.getRequest().getAsyncContext();
+  }
+}